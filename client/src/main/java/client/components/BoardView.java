@@ -96,6 +96,16 @@ public class BoardView extends Tab implements Component<Board>{
      * @param newBoard new Board to be rendered
      */
     public void updateOverview(Board newBoard) {
+        updateOverview(newBoard, true);
+    }
+
+    /**
+     * Refreshes the board, fetching its tags again only if they may have changed
+     *
+     * @param newBoard new Board to be rendered
+     * @param tagsChanged false if the tags of the board are known to be unchanged
+     */
+    public void updateOverview(Board newBoard, boolean tagsChanged) {
         if (associatedBoard == null || super.getContent() == null) {
             createOverview(newBoard);
             return;
@@ -115,7 +125,7 @@ public class BoardView extends Tab implements Component<Board>{
             associatedBoard.getTaskLists(),
             newBoard.getTaskLists());
 
-        var allTags = mainCtrl.getAllTagsFromBoard(newBoard);
+        var allTags = tagsChanged ? mainCtrl.getAllTagsFromBoard(newBoard) : null;
         if(allTags != null) {
             VBox tagsVBox = new VBox();
             tagsVBox.setSpacing(10);
@@ -71,7 +71,7 @@ public class RecentBoard extends HBox implements Component<Board> {
             overviewController.joinBoardClicked();
         });
         removeRecent.setOnMouseClicked(event ->
-            overviewController.removeRecent(getBoardTitle(), boardId)
+            overviewController.removeRecent(boardId)
         );
     }
 
@@ -82,4 +82,12 @@ public class RecentBoard extends HBox implements Component<Board> {
     public String getBoardTitle() {
         return boardTitle.getText();
     }
+
+    /**
+     * Gets the id of the board
+     * @return id of the board
+     */
+    public Long getBoardId() {
+        return boardId;
+    }
 }
@@ -129,18 +129,20 @@ public class SelectTaskButton extends VBox implements Component<Task>{
                     Board updatedBoard = new Board(boardView.getAssociatedBoard());
                     var src = ((SelectTaskButton) event.getGestureSource()).getAssociatedTask();
                     updatedBoard.removeTask(src);
-                    updatedBoard = mainCtrl.getServerUtils().saveBoard(updatedBoard);
                     src.setTaskListID(this.getAssociatedTask().getTaskListID());
                     double y = event.getY();
                     double centerY = super.getBoundsInLocal().getMinY() + super.getHeight()/2;
+                    var target = this.getAssociatedTask();
                     if (y < centerY) {
-                        updatedBoard.insertInList(src, this.getAssociatedTask(), 0);
+                        mainCtrl.getServerUtils().moveTask(src.getId(),
+                            target.getTaskListID(), null, target.getId());
+                        updatedBoard.insertInList(src, target, 0);
                     } else {
-                        updatedBoard.insertInList(src, this.getAssociatedTask(), 1);
+                        mainCtrl.getServerUtils().moveTask(src.getId(),
+                            target.getTaskListID(), target.getId(), null);
+                        updatedBoard.insertInList(src, target, 1);
                     }
-                    updatedBoard = mainCtrl.getServerUtils().saveBoard(updatedBoard);
                     boardView.updateOverview(updatedBoard);
-                    mainCtrl.sendToOthers(updatedBoard);
                     event.setDropCompleted(true);
                 } else {
                     event.setDropCompleted(false);
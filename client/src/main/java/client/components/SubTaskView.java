@@ -172,7 +172,6 @@ public class SubTaskView extends HBox implements Component<SubTask> {
 
                     taskView.updateOverview(updatedTask);
                     taskViewController.updateOnChange();
-                    mainCtrl.sendToOthers(updatedTask);
                     event.setDropCompleted(true);
                 } else {
                     event.setDropCompleted(false);
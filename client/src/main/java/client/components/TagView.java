@@ -79,7 +79,6 @@ public class TagView extends HBox implements Component<Tag> {
                     Board newBoard = mainCtrl.getServerUtils().getBoardByID(tag.getBoardId());
                     mainCtrl.getBoardViewById(tag.getBoardId())
                         .updateOverview(newBoard);
-                    mainCtrl.sendToOthers(newBoard);
                 }
             });
         } else {
@@ -228,13 +228,12 @@ public class TaskListView extends VBox implements Component<TaskList> {
                         this.getAssociatedTaskList().getBoardId());
                     Board updatedBoard = new Board(boardView.getAssociatedBoard());
                     updatedBoard.removeTask(src);
-                    updatedBoard = mainCtrl.getServerUtils().saveBoard(updatedBoard);
+                    mainCtrl.getServerUtils().moveTask(src.getId(),
+                        this.getAssociatedTaskList().getId(), null, null);
                     src.setTaskListID(this.getAssociatedTaskList().getId());
                     updatedBoard.insertOrReplace(src);
-                    updatedBoard = mainCtrl.getServerUtils().saveBoard(updatedBoard);
                     event.setDropCompleted(true);
                     boardView.updateOverview(updatedBoard);
-                    mainCtrl.sendToOthers(updatedBoard);
                 } else {
                     event.setDropCompleted(false);
                 }
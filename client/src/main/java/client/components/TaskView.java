@@ -228,7 +228,6 @@ public class TaskView extends AnchorPane implements Component<Task> {
                     updatedTask = mainCtrl.getServerUtils().saveTaskByID(updatedTask);
 
                     taskView.updateOverview(updatedTask);
-                    mainCtrl.sendToOthers(updatedTask);
                     event.setDropCompleted(true);
                 } else {
                     event.setDropCompleted(false);
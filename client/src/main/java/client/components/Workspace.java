@@ -86,13 +86,12 @@ public class Workspace extends VBox implements Component<Model> {
     }
     /**
      * Removes board from recent boards
-     * @param title current server
      * @param id board to be removed
      */
-    public void removeRecentBoard(String title, Long id){
+    public void removeRecentBoard(Long id){
         for (int i = 0; i < recentBoardContainer.getChildren().size(); i++) {
             var curr = (RecentBoard)recentBoardContainer.getChildren().get(i);
-            if(curr.getBoardTitle().equals(title)){
+            if(curr.getBoardId().equals(id)){
                 recentBoardContainer.getChildren().remove(curr);
                 mainCtrl.removeRecentBoard(id);
                 mainCtrl.removeBoardPass(id);
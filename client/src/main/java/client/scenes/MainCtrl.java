@@ -32,9 +32,15 @@ import javafx.scene.input.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Pair;
+import org.springframework.messaging.simp.stomp.StompSession;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 import java.util.function.Consumer;
 
 public class MainCtrl {
@@ -62,82 +68,146 @@ public class MainCtrl {
     private TextInputDialog textInputDialog;
     private Map<Long, BoardView> boardViewMap;
     private Map<Long, TaskListView> taskListViewMap;
+    private final Map<Long, StompSession.Subscription> boardSubscriptions = new HashMap<>();
+    private Stage editTaskPopup;
     private Storage storage;
 
+    private final ExecutorService fetches = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "board-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
-     * Callback for handling a payload of type Board
-     * received from the WebSocket connection
-     */
-    private final Consumer<Board> boardConsumer =
-        payload -> {
-            if(boardViewMap.containsKey(payload.getId())){
-                var curr = boardViewMap.get(payload.getId());
-                if(!curr.getAssociatedBoard().getPassword().equals(payload.getPassword())){
-                    if(payload.getPassword().equals("")){
-                        curr.setWriteAccess(true);
-                        taskViewController.setWriteAccess(true);
-                    } else {
-                        curr.setWriteAccess(false);
-                        taskViewController.setWriteAccess(false);
-                    }
-                    this.removeBoardPass(payload.getId());
-                    this.saveStorage();
-                    if(taskViewController != null
-                            && taskViewController.getCurrentTaskView() != null
-                            && taskViewController.getCurrentTask() != null) {
-                        Platform.runLater(() ->
-                                taskViewController.displayTask(
-                                        taskViewController.getCurrentTask()));
-                    }
-                }
-                Platform.runLater(() -> curr.updateOverview(payload));
-            }
-        };
+     * Callback for handling a change to an open board
+     * received from the WebSocket connection. A delta that follows the version
+     * of the board on screen is applied to it on the JavaFX thread, in the order
+     * the changes came. Otherwise, what changed is fetched from the server
+     * in the background, so that the WebSocket thread never waits for either
+     */
+    private final Consumer<BoardChange> changeConsumer = change -> Platform.runLater(() -> {
+        if(!applyChange(change)) {
+            fetches.execute(() -> fetchChanged(change));
+        }
+    });
 
     /**
-     * Callback for handling a payload of type TaskList
-     * received from the WebSocket connection
+     * Fetches what a change touched from the server and shows it.
+     * Runs off the JavaFX thread
+     *
+     * @param change the change that could not be applied
      */
-    private final Consumer<TaskList> taskListConsumer = payload -> {
-        if(taskListViewMap.containsKey(payload.getId())){
-            var curr = taskListViewMap.get(payload.getId());
-            Platform.runLater(() -> curr.updateOverview(payload));
+    private void fetchChanged(BoardChange change) {
+        if(change.isSingleTask()) {
+            Task task = serverUtils.getTaskByID(change.getTaskId());
+            if(task != null) {
+                Platform.runLater(() -> showTask(task, change));
+                return;
+            }
+        }
+        Board board = serverUtils.getBoardByID(change.getBoardId());
+        if(board != null) {
+            Platform.runLater(() -> showBoard(board, true));
         }
-    };
+    }
 
     /**
-     * Callback for handling a payload of type Task
-     * received from the WebSocket connection
+     * Applies the delta of a change to the board on screen.
+     * Has to run on the JavaFX thread
+     *
+     * @param change the change
+     * @return true if there is nothing left to do, false if what changed
+     *      has to be fetched, because the change has no delta or some change before it
+     *      was missed
      */
-    private final Consumer<Task> taskConsumer = payload -> Platform.runLater(() -> {
-        if(taskListViewMap.containsKey(payload.getTaskListID())){
-            var curr = taskListViewMap.get(payload.getTaskListID());
-            var boardView = boardViewMap.get(curr.getAssociatedTaskList().getBoardId());
-            Board updatedBoard = new Board(boardView.getAssociatedBoard());
-            updatedBoard.insertOrReplace(payload);
-            Platform.runLater(() -> boardView.updateOverview(updatedBoard));
+    private boolean applyChange(BoardChange change) {
+        BoardView boardView = boardViewMap.get(change.getBoardId());
+        if(boardView == null || boardView.getAssociatedBoard() == null) {
+            return true;
         }
-        if(taskViewController.getCurrentTaskView() != null
-            && taskViewController.getCurrentTask().getId().equals(payload.getId())
-            && !taskViewController.getCurrentTask().equals(payload)){
-            Platform.runLater(() ->
-                taskViewController.getCurrentTaskView().updateOverview(payload));
+        Board current = boardView.getAssociatedBoard();
+        if(change.getVersion() != 0 && change.getVersion() <= current.getVersion()) {
+            return true;
         }
-    });
+        Board updated = new Board(current);
+        if(change.getVersion() - change.getVersions() != current.getVersion()
+            || !change.applyTo(updated)) {
+            return false;
+        }
+        showBoard(updated, change.getEntity() == BoardChange.Entity.TAG);
+        return true;
+    }
+
     /**
-     * Not an actual implementation
+     * Shows the new state of an open board, re-rendering only what changed.
+     * Has to run on the JavaFX thread
+     *
+     * @param board the board
+     * @param tagsChanged false if the tags of the board are known to be unchanged
      */
-    private final Consumer<Tag> tagConsumer = payload -> {
-        //Not actual implementation
-        //taskViewController.refreshTask(payload);
-    };
+    private void showBoard(Board board, boolean tagsChanged) {
+        BoardView boardView = boardViewMap.get(board.getId());
+        if(boardView == null) {
+            return;
+        }
+        boolean passwordChanged = !boardView.getAssociatedBoard().getPassword()
+            .equals(board.getPassword());
+        if(passwordChanged) {
+            boolean writeAccess = board.getPassword().equals("");
+            boardView.setWriteAccess(writeAccess);
+            taskViewController.setWriteAccess(writeAccess);
+            this.removeBoardPass(board.getId());
+            this.saveStorage();
+        }
+        boardView.updateOverview(board, tagsChanged);
+        TaskView taskView = taskViewController.getCurrentTaskView();
+        if(taskView == null) {
+            return;
+        }
+        Task shown = taskView.getAssociatedTask();
+        Task task = board.getTaskLists().stream()
+            .flatMap(taskList -> taskList.getTasks().stream())
+            .filter(candidate -> candidate.getId().equals(shown.getId()))
+            .findFirst().orElse(null);
+        boolean listOnBoard = board.getTaskLists().stream()
+            .anyMatch(taskList -> Objects.equals(taskList.getId(), shown.getTaskListID()));
+        if(task == null && editTaskPopup != null && listOnBoard) {
+            closeIfRemoved(shown.getId());
+            return;
+        }
+        if(passwordChanged) {
+            taskViewController.displayTask(task == null ? shown : task);
+        } else if(task != null && !task.equals(shown)) {
+            taskView.updateOverview(task);
+        }
+    }
+
     /**
-     * Not an actual implementation
+     * Shows the new state of a task on an open board.
+     * Has to run on the JavaFX thread
+     *
+     * @param task the task
+     * @param change the change to the task
      */
-    private final Consumer<SubTask> subTaskConsumer = payload -> {
-        //Not actual implementation
-        //taskViewController.refreshTask(payload);
-    };
+    private void showTask(Task task, BoardChange change) {
+        TaskListView taskListView = taskListViewMap.get(task.getTaskListID());
+        if(taskListView != null) {
+            var boardView = boardViewMap.get(taskListView.getAssociatedTaskList().getBoardId());
+            if(boardView != null && boardView.getAssociatedBoard() != null) {
+                Board updatedBoard = new Board(boardView.getAssociatedBoard());
+                updatedBoard.insertOrReplace(task);
+                if(change.getVersion() - change.getVersions() == updatedBoard.getVersion()) {
+                    updatedBoard.setVersion(change.getVersion());
+                }
+                boardView.updateOverview(updatedBoard);
+            }
+        }
+        if(taskViewController.getCurrentTaskView() != null
+            && taskViewController.getCurrentTask().getId().equals(task.getId())
+            && !taskViewController.getCurrentTask().equals(task)){
+            taskViewController.getCurrentTaskView().updateOverview(task);
+        }
+    }
 
     /**
      * Initializes the main controller, injecting parameters automatically
@@ -193,6 +263,7 @@ public class MainCtrl {
         this.taskColorPresetsController = taskColorPresets.getKey();
         this.serverUtils = serverUtils;
         this.webSocketClientConfig = webSocketClientConfig;
+        webSocketClientConfig.setReconnectListener(this::resumeBoards);
 
         this.boardViewMap = new HashMap<>();
         this.taskListViewMap = new HashMap<>();
@@ -201,11 +272,6 @@ public class MainCtrl {
 
         showServerConnect();
         primaryStage.setResizable(false);
-        primaryStage.setOnCloseRequest(e -> {
-            if(primaryStage.getScene().equals(this.overview)){
-                serverUtils.stopLongPolling();
-            }
-        });
         primaryStage.show();
 
         this.loadServers();
@@ -253,6 +319,9 @@ public class MainCtrl {
      * Clear the boardView map
      */
     public void clearBoardViewMap(){
+        for(Long id : this.boardViewMap.keySet()) {
+            unsubscribeFromBoard(id);
+        }
         this.boardViewMap.clear();
     }
 
@@ -270,6 +339,7 @@ public class MainCtrl {
      */
     public void addBoardView(Long id, BoardView boardView) {
         this.boardViewMap.put(id, boardView);
+        subscribeToBoard(id);
     }
 
     /**
@@ -279,6 +349,7 @@ public class MainCtrl {
      */
     public void deleteBoardView(Long id) {
         this.boardViewMap.remove(id);
+        unsubscribeFromBoard(id);
     }
 
     /**
@@ -329,20 +400,25 @@ public class MainCtrl {
         enableShortcuts();
         primaryStage.setScene(overview);
         overviewCtrl.addWorkspace();
-        serverUtils.pollBoard(boardId ->
-            Platform.runLater(() -> {
-                BoardView boardView = getBoardViewById(boardId);
-                if(boardViewMap.containsKey(boardId)){
-                    overviewCtrl.closeTabClicked(boardView);
-                    closeBoardPopups();
-                    showBoardRemoved();
-                }
-                if(getAllBoardsForCurrent().contains(boardId)){
-                    removeRecentBoard(boardId);
-                    overviewCtrl.removeRecent(boardView.getAssociatedBoard().getTitle(), boardId);
-                }
-            })
-        );
+    }
+
+    /**
+     * Closes a board that was removed from the server, and forgets it
+     * in the recent boards. Has to run on the JavaFX thread
+     *
+     * @param boardId id of the board
+     */
+    private void boardRemoved(Long boardId) {
+        BoardView boardView = getBoardViewById(boardId);
+        if(boardViewMap.containsKey(boardId)){
+            overviewCtrl.closeTabClicked(boardView);
+            closeBoardPopups();
+            showBoardRemoved();
+        }
+        if(getAllBoardsForCurrent().contains(boardId)){
+            removeRecentBoard(boardId);
+            overviewCtrl.removeRecent(boardId);
+        }
     }
 
     /**
@@ -428,23 +504,50 @@ public class MainCtrl {
         } else {
             taskViewController.setWriteAccess(overviewCtrl.isCurrentPasswordProtected());
         }
-        taskViewController.displayTask(task);
-        serverUtils.poll(task.getId(), id -> {
-            Platform.runLater(taskViewController::closeAddSubtaskWindow);
-            Platform.runLater(() -> {
-                if(popup.isShowing()){
-                    this.showTaskRemoved();
-                    popup.close();
-                }
-            });
-        });
-        popup.setOnCloseRequest(event -> serverUtils.stopLongPolling());
+        // The card only holds what it renders, the task view needs the full body
+        Task fullTask = serverUtils.getTaskByID(task.getId());
+        taskViewController.displayTask(fullTask == null ? task : fullTask);
+        editTaskPopup = popup;
         editTask.setOnKeyPressed(event -> {
             if(event.getCode() == KeyCode.ESCAPE){
                 popup.close();
             }
         });
         popup.showAndWait();
+        editTaskPopup = null;
+    }
+
+    /**
+     * Closes the task that is being edited if the server no longer has it.
+     * A task that left the board may have been moved to another board,
+     * so it is only reported removed once the server can't find it
+     *
+     * @param id id of the task
+     */
+    private void closeIfRemoved(Long id) {
+        CompletableFuture.runAsync(() -> {
+            if(serverUtils.getTaskByID(id) != null) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if(taskViewController.getCurrentTaskView() != null
+                    && taskViewController.getCurrentTask().getId().equals(id)) {
+                    closeRemovedTask();
+                }
+            });
+        });
+    }
+
+    /**
+     * Closes the task that is being edited, since it was removed by someone else.
+     * Has to run on the JavaFX thread
+     */
+    private void closeRemovedTask() {
+        taskViewController.closeAddSubtaskWindow();
+        if(editTaskPopup != null && editTaskPopup.isShowing()) {
+            showTaskRemoved();
+            editTaskPopup.close();
+        }
     }
 
     /**
@@ -495,16 +598,6 @@ public class MainCtrl {
         return addSubTask;
     }
 
-    /**
-     * Helper method that sends message to the WebSocket Server Configuration
-     *
-     * @param payload message
-     * @param <T>     the type of the message
-     */
-    public <T> void sendToOthers(T payload) {
-        webSocketClientConfig.sendToOthers(payload);
-    }
-
     /**
      * Test connection to WebSocket server
      *
@@ -520,18 +613,20 @@ public class MainCtrl {
     }
 
     /**
-     * Subscribes to all message brokers
+     * Subscribes to the removals of boards, and to the message brokers of every open board
      */
     private void subscribeToBrokers() {
         try {
             if (!webSocketClientConfig.isConnected()) {
                 throw new WebSocketConnectionException("There is no open connection");
             }
-            webSocketClientConfig.subscribe("/update/tag", Tag.class, tagConsumer);
-            webSocketClientConfig.subscribe("/update/subtask", SubTask.class, subTaskConsumer);
-            webSocketClientConfig.subscribe("/update/task", Task.class, taskConsumer);
-            webSocketClientConfig.subscribe("/update/taskList", TaskList.class, taskListConsumer);
-            webSocketClientConfig.subscribe("/update/board", Board.class, boardConsumer);
+            webSocketClientConfig.subscribe("/update/boards", Long.class,
+                boardId -> Platform.runLater(() -> boardRemoved(boardId)));
+            // the subscriptions of the previous connection are gone with it
+            boardSubscriptions.clear();
+            for(Long id : boardViewMap.keySet()) {
+                subscribeToBoard(id);
+            }
         } catch (WebSocketConnectionException e) {
             System.err.println(e.getMessage());
             Platform.runLater(() -> {
@@ -543,6 +638,82 @@ public class MainCtrl {
         }
     }
 
+    /**
+     * Subscribes to the open boards again after the connection was lost and opened
+     * again, and catches up on the changes made to them meanwhile.
+     * Runs on the thread that reconnected
+     */
+    private void resumeBoards() {
+        FutureTask<Map<Long, Long>> resubscribed = new FutureTask<>(() -> {
+            subscribeToBrokers();
+            Map<Long, Long> versions = new HashMap<>();
+            boardViewMap.forEach((id, boardView) -> {
+                if(boardView.getAssociatedBoard() != null) {
+                    versions.put(id, boardView.getAssociatedBoard().getVersion());
+                }
+            });
+            return versions;
+        });
+        Platform.runLater(resubscribed);
+        try {
+            resubscribed.get().forEach(this::catchUp);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Applies the changes made to an open board after the version on screen.
+     * Only if the server no longer has all of them is the board fetched again
+     *
+     * @param id id of the board
+     * @param version the version of the board on screen
+     */
+    private void catchUp(long id, long version) {
+        List<BoardChange> missed = serverUtils.getChangesAfter(id, version);
+        if(missed != null) {
+            missed.forEach(changeConsumer);
+            return;
+        }
+        Board board = serverUtils.getBoardByID(id);
+        if(board != null) {
+            Platform.runLater(() -> showBoard(board, true));
+        }
+    }
+
+    /**
+     * Subscribes to the changes of a board, so that the changes others make
+     * to it are received. Only the boards that are open are subscribed to
+     *
+     * @param id id of the board
+     */
+    private void subscribeToBoard(Long id) {
+        if(id == null || webSocketClientConfig == null || !webSocketClientConfig.isConnected()
+            || boardSubscriptions.containsKey(id)) {
+            return;
+        }
+        StompSession.Subscription subscription = webSocketClientConfig.subscribe(
+            "/update/board/" + id, BoardChange.class, changeConsumer);
+        if(subscription != null) {
+            boardSubscriptions.put(id, subscription);
+        }
+    }
+
+    /**
+     * Stops receiving the changes to a board that is no longer open
+     *
+     * @param id id of the board
+     */
+    private void unsubscribeFromBoard(Long id) {
+        StompSession.Subscription subscription = boardSubscriptions.remove(id);
+        if(subscription == null || !webSocketClientConfig.isConnected()) {
+            return;
+        }
+        subscription.unsubscribe();
+    }
+
     /**
      * Show a pop-up (load a scene) to rename a TaskList
      *
@@ -579,10 +750,7 @@ public class MainCtrl {
         var updatedBoard = new Board(boardView.getAssociatedBoard());
         updatedBoard.removeTask(task);
         serverUtils.removeTask(task.getId());
-        updatedBoard = serverUtils.saveBoard(updatedBoard);
         boardView.updateOverview(updatedBoard);
-
-        this.sendToOthers(updatedBoard);
     }
 
     /**
@@ -6,6 +6,7 @@ import client.components.TaskListView;
 import client.components.Workspace;
 import client.service.OverviewService;
 import commons.Board;
+import commons.BoardListing;
 import commons.Task;
 import commons.TaskList;
 import javafx.application.Platform;
@@ -71,15 +72,20 @@ public class OverviewController {
      */
     public void displayBoard(Board board) {
         BoardView boardView = overviewService.createBoardView(board);
+        anchorTabPane();
+        tabPane.getTabs().add(boardView);
+        tabPane.getSelectionModel().select(boardView);
+        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.ALL_TABS);
+    }
 
+    /**
+     * Makes the tabs fill the window below the menu
+     */
+    private void anchorTabPane() {
         AnchorPane.setTopAnchor(this.tabPane, 30.0);
         AnchorPane.setLeftAnchor(this.tabPane, 0.0);
         AnchorPane.setRightAnchor(this.tabPane, 0.0);
         AnchorPane.setBottomAnchor(this.tabPane, 0.0);
-
-        tabPane.getTabs().add(boardView);
-        tabPane.getSelectionModel().select(boardView);
-        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.ALL_TABS);
     }
 
     /**
@@ -90,14 +96,74 @@ public class OverviewController {
         this.persistedState.addAll(openedBoards);
         this.openedBoards.clear();
         overviewService.clearMaps();
-        var boards = overviewService.getAllBoards();
         tabPane.getTabs().clear();
         addWorkspace();
-        for(var board : boards){
-            displayBoard(board);
+        displayBoardPage(0);
+    }
+
+    /**
+     * Displays a page of boards for the admin, and a tab that loads
+     * the next page when it is selected, if there may be one
+     * @param afterId id of the last board of the previous page (0 for the first page)
+     */
+    private void displayBoardPage(long afterId){
+        var listings = overviewService.getBoardListings(afterId);
+        for(var listing : listings){
+            displayBoardListing(listing);
+        }
+        if(listings.size() == OverviewService.ADMIN_PAGE_SIZE){
+            Tab more = new Tab("More boards...");
+            more.setClosable(false);
+            long lastId = listings.get(listings.size() - 1).getId();
+            more.setOnSelectionChanged(event -> {
+                if(more.isSelected()){
+                    Platform.runLater(() -> {
+                        tabPane.getTabs().remove(more);
+                        displayBoardPage(lastId);
+                    });
+                }
+            });
+            tabPane.getTabs().add(more);
         }
     }
 
+    /**
+     * Adds a tab for a listed board, which only loads the board
+     * when the tab is selected
+     * @param listing the listing of the board
+     */
+    private void displayBoardListing(BoardListing listing){
+        Tab tab = new Tab(listing.getUserId());
+        tab.setOnSelectionChanged(event -> {
+            if(tab.isSelected()){
+                Platform.runLater(() -> openListedBoard(tab, listing.getId()));
+            }
+        });
+        anchorTabPane();
+        tabPane.getTabs().add(tab);
+        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.ALL_TABS);
+    }
+
+    /**
+     * Replaces the tab of a listed board with the board itself
+     * @param tab the tab of the listing
+     * @param id the id of the board
+     */
+    private void openListedBoard(Tab tab, long id){
+        int index = tabPane.getTabs().indexOf(tab);
+        if(index < 0){
+            return;
+        }
+        Board board = overviewService.getBoard(id);
+        if(board == null){
+            tabPane.getTabs().remove(tab);
+            return;
+        }
+        BoardView boardView = overviewService.createBoardView(board);
+        tabPane.getTabs().set(index, boardView);
+        tabPane.getSelectionModel().select(boardView);
+    }
+
     /**
      * The method that handles entering admin mode
      */
@@ -259,11 +325,10 @@ public class OverviewController {
 
     /**
      * Removes board frm recent
-     * @param title title of the board
      * @param id target board
      */
-    public void removeRecent(String title, Long id){
-        workspace.removeRecentBoard(title, id);
+    public void removeRecent(Long id){
+        workspace.removeRecentBoard(id);
         overviewService.saveStorage();
     }
     /**
@@ -85,7 +85,6 @@ public class TaskViewController {
         task = serverUtils.saveTaskByID(task);
         taskView.updateOverview(task);
         this.updateOnChange();
-        mainCtrl.sendToOthers(task);
         mainCtrl.showEditTagScene(tag, this, null);
     }
 
@@ -150,7 +149,6 @@ public class TaskViewController {
     public void updateOnChange(String title, String description) {
         taskViewService.saveTask(title, description, backGroundColor, fontColor,
                 currentTaskView.getAssociatedTask().getSubTasks());
-        serverUtils.stopLongPolling();
     }
     /**
      * Whenever an action happens on the screen (for instance, a key is pressed), this takes the
@@ -71,6 +71,5 @@ public class AddSubtaskService {
         taskViewController.closeAddSubtaskWindow();
 
         taskViewController.getCurrentTaskView().updateOverview(currentTask);
-        mainCtrl.sendToOthers(currentTask);
     }
 }
@@ -8,6 +8,8 @@ import commons.Board;
 import commons.ColorEntity;
 
 import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
 
 public class ColorManagementService {
     private final ServerUtils serverUtils;
@@ -58,8 +60,6 @@ public class ColorManagementService {
         board.getTaskColorPresets().add(colorEntity);
         serverUtils.saveBoard(board);
         colorManagementController.updateColorPresets(board);
-
-        mainCtrl.sendToOthers(board);
     }
 
     /**
@@ -73,8 +73,6 @@ public class ColorManagementService {
         board.getTaskColorPresets().remove(colorEntity);
         serverUtils.saveBoard(board);
         colorManagementController.updateColorPresets(board);
-
-        mainCtrl.sendToOthers(board);
     }
 
     /**
@@ -92,8 +90,6 @@ public class ColorManagementService {
         }
         serverUtils.saveBoard(board);
         colorManagementController.updateColorPresets(board);
-
-        mainCtrl.sendToOthers(board);
     }
 
     /**
@@ -108,19 +104,23 @@ public class ColorManagementService {
     public void saveChange(String boardBgColor, String boardFontColor,
                            String taskListsBgColor, String taskListsFontColor,
                            ColorEntity defaultTaskColor){
-        Board currentBoard = serverUtils.getBoardByID(colorManagementController
-                .getAssociatedBoard().getId());
+        Board currentBoard = new Board(colorManagementController.getAssociatedBoard());
         currentBoard.setBoardBgColor(boardBgColor);
         currentBoard.setBoardFontColor(boardFontColor);
         currentBoard.setTaskListsBgColor(taskListsBgColor);
         currentBoard.setTaskListsFontColor(taskListsFontColor);
         currentBoard.setTaskDefaultColor(defaultTaskColor);
-        currentBoard = serverUtils.saveBoard(currentBoard);
+        Map<String, String> fields = new HashMap<>();
+        fields.put("boardBgColor", boardBgColor);
+        fields.put("boardFontColor", boardFontColor);
+        fields.put("taskListsBgColor", taskListsBgColor);
+        fields.put("taskListsFontColor", taskListsFontColor);
+        fields.put("taskDefaultBgColor", defaultTaskColor.getBackGroundColor());
+        fields.put("taskDefaultFontColor", defaultTaskColor.getFontColor());
+        serverUtils.patchBoard(currentBoard.getId(), fields);
 
         BoardView boardView = mainCtrl.getBoardViewById(currentBoard.getId());
         boardView.updateOverview(currentBoard);
-
-        mainCtrl.sendToOthers(currentBoard);
     }
 
 
@@ -8,6 +8,7 @@ import commons.SubTask;
 import commons.Task;
 
 import javax.inject.Inject;
+import java.util.Map;
 
 public class EditSubtaskService {
     private final MainCtrl mainCtrl;
@@ -42,7 +43,7 @@ public class EditSubtaskService {
         SubTask currentSubtask = editSubtaskController.getCurrentSubtask();
         TaskView taskView = editSubtaskController.getTaskView();
         currentSubtask.setDescription(newDescription);
-        serverUtils.saveSubTask(currentSubtask);
+        serverUtils.patchSubTask(currentSubtask.getId(), Map.of("description", newDescription));
         Task task = new Task(taskView.getAssociatedTask());
         for(int i = 0; i < task.getSubTasks().size(); ++i){
             var curr = task.getSubTasks().get(i);
@@ -52,6 +53,5 @@ public class EditSubtaskService {
         }
         taskView.updateOverview(task);
         editSubtaskController.closeWindow();
-        mainCtrl.sendToOthers(task);
     }
 }
@@ -81,8 +81,8 @@ public class EditTagService {
             var boardView = mainCtrl.getBoardViewFromTask(task);
             var updatedBoard = new Board(boardView.getAssociatedBoard());
             updatedBoard.insertOrReplace(task);
+            replaceTag(updatedBoard, newTag);
             boardView.updateOverview(updatedBoard);
-            mainCtrl.sendToOthers(updatedBoard);
             if(taskView == null) serverUtils.saveTaskByID(task);
         } else {
             if (!serverUtils.updateTags(tag, newTag)) {
@@ -92,8 +92,26 @@ public class EditTagService {
             var boardView = mainCtrl.getBoardViewById(newTag.getBoardId());
             var updatedBoard = serverUtils.getBoardByID(newTag.getBoardId());
             boardView.updateOverview(updatedBoard);
-            mainCtrl.sendToOthers(updatedBoard);
         }
 
     }
+
+    /**
+     * Replaces a tag on every task of a board that carries it, as the tasks
+     * of a board share their tags
+     *
+     * @param board the board
+     * @param tag the new version of the tag
+     */
+    private void replaceTag(Board board, Tag tag) {
+        for (var taskList : board.getTaskLists()) {
+            for (var task : taskList.getTasks()) {
+                for (int i = 0; i < task.getTags().size(); ++i) {
+                    if (task.getTags().get(i).getId().equals(tag.getId())) {
+                        task.getTags().set(i, tag);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -11,8 +11,14 @@ import commons.*;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class OverviewService {
+    /**
+     * Number of boards the admin view loads at once
+     */
+    public static final int ADMIN_PAGE_SIZE = 10;
+
     private final MainCtrl mainCtrl;
     private final ServerUtils serverUtils;
     private OverviewController overviewController;
@@ -94,7 +100,6 @@ public class OverviewService {
             currentBoardView.updateOverview(result);
             mainCtrl.addBoardPass(result.getId(), hash);
             mainCtrl.saveStorage();
-            mainCtrl.sendToOthers(result);
         }
         return result != null;
     }
@@ -109,9 +114,6 @@ public class OverviewService {
     public boolean checkBoardPassword(Board board, String password){
         var result = serverUtils.checkBoardPassword(
                 board.getId(), password);
-        if(result != null){
-            mainCtrl.sendToOthers(result);
-        }
         return result != null;
     }
     /**
@@ -126,14 +128,13 @@ public class OverviewService {
         //automatic hashing using sha-256
         var hash = updatedBoard.hashPassword(password);
         updatedBoard.setPassword(hash);
-        updatedBoard = serverUtils.saveBoard(updatedBoard);
+        serverUtils.patchBoard(updatedBoard.getId(), Map.of("password", hash));
         boardView.setWriteAccess(true);
         boardView.updateOverview(updatedBoard);
         if(!overviewController.isInAdmin()) {
             mainCtrl.addBoardPass(updatedBoard.getId(), hash);
             mainCtrl.saveStorage();
         }
-        mainCtrl.sendToOthers(updatedBoard);
     }
 
     /**
@@ -142,14 +143,10 @@ public class OverviewService {
      */
     public void removeTaskClicked(Task task) {
         var boardView = overviewController.getSelectedBoardView();
-        var updatedBoard = serverUtils.getBoardByID(
-                overviewController.getSelectedBoardView()
-                        .getAssociatedBoard().getId());
+        var updatedBoard = new Board(boardView.getAssociatedBoard());
         updatedBoard.removeTask(task);
         serverUtils.removeTask(task.getId());
-        updatedBoard = serverUtils.saveBoard(updatedBoard);
         boardView.updateOverview(updatedBoard);
-        mainCtrl.sendToOthers(updatedBoard);
     }
     /**
      * Method that sends request to server to remove password
@@ -168,7 +165,6 @@ public class OverviewService {
         boardView.updateOverview(updatedBoard);
         mainCtrl.removeBoardPass(updatedBoard.getId());
         mainCtrl.saveStorage();
-        mainCtrl.sendToOthers(updatedBoard);
         return true;
     }
     /**
@@ -184,7 +180,6 @@ public class OverviewService {
         boardView.updateOverview(updatedBoard);
         mainCtrl.removeBoardPass(updatedBoard.getId());
         mainCtrl.saveStorage();
-        mainCtrl.sendToOthers(updatedBoard);
     }
     /**
      * Method that creates new board
@@ -213,18 +208,28 @@ public class OverviewService {
         return board;
     }
     /**
-     * Method that gets all boards for admin mode
-     * @return list of all boards in the server
+     * Method that gets a page of board listings for admin mode
+     * @param afterId id of the last board of the previous page (0 for the first page)
+     * @return the listings of the page, fewer than {@link #ADMIN_PAGE_SIZE} if it is the last
      */
-    public List<Board> getAllBoards(){
-        var boards = serverUtils.getAllBoards();
-        if(boards == null){
+    public List<BoardListing> getBoardListings(long afterId){
+        var listings = serverUtils.getBoardListings(afterId, ADMIN_PAGE_SIZE);
+        if(listings == null){
             throw new IllegalArgumentException("Retrieved boards from server are null");
         } else {
-            return boards;
+            return listings;
         }
     }
 
+    /**
+     * Method that gets one of the boards listed in admin mode
+     * @param id the id of the board
+     * @return the board, or null if it no longer exists
+     */
+    public Board getBoard(long id){
+        return serverUtils.getBoardByID(id);
+    }
+
     /**
      * Check the authenticity of the provided admin password
      * @param password given password
@@ -253,7 +258,6 @@ public class OverviewService {
         Board updatedBoard = new Board(boardView.getAssociatedBoard());
         updatedBoard.addNewTaskList(addedTaskList);
         boardView.updateOverview(updatedBoard);
-        mainCtrl.sendToOthers(updatedBoard);
     }
 
     /**
@@ -262,19 +266,14 @@ public class OverviewService {
      * @param taskListView the taskListView of the taskList to be removed
      */
     public void removeTaskList(TaskListView taskListView, BoardView boardView) {
-        TaskList removedTaskList = serverUtils.removeTaskList(taskListView.getAssociatedTaskList());
-        if (removedTaskList == null) {
+        TaskList removedTaskList = taskListView.getAssociatedTaskList();
+        if (serverUtils.removeTaskList(removedTaskList) == null) {
             overviewController.showError("Please enter correct board_id");
             return;
         }
         Board updatedBoard = new Board(boardView.getAssociatedBoard());
-        for(Task t: removedTaskList.getTasks()){
-            serverUtils.removeTask(t.getId());
-        }
         updatedBoard.removeTaskList(removedTaskList);
         boardView.updateOverview(updatedBoard);
-
-        mainCtrl.sendToOthers(updatedBoard);
     }
 
     /**
@@ -297,8 +296,6 @@ public class OverviewService {
 
         updatedBoard.insertOrReplace(task);
         overviewController.getSelectedBoardView().updateOverview(updatedBoard);
-
-        mainCtrl.sendToOthers(updatedBoard);
     }
 
     /**
@@ -309,9 +306,8 @@ public class OverviewService {
     public void updateTitle(String newTitle, BoardView boardView){
         Board newBoard = boardView.getAssociatedBoard();
         newBoard.setTitle(newTitle);
-        newBoard = serverUtils.saveBoard(newBoard);
+        serverUtils.patchBoard(newBoard.getId(), Map.of("title", newTitle));
         boardView.updateOverview(newBoard);
-        mainCtrl.sendToOthers(newBoard);
     }
 
     /**
@@ -338,7 +334,6 @@ public class OverviewService {
      * disconnect button
      */
     public void disconnectClicked(){
-        serverUtils.stopLongPolling();
         mainCtrl.showServerConnect();
         mainCtrl.loadServers();
     }
@@ -471,11 +466,10 @@ public class OverviewService {
      * @param stb SelectTaskButton associated with the Task
      */
     public void changeTaskTitle(String newTitle, SelectTaskButton stb){
-        Task newTask = stb.getAssociatedTask();
+        Task newTask = new Task(stb.getAssociatedTask());
         newTask.setTitle(newTitle);
-        newTask = serverUtils.saveTaskByID(newTask);
+        serverUtils.patchTask(newTask.getId(), Map.of("title", newTitle));
         stb.updateOverview(newTask);
-        mainCtrl.sendToOthers(newTask);
     }
 
     /**
@@ -502,9 +496,13 @@ public class OverviewService {
         if(curPos == -1) return ;
         int newPos = curPos + delta;
         if(newPos < 0 || newPos >= taskList.getTasks().size()) return ;
+        Task neighbour = taskList.getTasks().get(newPos);
+        if(delta < 0) {
+            serverUtils.moveTask(task.getId(), taskList.getId(), null, neighbour.getId());
+        } else {
+            serverUtils.moveTask(task.getId(), taskList.getId(), neighbour.getId(), null);
+        }
         swap(taskList.getTasks(), curPos, newPos);
-        serverUtils.saveTaskList(taskList);
-        mainCtrl.sendToOthers(taskList);
         mainCtrl.getTaskListViewById(taskList.getId()).updateOverview(taskList);
         TaskListView taskListView = mainCtrl.getTaskListViewById(taskList.getId());
         overviewController.changeSelectedTask(taskListView, task);
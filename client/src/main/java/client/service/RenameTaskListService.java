@@ -8,6 +8,7 @@ import commons.Board;
 import commons.TaskList;
 
 import javax.inject.Inject;
+import java.util.Map;
 
 public class RenameTaskListService {
     private final ServerUtils serverUtils;
@@ -41,12 +42,11 @@ public class RenameTaskListService {
     public void rename(TaskList taskList, String name) {
         TaskList updatedTaskList = new TaskList(taskList);
         updatedTaskList.setTitle(name);
-        updatedTaskList = serverUtils.saveTaskList(updatedTaskList);
+        serverUtils.patchTaskList(updatedTaskList.getId(), Map.of("title", name));
         Board updatedBoard = new Board(
             overviewController.getSelectedBoardView().getAssociatedBoard());
         updatedBoard.addNewTaskList(updatedTaskList);
         overviewController.getSelectedBoardView().updateOverview(updatedBoard);
-        mainCtrl.sendToOthers(updatedTaskList);
     }
 
     /**
@@ -67,7 +67,6 @@ public class TaskColorPresetsService {
         Board newBoard = new Board(board);
         newBoard.insertOrReplace(newTask);
         mainCtrl.getBoardViewById(board.getId()).updateOverview(newBoard);
-        mainCtrl.sendToOthers(newTask);
         serverUtils.saveTaskByID(newTask);
     }
 
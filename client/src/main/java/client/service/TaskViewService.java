@@ -2,11 +2,14 @@ package client.service;
 
 import client.scenes.MainCtrl;
 import client.scenes.TaskViewController;
+import client.utils.BatchBuilder;
 import client.utils.ServerUtils;
 import commons.*;
 
 import javax.inject.Inject;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TaskViewService {
     private final MainCtrl mainCtrl;
@@ -65,15 +68,40 @@ public class TaskViewService {
         currentTask.setBackGroundColor(backGroundColor);
         currentTask.setFontColor(fontColor);
         currentTask.setSubTasks(subTasks);
-        currentTask = serverUtils.saveTaskByID(currentTask);
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", title);
+        fields.put("description", description);
+        fields.put("backGroundColor", backGroundColor);
+        fields.put("fontColor", fontColor);
+        var batch = serverUtils.batch().updateTask(currentTask.getId(), fields);
+        saveCheckedSubtasks(batch, updated.getSubTasks(), subTasks);
+        batch.send();
 
         var boardView = mainCtrl.getBoardViewFromTask(currentTask);
         Board updatedBoard = new Board(boardView.getAssociatedBoard());
         updatedBoard.insertOrReplace(currentTask);
         boardView.updateOverview(updatedBoard);
         taskViewController.getCurrentTaskView().updateOverview(currentTask);
+    }
 
-        mainCtrl.sendToOthers(currentTask);
+    /**
+     * Adds the checked flags that were toggled in the task view to a batch
+     * @param batch the batch that saves the task
+     * @param savedSubTasks the subtasks as they are on the server
+     * @param subTasks the subtasks as they are shown in the task view
+     */
+    private void saveCheckedSubtasks(BatchBuilder batch, List<SubTask> savedSubTasks,
+                                     List<SubTask> subTasks) {
+        if(savedSubTasks == null || subTasks == null) return;
+        for(var subTask : subTasks) {
+            for(var saved : savedSubTasks) {
+                if(saved.getId().equals(subTask.getId())
+                    && saved.isChecked() != subTask.isChecked()) {
+                    batch.updateSubTask(subTask.getId(),
+                        Map.of("checked", Boolean.toString(subTask.isChecked())));
+                }
+            }
+        }
     }
 
     /**
@@ -86,8 +114,6 @@ public class TaskViewService {
 
         currentTask = serverUtils.saveTaskByID(currentTask);
         taskViewController.getCurrentTaskView().updateOverview(currentTask);
-
-        mainCtrl.sendToOthers(currentTask);
     }
 
     /**
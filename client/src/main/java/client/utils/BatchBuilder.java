@@ -0,0 +1,267 @@
+package client.utils;
+
+import commons.BatchOperation;
+import commons.Board;
+import commons.SubTask;
+import commons.Tag;
+import commons.Task;
+import commons.TaskList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects operations that the server applies in a single request
+ * and a single transaction, e.g.
+ * serverUtils.batch().updateTask(id, fields).deleteTask(other).send()
+ */
+public class BatchBuilder {
+    private final ServerUtils serverUtils;
+    private final List<BatchOperation> operations = new ArrayList<>();
+
+    /**
+     * Constructor of the builder
+     * @param serverUtils the server utils that send the batch
+     */
+    public BatchBuilder(ServerUtils serverUtils) {
+        this.serverUtils = serverUtils;
+    }
+
+    /**
+     * Adds the creation of a board
+     * @param board the board to create
+     * @return this builder
+     */
+    public BatchBuilder createBoard(Board board) {
+        BatchOperation operation = create(BatchOperation.Type.BOARD);
+        operation.setBoard(board);
+        return this;
+    }
+
+    /**
+     * Adds the creation of a task list
+     * @param taskList the task list to create
+     * @return this builder
+     */
+    public BatchBuilder createTaskList(TaskList taskList) {
+        BatchOperation operation = create(BatchOperation.Type.TASK_LIST);
+        operation.setTaskList(taskList);
+        return this;
+    }
+
+    /**
+     * Adds the creation of a task
+     * @param task the task to create
+     * @return this builder
+     */
+    public BatchBuilder createTask(Task task) {
+        BatchOperation operation = create(BatchOperation.Type.TASK);
+        operation.setTask(task);
+        return this;
+    }
+
+    /**
+     * Adds the creation of a subtask
+     * @param subTask the subtask to create
+     * @return this builder
+     */
+    public BatchBuilder createSubTask(SubTask subTask) {
+        BatchOperation operation = create(BatchOperation.Type.SUB_TASK);
+        operation.setSubTask(subTask);
+        return this;
+    }
+
+    /**
+     * Adds the creation of a tag
+     * @param tag the tag to create
+     * @return this builder
+     */
+    public BatchBuilder createTag(Tag tag) {
+        BatchOperation operation = create(BatchOperation.Type.TAG);
+        operation.setTag(tag);
+        return this;
+    }
+
+    /**
+     * Adds a change of some fields of a board
+     * @param id id of the board
+     * @param fields the new values by field name
+     * @return this builder
+     */
+    public BatchBuilder updateBoard(long id, Map<String, String> fields) {
+        return update(BatchOperation.Type.BOARD, id, fields);
+    }
+
+    /**
+     * Adds a change of some fields of a task list
+     * @param id id of the task list
+     * @param fields the new values by field name
+     * @return this builder
+     */
+    public BatchBuilder updateTaskList(long id, Map<String, String> fields) {
+        return update(BatchOperation.Type.TASK_LIST, id, fields);
+    }
+
+    /**
+     * Adds a change of some fields of a task
+     * @param id id of the task
+     * @param fields the new values by field name
+     * @return this builder
+     */
+    public BatchBuilder updateTask(long id, Map<String, String> fields) {
+        return update(BatchOperation.Type.TASK, id, fields);
+    }
+
+    /**
+     * Adds a change of some fields of a subtask
+     * @param id id of the subtask
+     * @param fields the new values by field name
+     * @return this builder
+     */
+    public BatchBuilder updateSubTask(long id, Map<String, String> fields) {
+        return update(BatchOperation.Type.SUB_TASK, id, fields);
+    }
+
+    /**
+     * Adds a change of some fields of a tag
+     * @param id id of the tag
+     * @param fields the new values by field name
+     * @return this builder
+     */
+    public BatchBuilder updateTag(long id, Map<String, String> fields) {
+        return update(BatchOperation.Type.TAG, id, fields);
+    }
+
+    /**
+     * Adds the deletion of a board
+     * @param id id of the board
+     * @return this builder
+     */
+    public BatchBuilder deleteBoard(long id) {
+        return delete(BatchOperation.Type.BOARD, id);
+    }
+
+    /**
+     * Adds the deletion of a task list
+     * @param id id of the task list
+     * @return this builder
+     */
+    public BatchBuilder deleteTaskList(long id) {
+        return delete(BatchOperation.Type.TASK_LIST, id);
+    }
+
+    /**
+     * Adds the deletion of a task
+     * @param id id of the task
+     * @return this builder
+     */
+    public BatchBuilder deleteTask(long id) {
+        return delete(BatchOperation.Type.TASK, id);
+    }
+
+    /**
+     * Adds the deletion of a subtask
+     * @param id id of the subtask
+     * @return this builder
+     */
+    public BatchBuilder deleteSubTask(long id) {
+        return delete(BatchOperation.Type.SUB_TASK, id);
+    }
+
+    /**
+     * Adds the removal of a tag from a task
+     * @param id id of the tag
+     * @param taskId id of the task the tag belongs to
+     * @return this builder
+     */
+    public BatchBuilder deleteTag(long id, long taskId) {
+        delete(BatchOperation.Type.TAG, id);
+        operations.get(operations.size() - 1).setParentId(taskId);
+        return this;
+    }
+
+    /**
+     * Adds the move of a task, right after or before one of the tasks
+     * of the target list (or to its end if both are null)
+     * @param id id of the task
+     * @param listId id of the target task list
+     * @param afterId id of the task to place it after (or null)
+     * @param beforeId id of the task to place it before (or null)
+     * @return this builder
+     */
+    public BatchBuilder moveTask(long id, long listId, Long afterId, Long beforeId) {
+        BatchOperation operation =
+            add(BatchOperation.Action.MOVE, BatchOperation.Type.TASK, id);
+        operation.setListId(listId);
+        operation.setAfterId(afterId);
+        operation.setBeforeId(beforeId);
+        return this;
+    }
+
+    /**
+     * Returns the operations collected so far
+     * @return the operations, in order
+     */
+    public List<BatchOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Sends the collected operations to the server. Nothing is sent
+     * if there are no operations
+     * @return one result per operation (see ServerUtils.sendBatch),
+     *      or null if the batch failed and none of it was applied
+     */
+    public List<Long> send() {
+        if(operations.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return serverUtils.sendBatch(operations);
+    }
+
+    /**
+     * Adds a creation
+     * @param type the kind of entity
+     * @return the added operation
+     */
+    private BatchOperation create(BatchOperation.Type type) {
+        return add(BatchOperation.Action.CREATE, type, null);
+    }
+
+    /**
+     * Adds an update
+     * @param type the kind of entity
+     * @param id id of the entity
+     * @param fields the new values by field name
+     * @return this builder
+     */
+    private BatchBuilder update(BatchOperation.Type type, long id, Map<String, String> fields) {
+        add(BatchOperation.Action.UPDATE, type, id).setFields(fields);
+        return this;
+    }
+
+    /**
+     * Adds a deletion
+     * @param type the kind of entity
+     * @param id id of the entity
+     * @return this builder
+     */
+    private BatchBuilder delete(BatchOperation.Type type, long id) {
+        add(BatchOperation.Action.DELETE, type, id);
+        return this;
+    }
+
+    /**
+     * Adds an operation
+     * @param action what to do
+     * @param type the kind of entity
+     * @param id id of the entity (or null)
+     * @return the added operation
+     */
+    private BatchOperation add(BatchOperation.Action action, BatchOperation.Type type, Long id) {
+        BatchOperation operation = new BatchOperation(action, type, id);
+        operations.add(operation);
+        return operation;
+    }
+}
@@ -15,24 +15,54 @@
  */
 package client.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.*;
 import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
 import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.message.GZipEncoder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.function.Consumer;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 
 public class ServerUtils {
 
+    private static final HttpClient PATCH_CLIENT = HttpClient.newHttpClient();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Number of responses kept for revalidation; the least recently
+     * requested urls are dropped first
+     */
+    private static final int REVALIDATED_SIZE = 64;
+
+    private final Map<String, Revalidated> revalidated = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Revalidated> eldest) {
+                return size() > REVALIDATED_SIZE;
+            }
+        });
+
     private String server = "http://localhost:8080/";
 
     /**
@@ -94,34 +124,37 @@ public class ServerUtils {
     }
 
     /**
-     * Constructs GET request that retrieves a board by a given id
+     * Constructs GET request that retrieves a board by a given id.
+     * If the board did not change since it was last fetched,
+     * the server only confirms that the local copy is still current
      *
      * @param id id of the board
      * @return object of type Board
      */
     public Board getBoardByID(long id) {
-        Response result = ClientBuilder.newClient(new ClientConfig())
-            .target(server).path("api/board/get/" + id)
-            .request(APPLICATION_JSON)
-            .accept(APPLICATION_JSON)
-            .get();
-        if (result.getStatus() == 200) {
-            return result.readEntity(new GenericType<>() {
-            });
-        } else {
-            return null;
-        }
+        return getRevalidated("api/board/get/" + id, Board.class);
     }
     /**
      * Constructs GET request that retrieves a board
-     * by a given user-friendly id
+     * by a given user-friendly id, revalidating the local copy if there is one
      *
      * @param id id of the board
      * @return object of type Board
      */
     public Board getBoardByUserID(String id) {
+        return getRevalidated("api/board/get/userID/" + id, Board.class);
+    }
+
+    /**
+     * Constructs GET request that retrieves the card summary of a board,
+     * which has no task descriptions or subtasks
+     *
+     * @param id id of the board
+     * @return object of type BoardSummary
+     */
+    public BoardSummary getBoardSummary(long id) {
         Response result = ClientBuilder.newClient(new ClientConfig())
-            .target(server).path("api/board/get/userID/" + id)
+            .target(server).path("api/board/" + id + "/summary")
             .request(APPLICATION_JSON)
             .accept(APPLICATION_JSON)
             .get();
@@ -134,12 +167,45 @@ public class ServerUtils {
     }
 
     /**
-     * Get all boards for admin view
-     * @return list of boards
+     * Gets the changes made to a board after a version, to catch up after
+     * the connection to the server was lost
+     *
+     * @param id id of the board
+     * @param after the version of the board on screen
+     * @return the changes in order, or null if the server no longer has all of them
+     *      (or the request failed), so the board has to be fetched
      */
-    public List<Board> getAllBoards(){
+    public List<BoardChange> getChangesAfter(long id, long after) {
+        try {
+            Response result = ClientBuilder.newClient(new ClientConfig())
+                .target(server).path("api/board/events/" + id)
+                .queryParam("after", after)
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON)
+                .get();
+            if (result.getStatus() != 200) {
+                return null;
+            }
+            return MAPPER.readerFor(new TypeReference<List<BoardChange>>() {
+                })
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(result.readEntity(String.class));
+        } catch (ProcessingException | JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets a page of board listings for the admin view
+     * @param afterId id of the last board on the previous page (0 for the first page)
+     * @param limit the number of boards on the page
+     * @return the listings, or null if the request failed
+     */
+    public List<BoardListing> getBoardListings(long afterId, int limit){
         Response response = ClientBuilder.newClient(new ClientConfig())
-            .target(server).path("api/board/get")
+            .target(server).path("api/board/listing")
+            .queryParam("after", afterId)
+            .queryParam("limit", limit)
             .request(APPLICATION_JSON)
             .accept(APPLICATION_JSON)
             .get();
@@ -183,26 +249,46 @@ public class ServerUtils {
         });
     }
     /**
-     * Constructs a GET request that retrieves a task from the database
+     * Constructs a GET request that retrieves a task from the database,
+     * revalidating the local copy if there is one
      *
      * @param id id of the task
      * @return object of type Task
      */
     public Task getTaskByID(Long id) {
-        Response result = ClientBuilder.newClient(new ClientConfig())
-            .target(server).path("api/task/get/" + id)
-            .request(APPLICATION_JSON)
+        return getRevalidated("api/task/get/" + id, Task.class);
+    }
+
+
+    /**
+     * Constructs POST request to the server that moves a task to a list,
+     * right after or before one of its tasks (or to its end if both are null)
+     *
+     * @param taskId id of the task to move
+     * @param listId id of the target task list
+     * @param afterId id of the task to place it after (or null)
+     * @param beforeId id of the task to place it before (or null)
+     * @return the new rank of the task, or null if it could not be moved
+     */
+    public Long moveTask(long taskId, long listId, Long afterId, Long beforeId) {
+        WebTarget target = ClientBuilder.newClient(new ClientConfig())
+            .target(server).path("api/task/" + taskId + "/move")
+            .queryParam("list", listId);
+        if(afterId != null) {
+            target = target.queryParam("after", afterId);
+        }
+        if(beforeId != null) {
+            target = target.queryParam("before", beforeId);
+        }
+        Response result = target.request(APPLICATION_JSON)
             .accept(APPLICATION_JSON)
-            .get();
-        if (result.getStatus() == 200) {
-            return result.readEntity(new GenericType<>() {
-            });
-        } else {
+            .post(Entity.json(""));
+        if(result.getStatus() != 200) {
             return null;
         }
+        return result.readEntity(Long.class);
     }
 
-
     /**
      * Constructs POST request to the server
      * that saves a given task list to the database
@@ -222,20 +308,22 @@ public class ServerUtils {
     }
 
     /**
-     * Constructs POST request to the server
-     * that removes a given task list from the database
+     * Constructs DELETE request to the server that removes a given task list,
+     * together with its tasks, from the database
      *
      * @param taskList task list that needs to be removed
-     * @return true or false based on HTTP status code
+     * @return the id of the removed task list, or null if it could not be removed
      */
-    public TaskList removeTaskList(TaskList taskList) {
+    public Long removeTaskList(TaskList taskList) {
         Response result = ClientBuilder.newClient(new ClientConfig())
-            .target(server).path("api/tasklist/remove")
+            .target(server).path("api/tasklist/remove/" + taskList.getId())
             .request(APPLICATION_JSON)
             .accept(APPLICATION_JSON)
-            .post(Entity.json(taskList));
-        return result.readEntity(new GenericType<>() {
-        });
+            .delete();
+        if(result.getStatus() != 200) {
+            return null;
+        }
+        return result.readEntity(Long.class);
     }
 
     /**
@@ -456,32 +544,147 @@ public class ServerUtils {
         return response.readEntity(new GenericType<>(){});
     }
 
-    private final ExecutorService exec = Executors.newCachedThreadPool();
-    private final ExecutorService boardExec = Executors.newCachedThreadPool();
+    /**
+     * Changes only the given fields of a board, e.g. its title or colors
+     * @param id id of the board
+     * @param fields the new values by field name
+     * @return true if the board was updated
+     */
+    public boolean patchBoard(long id, Map<String, String> fields) {
+        return patch("api/board/" + id, fields);
+    }
+
+    /**
+     * Changes only the given fields of a task list, e.g. its title
+     * @param id id of the task list
+     * @param fields the new values by field name
+     * @return true if the task list was updated
+     */
+    public boolean patchTaskList(long id, Map<String, String> fields) {
+        return patch("api/tasklist/" + id, fields);
+    }
 
     /**
-     * Uses long polling to check whether a task has been deleted from the database.
-     * @param thisID id of the task
-     * @param taskID consumer for closing TaskView
+     * Changes only the given fields of a task, e.g. its title or description
+     * @param id id of the task
+     * @param fields the new values by field name
+     * @return true if the task was updated
      */
-    public void poll(Long thisID, Consumer<Long> taskID){
-        exec.execute(() -> {
-            while(!Thread.interrupted()){
-                Response result = ClientBuilder.newClient(new ClientConfig())
-                        .target(server).path("api/task/" + thisID + "/status")
-                        .request(APPLICATION_JSON)
-                        .accept(APPLICATION_JSON)
-                        .get(Response.class);
-                if(result.getStatus() == 304){
-                    continue;
-                }
-                var id = result.readEntity(Long.class);
-                taskID.accept(id);
-                stopLongPolling();
-            }
+    public boolean patchTask(long id, Map<String, String> fields) {
+        return patch("api/task/" + id, fields);
+    }
+
+    /**
+     * Changes only the given fields of a subtask, e.g. its checked flag
+     * @param id id of the subtask
+     * @param fields the new values by field name
+     * @return true if the subtask was updated
+     */
+    public boolean patchSubTask(long id, Map<String, String> fields) {
+        return patch("api/subtask/" + id, fields);
+    }
+
+    /**
+     * Starts a batch of operations that are sent in a single request
+     * @return an empty batch
+     */
+    public BatchBuilder batch() {
+        return new BatchBuilder(this);
+    }
+
+    /**
+     * Constructs POST request to the server that applies a list of
+     * operations in order, in a single transaction
+     *
+     * @param operations the operations
+     * @return one result per operation: the id of a created or deleted entity,
+     *      the number of rows an update changed, or the new rank of a moved task.
+     *      Null if the batch failed and none of it was applied
+     */
+    public List<Long> sendBatch(List<BatchOperation> operations) {
+        Response result = ClientBuilder.newClient(new ClientConfig())
+            .target(server).path("api/batch")
+            .request(APPLICATION_JSON)
+            .accept(APPLICATION_JSON)
+            .post(Entity.json(operations));
+        if(result.getStatus() != 200) {
+            return null;
+        }
+        return result.readEntity(new GenericType<>() {
         });
     }
 
+    /**
+     * Sends a PATCH request with the given fields as a JSON object.
+     * The default Jersey connector can't send PATCH on recent JDKs,
+     * so these requests go through the JDK http client
+     * @param path path of the resource
+     * @param fields the new values by field name
+     * @return true if the server accepted the update
+     */
+    private boolean patch(String path, Map<String, String> fields) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(
+                    UriBuilder.fromUri(server).path(path).build())
+                .header("Content-Type", APPLICATION_JSON)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                    MAPPER.writeValueAsString(fields)))
+                .build();
+            return PATCH_CLIENT.send(request, HttpResponse.BodyHandlers.discarding())
+                .statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Sends a GET request that carries the ETag of the last response from the
+     * same url, if there is one. When the server answers that the resource did
+     * not change, the body of the last response is decoded again instead,
+     * so every caller still gets an object of its own. The response may come
+     * gzip-compressed, which is inflated before it is read
+     * @param path path of the resource
+     * @param type the type of the resource
+     * @param <T> the type of the resource
+     * @return the resource, or null if the request failed
+     */
+    private <T> T getRevalidated(String path, Class<T> type) {
+        String url = server + path;
+        Revalidated cached = revalidated.get(url);
+        var request = ClientBuilder.newClient(new ClientConfig()
+                .register(GZipEncoder.class)
+                .register(EncodingFilter.class))
+            .target(server).path(path)
+            .request(APPLICATION_JSON)
+            .accept(APPLICATION_JSON);
+        if(cached != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, cached.eTag);
+        }
+        Response result = request.get();
+        String json;
+        if(result.getStatus() == 304 && cached != null) {
+            json = cached.json;
+        } else if(result.getStatus() == 200) {
+            json = result.readEntity(String.class);
+            String eTag = result.getHeaderString(HttpHeaders.ETAG);
+            if(eTag != null) {
+                revalidated.put(url, new Revalidated(eTag, json));
+            }
+        } else {
+            revalidated.remove(url);
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            revalidated.remove(url);
+            return null;
+        }
+    }
+
     /**
      * Utility method for admin to remove password for a board
      * @param id target board
@@ -497,32 +700,22 @@ public class ServerUtils {
             return null;
         return response.readEntity(new GenericType<>(){});
     }
-    /**
-     * Uses long polling to check whether a board has been deleted from the database.
-     * @param boardID consumer for closing BoardView
-     */
-    public void pollBoard(Consumer<Long> boardID){
-        boardExec.execute(() -> {
-            while(!Thread.interrupted()){
-                Response result = ClientBuilder.newClient(new ClientConfig())
-                        .target(server).path("api/board/status")
-                        .request(APPLICATION_JSON)
-                        .accept(APPLICATION_JSON)
-                        .get(Response.class);
-                if(result.getStatus() == 304){
-                    continue;
-                }
-                var board = result.readEntity(Board.class);
-                boardID.accept(board.getId());
-            }
-        });
-    }
 
     /**
-     * Stops polling thread.
+     * The last response from a url, kept to revalidate it with its ETag
      */
-    public void stopLongPolling(){
-        Thread.currentThread().interrupt();
+    private static class Revalidated {
+        private final String eTag;
+        private final String json;
+
+        /**
+         * Constructor
+         * @param eTag the ETag of the response
+         * @param json the body of the response
+         */
+        Revalidated(String eTag, String json) {
+            this.eTag = eTag;
+            this.json = json;
+        }
     }
-
-}
\ No newline at end of file
+}
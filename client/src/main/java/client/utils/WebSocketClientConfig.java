@@ -1,42 +1,112 @@
 package client.utils;
 
-import client.exceptions.ConnectionNotOpenException;
 import client.exceptions.NullMessageModelClassType;
 import client.exceptions.UnsupportedPayloadType;
 import client.exceptions.WebSocketConnectionException;
-import commons.*;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import commons.BoardChange;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.messaging.converter.CompositeMessageConverter;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.stomp.StompHeaders;
 import org.springframework.messaging.simp.stomp.StompSession;
 import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 
 import java.lang.reflect.Type;
-import java.util.UUID;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class WebSocketClientConfig {
+    /**
+     * The header of a subscription that tells the server which encodings the client takes
+     */
+    public static final String ACCEPT = "accept";
+
+    /**
+     * The WebSocket extension that compresses every message with deflate
+     */
+    public static final String DEFLATE = "permessage-deflate";
 
-    private StompSession stompSession = null;
-    private UUID uuid;
+    private static final long RECONNECT_DELAY = 1000;
+    private static final long MAX_RECONNECT_DELAY = 30_000;
+
+    private final ScheduledExecutorService reconnects =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
+    private volatile StompSession stompSession = null;
+    private String url;
+    private int attempts;
+    private Runnable reconnectListener = () -> {
+    };
 
     /**
-     * Connects to a WebSocket server
+     * Connects to a WebSocket server. If the connection is lost later,
+     * it is opened again, and the reconnect listener is told
      *
      * @param url url
      */
     public void connect(String url) throws WebSocketConnectionException {
+        synchronized (this) {
+            this.url = url;
+            attempts = 0;
+        }
+        open(url);
+    }
+
+    /**
+     * Sets what is done once a lost connection is opened again; the subscriptions
+     * of the lost connection are gone, and the changes sent meanwhile were missed
+     *
+     * @param reconnectListener the listener, run on the thread that reconnected
+     */
+    public void setReconnectListener(Runnable reconnectListener) {
+        this.reconnectListener = reconnectListener;
+    }
+
+    /**
+     * Opens a connection to a WebSocket server, offering to compress the messages
+     * with permessage-deflate (a server that doesn't support it sends them plain)
+     *
+     * @param url url
+     */
+    private void open(String url) throws WebSocketConnectionException {
         var client = new StandardWebSocketClient();
         var stomp = new WebSocketStompClient(client);
-        stomp.setMessageConverter(new MappingJackson2MessageConverter());
+        stomp.setMessageConverter(messageConverter());
+        WebSocketHttpHeaders handshake = new WebSocketHttpHeaders();
+        handshake.setSecWebSocketExtensions(List.of(new WebSocketExtension(DEFLATE)));
         try {
             stompSession =
-                stomp.connect(url, new StompSessionHandlerAdapter() {
+                stomp.connect(url, handshake, new StompSessionHandlerAdapter() {
+                    /**
+                     * Reconnects when the connection is lost
+                     * @param session the session
+                     * @param exception the reason
+                     */
+                    @Override
+                    public void handleTransportError(@NotNull StompSession session,
+                                                     @NotNull Throwable exception) {
+                        if (!session.isConnected()) {
+                            scheduleReconnect(session);
+                        }
+                    }
                 }).get();
-            uuid = UUID.randomUUID();
         } catch (ExecutionException | InterruptedException | IllegalStateException e) {
             throw new WebSocketConnectionException(
                 "Error connecting to WebSocket at server address " + url, e);
@@ -44,67 +114,81 @@ public class WebSocketClientConfig {
     }
 
     /**
-     * Method that checks is there is an open WebSocket connection
+     * Schedules an attempt to open a lost connection again. The delay doubles
+     * with every failed attempt, and is picked at random from its upper half,
+     * so that the clients of a server that restarted don't all come back at once
      *
-     * @return state of the connection
+     * @param lost the session that was lost
      */
-    public boolean isConnected() {
-        return stompSession != null && stompSession.isConnected();
+    private synchronized void scheduleReconnect(StompSession lost) {
+        if (lost != stompSession || reconnects.isShutdown()) {
+            return;
+        }
+        long delay = Math.min(MAX_RECONNECT_DELAY, RECONNECT_DELAY << Math.min(attempts, 5));
+        attempts++;
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        reconnects.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * Helper method that sends message to the WebSocket Server Configuration
-     *
-     * @param payload message
-     * @param <T>     the type of the message
+     * Opens a lost connection again, or schedules the next attempt
      */
-    public <T> void sendToOthers(T payload) {
-        try {
-            if (payload instanceof Board) {
-                this.send("/api/board", payload);
-            } else if (payload instanceof TaskList) {
-                this.send("/api/taskList", payload);
-            } else if (payload instanceof Task) {
-                this.send("/api/task", payload);
-            } else if (payload instanceof SubTask) {
-                this.send("/api/subtask", payload);
-            } else if (payload instanceof Tag) {
-                this.send("/api/tag", payload);
+    private void reconnect() {
+        String target;
+        synchronized (this) {
+            if (isConnected()) {
+                return;
             }
-        } catch (ConnectionNotOpenException e) {
-            System.err.println(e.getMessage());
+            target = url;
         }
+        StompSession lost = stompSession;
+        try {
+            open(target);
+        } catch (WebSocketConnectionException e) {
+            scheduleReconnect(lost);
+            return;
+        }
+        synchronized (this) {
+            attempts = 0;
+        }
+        reconnectListener.run();
     }
 
     /**
-     * Sends payload to a given destination
+     * Creates the converter of the payloads. Servers that know the accept header
+     * of a subscription send CBOR in binary frames (application/octet-stream),
+     * others send JSON
      *
-     * @param dest    WebSocket Endpoint
-     * @param payload object to be sent
-     * @param <T>     type of the object
+     * @return the converter
      */
-    private <T> void send(String dest, T payload) throws ConnectionNotOpenException {
-        if (this.stompSession == null) {
-            throw new ConnectionNotOpenException(
-                "Cannot send payload, because stompSession is null");
-        } else {
-            var headers = new StompHeaders();
-            headers.add("destination", dest);
-            headers.add("uuid", String.valueOf(uuid));
-//            headers.setId(String.valueOf(uuid));
-            stompSession.send(headers, payload);
-        }
+    static MessageConverter messageConverter() {
+        MappingJackson2MessageConverter cbor =
+            new MappingJackson2MessageConverter(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        cbor.setObjectMapper(new ObjectMapper(new CBORFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+        return new CompositeMessageConverter(List.of(new MappingJackson2MessageConverter(), cbor));
     }
 
     /**
-     * Subscribes to a given message broker
+     * Method that checks is there is an open WebSocket connection
+     *
+     * @return state of the connection
+     */
+    public boolean isConnected() {
+        return stompSession != null && stompSession.isConnected();
+    }
+
+    /**
+     * Subscribes to a given message broker, asking for the payloads as CBOR
      *
      * @param destination WebSocket Endpoint
      * @param type        Type of the object to receive
      * @param consumer    Callback that handles payloads
      * @param <T>         type of the payload
+     * @return the subscription, or null if there is no open connection
      */
-    public <T> void subscribe(String destination, Class<T> type, Consumer<T> consumer) {
+    public <T> StompSession.Subscription subscribe(String destination, Class<T> type,
+                                                  Consumer<T> consumer) {
         try {
             if (stompSession == null) {
                 throw new WebSocketConnectionException(
@@ -112,8 +196,12 @@ public class WebSocketClientConfig {
             }
         } catch (WebSocketConnectionException e) {
             System.err.println(e.getMessage());
+            return null;
         }
-        stompSession.subscribe(destination, new StompSessionHandlerAdapter() {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        headers.set(ACCEPT, BoardChange.CBOR);
+        return stompSession.subscribe(headers, new StompSessionHandlerAdapter() {
             /**
              * Returns the payload type
              * @param headers the headers of a message
@@ -144,10 +232,9 @@ public class WebSocketClientConfig {
             @Override
             public void handleFrame(@NotNull StompHeaders headers, Object payload) {
                 try {
-                    var senderUUID = headers.get("uuid").get(0);
                     if (!type.isInstance(payload)) {
                         throw new UnsupportedPayloadType("Payload is not of supported type!");
-                    } else if(!senderUUID.equals(String.valueOf(uuid))){
+                    } else {
                         consumer.accept(type.cast(payload));
                     }
                 } catch (UnsupportedPayloadType e) {
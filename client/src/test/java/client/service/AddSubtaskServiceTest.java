@@ -74,6 +74,5 @@ class AddSubtaskServiceTest {
 
         verify(taskViewController).closeAddSubtaskWindow();
         verify(taskViewController).getCurrentTaskView();
-        verify(mainCtrl).sendToOthers(any());
     }
 }
\ No newline at end of file
@@ -10,16 +10,18 @@ import commons.Task;
 import commons.TaskList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 class ColorManagementServiceTest {
@@ -58,7 +60,6 @@ class ColorManagementServiceTest {
 
         verify(serverUtils).saveBoard(any(Board.class));
         verify(colorManagementController).updateColorPresets(any(Board.class));
-        verify(mainCtrl).sendToOthers(any(Board.class));
     }
 
     @Test
@@ -75,7 +76,6 @@ class ColorManagementServiceTest {
 
         verify(serverUtils).saveBoard(any(Board.class));
         verify(colorManagementController).updateColorPresets(any(Board.class));
-        verify(mainCtrl).sendToOthers(any(Board.class));
     }
 
     @Test
@@ -95,7 +95,6 @@ class ColorManagementServiceTest {
 
         verify(serverUtils).saveBoard(any(Board.class));
         verify(colorManagementController).updateColorPresets(any(Board.class));
-        verify(mainCtrl).sendToOthers(any(Board.class));
     }
 
     @Test
@@ -119,14 +118,22 @@ class ColorManagementServiceTest {
         board.addNewTaskList(taskList);
 
         Mockito.doReturn(board).when(colorManagementController).getAssociatedBoard();
-        Mockito.doReturn(board).when(serverUtils).saveBoard(any(Board.class));
-        Mockito.doReturn(board).when(serverUtils).getBoardByID(any(Long.class));
         BoardView boardView = Mockito.mock(BoardView.class);
         Mockito.doReturn(boardView).when(mainCtrl).getBoardViewById(board.getId());
 
-        colorManagementService.saveChange("1","2","3","4", mock(ColorEntity.class));
-
-        verify(boardView).updateOverview(board);
-        verify(mainCtrl).sendToOthers(board);
+        ColorEntity defaultColor = new ColorEntity();
+        defaultColor.setBackGroundColor("5");
+        defaultColor.setFontColor("6");
+        colorManagementService.saveChange("1","2","3","4", defaultColor);
+
+        Map<String, String> fields = Map.of("boardBgColor", "1", "boardFontColor", "2",
+            "taskListsBgColor", "3", "taskListsFontColor", "4",
+            "taskDefaultBgColor", "5", "taskDefaultFontColor", "6");
+        verify(serverUtils).patchBoard(board.getId(), fields);
+        verify(serverUtils, never()).saveBoard(any(Board.class));
+        ArgumentCaptor<Board> updated = ArgumentCaptor.forClass(Board.class);
+        verify(boardView).updateOverview(updated.capture());
+        assertEquals("1", updated.getValue().getBoardBgColor());
+        assertEquals(defaultColor, updated.getValue().getTaskDefaultColor());
     }
 }
\ No newline at end of file
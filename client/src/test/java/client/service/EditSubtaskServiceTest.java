@@ -14,6 +14,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 
@@ -50,13 +51,14 @@ public class EditSubtaskServiceTest {
         Mockito.doReturn(currentSubtask).when(editSubtaskController).getCurrentSubtask();
         Mockito.doReturn(taskView).when(editSubtaskController).getTaskView();
         Mockito.doReturn(task).when(taskView).getAssociatedTask();
-        Mockito.doReturn(null).when(serverUtils).saveSubTask(any());
         Mockito.doNothing().when(taskView).updateOverview(any());
 
 
         editSubtaskService.updateSubtask("new");
 
+        Mockito.verify(serverUtils).patchSubTask(currentSubtask.getId(),
+            Map.of("description", "new"));
+        Mockito.verify(serverUtils, Mockito.never()).saveSubTask(any());
         Mockito.verify(taskView).updateOverview(any());
-        Mockito.verify(mainCtrl).sendToOthers(task);
     }
 }
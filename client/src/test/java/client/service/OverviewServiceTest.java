@@ -7,6 +7,7 @@ import client.scenes.MainCtrl;
 import client.scenes.OverviewController;
 import client.utils.ServerUtils;
 import commons.Board;
+import commons.BoardListing;
 import commons.ColorEntity;
 import commons.Task;
 import commons.TaskList;
@@ -18,9 +19,11 @@ import org.mockito.*;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class OverviewServiceTest {
@@ -143,7 +146,6 @@ class OverviewServiceTest {
         verify(boardView, times(2)).getAssociatedBoard();
         verify(serverUtils).addNewTaskList(any(TaskList.class));
         verify(boardView).updateOverview(any(Board.class));
-        verify(mainCtrl).sendToOthers(any(Board.class));
     }
 
     @Test
@@ -153,6 +155,7 @@ class OverviewServiceTest {
         Mockito.doReturn(board).when(boardView).getAssociatedBoard();
 
         TaskList taskList = new TaskList();
+        taskList.setTasks(new ArrayList<>());
         TaskListView taskListView = Mockito.mock(TaskListView.class);
         Mockito.doReturn(taskList).when(taskListView).getAssociatedTaskList();
         Mockito.doReturn(null).when(serverUtils).removeTaskList(taskList);
@@ -175,17 +178,22 @@ class OverviewServiceTest {
         doReturn(board).when(boardView).getAssociatedBoard();
 
         TaskList taskList = new TaskList();
+        taskList.setId(3L);
         taskList.setTasks(new ArrayList<>());
+        Task task = new Task();
+        task.setId(4L);
+        taskList.getTasks().add(task);
         TaskListView taskListView = Mockito.mock(TaskListView.class);
         Mockito.doReturn(taskList).when(taskListView).getAssociatedTaskList();
-        Mockito.doReturn(taskList).when(serverUtils).removeTaskList(any(TaskList.class));
+        Mockito.doReturn(3L).when(serverUtils).removeTaskList(taskList);
 
         overviewService.removeTaskList(taskListView, boardView);
 
         verify(serverUtils).removeTaskList(taskList);
+        verify(serverUtils, never()).removeTask(any(Long.class));
+        verify(serverUtils, never()).sendBatch(any());
         verify(boardView).getAssociatedBoard();
         verify(boardView).updateOverview(any(Board.class));
-        verify(mainCtrl).sendToOthers(any(Board.class));
     }
 
     @Test
@@ -223,7 +231,6 @@ class OverviewServiceTest {
         verify(serverUtils).addNewTask(any(Task.class));
         verify(overviewController, times(2)).getSelectedBoardView();
         verify(boardView).getAssociatedBoard();
-        verify(mainCtrl).sendToOthers(any());
     }
 
     @Test
@@ -244,18 +251,20 @@ class OverviewServiceTest {
     }
 
     @Test
-    void getAllBoardsOK(){
-        var allBoards = Mockito.mock(ArrayList.class);
-        Mockito.doReturn(allBoards).when(serverUtils).getAllBoards();
-        var ret = overviewService.getAllBoards();
-        assertEquals(allBoards, ret);
+    void getBoardListingsOK(){
+        var listings = List.of(new BoardListing());
+        Mockito.doReturn(listings).when(serverUtils)
+            .getBoardListings(5L, OverviewService.ADMIN_PAGE_SIZE);
+        var ret = overviewService.getBoardListings(5L);
+        assertEquals(listings, ret);
     }
 
     @Test
-    void getAllBoardsFail(){
-        Mockito.doReturn(null).when(serverUtils).getAllBoards();
+    void getBoardListingsFail(){
+        Mockito.doReturn(null).when(serverUtils)
+            .getBoardListings(0L, OverviewService.ADMIN_PAGE_SIZE);
         assertThrows(IllegalArgumentException.class, () -> {
-            overviewService.getAllBoards();
+            overviewService.getBoardListings(0L);
         });
     }
 
@@ -332,14 +341,12 @@ class OverviewServiceTest {
         Mockito.doReturn(mockBoardView).when(overviewController).getSelectedBoardView();
         Mockito.doReturn(mockBoard).when(mockBoardView).getAssociatedBoard();
         mockBoard.setTitle("new");
-        Mockito.doReturn(mockBoard).when(serverUtils).saveBoard(mockBoard);
         Mockito.doNothing().when(mockBoardView).updateOverview(any(Board.class));
-        Mockito.doNothing().when(mainCtrl).sendToOthers(any(Board.class));
         overviewService.updateTitle("new", mockBoardView);
         verify(mockBoardView, times(1)).getAssociatedBoard();
-        verify(serverUtils, times(1)).saveBoard(mockBoard);
+        verify(serverUtils, times(1)).patchBoard(mockBoard.getId(), Map.of("title", "new"));
+        verify(serverUtils, never()).saveBoard(any());
         verify(mockBoardView, times(1)).updateOverview(mockBoard);
-        verify(mainCtrl, times(1)).sendToOthers(mockBoard);
         assertEquals("new", mockBoard.getTitle());
     }
     @Test
@@ -368,4 +375,55 @@ class OverviewServiceTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void testMoveTaskUp(){
+        TaskListView taskListView = Mockito.mock(TaskListView.class);
+        TaskList taskList = taskListWithTasks(3);
+        Mockito.doReturn(taskListView).when(mainCtrl).getTaskListViewById(4L);
+        Mockito.doReturn(taskList).when(taskListView).getAssociatedTaskList();
+        overviewService.moveTask(taskList.getTasks().get(1), -1);
+        verify(serverUtils, times(1)).moveTask(2L, 4L, null, 1L);
+        verify(serverUtils, never()).saveTaskList(any());
+        verify(taskListView, times(1)).updateOverview(any(TaskList.class));
+    }
+    @Test
+    void testMoveTaskDown(){
+        TaskListView taskListView = Mockito.mock(TaskListView.class);
+        TaskList taskList = taskListWithTasks(3);
+        Mockito.doReturn(taskListView).when(mainCtrl).getTaskListViewById(4L);
+        Mockito.doReturn(taskList).when(taskListView).getAssociatedTaskList();
+        overviewService.moveTask(taskList.getTasks().get(1), 1);
+        verify(serverUtils, times(1)).moveTask(2L, 4L, 3L, null);
+    }
+    @Test
+    void testMoveTaskOutOfList(){
+        TaskListView taskListView = Mockito.mock(TaskListView.class);
+        TaskList taskList = taskListWithTasks(3);
+        Mockito.doReturn(taskListView).when(mainCtrl).getTaskListViewById(4L);
+        Mockito.doReturn(taskList).when(taskListView).getAssociatedTaskList();
+        overviewService.moveTask(taskList.getTasks().get(2), 1);
+        verify(serverUtils, never()).moveTask(anyLong(), anyLong(), any(), any());
+    }
+
+    /**
+     * Builds a task list with id 4 and tasks with ids 1 to count
+     * @param count number of tasks
+     * @return the task list
+     */
+    private TaskList taskListWithTasks(int count) {
+        TaskList taskList = new TaskList();
+        taskList.setId(4L);
+        taskList.setTasks(new ArrayList<>());
+        taskList.setTasksLists(new ArrayList<>());
+        for(long i = 1; i <= count; i++) {
+            Task task = new Task();
+            task.setId(i);
+            task.setTaskListID(4L);
+            task.setTitle("Task " + i);
+            task.setSubTasks(new ArrayList<>());
+            task.setTags(new ArrayList<>());
+            taskList.getTasks().add(task);
+        }
+        return taskList;
+    }
+}
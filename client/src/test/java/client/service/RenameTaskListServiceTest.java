@@ -16,9 +16,11 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -50,14 +52,13 @@ class RenameTaskListServiceTest {
 
         TaskList taskList = Mockito.spy(new TaskList());
         taskList.setTasks(new ArrayList<>());
-        Mockito.doReturn(taskList).when(serverUtils).saveTaskList(any(TaskList.class));
 
         renameTaskListService.rename(taskList,"a new name");
 
         verify(overviewController, times(2)).getSelectedBoardView();
-        verify(serverUtils).saveTaskList(any(TaskList.class));
+        verify(serverUtils).patchTaskList(taskList.getId(), Map.of("title", "a new name"));
+        verify(serverUtils, never()).saveTaskList(any(TaskList.class));
         verify(boardView).updateOverview(any(Board.class));
-        verify(mainCtrl).sendToOthers(taskList);
     }
 
     @Test
@@ -5,10 +5,12 @@ import client.components.TaskView;
 import client.scenes.MainCtrl;
 import client.scenes.OverviewController;
 import client.scenes.TaskViewController;
+import client.utils.BatchBuilder;
 import client.utils.ServerUtils;
 import commons.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -16,6 +18,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +40,7 @@ class TaskViewServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        Mockito.doAnswer(invocation -> new BatchBuilder(serverUtils)).when(serverUtils).batch();
     }
 
     @Test
@@ -67,7 +71,6 @@ class TaskViewServiceTest {
         TaskView taskView = Mockito.mock(TaskView.class);
 
         Mockito.doReturn(task).when(taskViewController).getCurrentTask();
-        Mockito.doReturn(task).when(serverUtils).saveTaskByID(any(Task.class));
         Mockito.doReturn(taskView).when(taskViewController).getCurrentTaskView();
         Mockito.doReturn(task).when(serverUtils).getTaskByID(any(Long.class));
         Board board = new Board();
@@ -83,11 +86,60 @@ class TaskViewServiceTest {
         taskViewService.saveTask("a title", "a description", "#cccccc",
                 "#000000", new ArrayList<>());
 
-        verify(serverUtils).saveTaskByID(any(Task.class));
-        verify(mainCtrl).getBoardViewFromTask(task);
+        Map<String, String> fields = Map.of("title", "a title", "description", "a description",
+            "backGroundColor", "#cccccc", "fontColor", "#000000");
+        ArgumentCaptor<List<BatchOperation>> sent = ArgumentCaptor.forClass(List.class);
+        verify(serverUtils).sendBatch(sent.capture());
+        assertEquals(1, sent.getValue().size());
+        assertEquals(BatchOperation.Action.UPDATE, sent.getValue().get(0).getAction());
+        assertEquals(fields, sent.getValue().get(0).getFields());
+        verify(serverUtils, never()).saveTaskByID(any(Task.class));
+        verify(mainCtrl).getBoardViewFromTask(any(Task.class));
         verify(taskViewController).getCurrentTaskView();
-        verify(taskView).updateOverview(task);
-        verify(mainCtrl).sendToOthers(task);
+        ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+        verify(taskView).updateOverview(saved.capture());
+        assertEquals("a title", saved.getValue().getTitle());
+    }
+
+    @Test
+    void saveTaskPatchesToggledSubtasks() {
+        TaskViewController taskViewController =
+                Mockito.spy(new TaskViewController(mainCtrl, taskViewService, new ServerUtils()));
+        taskViewService.setTaskViewController(taskViewController);
+
+        SubTask saved = new SubTask();
+        saved.setId(7L);
+        SubTask untouched = new SubTask();
+        untouched.setId(8L);
+        Task task = new Task();
+        task.setSubTasks(new ArrayList<>(List.of(saved, untouched)));
+        task.setTags(new ArrayList<>());
+        task.setTaskListID(2L);
+        SubTask toggled = new SubTask(saved);
+        toggled.setChecked(true);
+
+        Mockito.doReturn(task).when(taskViewController).getCurrentTask();
+        Mockito.doReturn(Mockito.mock(TaskView.class))
+                .when(taskViewController).getCurrentTaskView();
+        Mockito.doReturn(task).when(serverUtils).getTaskByID(any(Long.class));
+        Board board = new Board();
+        board.setTaskLists(new ArrayList<>());
+        board.setTaskColorPresets(new ArrayList<>());
+        board.setTaskDefaultColor(new ColorEntity());
+        BoardView boardView = Mockito.mock(BoardView.class);
+        Mockito.doReturn(boardView).when(mainCtrl).getBoardViewFromTask(any(Task.class));
+        Mockito.doReturn(board).when(boardView).getAssociatedBoard();
+
+        taskViewService.saveTask("a title", "a description", "#cccccc",
+                "#000000", new ArrayList<>(List.of(toggled, new SubTask(untouched))));
+
+        ArgumentCaptor<List<BatchOperation>> sent = ArgumentCaptor.forClass(List.class);
+        verify(serverUtils).sendBatch(sent.capture());
+        assertEquals(2, sent.getValue().size());
+        assertEquals(BatchOperation.Type.SUB_TASK, sent.getValue().get(1).getType());
+        assertEquals(7L, sent.getValue().get(1).getId());
+        assertEquals(Map.of("checked", "true"), sent.getValue().get(1).getFields());
+        verify(serverUtils, never()).patchSubTask(anyLong(), any());
     }
 
     @Test
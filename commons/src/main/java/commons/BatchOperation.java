@@ -0,0 +1,51 @@
+package commons;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class BatchOperation {
+    /**
+     * What an operation does to its entity
+     */
+    public enum Action { CREATE, UPDATE, DELETE, MOVE }
+
+    /**
+     * The kind of entity an operation applies to
+     */
+    public enum Type { BOARD, TASK_LIST, TASK, SUB_TASK, TAG }
+
+    private Action action;
+    private Type type;
+    private Long id;
+    private Long parentId;
+    private Map<String, String> fields;
+    private Long listId;
+    private Long afterId;
+    private Long beforeId;
+    private Board board;
+    private TaskList taskList;
+    private Task task;
+    private SubTask subTask;
+    private Tag tag;
+
+    /**
+     * Constructor of batch operation with no parameter
+     */
+    public BatchOperation() {
+    }
+
+    /**
+     * Constructor of a batch operation on an existing entity
+     *
+     * @param action what to do
+     * @param type the kind of entity
+     * @param id the id of the entity
+     */
+    public BatchOperation(Action action, Type type, Long id) {
+        this.action = action;
+        this.type = type;
+        this.id = id;
+    }
+}
@@ -11,12 +11,24 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_board_user_id",
+    columnNames = "userId"))
 @Data
 @EqualsAndHashCode(callSuper=false)
 @SuppressWarnings("contructor")
+@NamedEntityGraph(name = Board.TASK_LISTS_GRAPH, attributeNodes = {
+    @NamedAttributeNode("taskLists"),
+    @NamedAttributeNode("taskDefaultColor")
+})
 public class Board extends Model{
+    /**
+     * Fetch plan that loads a board together with its task lists in one query
+     */
+    public static final String TASK_LISTS_GRAPH = "Board.taskLists";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_seq")
+    @SequenceGenerator(name = "board_seq", sequenceName = "board_seq", allocationSize = 50)
     private long id;
     private String title;
     private String boardBgColor;
@@ -31,6 +43,19 @@ public class Board extends Model{
     private List<TaskList> taskLists;
     @OneToMany(cascade = CascadeType.ALL)
     private List<ColorEntity> taskColorPresets;
+    /**
+     * Goes up by one with every write to the board or anything on it.
+     * Served as the ETag of the board; only the server changes it,
+     * never by saving the whole board
+     */
+    @Column(updatable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long version;
+    /**
+     * Time of the last write to the board or anything on it, in epoch milliseconds.
+     * Set by the server together with the version
+     */
+    @Column(updatable = false)
+    private Long lastModified;
 
     /**
      * Clone a board from an existing board
@@ -53,6 +78,8 @@ public class Board extends Model{
         this.taskListsFontColor = board.taskListsFontColor;
         this.taskDefaultColor = new ColorEntity(board.taskDefaultColor);
         this.password = board.password;
+        this.version = board.version;
+        this.lastModified = board.lastModified;
     }
 
     /**
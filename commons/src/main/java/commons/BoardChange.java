@@ -0,0 +1,477 @@
+package commons;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A change to a board, as it is published to the clients viewing it.
+ * Most changes carry a delta: what kind of entity changed, how, and the values
+ * of the fields that changed, so that a client can apply it to its copy of the board.
+ * A change without a delta only names the board (and task) that changed,
+ * and the client fetches them again
+ */
+@Data
+public class BoardChange {
+    /**
+     * Task id of a change that may have touched any task on the board
+     */
+    public static final long ALL_TASKS = -1;
+
+    /**
+     * The media type a client puts in the accept header of its subscription
+     * to a board, to be sent the changes encoded as CBOR instead of JSON
+     */
+    public static final String CBOR = "application/cbor";
+
+    /**
+     * The kinds of entities a delta can touch
+     */
+    public enum Entity { BOARD, TASK_LIST, TASK, SUB_TASK, TAG }
+
+    /**
+     * What a delta does to its entity
+     */
+    public enum Operation { UPDATE, INSERT, REMOVE, MOVE }
+
+    private long boardId;
+    private long version;
+    /**
+     * The number of versions the change covers, more than one when
+     * consecutive changes to the same entity were merged into it.
+     * It applies to the board at version {@code version - versions}
+     */
+    private int versions = 1;
+    private Long taskId;
+    private Entity entity;
+    private Operation operation;
+    private Long id;
+    private Long parentId;
+    private Long rank;
+    private Map<String, String> fields;
+
+    /**
+     * Constructor of board change with no parameter
+     */
+    public BoardChange() {
+    }
+
+    /**
+     * Constructor of a change without a delta
+     *
+     * @param boardId id of the board that changed
+     * @param taskId id of the task that changed, {@link #ALL_TASKS} if any task
+     *               on the board may have changed, or null if none did
+     */
+    public BoardChange(long boardId, Long taskId) {
+        this.boardId = boardId;
+        this.taskId = taskId;
+    }
+
+    /**
+     * Constructor of a delta. The board it is on is filled in when it is published
+     *
+     * @param entity the kind of entity that changed
+     * @param operation what happened to it
+     * @param id the id of the entity
+     * @param parentId the id of the task list of a task, or of the task of
+     *                 a subtask or tag (null for boards and task lists)
+     * @param fields the new values of the fields that changed, by field name
+     */
+    public BoardChange(Entity entity, Operation operation, Long id, Long parentId,
+                       Map<String, String> fields) {
+        this.entity = entity;
+        this.operation = operation;
+        this.id = id;
+        this.parentId = parentId;
+        this.fields = fields;
+    }
+
+    /**
+     * Creates the delta of a moved task
+     *
+     * @param id the id of the task
+     * @param listId the id of the task list it was moved to
+     * @param rank its new rank in that list
+     * @return the delta
+     */
+    public static BoardChange move(long id, long listId, long rank) {
+        BoardChange change = new BoardChange(Entity.TASK, Operation.MOVE, id, listId, null);
+        change.setRank(rank);
+        return change;
+    }
+
+    /**
+     * Checks whether the change touched a single task only
+     *
+     * @return true if only the task with {@link #getTaskId()} changed
+     */
+    public boolean isSingleTask() {
+        return taskId != null && taskId != ALL_TASKS;
+    }
+
+    /**
+     * Checks whether the change carries a delta
+     *
+     * @return true if the change can be applied without fetching the board
+     */
+    public boolean hasDelta() {
+        return entity != null && operation != null;
+    }
+
+    /**
+     * Applies the delta to a copy of the board it is on.
+     * Every task the delta touches is replaced by a new object,
+     * so that copies of the board made before are left as they were
+     *
+     * @param board the copy of the board, which is changed
+     * @return true if it was applied, false if the board has to be fetched instead
+     */
+    public boolean applyTo(Board board) {
+        if(!hasDelta() || board.getId() == null || board.getId() != boardId) {
+            return false;
+        }
+        boolean applied;
+        switch (entity) {
+            case BOARD:
+                applied = operation == Operation.UPDATE && updateBoard(board);
+                break;
+            case TASK_LIST:
+                applied = applyToTaskList(board);
+                break;
+            case TASK:
+                applied = applyToTask(board);
+                break;
+            case SUB_TASK:
+                applied = applyToSubTask(board);
+                break;
+            default:
+                applied = applyToTag(board);
+        }
+        if(applied) {
+            board.setVersion(version);
+        }
+        return applied;
+    }
+
+    /**
+     * Sets the changed fields of a board
+     *
+     * @param board the board
+     * @return false if a field is not known
+     */
+    private boolean updateBoard(Board board) {
+        ColorEntity taskDefaultColor = board.getTaskDefaultColor() == null
+            ? new ColorEntity() : new ColorEntity(board.getTaskDefaultColor());
+        for(Map.Entry<String, String> field : fields.entrySet()) {
+            String value = field.getValue();
+            switch (field.getKey()) {
+                case "title":
+                    board.setTitle(value);
+                    break;
+                case "boardBgColor":
+                    board.setBoardBgColor(value);
+                    break;
+                case "boardFontColor":
+                    board.setBoardFontColor(value);
+                    break;
+                case "taskListsBgColor":
+                    board.setTaskListsBgColor(value);
+                    break;
+                case "taskListsFontColor":
+                    board.setTaskListsFontColor(value);
+                    break;
+                case "password":
+                    board.setPassword(value);
+                    break;
+                case "taskDefaultBgColor":
+                    taskDefaultColor.setBackGroundColor(value);
+                    break;
+                case "taskDefaultFontColor":
+                    taskDefaultColor.setFontColor(value);
+                    break;
+                default:
+                    return false;
+            }
+        }
+        board.setTaskDefaultColor(taskDefaultColor);
+        return true;
+    }
+
+    /**
+     * Applies a delta to a task list of a board
+     *
+     * @param board the board
+     * @return false if it can't be applied
+     */
+    private boolean applyToTaskList(Board board) {
+        TaskList taskList = board.getTaskListByID(id);
+        switch (operation) {
+            case INSERT:
+                if(taskList != null) {
+                    return false;
+                }
+                taskList = new TaskList();
+                taskList.setId(id);
+                taskList.setBoardId(boardId);
+                taskList.setTitle(fields.get("title"));
+                taskList.setTasks(new ArrayList<>());
+                board.addNewTaskList(taskList);
+                return true;
+            case UPDATE:
+                if(taskList == null || !Set.of("title").containsAll(fields.keySet())) {
+                    return false;
+                }
+                if(fields.containsKey("title")) {
+                    taskList.setTitle(fields.get("title"));
+                }
+                return true;
+            case REMOVE:
+                return taskList != null && board.removeTaskList(taskList) != null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Applies a delta to a task of a board
+     *
+     * @param board the board
+     * @return false if it can't be applied
+     */
+    private boolean applyToTask(Board board) {
+        Task task = findTask(board, id);
+        switch (operation) {
+            case INSERT:
+                TaskList taskList = board.getTaskListByID(parentId);
+                if(task != null || taskList == null) {
+                    return false;
+                }
+                task = new Task();
+                task.setId(id);
+                task.setTaskListID(parentId);
+                task.setSortRank(rank);
+                task.setSubTasks(new ArrayList<>());
+                task.setTags(new ArrayList<>());
+                if(!setTaskFields(task)) {
+                    return false;
+                }
+                insertByRank(taskList, task);
+                return true;
+            case UPDATE:
+                if(task == null) {
+                    return false;
+                }
+                task = new Task(task);
+                if(!setTaskFields(task)) {
+                    return false;
+                }
+                board.insertOrReplace(task);
+                return true;
+            case MOVE:
+                TaskList target = board.getTaskListByID(parentId);
+                if(task == null || target == null) {
+                    return false;
+                }
+                board.removeTask(task);
+                task = new Task(task);
+                task.setTaskListID(parentId);
+                task.setSortRank(rank);
+                insertByRank(target, task);
+                return true;
+            case REMOVE:
+                if(task == null) {
+                    return false;
+                }
+                board.removeTask(task);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Sets the changed fields of a task
+     *
+     * @param task the task
+     * @return false if a field is not known
+     */
+    private boolean setTaskFields(Task task) {
+        for(Map.Entry<String, String> field : fields.entrySet()) {
+            String value = field.getValue();
+            switch (field.getKey()) {
+                case "title":
+                    task.setTitle(value);
+                    break;
+                case "description":
+                    task.setDescription(value);
+                    break;
+                case "backGroundColor":
+                    task.setBackGroundColor(value);
+                    break;
+                case "fontColor":
+                    task.setFontColor(value);
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Inserts a task into a list before the first task with a higher rank.
+     * Tasks without a rank are kept at the end
+     *
+     * @param taskList the list
+     * @param task the task, with its rank set
+     */
+    private static void insertByRank(TaskList taskList, Task task) {
+        List<Task> tasks = taskList.getTasks();
+        int index = 0;
+        while(index < tasks.size() && (task.getSortRank() == null
+            || (tasks.get(index).getSortRank() != null
+                && tasks.get(index).getSortRank() < task.getSortRank()))) {
+            index++;
+        }
+        tasks.add(index, task);
+    }
+
+    /**
+     * Applies a delta to a subtask of a task on a board
+     *
+     * @param board the board
+     * @return false if it can't be applied
+     */
+    private boolean applyToSubTask(Board board) {
+        Task task = findTask(board, parentId);
+        if(task == null) {
+            return false;
+        }
+        task = new Task(task);
+        SubTask subTask = task.getSubTasks().stream()
+            .filter(candidate -> candidate.getId().equals(id))
+            .findFirst().orElse(null);
+        switch (operation) {
+            case INSERT:
+                if(subTask != null) {
+                    return false;
+                }
+                subTask = new SubTask();
+                subTask.setId(id);
+                subTask.setTaskId(parentId);
+                task.addSubtask(subTask);
+                break;
+            case UPDATE:
+                if(subTask == null) {
+                    return false;
+                }
+                break;
+            case REMOVE:
+                if(subTask == null) {
+                    return false;
+                }
+                task.deleteSubTask(subTask);
+                board.insertOrReplace(task);
+                return true;
+            default:
+                return false;
+        }
+        for(Map.Entry<String, String> field : fields.entrySet()) {
+            if(field.getKey().equals("description")) {
+                subTask.setDescription(field.getValue());
+            } else if(field.getKey().equals("checked")) {
+                subTask.setChecked(Boolean.parseBoolean(field.getValue()));
+            } else {
+                return false;
+            }
+        }
+        board.insertOrReplace(task);
+        return true;
+    }
+
+    /**
+     * Applies a delta to a tag. Tags are shared by the tasks of a board,
+     * so an update changes every task that has the tag. A tag is removed
+     * from one task, or from all of them if the delta has no parent
+     *
+     * @param board the board
+     * @return false if it can't be applied
+     */
+    private boolean applyToTag(Board board) {
+        if(operation != Operation.UPDATE && operation != Operation.REMOVE) {
+            return false;
+        }
+        if(parentId != null && findTask(board, parentId) == null) {
+            return false;
+        }
+        for(TaskList taskList : board.getTaskLists()) {
+            for(int i = 0; i < taskList.getTasks().size(); i++) {
+                Task task = taskList.getTasks().get(i);
+                if((parentId != null && !parentId.equals(task.getId()))
+                    || task.getTags().stream().noneMatch(tag -> tag.getId().equals(id))) {
+                    continue;
+                }
+                task = new Task(task);
+                if(operation == Operation.REMOVE) {
+                    task.getTags().removeIf(tag -> tag.getId().equals(id));
+                }
+                for(Tag tag : task.getTags()) {
+                    if(tag.getId().equals(id) && !setTagFields(tag)) {
+                        return false;
+                    }
+                }
+                taskList.getTasks().set(i, task);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the changed fields of a tag
+     *
+     * @param tag the tag
+     * @return false if a field is not known
+     */
+    private boolean setTagFields(Tag tag) {
+        for(Map.Entry<String, String> field : fields.entrySet()) {
+            String value = field.getValue();
+            switch (field.getKey()) {
+                case "description":
+                    tag.setDescription(value);
+                    break;
+                case "tagColor":
+                    tag.setTagColor(value);
+                    break;
+                case "tagFontColor":
+                    tag.setTagFontColor(value);
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds a task on a board
+     *
+     * @param board the board
+     * @param taskId the id of the task
+     * @return the task, or null if it is not on the board
+     */
+    private static Task findTask(Board board, Long taskId) {
+        for(TaskList taskList : board.getTaskLists()) {
+            for(Task task : taskList.getTasks()) {
+                if(task.getId().equals(taskId)) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,40 @@
+package commons;
+
+import lombok.Data;
+
+@Data
+public class BoardListing {
+    private Long id;
+    private String userId;
+    private String title;
+    private long taskListCount;
+    private long taskCount;
+    private Long lastModified;
+
+    /**
+     * Constructor of board listing with no parameter
+     */
+    public BoardListing() {
+    }
+
+    /**
+     * Constructor used by the listing query
+     *
+     * @param id id of the board
+     * @param userId user-friendly id of the board
+     * @param title title of the board
+     * @param taskListCount number of task lists on the board
+     * @param taskCount number of tasks on the board
+     * @param lastModified time of the last write to the board, in epoch
+     *                     milliseconds (null if it was not written since it was created)
+     */
+    public BoardListing(Long id, String userId, String title, long taskListCount,
+                        long taskCount, Long lastModified) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.taskListCount = taskListCount;
+        this.taskCount = taskCount;
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,49 @@
+package commons;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BoardSummary {
+    private Long id;
+    private String title;
+    private String userId;
+    private String boardBgColor;
+    private String boardFontColor;
+    private String taskListsBgColor;
+    private String taskListsFontColor;
+    private List<TaskListSummary> taskLists;
+
+    /**
+     * Constructor of board summary with no parameter
+     */
+    public BoardSummary() {
+        this.taskLists = new ArrayList<>();
+    }
+
+    /**
+     * Constructor used by the board projection query
+     *
+     * @param id id of the board
+     * @param title title of the board
+     * @param userId user-friendly id of the board
+     * @param boardBgColor background color of the board
+     * @param boardFontColor font color of the board
+     * @param taskListsBgColor background color of the task lists
+     * @param taskListsFontColor font color of the task lists
+     */
+    public BoardSummary(Long id, String title, String userId, String boardBgColor,
+                        String boardFontColor, String taskListsBgColor,
+                        String taskListsFontColor) {
+        this();
+        this.id = id;
+        this.title = title;
+        this.userId = userId;
+        this.boardBgColor = boardBgColor;
+        this.boardFontColor = boardFontColor;
+        this.taskListsBgColor = taskListsBgColor;
+        this.taskListsFontColor = taskListsFontColor;
+    }
+}
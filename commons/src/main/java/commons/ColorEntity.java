@@ -8,7 +8,9 @@ import javax.persistence.*;
 @Entity
 public class ColorEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "color_entity_seq")
+    @SequenceGenerator(name = "color_entity_seq", sequenceName = "color_entity_seq",
+        allocationSize = 50)
     private long id;
     private String backGroundColor;
     private String fontColor;
@@ -7,13 +7,18 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 
 @Entity
+@Table(indexes = @Index(name = "idx_sub_task_task", columnList = "taskId"))
 @Data
 @EqualsAndHashCode(callSuper=false)
 public class SubTask extends Model {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sub_task_seq")
+    @SequenceGenerator(name = "sub_task_seq", sequenceName = "sub_task_seq", allocationSize = 50)
     private long id;
     private String description;
     private boolean checked;
@@ -7,13 +7,22 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 
+/**
+ * A tag defined on a board. Tasks refer to the tags of their board,
+ * so every tag is stored once however many tasks carry it
+ */
 @Entity
+@Table(indexes = @Index(name = "idx_tag_board", columnList = "boardId"))
 @Data
 @EqualsAndHashCode(callSuper=false)
 public class Tag extends Model {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = 50)
     private long id;
     private String description;
     private Long boardId;
@@ -12,7 +12,8 @@ import java.util.List;
 @EqualsAndHashCode(callSuper=false)
 public class Task extends Model {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private long id;
     private String title;
     private String description;
@@ -21,10 +22,27 @@ public class Task extends Model {
 
     @OneToMany(cascade = CascadeType.ALL)
     private List<SubTask> subTasks;
-    @OneToMany(cascade = CascadeType.ALL)
+    /**
+     * Tags of the board carried by this task. Saving a task only links and
+     * unlinks tags; their fields are changed through the tag endpoints
+     */
+    @ManyToMany(cascade = CascadeType.PERSIST)
     private List<Tag> tags;
 
     private Long taskListID;
+    /**
+     * Position of the task in its list. Ranks leave gaps between neighbours,
+     * so a task can be moved by changing only its own rank. It is only
+     * written by the move operation, never by saving the whole task
+     */
+    @Column(updatable = false)
+    private Long sortRank;
+    /**
+     * Goes up by one with every write to the task, its subtasks or its tags.
+     * Served as the ETag of the task; only the server changes it
+     */
+    @Column(updatable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long version;
     /**
      * Constructor of task with no parameter
      */
@@ -45,6 +63,8 @@ public class Task extends Model {
         this.subTasks = new ArrayList<>();
         this.tags = new ArrayList<>();
         this.taskListID = task.taskListID;
+        this.sortRank = task.sortRank;
+        this.version = task.version;
         for(var tag : task.getTags()){
             tags.add(new Tag(tag));
         }
@@ -10,13 +10,16 @@ import java.util.List;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_task_list_board", columnList = "boardId"))
 @EqualsAndHashCode(callSuper=false)
 public class TaskList extends Model {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_list_seq")
+    @SequenceGenerator(name = "task_list_seq", sequenceName = "task_list_seq", allocationSize = 50)
     private long id;
     private String title;
     @OneToMany(cascade = CascadeType.ALL)
+    @OrderBy("sortRank")
     private List<Task> tasks;
     @OneToMany(cascade = CascadeType.ALL)
     private List<TaskList> tasksLists;
@@ -0,0 +1,32 @@
+package commons;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TaskListSummary {
+    private Long id;
+    private String title;
+    private List<TaskSummary> tasks;
+
+    /**
+     * Constructor of task list summary with no parameter
+     */
+    public TaskListSummary() {
+        this.tasks = new ArrayList<>();
+    }
+
+    /**
+     * Constructor used by the list projection query
+     *
+     * @param id id of the task list
+     * @param title title of the task list
+     */
+    public TaskListSummary(Long id, String title) {
+        this();
+        this.id = id;
+        this.title = title;
+    }
+}
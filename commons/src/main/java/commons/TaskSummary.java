@@ -0,0 +1,47 @@
+package commons;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TaskSummary {
+    private Long id;
+    private Long taskListID;
+    private String title;
+    private String backGroundColor;
+    private String fontColor;
+    private boolean hasDescription;
+    private List<Long> tagIds;
+    private long checkedSubTasks;
+    private long totalSubTasks;
+
+    /**
+     * Constructor of task summary with no parameter
+     */
+    public TaskSummary() {
+        this.tagIds = new ArrayList<>();
+    }
+
+    /**
+     * Constructor used by the card projection query
+     *
+     * @param id id of the task
+     * @param taskListID id of the list containing the task
+     * @param title title of the task
+     * @param backGroundColor background color of the card
+     * @param fontColor font color of the card
+     * @param hasDescription whether the task has a non-empty description
+     */
+    public TaskSummary(Long id, Long taskListID, String title, String backGroundColor,
+                       String fontColor, Boolean hasDescription) {
+        this();
+        this.id = id;
+        this.taskListID = taskListID;
+        this.title = title;
+        this.backGroundColor = backGroundColor;
+        this.fontColor = fontColor;
+        this.hasDescription = Boolean.TRUE.equals(hasDescription);
+    }
+}
@@ -0,0 +1,155 @@
+package commons;
+
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardChangeTest {
+
+    Board board;
+    TaskList taskList;
+    Task task;
+    Tag tag;
+
+    @BeforeEach
+    void setUp(){
+        tag = new Tag();
+        tag.setId(20L);
+        tag.setDescription("Tag");
+        task = new Task();
+        task.setId(10L);
+        task.setTitle("Task");
+        task.setTaskListID(2L);
+        task.setSortRank(100L);
+        task.setSubTasks(new ArrayList<>());
+        task.setTags(new ArrayList<>(List.of(tag)));
+        taskList = new TaskList();
+        taskList.setId(2L);
+        taskList.setTitle("List");
+        taskList.setTasks(new ArrayList<>(List.of(task)));
+        board = new Board();
+        board.setId(1L);
+        board.setTitle("Board");
+        board.setVersion(3);
+        board.setTaskLists(new ArrayList<>(List.of(taskList)));
+        board.setTaskColorPresets(new ArrayList<>());
+        board.setTaskDefaultColor(new ColorEntity());
+    }
+
+    private static BoardChange change(Entity entity, Operation operation, Long id, Long parentId,
+                                      Map<String, String> fields) {
+        BoardChange change = new BoardChange(entity, operation, id, parentId, fields);
+        change.setBoardId(1L);
+        change.setVersion(4);
+        return change;
+    }
+
+    @Test
+    void testUpdateBoard(){
+        BoardChange change = change(Entity.BOARD, Operation.UPDATE, 1L, null,
+            Map.of("title", "New", "taskDefaultBgColor", "#ffffff"));
+        assertTrue(change.applyTo(board));
+        assertEquals("New", board.getTitle());
+        assertEquals("#ffffff", board.getTaskDefaultColor().getBackGroundColor());
+        assertEquals(4, board.getVersion());
+    }
+
+    @Test
+    void testOtherBoard(){
+        BoardChange change = change(Entity.BOARD, Operation.UPDATE, 5L, null,
+            Map.of("title", "New"));
+        change.setBoardId(5L);
+        assertFalse(change.applyTo(board));
+        assertEquals("Board", board.getTitle());
+        assertEquals(3, board.getVersion());
+    }
+
+    @Test
+    void testNoDelta(){
+        assertFalse(new BoardChange(1L, null).applyTo(board));
+    }
+
+    @Test
+    void testUnknownField(){
+        BoardChange change = change(Entity.TASK_LIST, Operation.UPDATE, 2L, null,
+            Map.of("tasks", "[]"));
+        assertFalse(change.applyTo(board));
+    }
+
+    @Test
+    void testInsertAndRemoveTaskList(){
+        assertTrue(change(Entity.TASK_LIST, Operation.INSERT, 3L, null,
+            Map.of("title", "Second")).applyTo(board));
+        assertEquals("Second", board.getTaskListByID(3L).getTitle());
+        assertTrue(change(Entity.TASK_LIST, Operation.REMOVE, 2L, null, Map.of())
+            .applyTo(board));
+        assertEquals(1, board.getTaskLists().size());
+    }
+
+    @Test
+    void testInsertTaskByRank(){
+        BoardChange change = change(Entity.TASK, Operation.INSERT, 11L, 2L,
+            Map.of("title", "First"));
+        change.setRank(50L);
+        assertTrue(change.applyTo(board));
+        assertEquals(11L, taskList.getTasks().get(0).getId());
+        assertEquals("First", taskList.getTasks().get(0).getTitle());
+        assertEquals(10L, taskList.getTasks().get(1).getId());
+    }
+
+    @Test
+    void testUpdateTaskLeavesOldCopy(){
+        assertTrue(change(Entity.TASK, Operation.UPDATE, 10L, 2L,
+            Map.of("title", "Renamed")).applyTo(board));
+        assertEquals("Renamed", taskList.getTasks().get(0).getTitle());
+        assertEquals("Task", task.getTitle());
+    }
+
+    @Test
+    void testMoveTask(){
+        assertTrue(change(Entity.TASK_LIST, Operation.INSERT, 3L, null,
+            Map.of("title", "Second")).applyTo(board));
+        BoardChange move = BoardChange.move(10L, 3L, 7L);
+        move.setBoardId(1L);
+        move.setVersion(5);
+        assertTrue(move.applyTo(board));
+        assertTrue(taskList.getTasks().isEmpty());
+        Task moved = board.getTaskListByID(3L).getTasks().get(0);
+        assertEquals(3L, moved.getTaskListID());
+        assertEquals(7L, moved.getSortRank());
+        assertEquals(5, board.getVersion());
+    }
+
+    @Test
+    void testSubTask(){
+        assertTrue(change(Entity.SUB_TASK, Operation.INSERT, 30L, 10L,
+            Map.of("description", "Step", "checked", "false")).applyTo(board));
+        assertTrue(change(Entity.SUB_TASK, Operation.UPDATE, 30L, 10L,
+            Map.of("checked", "true")).applyTo(board));
+        SubTask subTask = taskList.getTasks().get(0).getSubTasks().get(0);
+        assertEquals("Step", subTask.getDescription());
+        assertTrue(subTask.isChecked());
+        assertTrue(change(Entity.SUB_TASK, Operation.REMOVE, 30L, 10L, Map.of())
+            .applyTo(board));
+        assertTrue(taskList.getTasks().get(0).getSubTasks().isEmpty());
+    }
+
+    @Test
+    void testTag(){
+        assertTrue(change(Entity.TAG, Operation.UPDATE, 20L, null,
+            Map.of("description", "Renamed")).applyTo(board));
+        assertEquals("Renamed", taskList.getTasks().get(0).getTags().get(0).getDescription());
+        assertTrue(change(Entity.TAG, Operation.REMOVE, 20L, 10L, Map.of()).applyTo(board));
+        assertTrue(taskList.getTasks().get(0).getTags().isEmpty());
+    }
+
+    @Test
+    void testRemoveMissingTask(){
+        assertFalse(change(Entity.TASK, Operation.REMOVE, 99L, 2L, Map.of()).applyTo(board));
+    }
+}
@@ -0,0 +1,42 @@
+package server.api;
+
+import commons.BatchOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import server.service.BatchService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+    private final BatchService batchService;
+
+    /**
+     * Constructor of the batch controller
+     * @param batchService the batch service
+     */
+    @Autowired
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    /**
+     * Handles a POST request that applies a list of operations in one transaction
+     * @param operations the operations, in the order they are applied
+     * @return one result per operation, or bad request if any of them failed
+     */
+    @PostMapping
+    public ResponseEntity<List<Long>> applyBatch(@RequestBody List<BatchOperation> operations) {
+        List<Long> results = batchService.apply(operations);
+        if(results == null) {
+            return ResponseEntity.badRequest().build();
+        } else {
+            return ResponseEntity.ok(results);
+        }
+    }
+}
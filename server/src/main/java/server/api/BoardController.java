@@ -1,79 +1,247 @@
 package server.api;
 
 import commons.Board;
+import commons.BoardChange;
+import commons.BoardListing;
+import commons.BoardSummary;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import server.service.BoardCache;
 import server.service.BoardService;
+import server.service.CachedBoard;
+import server.sockets.ChangeCoalescer;
+import server.sockets.RecentChanges;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/board")
 public class BoardController {
     private final BoardService boardService;
     private final AdminComponent adminComponent;
+    private final ChangeCoalescer changeCoalescer;
+    private final ResponseCompression compression;
+    private final RecentChanges recentChanges;
 
     /**
      * Constructor for the board controller
      *
      * @param boardService   the board service (injected)
      * @param adminComponent the admin component
+     * @param changeCoalescer the stage that board updates pass before they are sent
+     * @param compression decides which boards are sent compressed
+     * @param recentChanges the last changes sent for each board
      */
     @Autowired
-    public BoardController(BoardService boardService, AdminComponent adminComponent) {
+    public BoardController(BoardService boardService, AdminComponent adminComponent,
+                           ChangeCoalescer changeCoalescer, ResponseCompression compression,
+                           RecentChanges recentChanges) {
         this.boardService = boardService;
         this.adminComponent = adminComponent;
+        this.changeCoalescer = changeCoalescer;
+        this.compression = compression;
+        this.recentChanges = recentChanges;
     }
 
     /**
      * Handles a get request that gets a board by its ID.
+     * The body is the encoded board kept by the board cache,
+     * gzip-compressed if the client accepts it and the board is large enough.
+     * If the client already has the current version of the board,
+     * only the headers are sent back
      * @param id the ID of the board
-     * @return the board with the given ID.
+     * @param acceptEncoding the encodings the client accepts (may be null)
+     * @param ifNoneMatch the ETag of the client's copy (may be null)
+     * @return the board with the given ID, or not modified
      */
     @GetMapping("/get/{id}")
-    public ResponseEntity<Board> getBoardById(@PathVariable("id") long id) {
-        Board board = boardService.getBoardById(id);
+    public ResponseEntity<byte[]> getBoardById(
+        @PathVariable("id") long id,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
+        if(ifNoneMatch != null) {
+            Long version = boardService.getBoardVersion(id);
+            if(ETags.matches(ifNoneMatch, version)) {
+                return notModified(version);
+            }
+        }
+        return encoded(boardService.getCachedBoardById(id), acceptEncoding);
+    }
+
+    /**
+     * Handles a get request that gets a board by its user-friendly ID.
+     * The body is the encoded board kept by the board cache,
+     * gzip-compressed if the client accepts it and the board is large enough.
+     * If the client already has the current version of the board,
+     * only the headers are sent back
+     * @param id the user-friendly ID of the board
+     * @param acceptEncoding the encodings the client accepts (may be null)
+     * @param ifNoneMatch the ETag of the client's copy (may be null)
+     * @return the board with the given ID, or not modified
+     */
+    @GetMapping("/get/userID/{id}")
+    public ResponseEntity<byte[]> getBoardByUserId(
+        @PathVariable("id") String id,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
+        if(ifNoneMatch != null) {
+            Long version = boardService.getBoardVersionByUserId(id);
+            if(ETags.matches(ifNoneMatch, version)) {
+                return notModified(version);
+            }
+        }
+        return encoded(boardService.getCachedBoardByUserId(id), acceptEncoding);
+    }
+
+    /**
+     * Builds the response for a client whose copy of a board is up to date
+     * @param version the version of the board
+     * @return a not modified response with the ETag of the board
+     */
+    private ResponseEntity<byte[]> notModified(long version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(ETags.of(version))
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .build();
+    }
+
+    /**
+     * Builds the response for a board whose encoding is cached
+     * @param board the board (or null)
+     * @param acceptEncoding the encodings the client accepts (may be null)
+     * @return the response with the encoded board, or bad request if there is no board
+     */
+    private ResponseEntity<byte[]> encoded(CachedBoard board, String acceptEncoding) {
         if(board == null) {
             return ResponseEntity.badRequest().build();
-        } else {
-            return ResponseEntity.ok(board);
         }
+        var response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(ETags.of(board.getBoard().getVersion()))
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] json = board.getJson();
+        if(compression.applies(json.length, acceptEncoding)) {
+            byte[] gzip = board.getGzip();
+            compression.record(json.length, gzip.length);
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        compression.record(json.length, json.length);
+        return response.body(json);
     }
+
     /**
-     * Handles a get request that gets a board by its ID.
+     * Handles a get request that gets the card summary of a board:
+     * its lists and cards without task descriptions or subtasks
      * @param id the ID of the board
-     * @return the board with the given ID.
+     * @return the summary of the board with the given ID.
      */
-    @GetMapping("/get/userID/{id}")
-    public ResponseEntity<Board> getBoardByUserId(@PathVariable("id") String id) {
-        Board board = boardService.getBoardByUserId(id);
-        if(board == null) {
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<BoardSummary> getBoardSummary(@PathVariable("id") long id) {
+        BoardSummary summary = boardService.getBoardSummary(id);
+        if(summary == null) {
             return ResponseEntity.badRequest().build();
         } else {
-            return ResponseEntity.ok(board);
+            return ResponseEntity.ok(summary);
         }
     }
 
     /**
-     * Handles a GET request that gets all boards
-     * @return a list of all boards
+     * Handles a GET request that gets the counters of the board cache
+     * @return the hits, misses and evictions of the cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<BoardCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(boardService.getCacheStats());
+    }
+
+    /**
+     * Handles a GET request that gets the counters of the board updates
+     * @return the number of changes made and of messages sent for them
+     */
+    @GetMapping("/updates")
+    public ResponseEntity<ChangeCoalescer.Stats> getUpdateStats() {
+        return ResponseEntity.ok(changeCoalescer.getStats());
+    }
+
+    /**
+     * Handles a GET request that gets the changes made to a board after a version,
+     * for a client that lost its connection and has to catch up. The changes
+     * come in order, as they were sent on the topic of the board; the ones
+     * still being sent may be missing from the end, and arrive on the topic,
+     * so the list is empty while all of them are still held back
+     * @param id the ID of the board
+     * @param after the version of the client's copy
+     * @return the changes made after that version, gone if they are no longer
+     *         all known (the client has to fetch the board), or bad request
+     *         if there is no such board
      */
-    @GetMapping("/get")
-    public ResponseEntity<List<Board>> getAllBoards() {
-        List<Board> boards = boardService.getAllBoards();
-        if(boards == null) {
+    @GetMapping("/events/{id}")
+    public ResponseEntity<List<BoardChange>> getChangesAfter(@PathVariable("id") long id,
+                                                             @RequestParam("after") long after) {
+        Long version = boardService.getBoardVersion(id);
+        if(version == null) {
             return ResponseEntity.badRequest().build();
-        }else {
-            return ResponseEntity.ok(boards);
+        }
+        if(after == version) {
+            return ResponseEntity.ok(List.of());
+        }
+        List<BoardChange> missed = after < version ? recentChanges.after(id, after) : null;
+        if(missed == null) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return ResponseEntity.ok(missed);
+    }
+
+    /**
+     * Handles a GET request that gets the counters of the compression of boards
+     * @return the number of boards sent, and their size before and after compression
+     */
+    @GetMapping("/compression")
+    public ResponseEntity<ResponseCompression.Stats> getCompressionStats() {
+        return ResponseEntity.ok(compression.getStats());
+    }
+
+    /**
+     * Handles a GET request that gets a page of board listings for the admin view,
+     * without any of their lists or tasks
+     * @param afterId id of the last board on the previous page (0 for the first page)
+     * @param limit the number of boards on the page
+     * @return the listings (or a failed response if the limit is out of range)
+     */
+    @GetMapping("/listing")
+    public ResponseEntity<List<BoardListing>> getBoardListings(
+        @RequestParam(value = "after", defaultValue = "0") long afterId,
+        @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        List<BoardListing> listings = boardService.getBoardListings(afterId, limit);
+        if(listings == null) {
+            return ResponseEntity.badRequest().build();
+        } else {
+            return ResponseEntity.ok(listings);
         }
     }
 
+    /**
+     * Handles a GET request that streams the listings of all boards as
+     * newline-delimited JSON, written as they are read from the database
+     * @return the stream of listings
+     */
+    @GetMapping("/listing/stream")
+    public ResponseEntity<StreamingResponseBody> streamBoardListings() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(boardService::writeBoardListings);
+    }
+
     /**
      * Adds a new board if it does not exist (or updates if it does)
      * @param board the board to add (or update)
@@ -101,40 +269,17 @@ public class BoardController {
         return ResponseEntity.notFound().build();
     }
 
-    private final Map<Object, Consumer<Board>> listeners = new HashMap<>();
-
-    /**
-     * GET mapping to check if a Board is still in the database.
-     * @return the removed Board if it was removed, NOT_MODIFIED otherwise
-     */
-    @GetMapping("/status")
-    DeferredResult<ResponseEntity<Board>> checkStatus(){
-        var timeoutValue = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
-        var res = new DeferredResult<ResponseEntity<Board>>(5000L, timeoutValue);
-        var key = new Object();
-        listeners.put(key, b ->
-            res.setResult(ResponseEntity.ok(b))
-        );
-        res.onCompletion(() ->
-            listeners.remove(key)
-        );
-        return res;
-    }
-
     /**
-     * Removes a Board from the database
+     * Removes a Board from the database, with everything on it
      * @param id id of the board to be removed
-     * @return the removed Board
+     * @return the id of the removed Board
      */
     @DeleteMapping("/remove/{id}")
-    public ResponseEntity<Board> removeBoard(@PathVariable("id") Long id) {
-        Board removedBoard = boardService.removeBoard(id);
+    public ResponseEntity<Long> removeBoard(@PathVariable("id") Long id) {
+        Long removedBoard = boardService.removeBoard(id);
         if(removedBoard == null) {
             return ResponseEntity.badRequest().build();
         }else {
-            listeners.forEach((k, v) ->
-                v.accept(removedBoard)
-            );
             return ResponseEntity.ok(removedBoard);
         }
     }
@@ -189,4 +334,24 @@ public class BoardController {
             return ResponseEntity.ok(res);
         }
     }
+
+    /**
+     * Handles a PATCH request that changes only the given fields of a board,
+     * e.g. {"title": "New title", "boardBgColor": "#ffffff"}
+     * @param id the ID of the board
+     * @param fields the new values by field name
+     * @return ok, bad request for unknown fields or no values, or not found
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchBoard(@PathVariable("id") long id,
+                                           @RequestBody Map<String, String> fields) {
+        Integer updated = boardService.patchBoard(id, fields);
+        if(updated == null) {
+            return ResponseEntity.badRequest().build();
+        } else if(updated == 0) {
+            return ResponseEntity.notFound().build();
+        } else {
+            return ResponseEntity.ok().build();
+        }
+    }
 }
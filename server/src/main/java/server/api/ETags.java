@@ -0,0 +1,47 @@
+package server.api;
+
+/**
+ * Builds and compares the ETags of boards and tasks, which are their versions.
+ * The tags are weak, because the same version may be served plain or gzip-compressed
+ */
+final class ETags {
+
+    /**
+     * Not meant to be instantiated
+     */
+    private ETags() {
+    }
+
+    /**
+     * Builds the ETag of a version
+     * @param version the version of a board or task
+     * @return the ETag
+     */
+    static String of(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Checks if an If-None-Match header matches a version,
+     * so that the client's copy is still fresh
+     * @param ifNoneMatch the If-None-Match header (may be null)
+     * @param version the current version (may be null)
+     * @return true if the client already has this version
+     */
+    static boolean matches(String ifNoneMatch, Long version) {
+        if(ifNoneMatch == null || version == null) {
+            return false;
+        }
+        String opaque = "\"" + version + "\"";
+        for(String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if(tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if(tag.equals("*") || tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
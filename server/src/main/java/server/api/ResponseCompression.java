@@ -0,0 +1,126 @@
+package server.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which encoded boards are sent gzip-compressed, and counts
+ * how much that saves. Bodies smaller than the minimum size are sent as they are,
+ * since the gzip header and the cost of inflating outweigh the few bytes saved
+ */
+@Component
+public class ResponseCompression {
+    private final int minSize;
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder plainBytes = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+
+    /**
+     * Constructor
+     * @param minSize the smallest body, in bytes, that is compressed
+     */
+    @Autowired
+    public ResponseCompression(@Value("${board.compression.min-size:1024}") int minSize) {
+        this.minSize = minSize;
+    }
+
+    /**
+     * Checks whether a body should be sent compressed
+     * @param length the length of the plain body
+     * @param acceptEncoding the encodings the client accepts (may be null)
+     * @return true if the client accepts gzip and the body is large enough
+     */
+    public boolean applies(int length, String acceptEncoding) {
+        return length >= minSize && acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    /**
+     * Counts a body that was sent
+     * @param plain the length of the plain body
+     * @param sent the length of the body that was sent
+     */
+    public void record(int plain, int sent) {
+        responses.increment();
+        if(sent != plain) {
+            compressed.increment();
+        }
+        plainBytes.add(plain);
+        sentBytes.add(sent);
+    }
+
+    /**
+     * Returns the counters of the bodies sent so far
+     * @return a snapshot of the counters
+     */
+    public Stats getStats() {
+        return new Stats(responses.sum(), compressed.sum(), plainBytes.sum(), sentBytes.sum());
+    }
+
+    /**
+     * A snapshot of the counters of the compression
+     */
+    public static class Stats {
+        private final long responses;
+        private final long compressed;
+        private final long plainBytes;
+        private final long sentBytes;
+
+        /**
+         * Constructor
+         * @param responses number of boards sent
+         * @param compressed number of them that were sent compressed
+         * @param plainBytes bytes of the boards before compression
+         * @param sentBytes bytes of the boards as they were sent
+         */
+        public Stats(long responses, long compressed, long plainBytes, long sentBytes) {
+            this.responses = responses;
+            this.compressed = compressed;
+            this.plainBytes = plainBytes;
+            this.sentBytes = sentBytes;
+        }
+
+        /**
+         * Getter for responses
+         * @return number of boards sent
+         */
+        public long getResponses() {
+            return responses;
+        }
+
+        /**
+         * Getter for compressed
+         * @return number of boards sent compressed
+         */
+        public long getCompressed() {
+            return compressed;
+        }
+
+        /**
+         * Getter for plainBytes
+         * @return bytes of the boards before compression
+         */
+        public long getPlainBytes() {
+            return plainBytes;
+        }
+
+        /**
+         * Getter for sentBytes
+         * @return bytes of the boards as they were sent
+         */
+        public long getSentBytes() {
+            return sentBytes;
+        }
+
+        /**
+         * Computes how many times smaller the boards were sent than they are
+         * @return plain bytes per sent byte (1 if nothing was sent)
+         */
+        public double getRatio() {
+            return sentBytes == 0 ? 1 : (double) plainBytes / sentBytes;
+        }
+    }
+}
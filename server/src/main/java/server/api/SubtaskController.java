@@ -3,12 +3,16 @@ package server.api;
 import commons.SubTask;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import server.service.SubtaskService;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/subtask")
 public class SubtaskController {
@@ -37,4 +41,24 @@ public class SubtaskController {
             return ResponseEntity.ok(addedSubTask);
         }
     }
+
+    /**
+     * Handles a PATCH request that changes only the given fields of a subtask,
+     * e.g. {"checked": "true"}
+     * @param id the ID of the subtask
+     * @param fields the new values by field name
+     * @return ok, bad request for unknown fields, or not found
+     */
+    @PatchMapping("/{id}")
+    ResponseEntity<Void> patchSubTask(@PathVariable("id") long id,
+                                      @RequestBody Map<String, String> fields) {
+        Integer updated = subTaskService.patchSubTask(id, fields);
+        if(updated == null) {
+            return ResponseEntity.badRequest().build();
+        } else if(updated == 0) {
+            return ResponseEntity.notFound().build();
+        } else {
+            return ResponseEntity.ok().build();
+        }
+    }
 }
@@ -41,7 +41,7 @@ public class TagController {
     }
 
     /**
-     * Handles the DELETE request to remove a tag
+     * Handles the DELETE request to remove a tag from a task
      *
      * @param taskID The ID of the task from which the tag should be deleted
      * @param tagID  The ID of the tag which will be deleted
@@ -66,7 +66,7 @@ public class TagController {
      */
     @GetMapping("/get/{boardID}")
     ResponseEntity<List<Tag>> getTag(@PathVariable("boardID") Long boardID) {
-        List<Tag> tagList = tagService.getAllDistinct(boardID);
+        List<Tag> tagList = tagService.getBoardTags(boardID);
         if (tagList == null) {
             return ResponseEntity.notFound().build();
         } else {
@@ -75,9 +75,9 @@ public class TagController {
     }
 
     /**
-     * Deletes all tags with same desc from board
+     * Deletes a tag from its board, and from every task that carries it
      *
-     * @param tag example tag to be deleted
+     * @param tag the tag to be deleted
      * @return entity
      */
     @PostMapping("/delete")
@@ -2,15 +2,13 @@ package server.api;
 
 import commons.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.context.request.async.DeferredResult;
 import server.service.TaskService;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Consumer;
 
 
 @RestController
@@ -28,17 +26,30 @@ public class TaskController {
     }
 
     /**
-     * Handles a GET request that returns a task by its ID
+     * Handles a GET request that returns a task by its ID. If the client
+     * already has the current version of the task, only the headers are sent back
      * @param id the ID of the task
-     * @return the task with the given ID (or a failed response)
+     * @param ifNoneMatch the ETag of the client's copy (may be null)
+     * @return the task with the given ID, not modified (or a failed response)
      */
     @GetMapping("/get/{id}")
-    ResponseEntity<Task> getTaskById(@PathVariable("id") long id) {
+    ResponseEntity<Task> getTaskById(
+        @PathVariable("id") long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
+        if(ifNoneMatch != null) {
+            Long version = taskService.getTaskVersion(id);
+            if(ETags.matches(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(ETags.of(version))
+                    .build();
+            }
+        }
         Task task = taskService.getTaskById(id);
         if(task == null) {
             return ResponseEntity.badRequest().build();
         }else {
-            return ResponseEntity.ok(task);
+            return ResponseEntity.ok().eTag(ETags.of(task.getVersion())).body(task);
         }
     }
 
@@ -58,27 +69,27 @@ public class TaskController {
         }
     }
 
-    private Map<Object, Consumer<Long>> listeners = new HashMap<>();
-
     /**
-     * GET mapping to check if a Task is still in the database.
-     * @param id Task ID
-     * @return ID if Task was removed, NOT_MODIFIED otherwise
+     * Handles a POST request that moves a task to a position in a list.
+     * Only the moved task is written, the other tasks keep their ranks
+     * @param id the ID of the task to move
+     * @param listId the ID of the target list
+     * @param afterId the ID of the task to place it after (optional)
+     * @param beforeId the ID of the task to place it before (optional)
+     * @return the new rank of the task (or a failed response)
      */
-    @GetMapping("/{id}/status")
-    DeferredResult<ResponseEntity<Long>> checkStatus(@PathVariable("id") Long id){
-        var timeoutValue = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
-        var res = new DeferredResult<ResponseEntity<Long>>(5000L, timeoutValue);
-        var key = new Object();
-        listeners.put(key, b -> {
-            if(b.equals(id)){
-                res.setResult(ResponseEntity.ok(id));
-            }
-        });
-        res.onCompletion(() -> {
-            listeners.remove(key);
-        });
-        return res;
+    @PostMapping("/{id}/move")
+    ResponseEntity<Long> moveTask(
+        @PathVariable("id") long id,
+        @RequestParam("list") long listId,
+        @RequestParam(value = "after", required = false) Long afterId,
+        @RequestParam(value = "before", required = false) Long beforeId) {
+        Long rank = taskService.moveTask(id, listId, afterId, beforeId);
+        if(rank == null) {
+            return ResponseEntity.badRequest().build();
+        } else {
+            return ResponseEntity.ok(rank);
+        }
     }
 
     /**
@@ -93,10 +104,27 @@ public class TaskController {
         if(removed == null){
             return ResponseEntity.notFound().build();
         } else {
-            listeners.forEach((k, v) -> {
-                v.accept(id);
-            });
             return ResponseEntity.ok(removed);
         }
     }
+
+    /**
+     * Handles a PATCH request that changes only the given fields of a task,
+     * e.g. {"title": "New title"}
+     * @param id the ID of the task
+     * @param fields the new values by field name
+     * @return ok, bad request for unknown fields, or not found
+     */
+    @PatchMapping("/{id}")
+    ResponseEntity<Void> patchTask(@PathVariable("id") long id,
+                                   @RequestBody Map<String, String> fields) {
+        Integer updated = taskService.patchTask(id, fields);
+        if(updated == null) {
+            return ResponseEntity.badRequest().build();
+        } else if(updated == 0) {
+            return ResponseEntity.notFound().build();
+        } else {
+            return ResponseEntity.ok().build();
+        }
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.*;
 import server.service.TaskListService;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasklist")
@@ -67,17 +68,37 @@ public class TaskListController {
     }
 
     /**
-     * Delete a task list from the database
-     * @param taskList the taskList to delete
-     * @return the deleted taskList
+     * Delete a task list from the database, with its tasks
+     * @param id the ID of the taskList to delete
+     * @return the ID of the deleted taskList
      */
-    @PostMapping("/remove")
-    public ResponseEntity<TaskList> removeTaskList(@RequestBody TaskList taskList) {
-        TaskList removedTaskList = taskListService.removeTaskList(taskList);
+    @DeleteMapping("/remove/{id}")
+    public ResponseEntity<Long> removeTaskList(@PathVariable("id") long id) {
+        Long removedTaskList = taskListService.removeTaskList(id);
         if(removedTaskList == null) {
             return ResponseEntity.badRequest().build();
         }else {
             return ResponseEntity.ok(removedTaskList);
         }
     }
+
+    /**
+     * Handles a PATCH request that changes only the given fields of a task list,
+     * e.g. {"title": "New title"}
+     * @param id the ID of the task list
+     * @param fields the new values by field name
+     * @return ok, bad request for unknown fields, or not found
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchTaskList(@PathVariable("id") long id,
+                                              @RequestBody Map<String, String> fields) {
+        Integer updated = taskListService.patchTaskList(id, fields);
+        if(updated == null) {
+            return ResponseEntity.badRequest().build();
+        } else if(updated == 0) {
+            return ResponseEntity.notFound().build();
+        } else {
+            return ResponseEntity.ok().build();
+        }
+    }
 }
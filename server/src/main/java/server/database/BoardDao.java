@@ -1,11 +1,33 @@
 package server.database;
 
 import commons.Board;
+import commons.BoardListing;
+import commons.BoardSummary;
+import commons.TaskListSummary;
+import commons.TaskSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BoardDao extends JpaRepository<Board, Long> {
+    /**
+     * Selects the listing of every board after a given id, in the order of their ids
+     */
+    String LISTINGS = "SELECT new commons.BoardListing(b.id, b.userId, b.title, "
+        + "(SELECT COUNT(tl) FROM Board lb JOIN lb.taskLists tl WHERE lb = b), "
+        + "(SELECT COUNT(t) FROM Board tb JOIN tb.taskLists ttl JOIN ttl.tasks t WHERE tb = b), "
+        + "b.lastModified) FROM Board b WHERE b.id > ?1 ORDER BY b.id";
+
     /**
      * Custom method that finds board by userID
      * @param userID provided user-friendly id
@@ -20,4 +42,263 @@ public interface BoardDao extends JpaRepository<Board, Long> {
      * @return true or false
      */
     boolean existsBoardByUserId(String userID);
+
+    /**
+     * Finds the user-friendly ids of a page of boards, in the order of the ids,
+     * starting after a given one
+     * @param after the last user-friendly id of the previous page ("" for the first page)
+     * @param page the size of the page
+     * @return the user-friendly ids
+     */
+    @Query("SELECT b.userId FROM Board b WHERE b.userId > ?1 ORDER BY b.userId")
+    List<String> findUserIdsAfter(String after, Pageable page);
+
+    /**
+     * Finds the user-friendly id of a board
+     * @param id id of the board
+     * @return the user-friendly id ("" if the board has none),
+     *      or empty if there is no such board
+     */
+    @Query("SELECT coalesce(b.userId, '') FROM Board b WHERE b.id = ?1")
+    Optional<String> findUserIdById(long id);
+
+    /**
+     * Finds a board by its id, fetching its task lists
+     * and default color in the same query
+     * @param id id of the board
+     * @return the board or empty if none is found
+     */
+    @EntityGraph(Board.TASK_LISTS_GRAPH)
+    Optional<Board> findWithTaskListsById(long id);
+
+    /**
+     * Finds a board by its user-friendly id, fetching its task lists
+     * and default color in the same query
+     * @param userID provided user-friendly id
+     * @return the board or empty if none is found
+     */
+    @EntityGraph(Board.TASK_LISTS_GRAPH)
+    Optional<Board> findWithTaskListsByUserId(String userID);
+
+    /**
+     * Initializes the color presets of an already loaded board
+     * @param board the board whose presets are fetched
+     * @return the same board, with its presets loaded
+     */
+    @Query("SELECT DISTINCT b FROM Board b LEFT JOIN FETCH b.taskColorPresets WHERE b = ?1")
+    Board fetchTaskColorPresets(Board board);
+
+    /**
+     * Projects the header of a board, without any of its collections
+     * @param id id of the board
+     * @return the board summary or empty if none is found
+     */
+    @Query("SELECT new commons.BoardSummary(b.id, b.title, b.userId, b.boardBgColor, "
+        + "b.boardFontColor, b.taskListsBgColor, b.taskListsFontColor) "
+        + "FROM Board b WHERE b.id = ?1")
+    Optional<BoardSummary> findSummaryById(long id);
+
+    /**
+     * Projects the task lists of a board, in board order
+     * @param id id of the board
+     * @return the task list summaries, without their tasks
+     */
+    @Query("SELECT new commons.TaskListSummary(tl.id, tl.title) "
+        + "FROM Board b JOIN b.taskLists tl WHERE b.id = ?1")
+    List<TaskListSummary> findTaskListSummaries(long id);
+
+    /**
+     * Projects the cards of a board, in rank order. Descriptions are
+     * never read, only whether they are empty
+     * @param id id of the board
+     * @return the task summaries, without tags and subtask counts
+     */
+    @Query("SELECT new commons.TaskSummary(t.id, tl.id, t.title, t.backGroundColor, "
+        + "t.fontColor, CASE WHEN t.description IS NOT NULL AND t.description <> '' "
+        + "THEN true ELSE false END) "
+        + "FROM Board b JOIN b.taskLists tl JOIN tl.tasks t WHERE b.id = ?1 "
+        + "ORDER BY t.sortRank")
+    List<TaskSummary> findTaskSummaries(long id);
+
+    /**
+     * Counts the checked and total subtasks of every task of a board
+     * @param id id of the board
+     * @return rows of task id, checked count and total count
+     */
+    @Query("SELECT t.id, SUM(CASE WHEN s.checked = true THEN 1 ELSE 0 END), COUNT(s) "
+        + "FROM Board b JOIN b.taskLists tl JOIN tl.tasks t JOIN t.subTasks s "
+        + "WHERE b.id = ?1 GROUP BY t.id")
+    List<Object[]> countSubTasks(long id);
+
+    /**
+     * Finds the tag ids of every task of a board
+     * @param id id of the board
+     * @return rows of task id and tag id
+     */
+    @Query("SELECT t.id, tag.id FROM Board b JOIN b.taskLists tl JOIN tl.tasks t "
+        + "JOIN t.tags tag WHERE b.id = ?1")
+    List<Object[]> findTagIds(long id);
+
+    /**
+     * Updates the given fields of a board in a single statement,
+     * raising its version and last modified time in the same statement.
+     * Null values leave the corresponding column unchanged
+     * @param id id of the board
+     * @param title new title
+     * @param boardBgColor new background color of the board
+     * @param boardFontColor new font color of the board
+     * @param taskListsBgColor new background color of the task lists
+     * @param taskListsFontColor new font color of the task lists
+     * @param password new password
+     * @param modifiedAt the time of the write, in epoch milliseconds
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE Board b SET b.title = coalesce(?2, b.title), "
+        + "b.boardBgColor = coalesce(?3, b.boardBgColor), "
+        + "b.boardFontColor = coalesce(?4, b.boardFontColor), "
+        + "b.taskListsBgColor = coalesce(?5, b.taskListsBgColor), "
+        + "b.taskListsFontColor = coalesce(?6, b.taskListsFontColor), "
+        + "b.password = coalesce(?7, b.password), "
+        + "b.version = b.version + 1, b.lastModified = ?8 WHERE b.id = ?1")
+    int patch(long id, String title, String boardBgColor, String boardFontColor,
+              String taskListsBgColor, String taskListsFontColor, String password,
+              long modifiedAt);
+
+    /**
+     * Updates the default task color of a board in a single statement.
+     * Null values leave the corresponding column unchanged
+     * @param id id of the board
+     * @param backGroundColor new default background color
+     * @param fontColor new default font color
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE ColorEntity c SET c.backGroundColor = coalesce(?2, c.backGroundColor), "
+        + "c.fontColor = coalesce(?3, c.fontColor) "
+        + "WHERE c.id = (SELECT b.taskDefaultColor.id FROM Board b WHERE b.id = ?1)")
+    int patchDefaultColor(long id, String backGroundColor, String fontColor);
+
+    /**
+     * Finds the ids of the task lists of a board
+     * @param id id of the board
+     * @return the task list ids
+     */
+    @Query("SELECT tl.id FROM Board b JOIN b.taskLists tl WHERE b.id = ?1")
+    List<Long> findTaskListIds(long id);
+
+    /**
+     * Finds the ids of the color presets of a board
+     * @param id id of the board
+     * @return the color ids
+     */
+    @Query("SELECT c.id FROM Board b JOIN b.taskColorPresets c WHERE b.id = ?1")
+    List<Long> findColorPresetIds(long id);
+
+    /**
+     * Finds the id of the default task color of a board
+     * @param id id of the board
+     * @return the color id, or empty if the board has no default color
+     */
+    @Query("SELECT c.id FROM Board b JOIN b.taskDefaultColor c WHERE b.id = ?1")
+    Optional<Long> findDefaultColorId(long id);
+
+    /**
+     * Links a task list to a board with a single INSERT, without loading
+     * the board or its other task lists. The task list must not be linked
+     * to a board yet, see {@link #unlinkTaskList(long)}
+     * @param id id of the board
+     * @param taskListId id of the task list
+     * @return number of records written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO BOARD_TASK_LISTS (BOARD_ID, TASK_LISTS_ID) VALUES (?1, ?2)",
+        nativeQuery = true)
+    int linkTaskList(long id, long taskListId);
+
+    /**
+     * Unlinks a task list from its board
+     * @param taskListId id of the task list
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM BOARD_TASK_LISTS WHERE TASK_LISTS_ID = ?1", nativeQuery = true)
+    int unlinkTaskList(long taskListId);
+
+    /**
+     * Unlinks all color presets from a board
+     * @param id id of the board
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM BOARD_TASK_COLOR_PRESETS WHERE BOARD_ID = ?1",
+        nativeQuery = true)
+    int deletePresetLinks(long id);
+
+    /**
+     * Deletes the tags defined on a board that no task carries.
+     * The tags carried by its tasks go with its task lists
+     * @param id id of the board
+     * @return number of tags deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Tag t WHERE t.boardId = ?1")
+    int deleteTags(long id);
+
+    /**
+     * Deletes a board in a single statement, without loading it.
+     * Its task lists and links must already be gone
+     * @param id id of the board
+     * @return number of boards deleted
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Board b WHERE b.id = ?1")
+    int deleteBoardById(long id);
+
+    /**
+     * Finds the version of a board, without loading it
+     * @param id id of the board
+     * @return the version, or empty if there is no such board
+     */
+    @Query("SELECT b.version FROM Board b WHERE b.id = ?1")
+    Optional<Long> findVersionById(long id);
+
+    /**
+     * Finds the version of a board by its user-friendly id, without loading it
+     * @param userId user-friendly id of the board
+     * @return the version, or empty if there is no such board
+     */
+    @Query("SELECT b.version FROM Board b WHERE b.userId = ?1")
+    Optional<Long> findVersionByUserId(String userId);
+
+    /**
+     * Raises the version of a board by one
+     * @param id id of the board
+     * @param modifiedAt the time of the write, in epoch milliseconds
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE Board b SET b.version = b.version + 1, b.lastModified = ?2 WHERE b.id = ?1")
+    int bumpVersion(long id, long modifiedAt);
+
+    /**
+     * Finds the listings of a page of boards, starting after a given id.
+     * Only the boards on the page are read
+     * @param afterId id of the last board on the previous page (0 for the first page)
+     * @param page the size of the page
+     * @return the listings, in the order of their ids
+     */
+    @Query(LISTINGS)
+    List<BoardListing> findListingsAfter(long afterId, Pageable page);
+
+    /**
+     * Streams the listings of all boards from a database cursor,
+     * so they never have to be in memory together.
+     * The stream has to be read in a transaction, and closed
+     * @param afterId id of the board to start after (0 for all boards)
+     * @return the listings, in the order of their ids
+     */
+    @Query(LISTINGS)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    Stream<BoardListing> streamListingsAfter(long afterId);
 }
@@ -2,6 +2,18 @@ package server.database;
 
 import commons.ColorEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
 
 public interface ColorEntityDao extends JpaRepository<ColorEntity, Long> {
+    /**
+     * Deletes some colors in a single statement, without loading them
+     * @param ids ids of the colors
+     * @return number of colors deleted
+     */
+    @Modifying
+    @Query("DELETE FROM ColorEntity c WHERE c.id IN ?1")
+    int deleteByIds(Collection<Long> ids);
 }
@@ -1,8 +1,53 @@
 package server.database;
 
-
 import commons.SubTask;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface SubTaskDao extends JpaRepository<SubTask, Long> {
+    /**
+     * Updates the given fields of a subtask in a single statement.
+     * Null values leave the corresponding column unchanged
+     * @param id id of the subtask
+     * @param description new description
+     * @param checked new checked flag
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE SubTask s SET s.description = coalesce(?2, s.description), "
+        + "s.checked = coalesce(?3, s.checked) WHERE s.id = ?1")
+    int patch(long id, String description, Boolean checked);
+
+    /**
+     * Finds the task a subtask is on
+     * @param id id of the subtask
+     * @return the id of the task, or empty if the subtask is on no task
+     */
+    @Query("SELECT t.id FROM Task t JOIN t.subTasks s WHERE s.id = ?1")
+    Optional<Long> findTaskId(long id);
+
+    /**
+     * Links a subtask to a task with a single INSERT, without loading the
+     * other subtasks of the task. The subtask must not be on a task yet,
+     * see {@link #unlinkFromTask(long)}
+     * @param taskId id of the task
+     * @param id id of the subtask
+     * @return number of records written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO TASK_SUB_TASKS (TASK_ID, SUB_TASKS_ID) VALUES (?1, ?2)",
+        nativeQuery = true)
+    int linkToTask(long taskId, long id);
+
+    /**
+     * Unlinks a subtask from its task
+     * @param id id of the subtask
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_SUB_TASKS WHERE SUB_TASKS_ID = ?1", nativeQuery = true)
+    int unlinkFromTask(long id);
 }
@@ -6,74 +6,67 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface TagDao extends JpaRepository<Tag, Long> {
     /**
-     * Gets all distinct tags from a board
+     * Gets the tags defined on a board
      *
-     * @param boardID board
-     * @return list of tags
+     * @param boardId board
+     * @return list of tags, in the order they were created
      */
-    @Query(value =
-        "SELECT DISTINCT on(DESCRIPTION, TAG_COLOR, TAG_FONT_COLOR) * " +
-                "FROM TAG " +
-                "WHERE BOARD_ID = ?1",
+    List<Tag> findByBoardIdOrderById(Long boardId);
+
+    /**
+     * Unlinks a tag from every task that carries it
+     * @param id id of the tag
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_TAGS WHERE TAGS_ID = ?1", nativeQuery = true)
+    int deleteLinks(long id);
+
+    /**
+     * Unlinks a tag from a single task
+     * @param taskId id of the task
+     * @param id id of the tag
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_TAGS WHERE TASK_ID = ?1 AND TAGS_ID = ?2",
         nativeQuery = true)
-    List<Tag> getAllDistinct(Long boardID);
+    int deleteLink(long taskId, long id);
 
     /**
-     * Removes all tags with same desc from a board
-     *
-     * @param boardID the board
-     * @param desc the description
-     * @param tagColor tag color
-     * @param tagFontColor tag font color
-     * @return value
+     * Deletes a tag, without loading it. Its links must already be gone
+     * @param id id of the tag
+     * @return number of tags deleted
      */
     @Modifying
-    @Query(value = "DELETE " +
-            "FROM TASK_TAGS " +
-            "WHERE EXISTS " +
-            "( SELECT t.* " +
-            "FROM TAG t " +
-            "WHERE t.ID = TAGS_ID " +
-            "AND t.DESCRIPTION = ?2 " +
-            "AND t.TAG_COLOR = ?3 " +
-            "AND t.TAG_FONT_COLOR = ?4); " +
-            "DELETE " +
-            "FROM tag " +
-            "WHERE BOARD_ID = ?1 " +
-            "AND DESCRIPTION = ?2 " +
-            "AND TAG_COLOR = ?3 " +
-            "AND TAG_FONT_COLOR = ?4", nativeQuery = true)
-    int deleteTagFromBoard(Long boardID, String desc, String tagColor, String tagFontColor);
+    @Query("DELETE FROM Tag t WHERE t.id = ?1")
+    int deleteTagById(long id);
 
     /**
-     * Custom query that updates tags in DB
-     * @param newDesc new description
-     * @param newColor new background color
-     * @param newFont new font color
-     * @param boardID current board
-     * @param oldDesc old description
-     * @param oldColor old background color
-     * @param oldFont old font color
+     * Updates the given fields of a single tag in a single statement.
+     * Null values leave the corresponding column unchanged
+     * @param id id of the tag
+     * @param description new description
+     * @param tagColor new background color
+     * @param tagFontColor new font color
      * @return number of records updated
      */
     @Modifying
-    @Query(value = "UPDATE " +
-            "TAG SET DESCRIPTION = ?1 " +
-            ", TAG_COLOR = ?2 " +
-            ", TAG_FONT_COLOR = ?3 " +
-            "WHERE BOARD_ID = ?4 " +
-            "AND DESCRIPTION = ?5 " +
-            "AND TAG_COLOR = ?6 " +
-            "AND TAG_FONT_COLOR = ?7 " +
-            ";", nativeQuery = true)
-    int updateTags(String newDesc,
-                   String newColor,
-                   String newFont,
-                   Long boardID,
-                   String oldDesc,
-                   String oldColor,
-                   String oldFont);
-}
\ No newline at end of file
+    @Query("UPDATE Tag t SET t.description = coalesce(?2, t.description), "
+        + "t.tagColor = coalesce(?3, t.tagColor), "
+        + "t.tagFontColor = coalesce(?4, t.tagFontColor) WHERE t.id = ?1")
+    int patch(long id, String description, String tagColor, String tagFontColor);
+
+    /**
+     * Finds the board a tag is on, through the tasks that carry it
+     * @param id id of the tag
+     * @return the id of the board, or empty if the tag is on no task
+     */
+    @Query("SELECT DISTINCT b.id FROM Board b JOIN b.taskLists tl JOIN tl.tasks t "
+        + "JOIN t.tags tag WHERE tag.id = ?1")
+    Optional<Long> findBoardId(long id);
+}
@@ -2,6 +2,277 @@ package server.database;
 
 import commons.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface TaskDao extends JpaRepository<Task, Long> {
+    /**
+     * Initializes the subtasks of already loaded tasks in a single query
+     * @param tasks the tasks whose subtasks are fetched
+     * @return the same tasks, with their subtasks loaded
+     */
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.subTasks WHERE t IN ?1")
+    List<Task> fetchSubTasks(Collection<Task> tasks);
+
+    /**
+     * Initializes the tags of already loaded tasks in a single query
+     * @param tasks the tasks whose tags are fetched
+     * @return the same tasks, with their tags loaded
+     */
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.tags WHERE t IN ?1")
+    List<Task> fetchTags(Collection<Task> tasks);
+
+    /**
+     * Updates the given fields of a task in a single statement.
+     * Null values leave the corresponding column unchanged
+     * @param id id of the task
+     * @param title new title
+     * @param description new description
+     * @param backGroundColor new background color
+     * @param fontColor new font color
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.title = coalesce(?2, t.title), "
+        + "t.description = coalesce(?3, t.description), "
+        + "t.backGroundColor = coalesce(?4, t.backGroundColor), "
+        + "t.fontColor = coalesce(?5, t.fontColor) WHERE t.id = ?1")
+    int patch(long id, String title, String description,
+              String backGroundColor, String fontColor);
+
+    /**
+     * Finds the rank of a task, if it is in the given list
+     * @param listId id of the task list
+     * @param taskId id of the task
+     * @return the rank of the task, or empty if it is not in the list
+     */
+    @Query("SELECT t.sortRank FROM TaskList tl JOIN tl.tasks t WHERE tl.id = ?1 AND t.id = ?2")
+    Optional<Long> findRankInList(long listId, long taskId);
+
+    /**
+     * Finds the smallest rank in a list that is bigger than the given one
+     * @param listId id of the task list
+     * @param rank the rank to compare to
+     * @param excludedId id of a task to leave out (the one being moved)
+     * @return the next rank, or null if there is none
+     */
+    @Query("SELECT MIN(t.sortRank) FROM TaskList tl JOIN tl.tasks t "
+        + "WHERE tl.id = ?1 AND t.sortRank > ?2 AND t.id <> ?3")
+    Long findNextRank(long listId, long rank, long excludedId);
+
+    /**
+     * Finds the biggest rank in a list that is smaller than the given one
+     * @param listId id of the task list
+     * @param rank the rank to compare to
+     * @param excludedId id of a task to leave out (the one being moved)
+     * @return the previous rank, or null if there is none
+     */
+    @Query("SELECT MAX(t.sortRank) FROM TaskList tl JOIN tl.tasks t "
+        + "WHERE tl.id = ?1 AND t.sortRank < ?2 AND t.id <> ?3")
+    Long findPreviousRank(long listId, long rank, long excludedId);
+
+    /**
+     * Finds the biggest rank in a list
+     * @param listId id of the task list
+     * @param excludedId id of a task to leave out (the one being moved)
+     * @return the last rank, or null if the list is empty
+     */
+    @Query("SELECT MAX(t.sortRank) FROM TaskList tl JOIN tl.tasks t "
+        + "WHERE tl.id = ?1 AND t.id <> ?2")
+    Long findLastRank(long listId, long excludedId);
+
+    /**
+     * Counts the tasks of a list that have no rank yet
+     * @param listId id of the task list
+     * @return number of tasks without a rank
+     */
+    @Query("SELECT COUNT(t) FROM TaskList tl JOIN tl.tasks t "
+        + "WHERE tl.id = ?1 AND t.sortRank IS NULL")
+    long countUnranked(long listId);
+
+    /**
+     * Finds the ids of the tasks of a list in their current order. Tasks
+     * without a rank come last, in the order they were created
+     * @param listId id of the task list
+     * @return the ordered task ids
+     */
+    @Query(value = "SELECT lt.TASKS_ID FROM TASK_LIST_TASKS lt "
+        + "JOIN TASK t ON t.ID = lt.TASKS_ID "
+        + "WHERE lt.TASK_LIST_ID = ?1 "
+        + "ORDER BY t.SORT_RANK NULLS LAST, t.ID", nativeQuery = true)
+    List<Long> findIdsInListOrder(long listId);
+
+    /**
+     * Sets the list and rank of a task in a single statement
+     * @param id id of the task
+     * @param rank new rank
+     * @param listId id of the new task list
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.sortRank = ?2, t.taskListID = ?3 WHERE t.id = ?1")
+    int move(long id, long rank, long listId);
+
+    /**
+     * Sets the rank of a task, raising its version, if it has another rank
+     * @param id id of the task
+     * @param rank new rank
+     * @return number of records updated, 0 if the task already had that rank
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.sortRank = ?2, t.version = t.version + 1 "
+        + "WHERE t.id = ?1 AND (t.sortRank IS NULL OR t.sortRank <> ?2)")
+    int updateRank(long id, long rank);
+
+    /**
+     * Keeps the ids of the tasks of some task lists in DELETED_ROW under a key,
+     * so that they can be deleted once the links that lead to them are gone
+     * @param deletion the key of the deletion
+     * @param listIds ids of the task lists
+     * @return number of ids kept
+     */
+    @Modifying
+    @Query(value = "INSERT INTO DELETED_ROW (DELETION, TABLE_NAME, ID) "
+        + "SELECT ?1, 'TASK', TASKS_ID FROM TASK_LIST_TASKS WHERE TASK_LIST_ID IN ?2",
+        nativeQuery = true)
+    int keepTasksInLists(long deletion, Collection<Long> listIds);
+
+    /**
+     * Keeps the ids of the subtasks of every task in some task lists in DELETED_ROW
+     * @param deletion the key of the deletion
+     * @param listIds ids of the task lists
+     * @return number of ids kept
+     */
+    @Modifying
+    @Query(value = "INSERT INTO DELETED_ROW (DELETION, TABLE_NAME, ID) "
+        + "SELECT ?1, 'SUB_TASK', ts.SUB_TASKS_ID FROM TASK_SUB_TASKS ts "
+        + "JOIN TASK_LIST_TASKS lt ON lt.TASKS_ID = ts.TASK_ID "
+        + "WHERE lt.TASK_LIST_ID IN ?2", nativeQuery = true)
+    int keepSubTasksInLists(long deletion, Collection<Long> listIds);
+
+    /**
+     * Keeps the ids of the tags carried by the tasks of some task lists in DELETED_ROW
+     * @param deletion the key of the deletion
+     * @param listIds ids of the task lists
+     * @return number of ids kept
+     */
+    @Modifying
+    @Query(value = "INSERT INTO DELETED_ROW (DELETION, TABLE_NAME, ID) "
+        + "SELECT DISTINCT ?1, 'TAG', tt.TAGS_ID FROM TASK_TAGS tt "
+        + "JOIN TASK_LIST_TASKS lt ON lt.TASKS_ID = tt.TASK_ID "
+        + "WHERE lt.TASK_LIST_ID IN ?2", nativeQuery = true)
+    int keepTagsInLists(long deletion, Collection<Long> listIds);
+
+    /**
+     * Unlinks all subtasks from the tasks of some task lists
+     * @param listIds ids of the task lists
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_SUB_TASKS WHERE TASK_ID IN "
+        + "(SELECT TASKS_ID FROM TASK_LIST_TASKS WHERE TASK_LIST_ID IN ?1)",
+        nativeQuery = true)
+    int deleteSubTaskLinksInLists(Collection<Long> listIds);
+
+    /**
+     * Unlinks all tags from the tasks of some task lists
+     * @param listIds ids of the task lists
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_TAGS WHERE TASK_ID IN "
+        + "(SELECT TASKS_ID FROM TASK_LIST_TASKS WHERE TASK_LIST_ID IN ?1)",
+        nativeQuery = true)
+    int deleteTagLinksInLists(Collection<Long> listIds);
+
+    /**
+     * Deletes the subtasks kept for a deletion in a single statement.
+     * Their links must already be gone
+     * @param deletion the key of the deletion
+     * @return number of subtasks deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM SUB_TASK WHERE ID IN (SELECT ID FROM DELETED_ROW "
+        + "WHERE DELETION = ?1 AND TABLE_NAME = 'SUB_TASK')", nativeQuery = true)
+    int deleteKeptSubTasks(long deletion);
+
+    /**
+     * Deletes those of some tags that no task carries anymore
+     * @param tagIds ids of the tags
+     * @return number of tags deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TAG WHERE ID IN ?1 AND NOT EXISTS "
+        + "(SELECT 1 FROM TASK_TAGS WHERE TAGS_ID = TAG.ID)", nativeQuery = true)
+    int deleteUnusedTags(Collection<Long> tagIds);
+
+    /**
+     * Deletes those of the tags kept for a deletion that no task carries anymore
+     * @param deletion the key of the deletion
+     * @return number of tags deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TAG WHERE ID IN (SELECT ID FROM DELETED_ROW "
+        + "WHERE DELETION = ?1 AND TABLE_NAME = 'TAG') AND NOT EXISTS "
+        + "(SELECT 1 FROM TASK_TAGS WHERE TAGS_ID = TAG.ID)", nativeQuery = true)
+    int deleteKeptUnusedTags(long deletion);
+
+    /**
+     * Deletes the tasks kept for a deletion in a single statement.
+     * Their links must already be gone
+     * @param deletion the key of the deletion
+     * @return number of tasks deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK WHERE ID IN (SELECT ID FROM DELETED_ROW "
+        + "WHERE DELETION = ?1 AND TABLE_NAME = 'TASK')", nativeQuery = true)
+    int deleteKeptTasks(long deletion);
+
+    /**
+     * Forgets the ids kept for a deletion
+     * @param deletion the key of the deletion
+     * @return number of ids forgotten
+     */
+    @Modifying
+    @Query(value = "DELETE FROM DELETED_ROW WHERE DELETION = ?1", nativeQuery = true)
+    int forgetKept(long deletion);
+
+    /**
+     * Finds the board a task is on
+     * @param id id of the task
+     * @return the id of the board, or empty if the task is on no board
+     */
+    @Query("SELECT b.id FROM Board b JOIN b.taskLists tl JOIN tl.tasks t WHERE t.id = ?1")
+    Optional<Long> findBoardId(long id);
+
+    /**
+     * Finds the version of a task, without loading it
+     * @param id id of the task
+     * @return the version, or empty if there is no such task
+     */
+    @Query("SELECT t.version FROM Task t WHERE t.id = ?1")
+    Optional<Long> findVersionById(long id);
+
+    /**
+     * Raises the version of a task by one
+     * @param id id of the task
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.version = t.version + 1 WHERE t.id = ?1")
+    int bumpVersion(long id);
+
+    /**
+     * Raises the version of every task on a board by one
+     * @param boardId id of the board
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.version = t.version + 1 WHERE t.id IN "
+        + "(SELECT bt.id FROM Board b JOIN b.taskLists tl JOIN tl.tasks bt WHERE b.id = ?1)")
+    int bumpVersionsOnBoard(long boardId);
 }
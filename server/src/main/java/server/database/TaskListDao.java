@@ -2,6 +2,138 @@ package server.database;
 
 import commons.TaskList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface TaskListDao extends JpaRepository<TaskList, Long> {
+    /**
+     * Initializes the tasks of already loaded task lists in a single query
+     * @param taskLists the task lists whose tasks are fetched
+     * @return the same task lists, with their tasks loaded
+     */
+    @Query("SELECT DISTINCT tl FROM TaskList tl LEFT JOIN FETCH tl.tasks WHERE tl IN ?1")
+    List<TaskList> fetchTasks(Collection<TaskList> taskLists);
+
+    /**
+     * Initializes the nested task lists of already loaded task lists in a single query
+     * @param taskLists the task lists whose nested lists are fetched
+     * @return the same task lists, with their nested lists loaded
+     */
+    @Query("SELECT DISTINCT tl FROM TaskList tl LEFT JOIN FETCH tl.tasksLists WHERE tl IN ?1")
+    List<TaskList> fetchTasksLists(Collection<TaskList> taskLists);
+
+    /**
+     * Loads a task list, without its tasks, and locks its row until the
+     * transaction ends. Writers of the ranks of a list take this lock first,
+     * so that a move never computes a rank from a list being rebalanced
+     * @param id id of the task list
+     * @return the task list, or empty if it does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TaskList> findLockedById(long id);
+
+    /**
+     * Updates the title of a task list in a single statement
+     * @param id id of the task list
+     * @param title new title
+     * @return number of records updated
+     */
+    @Modifying
+    @Query("UPDATE TaskList tl SET tl.title = coalesce(?2, tl.title) WHERE tl.id = ?1")
+    int patch(long id, String title);
+
+    /**
+     * Moves the link between a task and its list to another list,
+     * without rewriting the other tasks of either list
+     * @param taskId id of the task
+     * @param listId id of the new task list
+     * @return number of records updated
+     */
+    @Modifying
+    @Query(value = "UPDATE TASK_LIST_TASKS SET TASK_LIST_ID = ?2 WHERE TASKS_ID = ?1",
+        nativeQuery = true)
+    int moveTask(long taskId, long listId);
+
+    /**
+     * Links a task to a list with a single INSERT, without loading the
+     * other tasks of the list. The task must not be in a list yet,
+     * see {@link #unlinkTask(long)}
+     * @param listId id of the task list
+     * @param taskId id of the task
+     * @return number of records written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO TASK_LIST_TASKS (TASK_LIST_ID, TASKS_ID) VALUES (?1, ?2)",
+        nativeQuery = true)
+    int linkTask(long listId, long taskId);
+
+    /**
+     * Unlinks a task from its list
+     * @param taskId id of the task
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_LIST_TASKS WHERE TASKS_ID = ?1", nativeQuery = true)
+    int unlinkTask(long taskId);
+
+    /**
+     * Unlinks all tasks from some task lists
+     * @param ids ids of the task lists
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_LIST_TASKS WHERE TASK_LIST_ID IN ?1", nativeQuery = true)
+    int deleteTaskLinks(Collection<Long> ids);
+
+    /**
+     * Unlinks some task lists from their boards
+     * @param ids ids of the task lists
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM BOARD_TASK_LISTS WHERE TASK_LISTS_ID IN ?1", nativeQuery = true)
+    int deleteBoardLinks(Collection<Long> ids);
+
+    /**
+     * Finds the task lists nested directly under some task lists
+     * @param ids ids of the task lists
+     * @return ids of the nested task lists
+     */
+    @Query(value = "SELECT TASKS_LISTS_ID FROM TASK_LIST_TASKS_LISTS WHERE TASK_LIST_ID IN ?1",
+        nativeQuery = true)
+    List<Long> findNestedIds(Collection<Long> ids);
+
+    /**
+     * Unlinks some task lists from their nested task lists, in both directions
+     * @param ids ids of the task lists
+     * @return number of links deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM TASK_LIST_TASKS_LISTS "
+        + "WHERE TASK_LIST_ID IN ?1 OR TASKS_LISTS_ID IN ?1", nativeQuery = true)
+    int deleteNestedLinks(Collection<Long> ids);
+
+    /**
+     * Deletes some task lists in a single statement, without loading them.
+     * Their links must already be gone
+     * @param ids ids of the task lists
+     * @return number of task lists deleted
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM TaskList tl WHERE tl.id IN ?1")
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Finds the board a task list is on
+     * @param id id of the task list
+     * @return the id of the board, or empty if the list is on no board
+     */
+    @Query("SELECT b.id FROM Board b JOIN b.taskLists tl WHERE tl.id = ?1")
+    Optional<Long> findBoardId(long id);
 }
@@ -0,0 +1,59 @@
+package server.database.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id sequences of the entities past the ids already in their tables.
+ * Databases created before every entity had a sequence of its own hold ids taken
+ * from one shared sequence, which the new sequences know nothing about
+ */
+@Component
+public class AlignIdSequences extends VersionedMigration {
+    /**
+     * Number of ids Hibernate takes from a sequence at once,
+     * the allocationSize of every sequence generator
+     */
+    public static final int BLOCK_SIZE = 50;
+
+    /**
+     * Sequence of every table
+     */
+    static final Map<String, String> SEQUENCES = Map.of(
+        "BOARD", "BOARD_SEQ",
+        "TASK_LIST", "TASK_LIST_SEQ",
+        "TASK", "TASK_SEQ",
+        "SUB_TASK", "SUB_TASK_SEQ",
+        "TAG", "TAG_SEQ",
+        "COLOR_ENTITY", "COLOR_ENTITY_SEQ");
+
+    /**
+     * Constructor
+     */
+    public AlignIdSequences() {
+        super("2", "align id sequences");
+    }
+
+    /**
+     * Restarts every sequence that is behind the ids of its table, so that the
+     * next block Hibernate takes from it starts after the highest id
+     * @param jdbcTemplate runs the statements
+     */
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        SEQUENCES.forEach((table, sequence) -> {
+            Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(ID) FROM " + table, Long.class);
+            Long current = jdbcTemplate.queryForObject(
+                "SELECT CURRENT_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+                    + "WHERE SEQUENCE_NAME = ?", Long.class, sequence);
+            if(maxId != null && current != null && current < maxId) {
+                // Hibernate hands out the block that ends at the value it reads
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence
+                    + " RESTART WITH " + (maxId + BLOCK_SIZE));
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package server.database.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import server.service.RankRebalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives a rank to the tasks created before ranks existed,
+ * keeping the order of their lists
+ */
+@Component
+public class AssignMissingRanks extends VersionedMigration {
+    /**
+     * Constructor
+     */
+    public AssignMissingRanks() {
+        super("4", "assign missing ranks");
+    }
+
+    /**
+     * Spreads the ranks of every list with unranked tasks evenly. Ranked tasks
+     * keep their place, unranked ones follow in the order they were created
+     * @param jdbcTemplate runs the statements
+     */
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        List<Long> listIds = jdbcTemplate.queryForList("SELECT DISTINCT lt.TASK_LIST_ID "
+            + "FROM TASK_LIST_TASKS lt JOIN TASK t ON t.ID = lt.TASKS_ID "
+            + "WHERE t.SORT_RANK IS NULL", Long.class);
+        for(long listId : listIds) {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT lt.TASKS_ID "
+                + "FROM TASK_LIST_TASKS lt JOIN TASK t ON t.ID = lt.TASKS_ID "
+                + "WHERE lt.TASK_LIST_ID = ? "
+                + "ORDER BY t.SORT_RANK NULLS LAST, t.ID", Long.class, listId);
+            List<Object[]> ranks = new ArrayList<>();
+            for(int i = 0; i < ids.size(); i++) {
+                ranks.add(new Object[] {(i + 1) * RankRebalancer.GAP, ids.get(i)});
+            }
+            jdbcTemplate.batchUpdate("UPDATE TASK SET SORT_RANK = ? WHERE ID = ?", ranks);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package server.database.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves databases from one tag row per task to one tag row per board.
+ * Tasks used to own copies of their tags, which made the link table allow
+ * a tag on a single task only; the copies of a tag on a board are merged
+ * into the oldest one, and the tasks are pointed at it
+ */
+@Component
+public class MergeTagCopies extends VersionedMigration {
+    /**
+     * Joins a tag t to the tags d of the same board that look the same
+     */
+    private static final String SAME_TAG = "JOIN TAG d ON d.BOARD_ID = t.BOARD_ID "
+        + "AND COALESCE(d.DESCRIPTION, '') = COALESCE(t.DESCRIPTION, '') "
+        + "AND COALESCE(d.TAG_COLOR, '') = COALESCE(t.TAG_COLOR, '') "
+        + "AND COALESCE(d.TAG_FONT_COLOR, '') = COALESCE(t.TAG_FONT_COLOR, '') ";
+
+    /**
+     * Selects the ids of the tags that are merged away: every tag on a board
+     * but the one with the smallest id among those that look the same
+     */
+    private static final String COPIES = "SELECT ID FROM TAG WHERE BOARD_ID IS NOT NULL "
+        + "AND ID NOT IN (SELECT MIN(ID) FROM TAG WHERE BOARD_ID IS NOT NULL "
+        + "GROUP BY BOARD_ID, COALESCE(DESCRIPTION, ''), COALESCE(TAG_COLOR, ''), "
+        + "COALESCE(TAG_FONT_COLOR, ''))";
+
+    /**
+     * Constructor
+     */
+    public MergeTagCopies() {
+        super("3", "merge tag copies");
+    }
+
+    /**
+     * Drops the unique constraint on the tag column of the link table,
+     * gives boardless tags the board of their task, drops the links that would
+     * put a tag twice on a task, points the other links to copies at the oldest
+     * tag that looks the same, and deletes the copies
+     * @param jdbcTemplate runs the statements
+     */
+    @Override
+    public void apply(JdbcTemplate jdbcTemplate) {
+        for(String constraint : jdbcTemplate.queryForList("SELECT CONSTRAINT_NAME "
+                + "FROM INFORMATION_SCHEMA.CONSTRAINTS WHERE TABLE_NAME = 'TASK_TAGS' "
+                + "AND CONSTRAINT_TYPE = 'UNIQUE' AND COLUMN_LIST = 'TAGS_ID'",
+            String.class)) {
+            jdbcTemplate.execute("ALTER TABLE TASK_TAGS DROP CONSTRAINT " + constraint);
+        }
+        jdbcTemplate.update("UPDATE TAG SET BOARD_ID = (SELECT MIN(bt.BOARD_ID) "
+            + "FROM BOARD_TASK_LISTS bt "
+            + "JOIN TASK_LIST_TASKS lt ON lt.TASK_LIST_ID = bt.TASK_LISTS_ID "
+            + "JOIN TASK_TAGS tt ON tt.TASK_ID = lt.TASKS_ID WHERE tt.TAGS_ID = TAG.ID) "
+            + "WHERE BOARD_ID IS NULL");
+        // a task that carries several copies keeps the link to the oldest one
+        jdbcTemplate.update("DELETE FROM TASK_TAGS WHERE EXISTS (SELECT 1 FROM TAG t "
+            + SAME_TAG + "JOIN TASK_TAGS o ON o.TAGS_ID = d.ID "
+            + "WHERE t.ID = TASK_TAGS.TAGS_ID AND o.TASK_ID = TASK_TAGS.TASK_ID "
+            + "AND d.ID < t.ID)");
+        jdbcTemplate.update("UPDATE TASK_TAGS SET TAGS_ID = "
+            + "(SELECT MIN(d.ID) FROM TAG t " + SAME_TAG + "WHERE t.ID = TASK_TAGS.TAGS_ID) "
+            + "WHERE TAGS_ID IN (" + COPIES + ")");
+        jdbcTemplate.update("DELETE FROM TAG WHERE ID IN (" + COPIES + ")");
+    }
+}
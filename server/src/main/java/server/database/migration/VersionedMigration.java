@@ -0,0 +1,96 @@
+package server.database.migration;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * A schema migration written in Java, for changes that need to look at the data.
+ * Subclasses are Spring beans, which Flyway runs in version order together
+ * with the SQL scripts in db/migration, before Hibernate starts
+ */
+public abstract class VersionedMigration implements JavaMigration {
+    private final MigrationVersion version;
+    private final String description;
+
+    /**
+     * Constructor
+     * @param version the version the migration brings the schema to
+     * @param description what the migration does
+     */
+    protected VersionedMigration(String version, String description) {
+        this.version = MigrationVersion.fromVersion(version);
+        this.description = description;
+    }
+
+    /**
+     * Runs the migration on the connection of Flyway, in its transaction
+     * @param context the migration context
+     */
+    @Override
+    public void migrate(Context context) {
+        apply(new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true)));
+    }
+
+    /**
+     * Applies the migration. It must leave an already migrated database unchanged
+     * @param jdbcTemplate runs the statements
+     */
+    public abstract void apply(JdbcTemplate jdbcTemplate);
+
+    /**
+     * Getter
+     * @return the version
+     */
+    @Override
+    public MigrationVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter
+     * @return the description
+     */
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Java migrations have no checksum
+     * @return null
+     */
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    /**
+     * Getter
+     * @return false, migrations are never undone
+     */
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    /**
+     * Getter
+     * @return false, the baseline is V1__Baseline.sql
+     */
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    /**
+     * Getter
+     * @return true
+     */
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+}
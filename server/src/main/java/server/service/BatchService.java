@@ -0,0 +1,188 @@
+package server.service;
+
+import commons.BatchOperation;
+import commons.Model;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class BatchService {
+    private final BoardService boardService;
+    private final TaskListService taskListService;
+    private final TaskService taskService;
+    private final SubtaskService subtaskService;
+    private final TagService tagService;
+
+    /**
+     * Injector constructor
+     * @param boardService the board service
+     * @param taskListService the task list service
+     * @param taskService the task service
+     * @param subtaskService the subtask service
+     * @param tagService the tag service
+     */
+    @Autowired
+    public BatchService(BoardService boardService, TaskListService taskListService,
+                        TaskService taskService, SubtaskService subtaskService,
+                        TagService tagService) {
+        this.boardService = boardService;
+        this.taskListService = taskListService;
+        this.taskService = taskService;
+        this.subtaskService = subtaskService;
+        this.tagService = tagService;
+    }
+
+    /**
+     * Applies a list of operations in order, in a single transaction.
+     * If any of them fails, none of them is kept
+     * @param operations the operations to apply
+     * @return one result per operation: the id of a created or deleted entity,
+     *      the number of rows an update changed, or the new rank of a moved task.
+     *      Null if an operation failed
+     */
+    @Transactional
+    public List<Long> apply(List<BatchOperation> operations) {
+        if(operations == null) {
+            return null;
+        }
+        List<Long> results = new ArrayList<>();
+        for(var operation : operations) {
+            Long result = operation == null || operation.getAction() == null
+                || operation.getType() == null
+                ? null
+                : apply(operation);
+            if(result == null) {
+                if(TransactionSynchronizationManager.isActualTransactionActive()) {
+                    TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                }
+                return null;
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Applies a single operation
+     * @param operation the operation
+     * @return its result, or null if it failed
+     */
+    private Long apply(BatchOperation operation) {
+        switch(operation.getAction()) {
+            case CREATE:
+                return create(operation);
+            case UPDATE:
+                return update(operation);
+            case DELETE:
+                return delete(operation);
+            case MOVE:
+                if(operation.getType() != BatchOperation.Type.TASK
+                    || operation.getId() == null || operation.getListId() == null) {
+                    return null;
+                }
+                return taskService.moveTask(operation.getId(), operation.getListId(),
+                    operation.getAfterId(), operation.getBeforeId());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Creates the entity carried by an operation
+     * @param operation the operation
+     * @return the id of the new entity, or null if it could not be created
+     */
+    private Long create(BatchOperation operation) {
+        switch(operation.getType()) {
+            case BOARD:
+                return idOf(boardService.addBoard(operation.getBoard()));
+            case TASK_LIST:
+                return idOf(taskListService.addTaskList(operation.getTaskList()));
+            case TASK:
+                return idOf(taskService.addTask(operation.getTask()));
+            case SUB_TASK:
+                return idOf(subtaskService.addNewSubTask(operation.getSubTask()));
+            case TAG:
+                return idOf(tagService.addNewTag(operation.getTag()));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Patches the fields of an operation into its entity
+     * @param operation the operation
+     * @return the number of rows changed, or null if nothing was changed
+     */
+    private Long update(BatchOperation operation) {
+        if(operation.getId() == null) {
+            return null;
+        }
+        long id = operation.getId();
+        Integer updated;
+        switch(operation.getType()) {
+            case BOARD:
+                updated = boardService.patchBoard(id, operation.getFields());
+                break;
+            case TASK_LIST:
+                updated = taskListService.patchTaskList(id, operation.getFields());
+                break;
+            case TASK:
+                updated = taskService.patchTask(id, operation.getFields());
+                break;
+            case SUB_TASK:
+                updated = subtaskService.patchSubTask(id, operation.getFields());
+                break;
+            case TAG:
+                updated = tagService.patchTag(id, operation.getFields());
+                break;
+            default:
+                updated = null;
+        }
+        return updated == null || updated == 0 ? null : updated.longValue();
+    }
+
+    /**
+     * Deletes the entity of an operation. Tags are removed from the task
+     * given as the parent of the operation
+     * @param operation the operation
+     * @return the id of the deleted entity, or null if it could not be deleted
+     */
+    private Long delete(BatchOperation operation) {
+        if(operation.getId() == null) {
+            return null;
+        }
+        long id = operation.getId();
+        switch(operation.getType()) {
+            case BOARD:
+                return boardService.removeBoard(id);
+            case TASK_LIST:
+                return taskListService.removeTaskList(id);
+            case TASK:
+                return idOf(taskService.removeTaskById(id));
+            case SUB_TASK:
+                return idOf(subtaskService.removeSubTask(id));
+            case TAG:
+                return operation.getParentId() == null
+                    ? null
+                    : idOf(tagService.removeTag(id, operation.getParentId()));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the id of an entity a service returned
+     * @param model the entity (or null)
+     * @return its id, or null if there is no entity
+     */
+    private Long idOf(Model model) {
+        return model == null ? null : model.getId();
+    }
+}
@@ -0,0 +1,241 @@
+package server.service;
+
+import commons.Board;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the most recently used boards in memory, by id and by user-friendly id,
+ * together with their encoded responses. A board is dropped as soon as
+ * a write to it commits
+ */
+@Component
+public class BoardCache {
+    private final int capacity;
+    private final Map<Long, CachedBoard> boards;
+    private final Map<String, Long> idsByUserId = new HashMap<>();
+    private final Map<Long, Long> invalidations;
+
+    private long version;
+    private long forgottenVersion;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor
+     * @param capacity the number of boards to keep at most
+     */
+    @Autowired
+    public BoardCache(@Value("${board.cache.size:100}") int capacity) {
+        this.capacity = capacity;
+        this.boards = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedBoard> eldest) {
+                if(size() <= BoardCache.this.capacity) {
+                    return false;
+                }
+                idsByUserId.remove(eldest.getValue().getBoard().getUserId());
+                evictions++;
+                return true;
+            }
+        };
+        this.invalidations = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if(size() <= 4 * BoardCache.this.capacity) {
+                    return false;
+                }
+                forgottenVersion = eldest.getValue();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Finds a cached board by its id
+     * @param id the id of the board
+     * @return the board, or null if it is not cached
+     */
+    public synchronized CachedBoard get(long id) {
+        CachedBoard board = boards.get(id);
+        if(board == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return board;
+    }
+
+    /**
+     * Finds a cached board by its user-friendly id
+     * @param userId the user-friendly id of the board
+     * @return the board, or null if it is not cached
+     */
+    public synchronized CachedBoard getByUserId(String userId) {
+        Long id = idsByUserId.get(userId);
+        if(id == null) {
+            misses++;
+            return null;
+        }
+        return get(id);
+    }
+
+    /**
+     * Finds a cached board by its id, without counting a hit or a miss.
+     * Used to check again after waiting for another thread to load the board
+     * @param id the id of the board
+     * @return the board, or null if it is not cached
+     */
+    public synchronized CachedBoard peek(long id) {
+        return boards.get(id);
+    }
+
+    /**
+     * Finds a cached board by its user-friendly id, without counting a hit or a miss
+     * @param userId the user-friendly id of the board
+     * @return the board, or null if it is not cached
+     */
+    public synchronized CachedBoard peekByUserId(String userId) {
+        Long id = idsByUserId.get(userId);
+        return id == null ? null : boards.get(id);
+    }
+
+    /**
+     * Returns the current version of the cache. Take it before loading a board
+     * from the database, and hand it to {@link #put} afterwards
+     * @return the version
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Caches a board that was loaded from the database, unless it was
+     * changed after the load started (in which case the copy may be stale)
+     * @param cached the board
+     * @param loadedAt the {@link #version} from before the board was loaded
+     */
+    public synchronized void put(CachedBoard cached, long loadedAt) {
+        Board board = cached.getBoard();
+        if(board.getId() == null) {
+            return;
+        }
+        long invalidatedAt = invalidations.getOrDefault(board.getId(), forgottenVersion);
+        if(invalidatedAt > loadedAt) {
+            return;
+        }
+        boards.put(board.getId(), cached);
+        if(board.getUserId() != null) {
+            idsByUserId.put(board.getUserId(), board.getId());
+        }
+    }
+
+    /**
+     * Drops a board from the cache
+     * @param id the id of the board
+     */
+    public synchronized void invalidate(long id) {
+        version++;
+        invalidations.put(id, version);
+        CachedBoard cached = boards.remove(id);
+        if(cached != null) {
+            idsByUserId.remove(cached.getBoard().getUserId());
+        }
+    }
+
+    /**
+     * Drops a board once the transaction that changed it commits
+     * (or right away, if it was changed outside of a transaction),
+     * before the clients are told about the change
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBoardChanged(BoardChangedEvent event) {
+        invalidate(event.getBoardId());
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the cache
+     * @return a snapshot of the counters
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, boards.size(), capacity);
+    }
+
+    /**
+     * A snapshot of the counters of the cache
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int capacity;
+
+        /**
+         * Constructor
+         * @param hits number of lookups that found a board
+         * @param misses number of lookups that did not
+         * @param evictions number of boards dropped to make room
+         * @param size number of boards cached
+         * @param capacity number of boards the cache keeps at most
+         */
+        public Stats(long hits, long misses, long evictions, int size, int capacity) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Getter for hits
+         * @return number of lookups that found a board
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Getter for misses
+         * @return number of lookups that did not find a board
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Getter for evictions
+         * @return number of boards dropped to make room
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Getter for size
+         * @return number of boards cached
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Getter for capacity
+         * @return number of boards the cache keeps at most
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package server.service;
+
+import commons.BoardChange;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Published whenever something on a board is written, so that
+ * copies of the board kept in memory can be dropped once the write commits,
+ * and the clients viewing the board can be told what changed
+ */
+public class BoardChangedEvent {
+    private final long boardId;
+    private final Long taskId;
+    private final BoardChange delta;
+    private Long version;
+
+    /**
+     * Constructor for a change to the board itself, that leaves its tasks as they are
+     * @param boardId id of the board that changed
+     */
+    public BoardChangedEvent(long boardId) {
+        this(boardId, null);
+    }
+
+    /**
+     * Constructor
+     * @param boardId id of the board that changed
+     * @param taskId id of the task that changed, {@link BoardChange#ALL_TASKS}
+     *               if any task on the board may have changed, or null if none did
+     */
+    public BoardChangedEvent(long boardId, Long taskId) {
+        this(boardId, taskId, null);
+    }
+
+    /**
+     * Constructor for a change that the clients can apply without fetching the board
+     * @param boardId id of the board that changed
+     * @param taskId id of the task that changed, {@link BoardChange#ALL_TASKS}
+     *               if any task on the board may have changed, or null if none did
+     * @param delta what changed, or null if the clients have to fetch the board
+     */
+    public BoardChangedEvent(long boardId, Long taskId, BoardChange delta) {
+        this(boardId, taskId, delta, null);
+    }
+
+    /**
+     * Constructor for a write that raised the version of the board by itself
+     * @param boardId id of the board that changed
+     * @param taskId id of the task that changed, {@link BoardChange#ALL_TASKS}
+     *               if any task on the board may have changed, or null if none did
+     * @param delta what changed, or null if the clients have to fetch the board
+     * @param version the version the write raised the board to,
+     *                or null if it did not raise it
+     */
+    public BoardChangedEvent(long boardId, Long taskId, BoardChange delta, Long version) {
+        this.boardId = boardId;
+        this.taskId = taskId;
+        this.delta = delta;
+        this.version = version;
+    }
+
+    /**
+     * Collects the fields of a patch that were given, leaving out
+     * the ones that are null because they are left unchanged
+     * @param fields the fields of the patch, by field name
+     * @return the changed fields
+     */
+    public static Map<String, String> changedFields(Map<String, String> fields) {
+        Map<String, String> changed = new HashMap<>();
+        fields.forEach((name, value) -> {
+            if(value != null) {
+                changed.put(name, value);
+            }
+        });
+        return changed;
+    }
+
+    /**
+     * Getter for the board id
+     * @return id of the board that changed
+     */
+    public long getBoardId() {
+        return boardId;
+    }
+
+    /**
+     * Getter for the task id
+     * @return id of the task that changed, {@link BoardChange#ALL_TASKS}, or null
+     */
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Getter for the delta
+     * @return what changed, or null if the clients have to fetch the board
+     */
+    public BoardChange getDelta() {
+        return delta;
+    }
+
+    /**
+     * Getter for the version
+     * @return the version the board was raised to, or null if it was not raised yet
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter for the version, once it is raised
+     * @param version the version the board was raised to
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Checks whether the version of the board was raised for this change
+     * @return true if it was
+     */
+    public boolean isVersionRaised() {
+        return version != null;
+    }
+}
@@ -1,58 +1,318 @@
 package server.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.Board;
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import commons.BoardListing;
+import commons.BoardSummary;
+import commons.Task;
+import commons.TaskList;
+import commons.TaskListSummary;
+import commons.TaskSummary;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import server.database.BoardDao;
+import server.database.TaskDao;
+import server.database.TaskListDao;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class BoardService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "boardBgColor",
+        "boardFontColor", "taskListsBgColor", "taskListsFontColor", "password",
+        "taskDefaultBgColor", "taskDefaultFontColor");
+
+    private static final int LOAD_LOCKS = 64;
+
+    /**
+     * The largest page of board listings that can be asked for
+     */
+    public static final int MAX_LISTING_PAGE = 500;
+
     private final BoardDao boardDao;
+    private final TaskListDao taskListDao;
+    private final TaskDao taskDao;
+    private final CascadeDeleter cascadeDeleter;
+    private final BoardCache boardCache;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final UserIdAllocator userIdAllocator;
+    private final Object[] loadLocks = new Object[LOAD_LOCKS];
 
     /**
      * Injector constructor
      * @param boardDao board DB interface
+     * @param taskListDao task list DB interface
+     * @param taskDao task DB interface
+     * @param cascadeDeleter deletes boards with set-based statements
+     * @param boardCache the boards kept in memory
+     * @param events publishes the changes to boards
+     * @param objectMapper encodes the responses of cached boards
+     * @param userIdAllocator hands out the user-friendly ids of new boards
      */
     @Autowired
-    public BoardService(BoardDao boardDao) {
+    public BoardService(BoardDao boardDao, TaskListDao taskListDao, TaskDao taskDao,
+                        CascadeDeleter cascadeDeleter, BoardCache boardCache,
+                        ApplicationEventPublisher events, ObjectMapper objectMapper,
+                        UserIdAllocator userIdAllocator) {
         this.boardDao = boardDao;
+        this.taskListDao = taskListDao;
+        this.taskDao = taskDao;
+        this.cascadeDeleter = cascadeDeleter;
+        this.boardCache = boardCache;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.userIdAllocator = userIdAllocator;
+        for(int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new Object();
+        }
     }
 
     /**
      * Finds a board with a given id (returns null if it does not exist)
+     * Cached boards are returned without a transaction or any query;
+     * otherwise the whole board tree is loaded with a fixed number of queries
      * @param id the id of the board
      * @return the found board (or null)
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Board getBoardById(long id) {
-        if(!boardDao.existsById(id)) {
-            return null;
-        }
-        return boardDao.findById(id).orElse(null);
+        CachedBoard cached = getCachedBoardById(id);
+        return cached == null ? null : cached.getBoard();
     }
 
     /**
      * Finds a board by user-friendly ID
+     * Cached boards are returned without a transaction or any query;
+     * otherwise the whole board tree is loaded with a fixed number of queries
      * @param id given user-friendly id
      * @return board or null if not found
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Board getBoardByUserId(String id){
-        if(!boardDao.existsBoardByUserId(id)){
+        CachedBoard cached = getCachedBoardByUserId(id);
+        return cached == null ? null : cached.getBoard();
+    }
+
+    /**
+     * Finds a board with a given id, together with its encoded response.
+     * When many clients ask for the same board at once, it is loaded
+     * and encoded by the first one only
+     * @param id the id of the board
+     * @return the found board (or null)
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CachedBoard getCachedBoardById(long id) {
+        CachedBoard cached = boardCache.get(id);
+        if(cached != null) {
+            return cached;
+        }
+        synchronized(loadLock(id)) {
+            cached = boardCache.peek(id);
+            if(cached != null) {
+                return cached;
+            }
+            long version = boardCache.version();
+            return cache(boardDao.findWithTaskListsById(id).orElse(null), version);
+        }
+    }
+
+    /**
+     * Finds a board by user-friendly ID, together with its encoded response.
+     * When many clients ask for the same board at once, it is loaded
+     * and encoded by the first one only
+     * @param id given user-friendly id
+     * @return board or null if not found
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CachedBoard getCachedBoardByUserId(String id) {
+        CachedBoard cached = boardCache.getByUserId(id);
+        if(cached != null) {
+            return cached;
+        }
+        synchronized(loadLock(id)) {
+            cached = boardCache.peekByUserId(id);
+            if(cached != null) {
+                return cached;
+            }
+            long version = boardCache.version();
+            return cache(boardDao.findWithTaskListsByUserId(id).orElse(null), version);
+        }
+    }
+
+    /**
+     * Finds the version of a board, from the board cache if it holds the board
+     * and with one small query otherwise, without loading the board
+     * @param id the id of the board
+     * @return the version (or null if there is no such board)
+     */
+    public Long getBoardVersion(long id) {
+        CachedBoard cached = boardCache.peek(id);
+        if(cached != null) {
+            return cached.getBoard().getVersion();
+        }
+        return boardDao.findVersionById(id).orElse(null);
+    }
+
+    /**
+     * Finds the version of a board by its user-friendly id, without loading the board
+     * @param id the user-friendly id of the board
+     * @return the version (or null if there is no such board)
+     */
+    public Long getBoardVersionByUserId(String id) {
+        CachedBoard cached = boardCache.peekByUserId(id);
+        if(cached != null) {
+            return cached.getBoard().getVersion();
+        }
+        return boardDao.findVersionByUserId(id).orElse(null);
+    }
+
+    /**
+     * Picks the lock that guards loading a board, so that two threads
+     * never load the same board at the same time
+     * @param key the id or user-friendly id of the board
+     * @return the lock
+     */
+    private Object loadLock(Object key) {
+        return loadLocks[Math.floorMod(key.hashCode(), loadLocks.length)];
+    }
+
+    /**
+     * Loads the tree of a freshly found board and caches it, unless it was
+     * read inside a transaction that may still change it (or roll back)
+     * @param board the board, with its task lists fetched (or null)
+     * @param version the version of the cache from before the board was loaded
+     * @return the board with its encoded response (or null)
+     */
+    private CachedBoard cache(Board board, long version) {
+        if(board == null) {
             return null;
-        } else {
-            return boardDao.findBoardByUserId(id).get();
         }
+        CachedBoard cached = new CachedBoard(fetchBoardTree(board), objectMapper);
+        if(!TransactionSynchronizationManager.isActualTransactionActive()) {
+            boardCache.put(cached, version);
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the board cache
+     * @return a snapshot of the counters
+     */
+    public BoardCache.Stats getCacheStats() {
+        return boardCache.getStats();
+    }
+
+    /**
+     * Builds the card summary of a board: every list with the title, colors,
+     * tag ids and subtask progress of its tasks, but no task bodies
+     * @param id the id of the board
+     * @return the board summary (or null if the board does not exist)
+     */
+    @Transactional(readOnly = true)
+    public BoardSummary getBoardSummary(long id) {
+        BoardSummary board = boardDao.findSummaryById(id).orElse(null);
+        if(board == null) {
+            return null;
+        }
+        Map<Long, TaskListSummary> taskLists = new HashMap<>();
+        for(var taskList : boardDao.findTaskListSummaries(id)) {
+            taskLists.put(taskList.getId(), taskList);
+            board.getTaskLists().add(taskList);
+        }
+        Map<Long, TaskSummary> tasks = new HashMap<>();
+        for(var task : boardDao.findTaskSummaries(id)) {
+            tasks.put(task.getId(), task);
+            taskLists.get(task.getTaskListID()).getTasks().add(task);
+        }
+        for(var row : boardDao.countSubTasks(id)) {
+            TaskSummary task = tasks.get((Long) row[0]);
+            task.setCheckedSubTasks(((Number) row[1]).longValue());
+            task.setTotalSubTasks(((Number) row[2]).longValue());
+        }
+        for(var row : boardDao.findTagIds(id)) {
+            tasks.get((Long) row[0]).getTagIds().add((Long) row[1]);
+        }
+        return board;
     }
+
     /**
-     * Returns a list of all boards
-     * @return the list of all boards
+     * Initializes the lazy collections of a board, one level at a time,
+     * so that loading a board never costs more than six queries,
+     * no matter how many lists, tasks, subtasks and tags it has
+     * @param board the board, with its task lists already fetched
+     * @return the same board
      */
-    public List<Board> getAllBoards() {
-        return boardDao.findAll();
+    private Board fetchBoardTree(Board board) {
+        boardDao.fetchTaskColorPresets(board);
+        List<TaskList> taskLists = board.getTaskLists();
+        if(taskLists == null || taskLists.isEmpty()) {
+            return board;
+        }
+        taskListDao.fetchTasks(taskLists);
+        taskListDao.fetchTasksLists(taskLists);
+        List<Task> tasks = new ArrayList<>();
+        for(var taskList : taskLists) {
+            tasks.addAll(taskList.getTasks());
+        }
+        if(tasks.isEmpty()) {
+            return board;
+        }
+        taskDao.fetchSubTasks(tasks);
+        taskDao.fetchTags(tasks);
+        return board;
+    }
+    /**
+     * Returns the listings of a page of boards: their ids, titles, sizes and
+     * when they were last written, but none of their lists or tasks.
+     * Pages are keyed by the last id of the previous page, so a page costs
+     * the same no matter how far into the boards it is
+     * @param afterId id of the last board on the previous page (0 for the first page)
+     * @param limit the number of boards on the page, at most {@link #MAX_LISTING_PAGE}
+     * @return the listings, or null if the limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<BoardListing> getBoardListings(long afterId, int limit) {
+        if(limit <= 0 || limit > MAX_LISTING_PAGE) {
+            return null;
+        }
+        return boardDao.findListingsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Writes the listings of all boards as newline-delimited JSON,
+     * one row at a time as it comes from the database cursor
+     * @param out the stream to write to
+     * @throws IOException if the stream can't be written to
+     */
+    @Transactional(readOnly = true)
+    public void writeBoardListings(OutputStream out) throws IOException {
+        try (Stream<BoardListing> rows = boardDao.streamListingsAfter(0)) {
+            Iterator<BoardListing> it = rows.iterator();
+            while(it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(it.next()));
+                out.write('\n');
+            }
+        }
     }
 
     /**
@@ -60,47 +320,77 @@ public class BoardService {
      * @param board the board to add. Can't be null
      * @return the newly added board
      */
+    @Transactional
     public Board addBoard(Board board) {
         if(board == null) {
             return null;
         }
         if(board.getUserId() == null || board.getUserId().equals("")){
-            board.setUserId(generateUserFriendlyID());
+            board.setUserId(userIdAllocator.allocate());
+            releaseAfterRollback(board.getUserId());
+        } else if(userIdAllocator.markUsed(board.getUserId())) {
+            releaseAfterRollback(board.getUserId());
         }
-        return boardDao.save(board);
+        Board saved = boardDao.save(board);
+        events.publishEvent(new BoardChangedEvent(saved.getId(), BoardChange.ALL_TASKS));
+        return saved;
     }
 
     /**
-     * Removes a Board from the database
+     * Removes a Board from the database, with everything on it,
+     * without loading any of it
      * @param id id of the Board to be removed
-     * @return the deleted Board
+     * @return the id of the deleted Board, or null if it does not exist
      */
-    public Board removeBoard(Long id){
-        Optional<Board> optional = boardDao.findById(id);
-        if(optional.isEmpty()) return null;
-        Board result = optional.get();
-        boardDao.delete(result);
-        return result;
+    @Transactional
+    public Long removeBoard(Long id){
+        if(id == null) return null;
+        Optional<String> userId = boardDao.findUserIdById(id);
+        if(userId.isEmpty()) return null;
+        cascadeDeleter.deleteBoard(id);
+        releaseAfterCommit(userId.get());
+        events.publishEvent(new BoardChangedEvent(id, null,
+            new BoardChange(Entity.BOARD, Operation.REMOVE, id, null, Map.of())));
+        return id;
     }
 
     /**
-     * Generates user-friendly id
-     * @return the generated id
+     * Frees the user-friendly id of a removed board once the removal commits,
+     * so that it is never handed out while the board may still come back
+     * @param userId the user-friendly id
      */
-    private String generateUserFriendlyID(){
-        Random random = new Random();
-        String randomKey = "";
-        do {
-            char letter1 = (char) (random.nextInt(26) + 'A');
-            int digit1 = random.nextInt(10);
-            char letter2 = (char) (random.nextInt(26) + 'A');
-            int digit2 = random.nextInt(10);
-            char letter3 = (char) (random.nextInt(26) + 'A');
-            int digit3 = random.nextInt(10);
-            randomKey = "" + letter1 + digit1 + letter2 + digit2 + letter3 + digit3;
-        } while (boardDao.existsBoardByUserId(randomKey));
-        return randomKey;
+    private void releaseAfterCommit(String userId) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userIdAllocator.release(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userIdAllocator.release(userId);
+            }
+        });
     }
+
+    /**
+     * Frees the user-friendly id taken for a new board if the insert rolls back,
+     * for example when another board got the same id in the meantime
+     * @param userId the user-friendly id
+     */
+    private void releaseAfterRollback(String userId) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status == STATUS_ROLLED_BACK) {
+                    userIdAllocator.release(userId);
+                }
+            }
+        });
+    }
+
     /**
      * Method that checks if password
      * is correct
@@ -108,12 +398,10 @@ public class BoardService {
      * @param password password to check
      * @return board if correct pass, null otherwise
      */
+    @Transactional(readOnly = true)
     public Board checkPassword(Long boardID, String password){
-        if(!boardDao.existsById(boardID)){
-            return null;
-        }
-        var board = boardDao.findById(boardID).get();
-        if(board.getPassword().equals(password)){
+        Board board = boardID == null ? null : boardDao.findById(boardID).orElse(null);
+        if(board != null && board.getPassword().equals(password)){
             return board;
         } else {
             return null;
@@ -127,17 +415,13 @@ public class BoardService {
      * @param password password to check
      * @return board if correct pass, null otherwise
      */
+    @Transactional
     public Board removePass(Long boardID, String password){
-        if(!boardDao.existsById(boardID)){
-            return null;
-        }
-        var board = boardDao.findById(boardID).get();
-        if(board.getPassword().equals(password)){
-            board.setPassword("");
-            return boardDao.save(board);
-        } else {
+        Board board = checkPassword(boardID, password);
+        if(board == null) {
             return null;
         }
+        return removePass(board);
     }
     /**
      * Method that removes password
@@ -145,12 +429,66 @@ public class BoardService {
      * @param boardID id of the board
      * @return board if correct pass, null otherwise
      */
+    @Transactional
     public Board removePass(Long boardID){
-        if(!boardDao.existsById(boardID)){
+        if(boardID == null) {
             return null;
         }
-        var board = boardDao.findById(boardID).get();
+        return boardDao.findById(boardID).map(this::removePass).orElse(null);
+    }
+
+    /**
+     * Clears the password of a loaded board. The change is flushed
+     * with the transaction, together with the version raise
+     * @param board the board
+     * @return the board
+     */
+    private Board removePass(Board board) {
         board.setPassword("");
-        return boardDao.save(board);
+        events.publishEvent(new BoardChangedEvent(board.getId(), null, new BoardChange(
+            Entity.BOARD, Operation.UPDATE, board.getId(), null, Map.of("password", ""))));
+        return board;
+    }
+
+    /**
+     * Updates some fields of a board with a single UPDATE, without loading it
+     * or any of its task lists. The new version is read back for the change.
+     * The default task color lives in its own table and costs a second UPDATE
+     * when it is changed
+     * @param id the id of the board
+     * @param fields the new values by field name
+     * @return number of boards changed, or null if a field can't be patched
+     *         or no field is given a value
+     */
+    @Transactional
+    public Integer patchBoard(long id, Map<String, String> fields) {
+        if(fields == null || !PATCHABLE_FIELDS.containsAll(fields.keySet())) {
+            return null;
+        }
+        Map<String, String> changed = BoardChangedEvent.changedFields(fields);
+        if(changed.isEmpty()) {
+            return null;
+        }
+        int updated = boardDao.patch(id,
+            fields.get("title"),
+            fields.get("boardBgColor"),
+            fields.get("boardFontColor"),
+            fields.get("taskListsBgColor"),
+            fields.get("taskListsFontColor"),
+            fields.get("password"),
+            System.currentTimeMillis());
+        if(updated == 0) {
+            return 0;
+        }
+        if(fields.containsKey("taskDefaultBgColor")
+            || fields.containsKey("taskDefaultFontColor")) {
+            boardDao.patchDefaultColor(id,
+                fields.get("taskDefaultBgColor"),
+                fields.get("taskDefaultFontColor"));
+        }
+        Long version = boardDao.findVersionById(id).orElse(null);
+        events.publishEvent(new BoardChangedEvent(id, null, new BoardChange(Entity.BOARD,
+            Operation.UPDATE, id, null, changed), version));
+        return 1;
     }
 }
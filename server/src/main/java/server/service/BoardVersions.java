@@ -0,0 +1,60 @@
+package server.service;
+
+import commons.BoardChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.BoardDao;
+import server.database.TaskDao;
+
+/**
+ * Raises the versions of boards and tasks when they are written,
+ * and records when boards were last written. The new version of the board
+ * is kept on the change, so that it can be published with it.
+ * The versions are served as ETags, so clients can revalidate
+ * their copies with a conditional request
+ */
+@Component
+public class BoardVersions {
+    private final BoardDao boardDao;
+    private final TaskDao taskDao;
+
+    /**
+     * Constructor
+     * @param boardDao board DB interface
+     * @param taskDao task DB interface
+     */
+    @Autowired
+    public BoardVersions(BoardDao boardDao, TaskDao taskDao) {
+        this.boardDao = boardDao;
+        this.taskDao = taskDao;
+    }
+
+    /**
+     * Raises the versions in the transaction of the write, so that they commit
+     * together with it. Runs before any other listener, so the board cache
+     * never reloads a changed board with its old version
+     * @param event the change
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void onBoardChanged(BoardChangedEvent event) {
+        if(!event.isVersionRaised()) {
+            boardDao.bumpVersion(event.getBoardId(), System.currentTimeMillis());
+            event.setVersion(boardDao.findVersionById(event.getBoardId()).orElse(null));
+        }
+        Long taskId = event.getTaskId();
+        if(taskId == null) {
+            return;
+        }
+        if(taskId == BoardChange.ALL_TASKS) {
+            taskDao.bumpVersionsOnBoard(event.getBoardId());
+        } else {
+            taskDao.bumpVersion(taskId);
+        }
+    }
+}
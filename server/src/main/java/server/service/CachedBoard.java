@@ -0,0 +1,74 @@
+package server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Board;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A board held by the {@link BoardCache}, together with its encoded response.
+ * The board is serialized the first time the response is asked for,
+ * and compressed the first time a client accepts gzip, and never again
+ */
+public class CachedBoard {
+    private final Board board;
+    private final ObjectMapper objectMapper;
+    private byte[] json;
+    private byte[] gzip;
+
+    /**
+     * Constructor
+     * @param board the board
+     * @param objectMapper the mapper that encodes the board
+     */
+    public CachedBoard(Board board, ObjectMapper objectMapper) {
+        this.board = board;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Getter for the board
+     * @return the board
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the board encoded as JSON, encoding it if no one asked for it before
+     * @return the JSON bytes
+     */
+    public synchronized byte[] getJson() {
+        if(json == null) {
+            try {
+                json = objectMapper.writeValueAsBytes(board);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Returns the JSON of the board compressed with gzip,
+     * compressing it if no one asked for it before
+     * @return the compressed bytes
+     */
+    public synchronized byte[] getGzip() {
+        if(gzip == null) {
+            byte[] plain = getJson();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 64);
+            try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+                zip.write(plain);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            gzip = out.toByteArray();
+        }
+        return gzip;
+    }
+}
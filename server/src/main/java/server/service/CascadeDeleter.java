@@ -0,0 +1,112 @@
+package server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.BoardDao;
+import server.database.ColorEntityDao;
+import server.database.TaskDao;
+import server.database.TaskListDao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class CascadeDeleter {
+    private final BoardDao boardDao;
+    private final TaskListDao taskListDao;
+    private final TaskDao taskDao;
+    private final ColorEntityDao colorEntityDao;
+
+    /**
+     * Injector constructor
+     * @param boardDao board DB interface
+     * @param taskListDao task list DB interface
+     * @param taskDao task DB interface
+     * @param colorEntityDao color DB interface
+     */
+    @Autowired
+    public CascadeDeleter(BoardDao boardDao, TaskListDao taskListDao, TaskDao taskDao,
+                          ColorEntityDao colorEntityDao) {
+        this.boardDao = boardDao;
+        this.taskListDao = taskListDao;
+        this.taskDao = taskDao;
+        this.colorEntityDao = colorEntityDao;
+    }
+
+    /**
+     * Deletes a board with its task lists, tags and colors. Only ids are read,
+     * and every table is cleared with one statement, whatever the size of the board
+     * @param id id of the board
+     */
+    @Transactional
+    public void deleteBoard(long id) {
+        deleteTaskLists(boardDao.findTaskListIds(id));
+        Set<Long> colorIds = new HashSet<>(boardDao.findColorPresetIds(id));
+        boardDao.findDefaultColorId(id).ifPresent(colorIds::add);
+        boardDao.deletePresetLinks(id);
+        boardDao.deleteTags(id);
+        boardDao.deleteBoardById(id);
+        if(!colorIds.isEmpty()) {
+            colorEntityDao.deleteByIds(colorIds);
+        }
+    }
+
+    /**
+     * Deletes task lists with the lists nested under them, their tasks,
+     * the subtasks of those tasks, and the tags that no task in another list carries.
+     * The rows are found through the link tables, keyed only by the list ids.
+     * A row can only go once its links are gone, and then nothing leads to it
+     * anymore, so the ids of the tasks, subtasks and tags are first copied into
+     * DELETED_ROW inside the database, and the tables are then cleared in foreign
+     * key order with one statement each, whatever the size of the lists
+     * @param taskListIds ids of the task lists
+     */
+    @Transactional
+    public void deleteTaskLists(Collection<Long> taskListIds) {
+        if(taskListIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = withNestedLists(taskListIds);
+        // concurrent deletions keep their rows apart by a key of their own
+        long deletion = ThreadLocalRandom.current().nextLong();
+        taskDao.keepTasksInLists(deletion, ids);
+        taskDao.keepSubTasksInLists(deletion, ids);
+        taskDao.keepTagsInLists(deletion, ids);
+        taskDao.deleteSubTaskLinksInLists(ids);
+        taskDao.deleteKeptSubTasks(deletion);
+        taskDao.deleteTagLinksInLists(ids);
+        taskDao.deleteKeptUnusedTags(deletion);
+        taskListDao.deleteTaskLinks(ids);
+        taskDao.deleteKeptTasks(deletion);
+        taskDao.forgetKept(deletion);
+        taskListDao.deleteNestedLinks(ids);
+        taskListDao.deleteBoardLinks(ids);
+        taskListDao.deleteByIds(ids);
+    }
+
+    /**
+     * Collects task lists with every list nested under them, at any depth,
+     * reading one level of nesting per query
+     * @param ids ids of the task lists
+     * @return ids of the task lists and of the lists nested under them
+     */
+    private Set<Long> withNestedLists(Collection<Long> ids) {
+        Set<Long> all = new HashSet<>(ids);
+        Collection<Long> level = ids;
+        while(!level.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for(Long nested : taskListDao.findNestedIds(level)) {
+                if(all.add(nested)) {
+                    next.add(nested);
+                }
+            }
+            level = next;
+        }
+        return all;
+    }
+}
@@ -0,0 +1,124 @@
+package server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import server.database.BoardDao;
+import server.database.SubTaskDao;
+import server.database.TagDao;
+import server.database.TaskDao;
+import server.database.TaskListDao;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Checks on startup that the columns the repositories filter on are indexed,
+ * and logs how the database plans the native lookups of the repositories,
+ * as they are written in their Query annotations
+ */
+@Component
+public class IndexCheck {
+    /**
+     * Columns that must lead an index, by table
+     */
+    static final Map<String, String> EXPECTED_INDEXES = Map.of(
+        "BOARD", "USER_ID",
+        "TASK_LIST", "BOARD_ID",
+        "TASK_LIST_TASKS", "TASK_LIST_ID",
+        "SUB_TASK", "TASK_ID",
+        "TAG", "BOARD_ID");
+
+    /**
+     * The repositories whose native lookups are checked
+     */
+    static final List<Class<?>> REPOSITORIES = List.of(BoardDao.class, TaskListDao.class,
+        TaskDao.class, SubTaskDao.class, TagDao.class);
+
+    /**
+     * The native lookups of the repositories, by the method that runs them
+     */
+    static final Map<String, String> QUERIES = findQueries();
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexCheck.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor
+     * @param jdbcTemplate runs the checks
+     */
+    @Autowired
+    public IndexCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Logs a warning for every missing index, and the plan of every query
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        for(String missing : findMissingIndexes()) {
+            LOG.warn("Missing index on {}", missing);
+        }
+        explainQueries().forEach((query, plan) -> LOG.info("Plan of {}: {}", query, plan));
+    }
+
+    /**
+     * Finds the expected indexes that the database does not have
+     * @return the missing indexes, as TABLE.COLUMN
+     */
+    public List<String> findMissingIndexes() {
+        List<String> missing = new ArrayList<>();
+        EXPECTED_INDEXES.forEach((table, column) -> {
+            Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                    + "FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = ? "
+                    + "AND COLUMN_NAME = ? AND ORDINAL_POSITION = 1",
+                Integer.class, table, column);
+            if(count == null || count == 0) {
+                missing.add(table + "." + column);
+            }
+        });
+        return missing;
+    }
+
+    /**
+     * Reads the native SELECT queries of the repositories from their annotations,
+     * with every parameter set to 1 so that the database can plan them
+     * @return the queries, by the method that runs them
+     */
+    static Map<String, String> findQueries() {
+        Map<String, String> queries = new TreeMap<>();
+        for(Class<?> repository : REPOSITORIES) {
+            for(Method method : repository.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if(query != null && query.nativeQuery() && query.value().startsWith("SELECT")) {
+                    queries.put(repository.getSimpleName() + "." + method.getName(),
+                        query.value().replaceAll("\\?\\d+", "(1)"));
+                }
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Asks the database how it would run the lookups of the repositories
+     * @return the plan of every query, by the method that runs it
+     */
+    public Map<String, String> explainQueries() {
+        Map<String, String> plans = new LinkedHashMap<>();
+        QUERIES.forEach((query, sql) -> plans.put(query,
+            jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class)
+                .replaceAll("\\s+", " ")));
+        return plans;
+    }
+}
@@ -0,0 +1,77 @@
+package server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import server.database.TaskDao;
+import server.database.TaskListDao;
+
+import java.util.List;
+
+@Service
+public class RankRebalancer {
+    /**
+     * Distance between the ranks of neighbouring tasks after a rebalance
+     */
+    public static final long GAP = 1L << 20;
+
+    /**
+     * Once two neighbours are closer than this, the list gets rebalanced
+     */
+    public static final long MIN_GAP = 1L << 6;
+
+    private final TaskDao taskDao;
+    private final TaskListDao taskListDao;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Injector constructor
+     * @param taskDao task DB interface
+     * @param taskListDao taskList DB interface
+     * @param events publishes the changes to boards
+     */
+    @Autowired
+    public RankRebalancer(TaskDao taskDao, TaskListDao taskListDao,
+                          ApplicationEventPublisher events) {
+        this.taskDao = taskDao;
+        this.taskListDao = taskListDao;
+        this.events = events;
+    }
+
+    /**
+     * Rebalances the ranks of a list in the background, holding the lock
+     * of the list so that no move runs in between. Only the board and the
+     * tasks whose rank was rewritten get a new version
+     * @param listId id of the task list
+     */
+    @Async
+    @Transactional
+    public void rebalance(long listId) {
+        if(taskListDao.findLockedById(listId).isEmpty()) {
+            return;
+        }
+        if(normalizeRanks(listId) == 0) {
+            return;
+        }
+        taskListDao.findBoardId(listId).ifPresent(board ->
+            events.publishEvent(new BoardChangedEvent(board)));
+    }
+
+    /**
+     * Spreads the ranks of a list evenly, keeping the order of its tasks.
+     * The tasks whose rank changes get a new version
+     * @param listId id of the task list
+     * @return number of tasks whose rank changed
+     */
+    @Transactional
+    public int normalizeRanks(long listId) {
+        List<Long> ids = taskDao.findIdsInListOrder(listId);
+        int rewritten = 0;
+        for(int i = 0; i < ids.size(); i++) {
+            rewritten += taskDao.updateRank(ids.get(i), (i + 1) * GAP);
+        }
+        return rewritten;
+    }
+}
@@ -1,44 +1,113 @@
 package server.service;
 
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
 import commons.SubTask;
-import commons.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import server.database.SubTaskDao;
 import server.database.TaskDao;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class SubtaskService {
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("description", "checked");
     private final SubTaskDao subTaskDao;
     private final TaskDao taskDao;
+    private final ApplicationEventPublisher events;
 
     /**
      * Constructor for the service
      * @param subTaskDao the subtask data access object (injected)
      * @param taskDao the task data access object (injected)
+     * @param events publishes the changes to boards
      */
     @Autowired
-    public SubtaskService(SubTaskDao subTaskDao, TaskDao taskDao) {
+    public SubtaskService(SubTaskDao subTaskDao, TaskDao taskDao,
+                          ApplicationEventPublisher events) {
         this.subTaskDao = subTaskDao;
         this.taskDao = taskDao;
+        this.events = events;
     }
 
     /**
-     * Adds a new subtask
+     * Adds a new subtask, and links it to its task without loading the task
      * @param subTask the subtask to add
-     * @return the newly added subtask
+     * @return the newly added subtask, or null if its task does not exist
      */
+    @Transactional
     public SubTask addNewSubTask (SubTask subTask) {
-        if(subTask == null) return null;
-        subTask = subTaskDao.save(subTask);
-        Optional<Task> parentTask = taskDao.findById(subTask.getTaskId());
-        if(parentTask.isEmpty()) {
+        if(subTask == null || subTask.getTaskId() == null
+            || !taskDao.existsById(subTask.getTaskId())) {
             return null;
         }
-        parentTask.get().addSubtask(subTask);
-        taskDao.save(parentTask.get());
+        subTask = subTaskDao.save(subTask);
+        subTaskDao.unlinkFromTask(subTask.getId());
+        subTaskDao.linkToTask(subTask.getTaskId(), subTask.getId());
+        Map<String, String> fields = new HashMap<>();
+        fields.put("description", subTask.getDescription());
+        fields.put("checked", String.valueOf(subTask.isChecked()));
+        taskChanged(subTask.getTaskId(), new BoardChange(Entity.SUB_TASK, Operation.INSERT,
+            subTask.getId(), subTask.getTaskId(), BoardChangedEvent.changedFields(fields)));
         return subTask;
     }
+
+    /**
+     * Removes a subtask from its task and deletes it, without loading the task
+     * @param id the id of the subtask
+     * @return the removed subtask, or null if it does not exist
+     */
+    @Transactional
+    public SubTask removeSubTask(long id) {
+        Optional<SubTask> subTask = subTaskDao.findById(id);
+        if(subTask.isEmpty()) {
+            return null;
+        }
+        Optional<Long> taskId = subTaskDao.findTaskId(id);
+        subTaskDao.unlinkFromTask(id);
+        subTaskDao.delete(subTask.get());
+        taskId.ifPresent(task -> taskChanged(task,
+            new BoardChange(Entity.SUB_TASK, Operation.REMOVE, id, task, Map.of())));
+        return subTask.get();
+    }
+
+    /**
+     * Updates some fields of a subtask with a single UPDATE, without loading it
+     * @param id the id of the subtask
+     * @param fields the new values by field name
+     * @return number of rows changed, or null if a field can't be patched
+     */
+    @Transactional
+    public Integer patchSubTask(long id, Map<String, String> fields) {
+        if(fields == null || !PATCHABLE_FIELDS.containsAll(fields.keySet())) {
+            return null;
+        }
+        Boolean checked = fields.containsKey("checked")
+            ? Boolean.valueOf(fields.get("checked"))
+            : null;
+        int updated = subTaskDao.patch(id, fields.get("description"), checked);
+        if(updated > 0) {
+            subTaskDao.findTaskId(id).ifPresent(task -> taskChanged(task,
+                new BoardChange(Entity.SUB_TASK, Operation.UPDATE, id, task,
+                    BoardChangedEvent.changedFields(fields))));
+        }
+        return updated;
+    }
+
+    /**
+     * Publishes a change to a task and the board it is on
+     * @param taskId the id of the task
+     * @param delta what changed
+     */
+    private void taskChanged(long taskId, BoardChange delta) {
+        taskDao.findBoardId(taskId).ifPresent(board ->
+            events.publishEvent(new BoardChangedEvent(board, taskId, delta)));
+    }
 }
@@ -1,106 +1,183 @@
 package server.service;
 
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
 import commons.Tag;
-import commons.Task;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import server.database.TagDao;
 import server.database.TaskDao;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TagService {
+    private static final Set<String> PATCHABLE_FIELDS =
+        Set.of("description", "tagColor", "tagFontColor");
     private final TagDao tagDao;
     private final TaskDao taskDao;
+    private final ApplicationEventPublisher events;
 
     /**
      * The constructor for the service
      *
      * @param tagDao  the tag data access object (injected)
      * @param taskDao the task DAO
+     * @param events publishes the changes to boards
      */
     @Autowired
-    public TagService(TagDao tagDao, TaskDao taskDao) {
+    public TagService(TagDao tagDao, TaskDao taskDao, ApplicationEventPublisher events) {
         this.tagDao = tagDao;
         this.taskDao = taskDao;
+        this.events = events;
     }
 
     /**
-     * Adds a new tag
+     * Adds a new tag, or overwrites the tag with the same id.
+     * Any task of its board may carry it, so the whole board is refetched
      * @param tag the tag to add
      * @return the newly added tag
      */
+    @Transactional
     public Tag addNewTag (Tag tag) {
         if(tag == null) return null;
-        return tagDao.save(tag);
+        Tag saved = tagDao.save(tag);
+        boardChanged(saved.getBoardId(), null);
+        return saved;
     }
 
     /**
-     * Disconnects the tag from the task
+     * Disconnects the tag from the task. The tag is deleted once no task carries it
      * @param tagID the ID of the tag being removed
      * @param taskID the ID of the task in which the tag is removed from
      * @return the removed tag
      */
+    @Transactional
     public Tag removeTag (Long tagID, Long taskID) {
-        if(tagID == null) return null;
-        Optional<Tag> tagOptional = tagDao.findById(tagID);
-        Optional<Task> taskOptional = taskDao.findById(taskID);
-        if (tagOptional.isEmpty() || taskOptional.isEmpty()) {
+        if(tagID == null || taskID == null) return null;
+        Optional<Tag> tag = tagDao.findById(tagID);
+        if (tag.isEmpty()) {
             return null;
         }
-        Tag tag = tagOptional.get();
-        Task task = taskOptional.get();
-        task.getTags().remove(tag);
-        taskDao.save(task);
-        tagDao.deleteById(tag.getId());
-        return tag;
+        tagDao.deleteLink(taskID, tagID);
+        taskDao.deleteUnusedTags(List.of(tagID));
+        BoardChange delta = new BoardChange(Entity.TAG, Operation.REMOVE, tagID, taskID, Map.of());
+        taskDao.findBoardId(taskID)
+            .ifPresent(board -> events.publishEvent(new BoardChangedEvent(board, taskID, delta)));
+        return tag.get();
     }
 
     /**
-     * Deletes all tags with same desc from board
+     * Deletes a tag from its board, and from every task that carries it
      *
      * @param tag tag to be removed
-     * @return res
+     * @return number of tags deleted
      */
+    @Transactional
     public Integer deleteTagFromBoard (Tag tag) {
         if(tag == null ) {
             return null;
         }
-        return tagDao.deleteTagFromBoard(
-                tag.getBoardId(),
-                tag.getDescription(),
-                tag.getTagColor(),
-                tag.getTagFontColor());
+        Long boardId = tag.getBoardId();
+        if(boardId == null) {
+            boardId = tagDao.findBoardId(tag.getId()).orElse(null);
+        }
+        tagDao.deleteLinks(tag.getId());
+        int deleted = tagDao.deleteTagById(tag.getId());
+        boardChanged(boardId,
+            new BoardChange(Entity.TAG, Operation.REMOVE, tag.getId(), null, Map.of()));
+        return deleted;
     }
 
     /**
-     * Utility method that updates tags in DB
+     * Renames or recolours a tag of a board. Every task that carries it
+     * refers to the same row, so this is a single UPDATE
      * @param oldTag old tag
      * @param newTag new tag with updated value
      * @return number of rows changed
      */
+    @Transactional
     public Integer updateTags(Tag oldTag, Tag newTag){
         if(oldTag == null || newTag == null) {
             return null;
         }
-        return tagDao.updateTags(
+        int updated = tagDao.patch(oldTag.getId(),
                 newTag.getDescription(),
                 newTag.getTagColor(),
-                newTag.getTagFontColor(),
-                newTag.getBoardId(),
-                oldTag.getDescription(),
-                oldTag.getTagColor(),
-                oldTag.getTagFontColor());
+                newTag.getTagFontColor());
+        if(updated > 0) {
+            boardChanged(newTag.getBoardId(), tagUpdated(oldTag.getId(),
+                newTag.getDescription(), newTag.getTagColor(), newTag.getTagFontColor()));
+        }
+        return updated;
+    }
+
+    /**
+     * Updates some fields of a single tag with a single UPDATE, without loading it
+     * @param id the id of the tag
+     * @param fields the new values by field name
+     * @return number of rows changed, or null if a field can't be patched
+     */
+    @Transactional
+    public Integer patchTag(long id, Map<String, String> fields) {
+        if(fields == null || !PATCHABLE_FIELDS.containsAll(fields.keySet())) {
+            return null;
+        }
+        int updated = tagDao.patch(id,
+            fields.get("description"),
+            fields.get("tagColor"),
+            fields.get("tagFontColor"));
+        if(updated > 0) {
+            BoardChange delta = tagUpdated(id, fields.get("description"),
+                fields.get("tagColor"), fields.get("tagFontColor"));
+            tagDao.findBoardId(id).ifPresent(board -> boardChanged(board, delta));
+        }
+        return updated;
+    }
+
+    /**
+     * Publishes a change to the tags of any task on a board, if the tag carries one
+     * @param boardId the id of the board (or null)
+     * @param delta what changed, or null if the clients have to fetch the board
+     */
+    private void boardChanged(Long boardId, BoardChange delta) {
+        if(boardId != null) {
+            events.publishEvent(
+                new BoardChangedEvent(boardId, BoardChange.ALL_TASKS, delta));
+        }
+    }
+
+    /**
+     * Creates the delta of an updated tag
+     * @param id the id of the tag
+     * @param description the new description (or null if it is unchanged)
+     * @param tagColor the new color (or null if it is unchanged)
+     * @param tagFontColor the new font color (or null if it is unchanged)
+     * @return the delta
+     */
+    private static BoardChange tagUpdated(long id, String description, String tagColor,
+                                          String tagFontColor) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("description", description);
+        fields.put("tagColor", tagColor);
+        fields.put("tagFontColor", tagFontColor);
+        return new BoardChange(Entity.TAG, Operation.UPDATE, id, null,
+            BoardChangedEvent.changedFields(fields));
     }
 
     /**
-     * Get all tags
+     * Gets the tags defined on a board
      * @param boardID the board id
-     * @return list of distinct boards
+     * @return list of tags
      */
-    public List<Tag> getAllDistinct(Long boardID) {
-        return tagDao.getAllDistinct(boardID);
+    public List<Tag> getBoardTags(Long boardID) {
+        return tagDao.findByBoardIdOrderById(boardID);
     }
 }
@@ -1,30 +1,46 @@
 package server.service;
 
-import commons.Board;
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
 import commons.TaskList;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import server.database.BoardDao;
 import server.database.TaskListDao;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TaskListService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title");
+
     private final TaskListDao taskListDao;
     private final BoardDao boardDao;
+    private final CascadeDeleter cascadeDeleter;
+    private final ApplicationEventPublisher events;
 
     /**
      * Injector constructor
      * @param taskListDao task list(list) interface
      * @param boardDao the dao for the boards
+     * @param cascadeDeleter deletes task lists with set-based statements
+     * @param events publishes the changes to boards
      */
     @Autowired
-    public TaskListService(TaskListDao taskListDao, BoardDao boardDao) {
+    public TaskListService(TaskListDao taskListDao, BoardDao boardDao,
+                           CascadeDeleter cascadeDeleter, ApplicationEventPublisher events) {
         this.taskListDao = taskListDao;
         this.boardDao = boardDao;
+        this.cascadeDeleter = cascadeDeleter;
+        this.events = events;
     }
 
     /**
@@ -33,9 +49,6 @@ public class TaskListService {
      * @return the task list with thw given id
      */
     public TaskList getTaskListById(long id) {
-        if(!taskListDao.existsById(id)) {
-            return null;
-        }
         return taskListDao.findById(id).orElse(null);
     }
 
@@ -48,38 +61,67 @@ public class TaskListService {
     }
 
     /**
-     * Add a task list to the database
+     * Add a task list to the database, and link it to its board
+     * without loading the board
      * @param taskList the task list to add
-     * @return the added task list
+     * @return the added task list, or null if its board does not exist
      */
+    @Transactional
     public TaskList addTaskList(TaskList taskList) {
-        if(taskList == null) {
+        if(taskList == null || taskList.getBoardId() == null
+            || !boardDao.existsById(taskList.getBoardId())) {
             return null;
         }
-        Optional<Board> board = boardDao.findById(taskList.getBoardId());
-        if(board.isEmpty()) return null;
         taskList = taskListDao.save(taskList);
-        TaskList ret = board.get().addNewTaskList(taskList);
-        boardDao.save(board.get());
-        return ret;
+        boardDao.unlinkTaskList(taskList.getId());
+        boardDao.linkTaskList(taskList.getBoardId(), taskList.getId());
+        BoardChange delta = null;
+        if(taskList.getTasks() == null || taskList.getTasks().isEmpty()) {
+            delta = new BoardChange(Entity.TASK_LIST, Operation.INSERT, taskList.getId(), null,
+                BoardChangedEvent.changedFields(Collections.singletonMap("title",
+                    taskList.getTitle())));
+        }
+        events.publishEvent(new BoardChangedEvent(taskList.getBoardId(),
+            BoardChange.ALL_TASKS, delta));
+        return taskList;
     }
 
     /**
-     * Delete a task list from the database
-     * @param taskList taskList of the task list to be removed
-     * @return the removed task list
+     * Delete a task list from the database, with its tasks,
+     * without loading any of them
+     * @param id id of the task list to be removed
+     * @return the id of the removed task list, or null if it does not exist
      */
-    public TaskList removeTaskList(TaskList taskList){
-        if(!taskListDao.existsById(taskList.getId())) {
+    @Transactional
+    public Long removeTaskList(long id){
+        if(!taskListDao.existsById(id)) {
             return null;
         }
-        Optional<Board> board = boardDao.findById(taskList.getBoardId());
-        if(board.isEmpty()) return null;
-        TaskList ret = board.get().removeTaskList(taskList);
-
-        boardDao.save(board.get());
-        taskListDao.delete(taskList);
-        return ret;
+        Optional<Long> boardId = taskListDao.findBoardId(id);
+        cascadeDeleter.deleteTaskLists(List.of(id));
+        boardId.ifPresent(board -> events.publishEvent(new BoardChangedEvent(board, null,
+            new BoardChange(Entity.TASK_LIST, Operation.REMOVE, id, null, Map.of()))));
+        return id;
     }
 
+    /**
+     * Updates some fields of a task list with a single UPDATE, without loading it
+     * @param id the id of the task list
+     * @param fields the new values by field name
+     * @return number of rows changed, or null if a field can't be patched
+     */
+    @Transactional
+    public Integer patchTaskList(long id, Map<String, String> fields) {
+        if(fields == null || !PATCHABLE_FIELDS.containsAll(fields.keySet())) {
+            return null;
+        }
+        int updated = taskListDao.patch(id, fields.get("title"));
+        if(updated > 0) {
+            BoardChange delta = new BoardChange(Entity.TASK_LIST, Operation.UPDATE, id, null,
+                BoardChangedEvent.changedFields(fields));
+            taskListDao.findBoardId(id)
+                .ifPresent(board -> events.publishEvent(new BoardChangedEvent(board, null, delta)));
+        }
+        return updated;
+    }
 }
@@ -1,28 +1,50 @@
 package server.service;
 
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import commons.Tag;
 import commons.Task;
-import commons.TaskList;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import server.database.TaskDao;
 import server.database.TaskListDao;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
+    private static final Set<String> PATCHABLE_FIELDS =
+        Set.of("title", "description", "backGroundColor", "fontColor");
     private final TaskDao taskDao;
     private final TaskListDao taskListDao;
+    private final RankRebalancer rankRebalancer;
+    private final ApplicationEventPublisher events;
 
     /**
      * Injector constructor
      * @param taskDao task DB interface
      * @param taskListDao taskList DB interface
+     * @param rankRebalancer keeps the task ranks spread out
+     * @param events publishes the changes to boards
      */
     @Autowired
-    public TaskService(TaskDao taskDao, TaskListDao taskListDao) {
+    public TaskService(TaskDao taskDao, TaskListDao taskListDao, RankRebalancer rankRebalancer,
+                       ApplicationEventPublisher events) {
         this.taskDao = taskDao;
         this.taskListDao = taskListDao;
+        this.rankRebalancer = rankRebalancer;
+        this.events = events;
     }
 
     /**
@@ -31,48 +53,267 @@ public class TaskService {
      * @return the found task
      */
     public Task getTaskById(long id) {
-        if(!taskDao.existsById(id)) {
-            return null;
-        }
-        Optional<Task> result = taskDao.findById(id);
-        return result.orElse(null);
+        return taskDao.findById(id).orElse(null);
     }
 
     /**
-     * Adds a new task to the db. The task can't be null
+     * Finds the version of a task, without loading it
+     * @param id the id of the task
+     * @return the version (or null if there is no such task)
+     */
+    public Long getTaskVersion(long id) {
+        return taskDao.findVersionById(id).orElse(null);
+    }
+
+    /**
+     * Adds a new task to the db, and links it to its list without
+     * loading the list. The task can't be null
      * @param task the task to add
-     * @return the newly added task
+     * @return the newly added task, or null if its list does not exist
      */
+    @Transactional
     public Task addTask(Task task) {
-        if(task == null) {
+        if(task == null || task.getTaskListID() == null
+            || !taskListDao.existsById(task.getTaskListID())) {
             return null;
         }
+        if(task.getSortRank() == null) {
+            Long last = taskDao.findLastRank(task.getTaskListID(), task.getId());
+            task.setSortRank(last == null ? RankRebalancer.GAP : last + RankRebalancer.GAP);
+        }
         task = taskDao.save(task);
-        Optional<TaskList> taskList = taskListDao.findById(task.getTaskListID());
-        if (taskList.isEmpty()) {
-            return null;
+        taskListDao.unlinkTask(task.getId());
+        taskListDao.linkTask(task.getTaskListID(), task.getId());
+        BoardChange delta = null;
+        if(isEmpty(task.getSubTasks()) && isEmpty(task.getTags())) {
+            delta = new BoardChange(Entity.TASK, Operation.INSERT, task.getId(),
+                task.getTaskListID(), taskFields(task));
+            delta.setRank(task.getSortRank());
         }
-        taskList.get().addTask(task);
-        taskListDao.save(taskList.get());
+        listChanged(task.getTaskListID(), task.getId(), delta);
         return task;
     }
 
     /**
-     * Remove a Task from its TaskList
+     * Remove a Task from its TaskList, without loading the list
      * @param id the if of the task that will be removed
      * @return the Task that is removed
      */
+    @Transactional
     public Task removeTaskById(long id){
-        var task = taskDao.findById(id);
-        if(task.isEmpty() || !taskListDao.existsById(task.get().getTaskListID())){
+        Optional<Task> task = taskDao.findById(id);
+        if(task.isEmpty()) {
             return null;
         }
-        var taskListOptional = taskListDao.findById(task.get().getTaskListID());
-        if(taskListOptional.isEmpty()) return null;
-        TaskList taskList = taskListOptional.get();
-        taskList.getTasks().remove(task.get());
-        taskListDao.save(taskList);
+        Optional<Long> boardId = taskDao.findBoardId(id);
+        if(taskListDao.unlinkTask(id) == 0) {
+            return null;
+        }
+        List<Long> tagIds = task.get().getTags().stream()
+            .map(Tag::getId)
+            .collect(Collectors.toList());
         taskDao.delete(task.get());
+        if(!tagIds.isEmpty()) {
+            taskDao.deleteUnusedTags(tagIds);
+        }
+        BoardChange delta = new BoardChange(Entity.TASK, Operation.REMOVE, id,
+            task.get().getTaskListID(), Map.of());
+        boardId.ifPresent(board -> events.publishEvent(new BoardChangedEvent(board, null, delta)));
         return task.get();
     }
+
+    /**
+     * Updates some fields of a task with a single UPDATE, without loading it
+     * @param id the id of the task
+     * @param fields the new values by field name
+     * @return number of rows changed, or null if a field can't be patched
+     */
+    @Transactional
+    public Integer patchTask(long id, Map<String, String> fields) {
+        if(fields == null || !PATCHABLE_FIELDS.containsAll(fields.keySet())) {
+            return null;
+        }
+        int updated = taskDao.patch(id,
+            fields.get("title"),
+            fields.get("description"),
+            fields.get("backGroundColor"),
+            fields.get("fontColor"));
+        if(updated > 0) {
+            BoardChange delta = new BoardChange(Entity.TASK, Operation.UPDATE, id, null,
+                BoardChangedEvent.changedFields(fields));
+            taskDao.findBoardId(id)
+                .ifPresent(board -> events.publishEvent(new BoardChangedEvent(board, id, delta)));
+        }
+        return updated;
+    }
+
+    /**
+     * Moves a task to a position in a list, after or before one of its tasks
+     * (or at the end, if neither is given). Only the moved task is written;
+     * the list is rebalanced in the background once its ranks get too dense
+     * @param id the id of the task to move
+     * @param listId the id of the target list
+     * @param afterId the id of the task to place it after (or null)
+     * @param beforeId the id of the task to place it before (or null)
+     * @return the new rank of the task, or null if the move is not possible
+     */
+    @Transactional
+    public Long moveTask(long id, long listId, Long afterId, Long beforeId) {
+        Optional<Task> task = taskDao.findById(id);
+        if(task.isEmpty() || taskListDao.findLockedById(listId).isEmpty()) {
+            return null;
+        }
+        boolean normalized = false;
+        if(taskDao.countUnranked(listId) > 0) {
+            rankRebalancer.normalizeRanks(listId);
+            normalized = true;
+        }
+        Long[] bounds = findBounds(id, listId, afterId, beforeId);
+        if(bounds == null) {
+            return null;
+        }
+        if(bounds[0] != null && bounds[1] != null && bounds[1] - bounds[0] < 2) {
+            rankRebalancer.normalizeRanks(listId);
+            normalized = true;
+            bounds = findBounds(id, listId, afterId, beforeId);
+        }
+        long rank = rankBetween(bounds[0], bounds[1]);
+        Optional<Long> boardId = taskListDao.findBoardId(listId);
+        if(!Objects.equals(task.get().getTaskListID(), listId)) {
+            // a task moved to another board is gone from the one it was on
+            BoardChange removed = new BoardChange(Entity.TASK, Operation.REMOVE, id,
+                task.get().getTaskListID(), Map.of());
+            taskDao.findBoardId(id)
+                .filter(board -> !boardId.equals(Optional.of(board)))
+                .ifPresent(board ->
+                    events.publishEvent(new BoardChangedEvent(board, null, removed)));
+            taskListDao.moveTask(id, listId);
+        }
+        taskDao.move(id, rank, listId);
+        // after a rebalance the clients fetch the board, whose other ranks changed too;
+        // the rebalanced tasks already have new versions, the moved one gets its own
+        if(normalized) {
+            taskDao.bumpVersion(id);
+        }
+        Long changed = normalized ? null : id;
+        BoardChange delta = normalized ? null : BoardChange.move(id, listId, rank);
+        boardId.ifPresent(board ->
+            events.publishEvent(new BoardChangedEvent(board, changed, delta)));
+        if((bounds[0] != null && rank - bounds[0] < RankRebalancer.MIN_GAP)
+            || (bounds[1] != null && bounds[1] - rank < RankRebalancer.MIN_GAP)) {
+            rebalanceAfterCommit(listId);
+        }
+        return rank;
+    }
+
+    /**
+     * Finds the ranks between which a moved task has to go
+     * @param id the id of the task to move
+     * @param listId the id of the target list
+     * @param afterId the id of the task to place it after (or null)
+     * @param beforeId the id of the task to place it before (or null)
+     * @return the lower and upper bound (either may be null),
+     *      or null if the neighbour is not in the list
+     */
+    private Long[] findBounds(long id, long listId, Long afterId, Long beforeId) {
+        if(afterId != null) {
+            Long low = neighbourRank(id, listId, afterId);
+            if(low == null) {
+                return null;
+            }
+            return new Long[]{low, taskDao.findNextRank(listId, low, id)};
+        }
+        if(beforeId != null) {
+            Long high = neighbourRank(id, listId, beforeId);
+            if(high == null) {
+                return null;
+            }
+            return new Long[]{taskDao.findPreviousRank(listId, high, id), high};
+        }
+        return new Long[]{taskDao.findLastRank(listId, id), null};
+    }
+
+    /**
+     * Finds the rank of the neighbour of a moved task
+     * @param id the id of the task to move
+     * @param listId the id of the target list
+     * @param neighbourId the id of the neighbour
+     * @return the rank of the neighbour, or null if it is not in the list
+     */
+    private Long neighbourRank(long id, long listId, long neighbourId) {
+        if(neighbourId == id) {
+            return null;
+        }
+        return taskDao.findRankInList(listId, neighbourId).orElse(null);
+    }
+
+    /**
+     * Picks the rank halfway between two bounds
+     * @param low the lower bound (or null if there is none)
+     * @param high the upper bound (or null if there is none)
+     * @return the new rank
+     */
+    private static long rankBetween(Long low, Long high) {
+        if(low == null && high == null) {
+            return RankRebalancer.GAP;
+        } else if(low == null) {
+            return high - RankRebalancer.GAP;
+        } else if(high == null) {
+            return low + RankRebalancer.GAP;
+        }
+        return low + (high - low) / 2;
+    }
+
+    /**
+     * Publishes a change to the board a task list is on
+     * @param listId the id of the task list
+     * @param taskId the id of the task that changed,
+     *               {@link BoardChange#ALL_TASKS}, or null if none did
+     * @param delta what changed, or null if the clients have to fetch the board
+     */
+    private void listChanged(long listId, Long taskId, BoardChange delta) {
+        taskListDao.findBoardId(listId)
+            .ifPresent(board -> events.publishEvent(new BoardChangedEvent(board, taskId, delta)));
+    }
+
+    /**
+     * Collects the fields of a new task that the clients show
+     * @param task the task
+     * @return the fields that are set, by field name
+     */
+    private static Map<String, String> taskFields(Task task) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", task.getTitle());
+        fields.put("description", task.getDescription());
+        fields.put("backGroundColor", task.getBackGroundColor());
+        fields.put("fontColor", task.getFontColor());
+        return BoardChangedEvent.changedFields(fields);
+    }
+
+    /**
+     * Checks whether a list of a new task is empty
+     * @param list the list, which may be null
+     * @return true if it has no elements
+     */
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
+    /**
+     * Schedules a background rebalance of a list once the current transaction
+     * commits, so that it sees the move that made the list dense
+     * @param listId the id of the task list
+     */
+    private void rebalanceAfterCommit(long listId) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rankRebalancer.rebalance(listId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rankRebalancer.rebalance(listId);
+            }
+        });
+    }
 }
@@ -0,0 +1,203 @@
+package server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import server.database.BoardDao;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hands out the user-friendly ids of boards (like A1B2C3) without asking the
+ * database whether they are taken. Every possible id is a bit in a bitmap of
+ * about 2MB, which is filled from the database once the application is ready,
+ * so the first board created does not wait for it, and kept in sync as boards
+ * are created and removed
+ */
+@Component
+public class UserIdAllocator {
+    /**
+     * Number of different user-friendly ids
+     */
+    public static final int KEY_SPACE = 26 * 10 * 26 * 10 * 26 * 10;
+
+    private static final int RANDOM_PROBES = 64;
+    private static final int LOAD_PAGE = 10_000;
+
+    private final BoardDao boardDao;
+    private final BitSet used = new BitSet(KEY_SPACE);
+    private int usedCount;
+    private boolean loaded;
+
+    /**
+     * Constructor
+     * @param boardDao board DB interface
+     */
+    @Autowired
+    public UserIdAllocator(BoardDao boardDao) {
+        this.boardDao = boardDao;
+    }
+
+    /**
+     * Fills the bitmap as soon as the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void preload() {
+        load();
+    }
+
+    /**
+     * Picks a random free user-friendly id and marks it as used, so no other
+     * board gets it. Random ids are tried first; when the space is so full that
+     * they keep hitting used ids, the next free id after a random one is taken
+     * @return the id
+     * @throws IllegalStateException if every id is used
+     */
+    public synchronized String allocate() {
+        load();
+        if(usedCount >= KEY_SPACE) {
+            throw new IllegalStateException("All user-friendly ids are used");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = -1;
+        for(int i = 0; i < RANDOM_PROBES && index < 0; i++) {
+            int candidate = random.nextInt(KEY_SPACE);
+            if(!used.get(candidate)) {
+                index = candidate;
+            }
+        }
+        if(index < 0) {
+            index = used.nextClearBit(random.nextInt(KEY_SPACE));
+            if(index >= KEY_SPACE) {
+                index = used.nextClearBit(0);
+            }
+        }
+        used.set(index);
+        usedCount++;
+        return key(index);
+    }
+
+    /**
+     * Marks an id as used, for a board that was saved with an id of its own
+     * @param userId the user-friendly id (ignored if it is not of the A1B2C3 form)
+     * @return true if the id was free until now
+     */
+    public synchronized boolean markUsed(String userId) {
+        load();
+        return set(userId);
+    }
+
+    /**
+     * Frees the id of a removed board, so it can be handed out again.
+     * Call it once the removal is committed: if the bitmap is not loaded yet,
+     * there is nothing to do, as loading it will not find the board anymore
+     * @param userId the user-friendly id (ignored if it is not of the A1B2C3 form)
+     */
+    public synchronized void release(String userId) {
+        if(!loaded) {
+            return;
+        }
+        int index = index(userId);
+        if(index >= 0 && used.get(index)) {
+            used.clear(index);
+            usedCount--;
+        }
+    }
+
+    /**
+     * Returns the number of ids in use
+     * @return the number of ids
+     */
+    public synchronized int getUsedCount() {
+        load();
+        return usedCount;
+    }
+
+    /**
+     * Fills the bitmap with the ids of the boards in the database,
+     * a page at a time, unless it is filled already. A call that comes in
+     * before the application is ready fills it then
+     */
+    private void load() {
+        if(loaded) {
+            return;
+        }
+        String after = "";
+        List<String> page;
+        do {
+            page = boardDao.findUserIdsAfter(after, PageRequest.of(0, LOAD_PAGE));
+            for(String userId : page) {
+                set(userId);
+            }
+            if(!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while(page.size() == LOAD_PAGE);
+        loaded = true;
+    }
+
+    /**
+     * Marks an id as used in the bitmap
+     * @param userId the user-friendly id
+     * @return true if the id was free until now
+     */
+    private boolean set(String userId) {
+        int index = index(userId);
+        if(index < 0 || used.get(index)) {
+            return false;
+        }
+        used.set(index);
+        usedCount++;
+        return true;
+    }
+
+    /**
+     * Finds the bit of a user-friendly id
+     * @param userId the user-friendly id
+     * @return the index of its bit, or -1 if it is not of the A1B2C3 form
+     */
+    static int index(String userId) {
+        if(userId == null || userId.length() != 6) {
+            return -1;
+        }
+        int index = 0;
+        for(int i = 0; i < 6; i++) {
+            char c = userId.charAt(i);
+            if(i % 2 == 0) {
+                if(c < 'A' || c > 'Z') {
+                    return -1;
+                }
+                index = index * 26 + (c - 'A');
+            } else {
+                if(c < '0' || c > '9') {
+                    return -1;
+                }
+                index = index * 10 + (c - '0');
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Builds the user-friendly id of a bit
+     * @param index the index of the bit
+     * @return the user-friendly id
+     */
+    static String key(int index) {
+        char[] key = new char[6];
+        for(int i = 5; i >= 0; i--) {
+            if(i % 2 == 0) {
+                key[i] = (char) ('A' + index % 26);
+                index /= 26;
+            } else {
+                key[i] = (char) ('0' + index % 10);
+                index /= 10;
+            }
+        }
+        return new String(key);
+    }
+}
@@ -0,0 +1,107 @@
+package server.sockets;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import commons.BoardChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Sends board changes encoded as CBOR to the clients that asked for them
+ * when they subscribed (see {@link CodecNegotiation}), on a topic of their own.
+ * A change is only encoded if a client is subscribed to that topic.
+ * The STOMP handler only sends binary WebSocket frames for application/octet-stream,
+ * so that is the content type of the messages; the subscription tells what they hold
+ */
+@Component
+public class CborPublisher {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final SubscriptionRegistry subscriptions;
+    private final ObjectMapper objectMapper = new ObjectMapper(new CBORFactory());
+
+    /**
+     * Constructor
+     * @param simpMessagingTemplate sends the messages to the broker
+     * @param broker the broker, which knows who subscribed to what
+     *               if it is the simple broker
+     */
+    @Autowired
+    public CborPublisher(SimpMessagingTemplate simpMessagingTemplate,
+                         @Qualifier("simpleBrokerMessageHandler")
+                             AbstractBrokerMessageHandler broker) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.subscriptions = broker instanceof SimpleBrokerMessageHandler
+            ? ((SimpleBrokerMessageHandler) broker).getSubscriptionRegistry() : null;
+    }
+
+    /**
+     * Finds the topic that the CBOR encoded changes of a board are published on
+     * @param boardId id of the board
+     * @return the destination
+     */
+    public static String topic(long boardId) {
+        return "/update/cbor/board/" + boardId;
+    }
+
+    /**
+     * Sends a change to the clients that take CBOR, if there are any
+     * @param change the change
+     */
+    public void publish(BoardChange change) {
+        String destination = topic(change.getBoardId());
+        if(!hasSubscribers(destination)) {
+            return;
+        }
+        SimpMessageHeaderAccessor headers =
+            SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        headers.setLeaveMutable(true);
+        simpMessagingTemplate.send(destination,
+            MessageBuilder.createMessage(encode(change), headers.getMessageHeaders()));
+    }
+
+    /**
+     * Encodes a change as CBOR
+     * @param change the change
+     * @return the encoded change
+     */
+    public byte[] encode(BoardChange change) {
+        try {
+            return objectMapper.writeValueAsBytes(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks whether any client is subscribed to a destination
+     * @param destination the destination
+     * @return true if a message sent there would reach someone, or if the broker
+     *         can't tell
+     */
+    private boolean hasSubscribers(String destination) {
+        if(subscriptions == null) {
+            return true;
+        }
+        SimpMessageHeaderAccessor headers =
+            SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination(destination);
+        Message<byte[]> probe = MessageBuilder.createMessage(EMPTY, headers.getMessageHeaders());
+        return !subscriptions.findSubscriptions(probe).isEmpty();
+    }
+}
@@ -0,0 +1,221 @@
+package server.sockets;
+
+import commons.BoardChange;
+import commons.BoardChange.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the changes of a board for a short window before sending them,
+ * so that a burst of writes to the same entity (dragging a color picker,
+ * moving a card with the keyboard) reaches the clients as one message.
+ * The window of a board opens with its first change; a change that continues
+ * the last one held (the next version of the same entity, updated or moved again)
+ * is merged into it, any other change is held after it, so the order is kept.
+ * The removal of a board drops what is held for it
+ */
+@Component
+public class ChangeCoalescer {
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final CborPublisher cborPublisher;
+    private final RecentChanges recentChanges;
+    private final long window;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, List<BoardChange>> held = new HashMap<>();
+
+    private long received;
+    private long sent;
+
+    /**
+     * Constructor
+     * @param simpMessagingTemplate sends the messages to the broker
+     * @param cborPublisher sends the messages to the clients that take CBOR
+     * @param recentChanges keeps the messages sent, for clients that missed them
+     * @param window how long the changes of a board are held, in milliseconds
+     *               (0 sends every change right away)
+     */
+    @Autowired
+    public ChangeCoalescer(SimpMessagingTemplate simpMessagingTemplate,
+                           CborPublisher cborPublisher,
+                           RecentChanges recentChanges,
+                           @Value("${board.updates.window:40}") long window) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.cborPublisher = cborPublisher;
+        this.recentChanges = recentChanges;
+        this.window = window;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "board-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends a change to the topic of its board, once the window of the board closes
+     * @param change the change
+     */
+    public void submit(BoardChange change) {
+        if(window <= 0) {
+            synchronized (this) {
+                received++;
+                sent++;
+            }
+            send(change);
+            return;
+        }
+        synchronized (this) {
+            received++;
+            List<BoardChange> changes = held.get(change.getBoardId());
+            if(changes == null) {
+                changes = new ArrayList<>();
+                held.put(change.getBoardId(), changes);
+                long boardId = change.getBoardId();
+                scheduler.schedule(() -> flush(boardId), window, TimeUnit.MILLISECONDS);
+            } else if(merge(changes.get(changes.size() - 1), change)) {
+                return;
+            }
+            changes.add(change);
+        }
+    }
+
+    /**
+     * Sends the changes held for a board, and closes its window
+     * @param boardId id of the board
+     */
+    void flush(long boardId) {
+        List<BoardChange> changes;
+        synchronized (this) {
+            changes = held.remove(boardId);
+            if(changes == null) {
+                return;
+            }
+            sent += changes.size();
+        }
+        changes.forEach(this::send);
+    }
+
+    /**
+     * Tells every client that a board was removed. The changes still held for
+     * the board are dropped, and the removal is sent on the thread that closes
+     * the windows, after any flush of the board already running, so that no
+     * change to the board reaches the clients after its removal
+     * @param boardId id of the board
+     */
+    public void remove(long boardId) {
+        synchronized (this) {
+            held.remove(boardId);
+        }
+        Runnable removal = () -> simpMessagingTemplate.convertAndSend(
+            ChangePublisher.REMOVED_TOPIC, boardId);
+        if(window <= 0) {
+            removal.run();
+        } else {
+            scheduler.execute(removal);
+        }
+    }
+
+    /**
+     * Sends a change to the topics of its board, as JSON and as CBOR,
+     * and keeps it for clients that reconnect
+     * @param change the change
+     */
+    private void send(BoardChange change) {
+        recentChanges.record(change);
+        simpMessagingTemplate.convertAndSend(ChangePublisher.topic(change.getBoardId()), change);
+        cborPublisher.publish(change);
+    }
+
+    /**
+     * Merges a change into the one before it, if it continues it: it is the next
+     * version of the board, and it updates the same entity or moves the same
+     * task again (or, without deltas, names the same task)
+     * @param last the change held before, which is changed
+     * @param next the change that came after it
+     * @return true if it was merged, false if it has to be sent on its own
+     */
+    static boolean merge(BoardChange last, BoardChange next) {
+        if(last.getVersion() == 0
+            || next.getVersion() - next.getVersions() != last.getVersion()
+            || !Objects.equals(last.getTaskId(), next.getTaskId())
+            || last.getEntity() != next.getEntity()
+            || last.getOperation() != next.getOperation()
+            || !Objects.equals(last.getId(), next.getId())) {
+            return false;
+        }
+        if(last.getOperation() == Operation.UPDATE) {
+            Map<String, String> fields = new HashMap<>(last.getFields());
+            fields.putAll(next.getFields());
+            last.setFields(fields);
+        } else if(last.getOperation() == Operation.MOVE) {
+            last.setParentId(next.getParentId());
+            last.setRank(next.getRank());
+        } else if(last.hasDelta()) {
+            return false;
+        }
+        last.setVersion(next.getVersion());
+        last.setVersions(last.getVersions() + next.getVersions());
+        return true;
+    }
+
+    /**
+     * Stops the timer of the windows, dropping what is still held
+     */
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Returns the number of changes received and messages sent
+     * @return a snapshot of the counters
+     */
+    public synchronized Stats getStats() {
+        return new Stats(received, sent);
+    }
+
+    /**
+     * A snapshot of the counters of the coalescer
+     */
+    public static class Stats {
+        private final long received;
+        private final long sent;
+
+        /**
+         * Constructor
+         * @param received number of changes published by the services
+         * @param sent number of messages sent to the clients
+         */
+        public Stats(long received, long sent) {
+            this.received = received;
+            this.sent = sent;
+        }
+
+        /**
+         * Getter for received
+         * @return number of changes published by the services
+         */
+        public long getReceived() {
+            return received;
+        }
+
+        /**
+         * Getter for sent
+         * @return number of messages sent to the clients
+         */
+        public long getSent() {
+            return sent;
+        }
+    }
+}
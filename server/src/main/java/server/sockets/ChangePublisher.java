@@ -0,0 +1,90 @@
+package server.sockets;
+
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import server.service.BoardChangedEvent;
+
+/**
+ * Tells the clients viewing a board that it changed, once the write commits.
+ * Every board has its own topic, /update/board/{boardId}, so a change only
+ * reaches the clients that subscribed to that board. The message carries
+ * the delta of the change and the version it raised the board to, so that
+ * clients can apply it to their copy; changes without a delta only name what
+ * changed, and the clients fetch the new state through the REST api.
+ * Changes pass the {@link ChangeCoalescer} on their way to the broker.
+ * The removal of a board is sent to every client instead, on /update/boards,
+ * since clients also keep boards they have no tab open for in their recent boards;
+ * the changes to the board still held by the coalescer are dropped before it
+ */
+@Component
+public class ChangePublisher {
+    /**
+     * The destinations of the board topics start with this, followed by the board id
+     */
+    public static final String TOPIC_PREFIX = "/update/board/";
+
+    /**
+     * The destination that the ids of removed boards are published on
+     */
+    public static final String REMOVED_TOPIC = "/update/boards";
+
+    private final ChangeCoalescer changeCoalescer;
+
+    /**
+     * Constructor
+     * @param changeCoalescer merges bursts of changes before they are sent,
+     *                        and sends the removals of boards after them
+     */
+    @Autowired
+    public ChangePublisher(ChangeCoalescer changeCoalescer) {
+        this.changeCoalescer = changeCoalescer;
+    }
+
+    /**
+     * Finds the topic that the changes of a board are published on
+     * @param boardId id of the board
+     * @return the destination
+     */
+    public static String topic(long boardId) {
+        return TOPIC_PREFIX + boardId;
+    }
+
+    /**
+     * Publishes a change once the transaction that made it commits (or right away,
+     * if it was made outside of a transaction). It runs after the board cache dropped
+     * the board, so that a client fetching it right away sees the change
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onBoardChanged(BoardChangedEvent event) {
+        BoardChange delta = event.getDelta();
+        if(delta != null && delta.getEntity() == Entity.BOARD
+            && delta.getOperation() == Operation.REMOVE) {
+            changeCoalescer.remove(event.getBoardId());
+            return;
+        }
+        changeCoalescer.submit(toMessage(event));
+    }
+
+    /**
+     * Builds the message of a change
+     * @param event the change
+     * @return the message, with the delta of the change if it has one
+     */
+    static BoardChange toMessage(BoardChangedEvent event) {
+        BoardChange change = event.getDelta() == null ? new BoardChange() : event.getDelta();
+        change.setBoardId(event.getBoardId());
+        change.setTaskId(event.getTaskId());
+        if(event.getVersion() != null) {
+            change.setVersion(event.getVersion());
+        }
+        return change;
+    }
+}
@@ -0,0 +1,53 @@
+package server.sockets;
+
+import commons.BoardChange;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+/**
+ * Lets a client choose how the changes of a board are encoded for it.
+ * A subscription to /update/board/{boardId} with {@value BoardChange#CBOR}
+ * in its accept header is moved to the CBOR topic of the board;
+ * any other subscription is left as it is, so it gets JSON
+ */
+public class CodecNegotiation implements ChannelInterceptor {
+    /**
+     * The STOMP header a client names the encoding it takes in
+     */
+    public static final String ACCEPT = "accept";
+
+    /**
+     * Moves subscriptions that take CBOR to the CBOR topic of their board
+     * @param message the frame from the client
+     * @param channel the inbound channel
+     * @return the frame
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor =
+            MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if(accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE
+            || !accessor.isMutable()) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        String accept = accessor.getFirstNativeHeader(ACCEPT);
+        if(destination == null || accept == null
+            || !destination.startsWith(ChangePublisher.TOPIC_PREFIX)
+            || !accept.contains(BoardChange.CBOR)) {
+            return message;
+        }
+        try {
+            long boardId = Long.parseLong(
+                destination.substring(ChangePublisher.TOPIC_PREFIX.length()));
+            accessor.setDestination(CborPublisher.topic(boardId));
+        } catch (NumberFormatException e) {
+            // not a board topic, so there is nothing to encode differently
+        }
+        return message;
+    }
+}
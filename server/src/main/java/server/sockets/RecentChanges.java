@@ -0,0 +1,95 @@
+package server.sockets;
+
+import commons.BoardChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the last changes sent for each board, so that a client that lost its
+ * connection can fetch the ones it missed instead of the whole board.
+ * The versions of a board number its changes: a message covers the versions
+ * from {@code version - versions + 1} to {@code version}, so a client whose copy
+ * is at some version can tell whether the kept changes still reach back to it.
+ * Only the boards that changed most recently are kept, each with a bounded
+ * number of changes; the oldest are dropped first
+ */
+@Component
+public class RecentChanges {
+    private final int size;
+    private final Map<Long, Deque<BoardChange>> boards;
+
+    /**
+     * Constructor
+     * @param size number of changes kept per board
+     * @param boardCount number of boards whose changes are kept
+     */
+    @Autowired
+    public RecentChanges(@Value("${board.events.size:256}") int size,
+                         @Value("${board.events.boards:1000}") int boardCount) {
+        this.size = size;
+        this.boards = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Deque<BoardChange>> eldest) {
+                return size() > boardCount;
+            }
+        };
+    }
+
+    /**
+     * Keeps a change that was sent. Changes are kept in order of their version,
+     * even if they were sent out of order
+     * @param change the change
+     */
+    public synchronized void record(BoardChange change) {
+        if(change.getVersion() == 0 || size <= 0) {
+            return;
+        }
+        Deque<BoardChange> changes =
+            boards.computeIfAbsent(change.getBoardId(), boardId -> new ArrayDeque<>());
+        Deque<BoardChange> later = new ArrayDeque<>();
+        while(!changes.isEmpty() && changes.peekLast().getVersion() > change.getVersion()) {
+            later.addFirst(changes.pollLast());
+        }
+        changes.addLast(change);
+        changes.addAll(later);
+        while(changes.size() > size) {
+            changes.pollFirst();
+        }
+    }
+
+    /**
+     * Finds the changes made to a board after a version
+     * @param boardId id of the board
+     * @param after the version of the client's copy
+     * @return the changes after that version in order, or null if some of them
+     *         are no longer kept, or none of the board are
+     */
+    public synchronized List<BoardChange> after(long boardId, long after) {
+        List<BoardChange> missed = new ArrayList<>();
+        Deque<BoardChange> changes = boards.get(boardId);
+        if(changes == null) {
+            // the board was dropped, or nothing was sent for it since the start
+            return null;
+        }
+        long reached = after;
+        for(BoardChange change : changes) {
+            if(change.getVersion() <= after) {
+                continue;
+            }
+            if(change.getVersion() - change.getVersions() != reached) {
+                return null;
+            }
+            missed.add(change);
+            reached = change.getVersion();
+        }
+        return missed;
+    }
+}
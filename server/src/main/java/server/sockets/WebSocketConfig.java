@@ -1,6 +1,7 @@
 package server.sockets;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -10,18 +11,28 @@ import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
     /**
      * Enables one message broker and set application destination
      *
      * @param config configuration
      */
-
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/update");
         config.setApplicationDestinationPrefixes("/api");
     }
 
+    /**
+     * Lets the clients choose the encoding of the changes they subscribe to
+     *
+     * @param registration the inbound channel
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new CodecNegotiation());
+    }
+
     /**
      * Registers endpoint for WebSocket
      *
@@ -0,0 +1,133 @@
+-- The schema as Hibernate used to create and update it (ddl-auto=update).
+-- Every statement is guarded, so on a database that Hibernate created,
+-- only what an older version of it lacks is added.
+
+CREATE SEQUENCE IF NOT EXISTS BOARD_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS TASK_LIST_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS TASK_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS SUB_TASK_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS TAG_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS COLOR_ENTITY_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS COLOR_ENTITY (
+    ID BIGINT NOT NULL PRIMARY KEY,
+    BACK_GROUND_COLOR VARCHAR(255),
+    FONT_COLOR VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS BOARD (
+    ID BIGINT NOT NULL PRIMARY KEY,
+    BOARD_BG_COLOR VARCHAR(255),
+    BOARD_FONT_COLOR VARCHAR(255),
+    PASSWORD VARCHAR(255),
+    TASK_LISTS_BG_COLOR VARCHAR(255),
+    TASK_LISTS_FONT_COLOR VARCHAR(255),
+    TITLE VARCHAR(255),
+    USER_ID VARCHAR(255),
+    TASK_DEFAULT_COLOR_ID BIGINT
+);
+ALTER TABLE BOARD ADD COLUMN IF NOT EXISTS VERSION BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE BOARD ADD COLUMN IF NOT EXISTS LAST_MODIFIED BIGINT;
+
+CREATE TABLE IF NOT EXISTS TASK_LIST (
+    ID BIGINT NOT NULL PRIMARY KEY,
+    BOARD_ID BIGINT,
+    TITLE VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS TASK (
+    ID BIGINT NOT NULL PRIMARY KEY,
+    BACK_GROUND_COLOR VARCHAR(255),
+    DESCRIPTION VARCHAR(255),
+    FONT_COLOR VARCHAR(255),
+    TASK_LISTID BIGINT,
+    TITLE VARCHAR(255)
+);
+ALTER TABLE TASK ADD COLUMN IF NOT EXISTS SORT_RANK BIGINT;
+ALTER TABLE TASK ADD COLUMN IF NOT EXISTS VERSION BIGINT DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS SUB_TASK (
+    ID BIGINT NOT NULL PRIMARY KEY,
+    CHECKED BOOLEAN NOT NULL,
+    DESCRIPTION VARCHAR(255),
+    TASK_ID BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS TAG (
+    ID BIGINT NOT NULL PRIMARY KEY,
+    BOARD_ID BIGINT,
+    DESCRIPTION VARCHAR(255),
+    TAG_COLOR VARCHAR(255),
+    TAG_FONT_COLOR VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS BOARD_TASK_COLOR_PRESETS (
+    BOARD_ID BIGINT NOT NULL,
+    TASK_COLOR_PRESETS_ID BIGINT NOT NULL
+);
+CREATE TABLE IF NOT EXISTS BOARD_TASK_LISTS (
+    BOARD_ID BIGINT NOT NULL,
+    TASK_LISTS_ID BIGINT NOT NULL
+);
+CREATE TABLE IF NOT EXISTS TASK_LIST_TASKS (
+    TASK_LIST_ID BIGINT NOT NULL,
+    TASKS_ID BIGINT NOT NULL
+);
+CREATE TABLE IF NOT EXISTS TASK_LIST_TASKS_LISTS (
+    TASK_LIST_ID BIGINT NOT NULL,
+    TASKS_LISTS_ID BIGINT NOT NULL
+);
+CREATE TABLE IF NOT EXISTS TASK_SUB_TASKS (
+    TASK_ID BIGINT NOT NULL,
+    SUB_TASKS_ID BIGINT NOT NULL
+);
+CREATE TABLE IF NOT EXISTS TASK_TAGS (
+    TASK_ID BIGINT NOT NULL,
+    TAGS_ID BIGINT NOT NULL
+);
+
+-- A child belongs to one parent; the names are the ones Hibernate generated
+ALTER TABLE BOARD_TASK_COLOR_PRESETS ADD CONSTRAINT IF NOT EXISTS UK_P0WWFQI6BUJGYUVXO76DXYTRM
+    UNIQUE (TASK_COLOR_PRESETS_ID);
+ALTER TABLE BOARD_TASK_LISTS ADD CONSTRAINT IF NOT EXISTS UK_JT5BOI4F3V61RXK1NP0LU432Q
+    UNIQUE (TASK_LISTS_ID);
+ALTER TABLE TASK_LIST_TASKS ADD CONSTRAINT IF NOT EXISTS UK_TCD2YON2Y1WQP8D5CVO3C9S0J
+    UNIQUE (TASKS_ID);
+ALTER TABLE TASK_LIST_TASKS_LISTS ADD CONSTRAINT IF NOT EXISTS UK_OYKTN19N4EGQI7C7BW4A6JAX1
+    UNIQUE (TASKS_LISTS_ID);
+ALTER TABLE TASK_SUB_TASKS ADD CONSTRAINT IF NOT EXISTS UK_5XIXQS4NPGERRO5D0G3P00HGV
+    UNIQUE (SUB_TASKS_ID);
+
+ALTER TABLE BOARD ADD CONSTRAINT IF NOT EXISTS FKCHVKNYR7BBQ3JIIO5HMSCJDOB
+    FOREIGN KEY (TASK_DEFAULT_COLOR_ID) REFERENCES COLOR_ENTITY (ID);
+ALTER TABLE BOARD_TASK_COLOR_PRESETS ADD CONSTRAINT IF NOT EXISTS FKQ867BO58ECPJX3TD4IKASHV71
+    FOREIGN KEY (BOARD_ID) REFERENCES BOARD (ID);
+ALTER TABLE BOARD_TASK_COLOR_PRESETS ADD CONSTRAINT IF NOT EXISTS FKBCR8H0NAN8JY67Y4MWT596GLA
+    FOREIGN KEY (TASK_COLOR_PRESETS_ID) REFERENCES COLOR_ENTITY (ID);
+ALTER TABLE BOARD_TASK_LISTS ADD CONSTRAINT IF NOT EXISTS FKL35ROP3MG50QD4MCWC10TVIA1
+    FOREIGN KEY (BOARD_ID) REFERENCES BOARD (ID);
+ALTER TABLE BOARD_TASK_LISTS ADD CONSTRAINT IF NOT EXISTS FKOKKUG1S8C26LUISOTC4HY8K6Y
+    FOREIGN KEY (TASK_LISTS_ID) REFERENCES TASK_LIST (ID);
+ALTER TABLE TASK_LIST_TASKS ADD CONSTRAINT IF NOT EXISTS FKF316NKCPGYR0RPKUBR0RFL1U5
+    FOREIGN KEY (TASK_LIST_ID) REFERENCES TASK_LIST (ID);
+ALTER TABLE TASK_LIST_TASKS ADD CONSTRAINT IF NOT EXISTS FKBG2LMSAWA3J0JB79CMXATOATE
+    FOREIGN KEY (TASKS_ID) REFERENCES TASK (ID);
+ALTER TABLE TASK_LIST_TASKS_LISTS ADD CONSTRAINT IF NOT EXISTS FK5YDOWCEV8P7VYITEL0SHVR1YK
+    FOREIGN KEY (TASK_LIST_ID) REFERENCES TASK_LIST (ID);
+ALTER TABLE TASK_LIST_TASKS_LISTS ADD CONSTRAINT IF NOT EXISTS FK9KFLIH5Y3AI69VBFX0NF252MI
+    FOREIGN KEY (TASKS_LISTS_ID) REFERENCES TASK_LIST (ID);
+ALTER TABLE TASK_SUB_TASKS ADD CONSTRAINT IF NOT EXISTS FK1MGCPO988T6FNENR138ICXI78
+    FOREIGN KEY (TASK_ID) REFERENCES TASK (ID);
+ALTER TABLE TASK_SUB_TASKS ADD CONSTRAINT IF NOT EXISTS FK20DG7GPYNYG9SX4UQ4E5QSHF5
+    FOREIGN KEY (SUB_TASKS_ID) REFERENCES SUB_TASK (ID);
+ALTER TABLE TASK_TAGS ADD CONSTRAINT IF NOT EXISTS FK5JRUFOP0GTXFEYBB27JKOQN9R
+    FOREIGN KEY (TASK_ID) REFERENCES TASK (ID);
+ALTER TABLE TASK_TAGS ADD CONSTRAINT IF NOT EXISTS FKES0KSYBARF59LJ57XUUHGB5YR
+    FOREIGN KEY (TAGS_ID) REFERENCES TAG (ID);
+
+-- Lookup columns, see IndexCheck
+ALTER TABLE BOARD ADD CONSTRAINT IF NOT EXISTS UK_BOARD_USER_ID UNIQUE (USER_ID);
+CREATE INDEX IF NOT EXISTS IDX_TASK_LIST_BOARD ON TASK_LIST (BOARD_ID);
+CREATE INDEX IF NOT EXISTS IDX_TASK_LIST_RANK ON TASK (TASK_LISTID, SORT_RANK);
+CREATE INDEX IF NOT EXISTS IDX_SUB_TASK_TASK ON SUB_TASK (TASK_ID);
+CREATE INDEX IF NOT EXISTS IDX_TAG_BOARD ON TAG (BOARD_ID);
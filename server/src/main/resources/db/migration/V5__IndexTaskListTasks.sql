@@ -0,0 +1,4 @@
+-- The tasks of a list are found and ranked through the link table, never
+-- through TASK.TASK_LISTID, so the rank index on TASK was never used
+DROP INDEX IF EXISTS IDX_TASK_LIST_RANK;
+CREATE INDEX IF NOT EXISTS IDX_TASK_LIST_TASKS ON TASK_LIST_TASKS (TASK_LIST_ID, TASKS_ID);
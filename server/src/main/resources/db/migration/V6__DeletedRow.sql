@@ -0,0 +1,8 @@
+-- Ids of the rows a cascading delete is about to remove, kept under the key
+-- of that delete while the link tables that lead to them are cleared
+CREATE TABLE IF NOT EXISTS DELETED_ROW (
+    DELETION BIGINT NOT NULL,
+    TABLE_NAME VARCHAR(16) NOT NULL,
+    ID BIGINT NOT NULL,
+    PRIMARY KEY (DELETION, TABLE_NAME, ID)
+);
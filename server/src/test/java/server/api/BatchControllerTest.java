@@ -0,0 +1,48 @@
+package server.api;
+
+import commons.BatchOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import server.service.BatchService;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchControllerTest {
+
+    @InjectMocks
+    private BatchController batchController;
+
+    @MockBean
+    private final BatchService batchService = Mockito.mock(BatchService.class);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void applyBatch() {
+        when(batchService.apply(any())).thenReturn(List.of(1L, 2L));
+        var result = batchController.applyBatch(List.of(new BatchOperation()));
+        assertThat(result).isEqualTo(ResponseEntity.ok(List.of(1L, 2L)));
+    }
+
+    @Test
+    void applyBatchNULL() {
+        when(batchService.apply(any())).thenReturn(null);
+        var result = batchController.applyBatch(List.of(new BatchOperation()));
+        assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
+    }
+}
@@ -0,0 +1,166 @@
+package server.api;
+
+import commons.BatchOperation;
+import commons.Board;
+import commons.SubTask;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+import server.database.SubTaskDao;
+import server.database.TaskDao;
+import server.database.TaskListDao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BatchTest extends BoardApiTest {
+
+    @Autowired
+    private TaskListDao taskListDao;
+
+    @Autowired
+    private TaskDao taskDao;
+
+    @Autowired
+    private SubTaskDao subTaskDao;
+
+    @Test
+    void compoundEditIsOneTransaction() throws Exception {
+        TaskList list = board(1, 3).getTaskLists().get(0);
+        Task first = list.getTasks().get(0);
+        Task last = list.getTasks().get(2);
+        SubTask subTask = first.getSubTasks().get(0);
+        Task created = new Task();
+        created.setTitle("Task 3");
+        created.setTaskListID(list.getId());
+        created.setSubTasks(new ArrayList<>());
+        created.setTags(new ArrayList<>());
+
+        List<BatchOperation> operations = new ArrayList<>();
+        operations.add(update(BatchOperation.Type.TASK, first.getId(),
+            Map.of("title", "Renamed")));
+        operations.add(update(BatchOperation.Type.SUB_TASK, subTask.getId(),
+            Map.of("checked", "true")));
+        BatchOperation move =
+            new BatchOperation(BatchOperation.Action.MOVE, BatchOperation.Type.TASK, last.getId());
+        move.setListId(list.getId());
+        move.setBeforeId(first.getId());
+        operations.add(move);
+        BatchOperation create =
+            new BatchOperation(BatchOperation.Action.CREATE, BatchOperation.Type.TASK, null);
+        create.setTask(created);
+        operations.add(create);
+        operations.add(new BatchOperation(BatchOperation.Action.DELETE,
+            BatchOperation.Type.TASK, list.getTasks().get(1).getId()));
+
+        statistics.clear();
+        batch(operations).andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(5))
+            .andExpect(jsonPath("$[0]").value(1))
+            .andExpect(jsonPath("$[4]").value(list.getTasks().get(1).getId()));
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/tasklist/get/" + list.getId()))
+            .andExpect(jsonPath("$.tasks[*].title", contains("Task 2", "Renamed", "Task 3")));
+        assertThat(subTaskDao.findById(subTask.getId()).orElseThrow().isChecked()).isTrue();
+    }
+
+    @Test
+    void failedOperationRollsBackTheBatch() throws Exception {
+        TaskList list = board(1, 2).getTaskLists().get(0);
+        Task task = list.getTasks().get(0);
+
+        batch(List.of(
+            update(BatchOperation.Type.TASK, task.getId(), Map.of("title", "Renamed")),
+            new BatchOperation(BatchOperation.Action.DELETE,
+                BatchOperation.Type.TASK, list.getTasks().get(1).getId()),
+            update(BatchOperation.Type.TASK, -1L, Map.of("title", "Missing"))))
+            .andExpect(status().isBadRequest());
+
+        assertThat(taskDao.findById(task.getId()).orElseThrow().getTitle()).isEqualTo("Task 0");
+        assertThat(taskDao.existsById(list.getTasks().get(1).getId())).isTrue();
+    }
+
+    @Test
+    void deleteTaskListWithItsTasks() throws Exception {
+        Board board = board(2, 2);
+        TaskList list = board.getTaskLists().get(0);
+        List<BatchOperation> operations = new ArrayList<>();
+        for(var task : list.getTasks()) {
+            operations.add(new BatchOperation(BatchOperation.Action.DELETE,
+                BatchOperation.Type.TASK, task.getId()));
+        }
+        operations.add(new BatchOperation(BatchOperation.Action.DELETE,
+            BatchOperation.Type.TASK_LIST, list.getId()));
+
+        batch(operations).andExpect(status().isOk());
+
+        assertThat(taskListDao.existsById(list.getId())).isFalse();
+        assertThat(taskDao.existsById(list.getTasks().get(0).getId())).isFalse();
+        assertThat(boardDao.findWithTaskListsById(board.getId()).orElseThrow()
+            .getTaskLists()).hasSize(1);
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        Task task = board(1, 1).getTaskLists().get(0).getTasks().get(0);
+        batch(List.of(update(BatchOperation.Type.TASK, task.getId(),
+            Map.of("sortRank", "1")))).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Builds an update operation
+     * @param type the kind of entity
+     * @param id the id of the entity
+     * @param fields the new values by field name
+     * @return the operation
+     */
+    private BatchOperation update(BatchOperation.Type type, long id, Map<String, String> fields) {
+        BatchOperation operation = new BatchOperation(BatchOperation.Action.UPDATE, type, id);
+        operation.setFields(fields);
+        return operation;
+    }
+
+    /**
+     * Sends a batch request
+     * @param operations the operations
+     * @return the result of the request
+     * @throws Exception if the request fails
+     */
+    private ResultActions batch(List<BatchOperation> operations) throws Exception {
+        return mockMvc.perform(post("/api/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(operations)));
+    }
+
+    /**
+     * Saves a board where every task has two subtasks
+     * @param lists number of task lists
+     * @param tasksPerList number of tasks in each list
+     * @return the saved board
+     */
+    private Board board(int lists, int tasksPerList) {
+        Board board = save(BoardFixture.board("Batch").lists(lists, tasksPerList).subTasks(2));
+        for(var taskList : board.getTaskLists()) {
+            taskList.setBoardId(board.getId());
+            for(var task : taskList.getTasks()) {
+                task.setTaskListID(taskList.getId());
+                for(var subTask : task.getSubTasks()) {
+                    subTask.setTaskId(task.getId());
+                }
+            }
+        }
+        return boardDao.save(board);
+    }
+}
@@ -0,0 +1,55 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Board;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import server.database.BoardDao;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Runs requests against the whole server on an in-memory database, counting
+ * the SQL statements through the Hibernate statistics. Tests that need another
+ * database or more properties add them with a TestPropertySource
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:test;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+abstract class BoardApiTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected BoardDao boardDao;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected Statistics statistics;
+
+    @BeforeEach
+    void setUpStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Saves a board
+     * @param fixture the builder of the board
+     * @return the saved board
+     */
+    protected Board save(BoardFixture fixture) {
+        return boardDao.save(fixture.build());
+    }
+}
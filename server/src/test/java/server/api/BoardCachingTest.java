@@ -0,0 +1,132 @@
+package server.api;
+
+import commons.Board;
+import commons.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import server.service.BoardCache;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "board.compression.min-size=0")
+class BoardCachingTest extends BoardApiTest {
+
+    @Autowired
+    private BoardCache boardCache;
+
+    @Test
+    void hotBoardIsServedWithoutQueries() throws Exception {
+        Board board = board("CACHE1");
+        mockMvc.perform(get("/api/board/get/" + board.getId())).andExpect(status().isOk());
+
+        long hits = boardCache.getStats().getHits();
+        statistics.clear();
+        mockMvc.perform(get("/api/board/get/" + board.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.taskLists[0].tasks[0].title").value("Task 0"));
+        mockMvc.perform(get("/api/board/get/userID/CACHE1")).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getTransactionCount()).isZero();
+        assertThat(boardCache.getStats().getHits()).isEqualTo(hits + 2);
+    }
+
+    @Test
+    void writeInvalidatesOnlyItsBoard() throws Exception {
+        Board changed = board("CACHE2");
+        Board other = board("CACHE3");
+        mockMvc.perform(get("/api/board/get/" + changed.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/board/get/" + other.getId())).andExpect(status().isOk());
+
+        Task task = changed.getTaskLists().get(0).getTasks().get(0);
+        mockMvc.perform(patch("/api/task/" + task.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Renamed\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/board/get/" + changed.getId()))
+            .andExpect(jsonPath("$.taskLists[0].tasks[0].title").value("Renamed"));
+        statistics.clear();
+        mockMvc.perform(get("/api/board/get/" + other.getId())).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void tagEditInvalidatesItsBoard() throws Exception {
+        Board board = save(BoardFixture.board("Cache").userId("CACHE6").lists(1, 1).tags(1));
+        long tagId = board.getTaskLists().get(0).getTasks().get(0).getTags().get(0).getId();
+        mockMvc.perform(get("/api/board/get/" + board.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/tag/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": " + tagId + ", \"description\": \"Edited\", "
+                    + "\"boardId\": " + board.getId() + "}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/board/get/" + board.getId()))
+            .andExpect(jsonPath("$.taskLists[0].tasks[0].tags[0].description").value("Edited"));
+    }
+
+    @Test
+    void encodedBoardIsShared() throws Exception {
+        Board board = board("CACHE4");
+        byte[] first = mockMvc.perform(get("/api/board/get/" + board.getId()))
+            .andReturn().getResponse().getContentAsByteArray();
+        byte[] second = mockMvc.perform(get("/api/board/get/userID/CACHE4"))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertThat(second).isEqualTo(first);
+
+        byte[] gzip = mockMvc.perform(get("/api/board/get/" + board.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertThat(in.readAllBytes()).isEqualTo(first);
+        }
+    }
+
+    @Test
+    void statsAreExposed() throws Exception {
+        mockMvc.perform(get("/api/board/cache"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hits").isNumber())
+            .andExpect(jsonPath("$.misses").isNumber())
+            .andExpect(jsonPath("$.evictions").isNumber())
+            .andExpect(jsonPath("$.capacity").value(100));
+    }
+
+    @Test
+    void compressionStatsAreExposed() throws Exception {
+        Board board = board("CACHE5");
+        mockMvc.perform(get("/api/board/get/" + board.getId())
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        mockMvc.perform(get("/api/board/compression"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.responses").isNumber())
+            .andExpect(jsonPath("$.compressed").isNumber())
+            .andExpect(jsonPath("$.plainBytes").isNumber())
+            .andExpect(jsonPath("$.sentBytes").isNumber())
+            .andExpect(jsonPath("$.ratio").isNumber());
+    }
+
+    /**
+     * Saves a board with one list and one task
+     * @param userId the user-friendly id of the board
+     * @return the saved board
+     */
+    private Board board(String userId) {
+        return save(BoardFixture.board("Cache").userId(userId).lists(1, 1));
+    }
+}
@@ -1,19 +1,28 @@
 package server.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.Board;
+import commons.BoardChange;
+import commons.BoardListing;
+import commons.BoardSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import server.service.BoardService;
+import server.service.CachedBoard;
+import server.sockets.RecentChanges;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +38,10 @@ class BoardControllerTest {
     private final BoardService boardService = Mockito.mock(BoardService.class);
     @MockBean
     private final AdminComponent adminComponent = Mockito.mock(AdminComponent.class);
+    @Spy
+    private ResponseCompression compression = new ResponseCompression(0);
+    @Spy
+    private RecentChanges recentChanges = new RecentChanges(10, 10);
 
     @BeforeEach
     void setUp() {
@@ -37,47 +50,162 @@ class BoardControllerTest {
 
     @Test
     void getBoardById() {
-        when(boardService.getBoardById(1)).thenReturn(new Board());
-        var result = boardController.getBoardById(1);
-        assertThat(result).isEqualTo(ResponseEntity.ok(new Board()));
+        CachedBoard board = new CachedBoard(new Board(), new ObjectMapper());
+        when(boardService.getCachedBoardById(1)).thenReturn(board);
+        var result = boardController.getBoardById(1, null, null);
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isSameAs(board.getJson());
+        assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(result.getHeaders().getETag()).isEqualTo("W/\"0\"");
+    }
+
+    @Test
+    void getBoardByIdNotModified() {
+        when(boardService.getBoardVersion(1)).thenReturn(3L);
+        var result = boardController.getBoardById(1, null, "W/\"3\"");
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(result.getBody()).isNull();
+        assertThat(result.getHeaders().getETag()).isEqualTo("W/\"3\"");
+        Mockito.verify(boardService, Mockito.never()).getCachedBoardById(1);
+    }
+
+    @Test
+    void getBoardByIdChanged() {
+        Board changed = new Board();
+        changed.setVersion(4);
+        CachedBoard board = new CachedBoard(changed, new ObjectMapper());
+        when(boardService.getBoardVersion(1)).thenReturn(4L);
+        when(boardService.getCachedBoardById(1)).thenReturn(board);
+        var result = boardController.getBoardById(1, null, "W/\"3\"");
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getETag()).isEqualTo("W/\"4\"");
+    }
+
+    @Test
+    void getBoardByIdGzip() {
+        CachedBoard board = new CachedBoard(new Board(), new ObjectMapper());
+        when(boardService.getCachedBoardById(1)).thenReturn(board);
+        var result = boardController.getBoardById(1, "gzip, deflate", null);
+        assertThat(result.getBody()).isSameAs(board.getGzip());
+        assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        var stats = compression.getStats();
+        assertThat(stats.getCompressed()).isEqualTo(1);
+        assertThat(stats.getSentBytes()).isEqualTo(board.getGzip().length);
+        assertThat(stats.getPlainBytes()).isEqualTo(board.getJson().length);
+    }
+
+    @Test
+    void smallBoardIsNotCompressed() {
+        CachedBoard board = new CachedBoard(new Board(), new ObjectMapper());
+        when(boardService.getCachedBoardById(1)).thenReturn(board);
+        BoardController controller = new BoardController(boardService, adminComponent, null,
+            new ResponseCompression(board.getJson().length + 1), recentChanges);
+        var result = controller.getBoardById(1, "gzip", null);
+        assertThat(result.getBody()).isSameAs(board.getJson());
+        assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    private static BoardChange change(long version) {
+        BoardChange change = BoardChange.move(5L, 7L, version);
+        change.setBoardId(1);
+        change.setVersion(version);
+        return change;
+    }
+
+    @Test
+    void changesAfterAreSent() {
+        recentChanges.record(change(3));
+        recentChanges.record(change(4));
+        recentChanges.record(change(5));
+        when(boardService.getBoardVersion(1)).thenReturn(5L);
+        var result = boardController.getChangesAfter(1, 3);
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(List.of(change(4), change(5)));
+    }
+
+    @Test
+    void upToDateClientGetsNoChanges() {
+        when(boardService.getBoardVersion(1)).thenReturn(5L);
+        var result = boardController.getChangesAfter(1, 5);
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(List.of());
+    }
+
+    @Test
+    void heldChangesAreNotGone() {
+        recentChanges.record(change(3));
+        when(boardService.getBoardVersion(1)).thenReturn(5L);
+        var result = boardController.getChangesAfter(1, 3);
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(List.of());
+    }
+
+    @Test
+    void overrunIsGone() {
+        recentChanges.record(change(5));
+        when(boardService.getBoardVersion(1)).thenReturn(5L);
+        assertThat(boardController.getChangesAfter(1, 3).getStatusCode())
+            .isEqualTo(HttpStatus.GONE);
+        assertThat(boardController.getChangesAfter(1, 6).getStatusCode())
+            .isEqualTo(HttpStatus.GONE);
     }
 
     @Test
     void getBoardByIdNULL() {
-        when(boardService.getBoardById(-1)).thenReturn(null);
-        var result = boardController.getBoardById(-1);
+        when(boardService.getCachedBoardById(-1)).thenReturn(null);
+        var result = boardController.getBoardById(-1, null, null);
         assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
     }
 
     @Test
     void getBoardByUserID(){
-        Board board = new Board();
-        when(boardService.getBoardByUserId("1")).thenReturn(board);
-        var result = boardController.getBoardByUserId("1");
-        assertThat(result).isEqualTo(ResponseEntity.ok(board));
+        CachedBoard board = new CachedBoard(new Board(), new ObjectMapper());
+        when(boardService.getCachedBoardByUserId("1")).thenReturn(board);
+        var result = boardController.getBoardByUserId("1", null, null);
+        assertThat(result.getBody()).isSameAs(board.getJson());
+    }
+
+    @Test
+    void getBoardByUserIDNotModified(){
+        when(boardService.getBoardVersionByUserId("1")).thenReturn(3L);
+        var result = boardController.getBoardByUserId("1", null, "\"2\", \"3\"");
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
     }
 
     @Test
     void getBoardByUserIDNull(){
-        Board board = new Board();
-        when(boardService.getBoardByUserId("1")).thenReturn(null);
-        var result = boardController.getBoardByUserId("1");
+        when(boardService.getCachedBoardByUserId("1")).thenReturn(null);
+        var result = boardController.getBoardByUserId("1", null, null);
+        assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
+    }
+
+    @Test
+    void getBoardListings() {
+        List<BoardListing> listings = List.of(new BoardListing());
+        when(boardService.getBoardListings(5, 10)).thenReturn(listings);
+        var result = boardController.getBoardListings(5, 10);
+        assertThat(result).isEqualTo(ResponseEntity.ok(listings));
+    }
+
+    @Test
+    void getBoardListingsBadLimit() {
+        when(boardService.getBoardListings(0, -1)).thenReturn(null);
+        var result = boardController.getBoardListings(0, -1);
         assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
     }
 
     @Test
-    void getAllBoards() {
-        List<Board> boards = new ArrayList<>();
-        boards.add(new Board());
-        when(boardService.getAllBoards()).thenReturn(boards);
-        ResponseEntity<List<Board>> result = boardController.getAllBoards();
-        assertThat(result).isEqualTo(ResponseEntity.ok(boards));
+    void getBoardSummary() {
+        BoardSummary summary = new BoardSummary();
+        when(boardService.getBoardSummary(1)).thenReturn(summary);
+        var result = boardController.getBoardSummary(1);
+        assertThat(result).isEqualTo(ResponseEntity.ok(summary));
     }
 
     @Test
-    void getAllBoardsNULL() {
-        when(boardService.getAllBoards()).thenReturn(null);
-        ResponseEntity<List<Board>> result = boardController.getAllBoards();
+    void getBoardSummaryNULL() {
+        when(boardService.getBoardSummary(-1)).thenReturn(null);
+        var result = boardController.getBoardSummary(-1);
         assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
     }
 
@@ -97,16 +225,15 @@ class BoardControllerTest {
 
     @Test
     void removeBoard() {
-        Board board = new Board();
-        when(boardService.removeBoard(any(Long.class))).thenReturn(board);
-        ResponseEntity<Board> removed = boardController.removeBoard(board.getId());
-        assertThat(removed).isEqualTo(ResponseEntity.ok(board));
+        when(boardService.removeBoard(any(Long.class))).thenReturn(1L);
+        ResponseEntity<Long> removed = boardController.removeBoard(1L);
+        assertThat(removed).isEqualTo(ResponseEntity.ok(1L));
     }
 
     @Test
     void removeBoardNULL() {
-        when(boardService.removeBoard(null)).thenReturn(null);
-        ResponseEntity<Board> removed = boardController.removeBoard(0L);
+        when(boardService.removeBoard(0L)).thenReturn(null);
+        ResponseEntity<Long> removed = boardController.removeBoard(0L);
         assertThat(removed).isEqualTo(ResponseEntity.badRequest().build());
     }
 
@@ -169,4 +296,27 @@ class BoardControllerTest {
         assertThat(ret).isEqualTo(ResponseEntity.badRequest().build());
     }
 
-}
\ No newline at end of file
+    @Test
+    void patchBoard() {
+        Map<String, String> fields = Map.of("title", "New title");
+        when(boardService.patchBoard(1, fields)).thenReturn(1);
+        var result = boardController.patchBoard(1, fields);
+        assertThat(result).isEqualTo(ResponseEntity.ok().build());
+    }
+
+    @Test
+    void patchBoardNotFound() {
+        Map<String, String> fields = Map.of("title", "New title");
+        when(boardService.patchBoard(-1, fields)).thenReturn(0);
+        var result = boardController.patchBoard(-1, fields);
+        assertThat(result).isEqualTo(ResponseEntity.notFound().build());
+    }
+
+    @Test
+    void patchBoardNULL() {
+        Map<String, String> fields = Map.of("userId", "A1B2C3");
+        when(boardService.patchBoard(1, fields)).thenReturn(null);
+        var result = boardController.patchBoard(1, fields);
+        assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
+    }
+}
@@ -0,0 +1,133 @@
+package server.api;
+
+import commons.Board;
+import commons.ColorEntity;
+import commons.SubTask;
+import commons.Tag;
+import commons.Task;
+import commons.TaskList;
+
+import java.util.ArrayList;
+
+/**
+ * Builds the boards the tests save: lists titled "List i" of tasks titled "Task j",
+ * each task with its own subtasks and tags
+ */
+class BoardFixture {
+    private final String title;
+    private String userId;
+    private int lists;
+    private int tasksPerList;
+    private int subTasksPerTask;
+    private int tagsPerTask;
+    private boolean colors;
+
+    /**
+     * Constructor
+     * @param title the title of the board
+     */
+    private BoardFixture(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Starts a board without lists
+     * @param title the title of the board
+     * @return the builder
+     */
+    static BoardFixture board(String title) {
+        return new BoardFixture(title);
+    }
+
+    /**
+     * Sets the user-friendly id of the board
+     * @param userId the user-friendly id
+     * @return this builder
+     */
+    BoardFixture userId(String userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    /**
+     * Sets the size of the board
+     * @param lists number of task lists
+     * @param tasksPerList number of tasks in each list
+     * @return this builder
+     */
+    BoardFixture lists(int lists, int tasksPerList) {
+        this.lists = lists;
+        this.tasksPerList = tasksPerList;
+        return this;
+    }
+
+    /**
+     * Gives every task subtasks titled "Subtask k"
+     * @param subTasksPerTask number of subtasks of each task
+     * @return this builder
+     */
+    BoardFixture subTasks(int subTasksPerTask) {
+        this.subTasksPerTask = subTasksPerTask;
+        return this;
+    }
+
+    /**
+     * Gives every task its own tags titled "Tag k"
+     * @param tagsPerTask number of tags of each task
+     * @return this builder
+     */
+    BoardFixture tags(int tagsPerTask) {
+        this.tagsPerTask = tagsPerTask;
+        return this;
+    }
+
+    /**
+     * Gives the board a default task color and a color preset
+     * @return this builder
+     */
+    BoardFixture colors() {
+        this.colors = true;
+        return this;
+    }
+
+    /**
+     * Builds the board
+     * @return the unsaved board
+     */
+    Board build() {
+        Board board = new Board();
+        board.setTitle(title);
+        board.setUserId(userId);
+        if(colors) {
+            board.setTaskDefaultColor(new ColorEntity());
+            board.setTaskColorPresets(new ArrayList<>());
+            board.getTaskColorPresets().add(new ColorEntity());
+        }
+        board.setTaskLists(new ArrayList<>());
+        for(int i = 0; i < lists; i++) {
+            TaskList taskList = new TaskList();
+            taskList.setTitle("List " + i);
+            taskList.setTasks(new ArrayList<>());
+            taskList.setTasksLists(new ArrayList<>());
+            for(int j = 0; j < tasksPerList; j++) {
+                Task task = new Task();
+                task.setTitle("Task " + j);
+                task.setSubTasks(new ArrayList<>());
+                task.setTags(new ArrayList<>());
+                for(int k = 0; k < subTasksPerTask; k++) {
+                    SubTask subTask = new SubTask();
+                    subTask.setDescription("Subtask " + k);
+                    task.getSubTasks().add(subTask);
+                }
+                for(int k = 0; k < tagsPerTask; k++) {
+                    Tag tag = new Tag();
+                    tag.setDescription("Tag " + k);
+                    task.getTags().add(tag);
+                }
+                taskList.getTasks().add(task);
+            }
+            board.getTaskLists().add(taskList);
+        }
+        return board;
+    }
+}
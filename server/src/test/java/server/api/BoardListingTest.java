@@ -0,0 +1,117 @@
+package server.api;
+
+import commons.Board;
+import commons.BoardListing;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BoardListingTest extends BoardApiTest {
+
+    @Test
+    void pagesFollowTheIds() throws Exception {
+        Board first = save(board("LIST01", 2, 3));
+        Board second = save(board("LIST02", 1, 1));
+        Board third = save(board("LIST03", 0, 0));
+        long before = first.getId() - 1;
+
+        List<BoardListing> page = listings("/api/board/listing?limit=2&after=" + before);
+        assertThat(page).extracting(BoardListing::getId)
+            .containsExactly(first.getId(), second.getId());
+        assertThat(page.get(0).getTaskListCount()).isEqualTo(2);
+        assertThat(page.get(0).getTaskCount()).isEqualTo(6);
+        assertThat(page.get(0).getUserId()).isEqualTo("LIST01");
+
+        page = listings("/api/board/listing?limit=2&after=" + second.getId());
+        assertThat(page).extracting(BoardListing::getId).startsWith(third.getId());
+        assertThat(page.get(0).getTaskCount()).isZero();
+    }
+
+    @Test
+    void pageIsOneQuery() throws Exception {
+        for(int i = 0; i < 5; i++) {
+            save(board("LISTQ" + i, 3, 4));
+        }
+        statistics.clear();
+        mockMvc.perform(get("/api/board/listing?limit=5")).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writeSetsLastModified() throws Exception {
+        Board board = save(board("LIST04", 0, 0));
+        mockMvc.perform(patch("/api/board/" + board.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Renamed\"}"))
+            .andExpect(status().isOk());
+        List<BoardListing> page = listings("/api/board/listing?limit=1&after="
+            + (board.getId() - 1));
+        assertThat(page.get(0).getTitle()).isEqualTo("Renamed");
+        assertThat(page.get(0).getLastModified()).isNotNull();
+    }
+
+    @Test
+    void badLimitIsRejected() throws Exception {
+        mockMvc.perform(get("/api/board/listing?limit=0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/board/listing?limit=100000"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamHasOneRowPerLine() throws Exception {
+        Board board = save(board("LIST05", 1, 2));
+        MvcResult started = mockMvc.perform(get("/api/board/listing/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines.length).isEqualTo(boardDao.count());
+        BoardListing last = null;
+        for(String line : lines) {
+            BoardListing listing = objectMapper.readValue(line, BoardListing.class);
+            if(listing.getId().equals(board.getId())) {
+                last = listing;
+            }
+        }
+        assertThat(last).isNotNull();
+        assertThat(last.getTaskCount()).isEqualTo(2);
+    }
+
+    /**
+     * Gets a page of listings
+     * @param url the url of the page
+     * @return the listings
+     * @throws Exception if the request fails
+     */
+    private List<BoardListing> listings(String url) throws Exception {
+        String json = mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return List.of(objectMapper.readValue(json, BoardListing[].class));
+    }
+
+    /**
+     * Builds a board with some lists and tasks
+     * @param userId the user-friendly id of the board
+     * @param lists number of task lists
+     * @param tasks number of tasks in every list
+     * @return the builder of the board
+     */
+    private static BoardFixture board(String userId, int lists, int tasks) {
+        return BoardFixture.board("Listing").userId(userId).lists(lists, tasks);
+    }
+}
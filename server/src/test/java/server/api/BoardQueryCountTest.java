@@ -0,0 +1,128 @@
+package server.api;
+
+import commons.Board;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BoardQueryCountTest extends BoardApiTest {
+
+    private static final long MAX_QUERIES = 6;
+
+    @Test
+    void getBoardByIdIsBounded() throws Exception {
+        Board small = save(board("SMALL1", 1, 1));
+        Board large = save(board("LARGE1", 8, 15));
+
+        long smallQueries = countQueries("/api/board/get/" + small.getId());
+        long largeQueries = countQueries("/api/board/get/" + large.getId());
+
+        assertThat(largeQueries).isLessThanOrEqualTo(MAX_QUERIES);
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void getBoardByUserIdIsBounded() throws Exception {
+        save(board("SMALL2", 1, 1));
+        save(board("LARGE2", 8, 15));
+
+        long smallQueries = countQueries("/api/board/get/userID/SMALL2");
+        long largeQueries = countQueries("/api/board/get/userID/LARGE2");
+
+        assertThat(largeQueries).isLessThanOrEqualTo(MAX_QUERIES);
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void getBoardByIdLoadsWholeTree() throws Exception {
+        Board board = save(board("TREE01", 2, 3));
+        mockMvc.perform(get("/api/board/get/" + board.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.taskLists.length()").value(2))
+            .andExpect(jsonPath("$.taskLists[1].tasks.length()").value(3))
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].subTasks.length()").value(2))
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].tags.length()").value(2));
+    }
+
+    @Test
+    void getBoardSummaryIsBounded() throws Exception {
+        Board small = save(board("SMALL3", 1, 1));
+        Board large = save(board("LARGE3", 8, 15));
+
+        long smallQueries = countQueries("/api/board/" + small.getId() + "/summary");
+        long largeQueries = countQueries("/api/board/" + large.getId() + "/summary");
+
+        assertThat(largeQueries).isLessThanOrEqualTo(5);
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    @Test
+    void getBoardSummaryHasCardsOnly() throws Exception {
+        Board board = board("TREE02", 2, 3).build();
+        board.getTaskLists().get(1).getTasks().get(2).getSubTasks().get(0).setChecked(true);
+        board.getTaskLists().get(1).getTasks().get(2).setDescription("Long description");
+        board = boardDao.save(board);
+        mockMvc.perform(get("/api/board/" + board.getId() + "/summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.taskLists.length()").value(2))
+            .andExpect(jsonPath("$.taskLists[1].tasks.length()").value(3))
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].title").value("Task 2"))
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].hasDescription").value(true))
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].description").doesNotExist())
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].tagIds.length()").value(2))
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].checkedSubTasks").value(1))
+            .andExpect(jsonPath("$.taskLists[1].tasks[2].totalSubTasks").value(2));
+    }
+
+    @Test
+    void patchBoardIsOneUpdateAndVersionRead() throws Exception {
+        Board board = save(board("PATCH1", 8, 15));
+        statistics.clear();
+        mockMvc.perform(patch("/api/board/" + board.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Renamed\"}"))
+            .andExpect(status().isOk());
+        // the UPDATE, and the SELECT of the new version published with the change
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(boardDao.findById(board.getId()).orElseThrow().getTitle())
+            .isEqualTo("Renamed");
+    }
+
+    @Test
+    void patchBoardRejectsUnknownFields() throws Exception {
+        Board board = save(board("PATCH2", 1, 1));
+        mockMvc.perform(patch("/api/board/" + board.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\": \"ZZZZZZ\"}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Performs a GET request and counts the SQL statements it needed
+     * @param url the url to request
+     * @return number of prepared statements
+     * @throws Exception if the request fails
+     */
+    private long countQueries(String url) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Builds a board where every task has two subtasks and two tags
+     * @param userId user-friendly id of the board
+     * @param lists number of task lists
+     * @param tasksPerList number of tasks in each list
+     * @return the builder of the board
+     */
+    private static BoardFixture board(String userId, int lists, int tasksPerList) {
+        return BoardFixture.board(userId).userId(userId)
+            .lists(lists, tasksPerList).subTasks(2).tags(2);
+    }
+}
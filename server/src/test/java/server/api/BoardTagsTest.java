@@ -0,0 +1,157 @@
+package server.api;
+
+import commons.Board;
+import commons.Tag;
+import commons.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import server.database.TagDao;
+import server.database.migration.MergeTagCopies;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:tags;DB_CLOSE_DELAY=-1")
+class BoardTagsTest extends BoardApiTest {
+
+    @Autowired
+    private TagDao tagDao;
+
+    @Autowired
+    private MergeTagCopies mergeTagCopies;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void renameReachesEveryTask() throws Exception {
+        Tag shared = tag("Urgent");
+        Board board = board(shared, shared);
+        Tag renamed = new Tag(shared);
+        renamed.setDescription("Later");
+
+        mockMvc.perform(post("/api/tag/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("old", shared, "new", renamed))))
+            .andExpect(status().isOk());
+
+        assertThat(boardTags(board)).extracting(Tag::getDescription).containsExactly("Later");
+        for(Task task : board.getTaskLists().get(0).getTasks()) {
+            assertThat(task(task).getTags()).extracting(Tag::getDescription)
+                .containsExactly("Later");
+        }
+    }
+
+    @Test
+    void tagStaysWhileATaskCarriesIt() throws Exception {
+        Tag shared = tag("Review");
+        Board board = board(shared, shared);
+        List<Task> tasks = board.getTaskLists().get(0).getTasks();
+
+        mockMvc.perform(delete("/api/tag/delete/" + tasks.get(0).getId() + "/" + shared.getId()))
+            .andExpect(status().isOk());
+        assertThat(task(tasks.get(0)).getTags()).isEmpty();
+        assertThat(task(tasks.get(1)).getTags()).extracting(Tag::getId)
+            .containsExactly(shared.getId());
+
+        mockMvc.perform(delete("/api/tag/delete/" + tasks.get(1).getId() + "/" + shared.getId()))
+            .andExpect(status().isOk());
+        assertThat(tagDao.existsById(shared.getId())).isFalse();
+    }
+
+    @Test
+    void deleteFromBoardUnlinksEveryTask() throws Exception {
+        Tag shared = tag("Blocked");
+        Board board = board(shared, shared);
+
+        mockMvc.perform(post("/api/tag/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(shared)))
+            .andExpect(status().isOk());
+
+        assertThat(tagDao.existsById(shared.getId())).isFalse();
+        for(Task task : board.getTaskLists().get(0).getTasks()) {
+            assertThat(task(task).getTags()).isEmpty();
+        }
+    }
+
+    @Test
+    void copiesAreMerged() throws Exception {
+        Board board = board(tag("Copy"), tag("Copy"));
+        jdbcTemplate.execute("ALTER TABLE TASK_TAGS ADD CONSTRAINT UK_TASK_TAGS_COPY "
+            + "UNIQUE (TAGS_ID)");
+
+        mergeTagCopies.apply(jdbcTemplate);
+
+        List<Tag> tags = boardTags(board);
+        assertThat(tags).hasSize(1);
+        for(Task task : board.getTaskLists().get(0).getTasks()) {
+            assertThat(task(task).getTags()).extracting(Tag::getId)
+                .containsExactly(tags.get(0).getId());
+        }
+    }
+
+    /**
+     * Gets the tags of a board through the API
+     * @param board the board
+     * @return its tags
+     * @throws Exception if the request fails
+     */
+    private List<Tag> boardTags(Board board) throws Exception {
+        String json = mockMvc.perform(get("/api/tag/get/" + board.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return List.of(objectMapper.readValue(json, Tag[].class));
+    }
+
+    /**
+     * Gets a task through the API
+     * @param task the task
+     * @return the task as the server has it
+     * @throws Exception if the request fails
+     */
+    private Task task(Task task) throws Exception {
+        String json = mockMvc.perform(get("/api/task/get/" + task.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, Task.class);
+    }
+
+    /**
+     * Builds a tag
+     * @param description the description of the tag
+     * @return the tag, not saved yet
+     */
+    private Tag tag(String description) {
+        Tag tag = new Tag();
+        tag.setDescription(description);
+        tag.setTagColor("#ffffcc");
+        tag.setTagFontColor("#000000");
+        return tag;
+    }
+
+    /**
+     * Saves a board with a list of two tasks, carrying a tag each
+     * @param first the tag of the first task
+     * @param second the tag of the second task
+     * @return the saved board
+     */
+    private Board board(Tag first, Tag second) {
+        Board board = BoardFixture.board("Tags").lists(1, 2).build();
+        List<Task> tasks = board.getTaskLists().get(0).getTasks();
+        tasks.get(0).getTags().add(first);
+        tasks.get(1).getTags().add(second);
+        board = boardDao.save(board);
+        jdbcTemplate.update("UPDATE TAG SET BOARD_ID = ? WHERE BOARD_ID IS NULL", board.getId());
+        return board;
+    }
+}
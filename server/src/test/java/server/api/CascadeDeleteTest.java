@@ -0,0 +1,131 @@
+package server.api;
+
+import commons.Board;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import server.database.ColorEntityDao;
+import server.database.SubTaskDao;
+import server.database.TagDao;
+import server.database.TaskDao;
+import server.database.TaskListDao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CascadeDeleteTest extends BoardApiTest {
+
+    @Autowired
+    private TaskListDao taskListDao;
+
+    @Autowired
+    private TaskDao taskDao;
+
+    @Autowired
+    private SubTaskDao subTaskDao;
+
+    @Autowired
+    private TagDao tagDao;
+
+    @Autowired
+    private ColorEntityDao colorEntityDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void removeBoardDeletesWholeTree() throws Exception {
+        Board board = board(2, 3);
+        Task task = board.getTaskLists().get(1).getTasks().get(2);
+
+        mockMvc.perform(delete("/api/board/remove/" + board.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(board.getId())));
+
+        assertThat(boardDao.existsById(board.getId())).isFalse();
+        assertThat(taskListDao.existsById(board.getTaskLists().get(1).getId())).isFalse();
+        assertThat(taskDao.existsById(task.getId())).isFalse();
+        assertThat(subTaskDao.existsById(task.getSubTasks().get(0).getId())).isFalse();
+        assertThat(tagDao.existsById(task.getTags().get(0).getId())).isFalse();
+        assertThat(colorEntityDao.existsById(board.getTaskDefaultColor().getId())).isFalse();
+        assertThat(colorEntityDao.existsById(board.getTaskColorPresets().get(0).getId()))
+            .isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM DELETED_ROW", Long.class))
+            .isZero();
+    }
+
+    @Test
+    void removeTaskListKeepsTheRestOfTheBoard() throws Exception {
+        Board board = board(2, 3);
+        TaskList removed = board.getTaskLists().get(0);
+        TaskList kept = board.getTaskLists().get(1);
+
+        mockMvc.perform(delete("/api/tasklist/remove/" + removed.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(removed.getId())));
+
+        assertThat(taskListDao.existsById(removed.getId())).isFalse();
+        assertThat(taskDao.existsById(removed.getTasks().get(0).getId())).isFalse();
+        assertThat(taskDao.existsById(kept.getTasks().get(0).getId())).isTrue();
+        assertThat(boardDao.findTaskListIds(board.getId())).containsExactly(kept.getId());
+    }
+
+    @Test
+    void removeTaskListDeletesNestedLists() throws Exception {
+        Board unsaved = BoardFixture.board("Nested").lists(2, 2).subTasks(1).build();
+        TaskList parent = unsaved.getTaskLists().get(0);
+        parent.getTasksLists().add(unsaved.getTaskLists().remove(1));
+        Board board = boardDao.save(unsaved);
+        parent = board.getTaskLists().get(0);
+        TaskList nested = parent.getTasksLists().get(0);
+        Task task = nested.getTasks().get(0);
+
+        mockMvc.perform(delete("/api/tasklist/remove/" + parent.getId()))
+            .andExpect(status().isOk());
+
+        assertThat(taskListDao.existsById(nested.getId())).isFalse();
+        assertThat(taskDao.existsById(task.getId())).isFalse();
+        assertThat(subTaskDao.existsById(task.getSubTasks().get(0).getId())).isFalse();
+    }
+
+    @Test
+    void removeMissingBoard() throws Exception {
+        mockMvc.perform(delete("/api/board/remove/-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/tasklist/remove/-1")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void removeBoardCostDoesNotDependOnBoardSize() throws Exception {
+        long small = countRemoveStatements(board(1, 1));
+        long large = countRemoveStatements(board(6, 40));
+        assertThat(large).isEqualTo(small);
+    }
+
+    /**
+     * Removes a board and counts the SQL statements it needed
+     * @param board the board
+     * @return number of prepared statements
+     * @throws Exception if the request fails
+     */
+    private long countRemoveStatements(Board board) throws Exception {
+        statistics.clear();
+        mockMvc.perform(delete("/api/board/remove/" + board.getId()))
+            .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Saves a board with colors, where every task has two subtasks and two tags
+     * @param lists number of task lists
+     * @param tasksPerList number of tasks in each list
+     * @return the saved board
+     */
+    private Board board(int lists, int tasksPerList) {
+        return save(BoardFixture.board("Delete").colors()
+            .lists(lists, tasksPerList).subTasks(2).tags(2));
+    }
+}
@@ -0,0 +1,90 @@
+package server.api;
+
+import commons.Board;
+import commons.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConditionalGetTest extends BoardApiTest {
+
+    @Test
+    void unchangedBoardIsNotSentAgain() throws Exception {
+        Board board = board("ETAG01");
+        String eTag = mockMvc.perform(get("/api/board/get/" + board.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/board/get/" + board.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/board/get/userID/ETAG01")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void writeChangesTheETags() throws Exception {
+        Board board = board("ETAG02");
+        Task task = board.getTaskLists().get(0).getTasks().get(0);
+        String boardTag = mockMvc.perform(get("/api/board/get/" + board.getId()))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String taskTag = mockMvc.perform(get("/api/task/get/" + task.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/task/get/" + task.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, taskTag))
+            .andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/api/task/" + task.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Renamed\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/board/get/" + board.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, boardTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.taskLists[0].tasks[0].title").value("Renamed"));
+        mockMvc.perform(get("/api/task/get/" + task.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, taskTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void boardWriteKeepsTheTaskETag() throws Exception {
+        Board board = board("ETAG03");
+        Task task = board.getTaskLists().get(0).getTasks().get(0);
+        String taskTag = mockMvc.perform(get("/api/task/get/" + task.getId()))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/board/" + board.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Renamed\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/task/get/" + task.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, taskTag))
+            .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Saves a board with one list and one task
+     * @param userId the user-friendly id of the board
+     * @return the saved board
+     */
+    private Board board(String userId) {
+        return save(BoardFixture.board("ETag").userId(userId).lists(1, 1));
+    }
+}
@@ -73,14 +73,14 @@ class TagControllerTest {
     void getTag(){
         List<Tag> tags = new ArrayList<>();
         tags.add(new Tag());
-        when(tagService.getAllDistinct(1L)).thenReturn(tags);
+        when(tagService.getBoardTags(1L)).thenReturn(tags);
         ResponseEntity<List<Tag>> response = tagController.getTag(1L);
         assertThat(response).isEqualTo(ResponseEntity.ok(tags));
     }
 
     @Test
     void getTagNull(){
-        when(tagService.getAllDistinct(-1L)).thenReturn(null);
+        when(tagService.getBoardTags(-1L)).thenReturn(null);
         ResponseEntity<List<Tag>> response = tagController.getTag(-1L);
         assertThat(response).isEqualTo(ResponseEntity.notFound().build());
     }
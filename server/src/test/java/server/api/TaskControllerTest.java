@@ -9,9 +9,12 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import server.service.TaskService;
 
+import java.util.Map;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -33,14 +36,24 @@ class TaskControllerTest {
     @Test
     void getTaskById() {
         when(taskService.getTaskById(1)).thenReturn(new Task());
-        var result = taskController.getTaskById(1);
-        assertThat(result).isEqualTo(ResponseEntity.ok(new Task()));
+        var result = taskController.getTaskById(1, null);
+        assertThat(result.getBody()).isEqualTo(new Task());
+        assertThat(result.getHeaders().getETag()).isEqualTo("W/\"0\"");
+    }
+
+    @Test
+    void getTaskByIdNotModified() {
+        when(taskService.getTaskVersion(1)).thenReturn(2L);
+        var result = taskController.getTaskById(1, "W/\"2\"");
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(result.getHeaders().getETag()).isEqualTo("W/\"2\"");
+        Mockito.verify(taskService, Mockito.never()).getTaskById(1);
     }
 
     @Test
     void getTaskByIdNULL() {
         when(taskService.getTaskById(-1)).thenReturn(null);
-        var result = taskController.getTaskById(-1);
+        var result = taskController.getTaskById(-1, null);
         assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
     }
 
@@ -74,9 +87,40 @@ class TaskControllerTest {
     }
 
     @Test
-    void checkStatusNULL(){
-        when(taskService.removeTaskById(1L)).thenReturn(null);
-        var ret = taskController.checkStatus(1L);
-        assertThat(ret.getResult()).isEqualTo(null);
+    void patchTask() {
+        Map<String, String> fields = Map.of("title", "New title");
+        when(taskService.patchTask(1, fields)).thenReturn(1);
+        var result = taskController.patchTask(1, fields);
+        assertThat(result).isEqualTo(ResponseEntity.ok().build());
+    }
+
+    @Test
+    void patchTaskNotFound() {
+        Map<String, String> fields = Map.of("title", "New title");
+        when(taskService.patchTask(-1, fields)).thenReturn(0);
+        var result = taskController.patchTask(-1, fields);
+        assertThat(result).isEqualTo(ResponseEntity.notFound().build());
+    }
+
+    @Test
+    void patchTaskNULL() {
+        Map<String, String> fields = Map.of("id", "2");
+        when(taskService.patchTask(1, fields)).thenReturn(null);
+        var result = taskController.patchTask(1, fields);
+        assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
+    }
+
+    @Test
+    void moveTask() {
+        when(taskService.moveTask(1, 2, 3L, null)).thenReturn(1500L);
+        var result = taskController.moveTask(1, 2, 3L, null);
+        assertThat(result).isEqualTo(ResponseEntity.ok(1500L));
+    }
+
+    @Test
+    void moveTaskNULL() {
+        when(taskService.moveTask(1, 2, null, 3L)).thenReturn(null);
+        var result = taskController.moveTask(1, 2, null, 3L);
+        assertThat(result).isEqualTo(ResponseEntity.badRequest().build());
     }
-}
\ No newline at end of file
+}
@@ -80,16 +80,15 @@ class TaskListControllerTest {
 
     @Test
     void removeTaskList() {
-        TaskList taskList = new TaskList();
-        when(taskListService.removeTaskList(any(TaskList.class))).thenReturn(taskList);
-        ResponseEntity<TaskList> removed = taskListController.removeTaskList(new TaskList());
-        assertThat(removed).isEqualTo(ResponseEntity.ok(taskList));
+        when(taskListService.removeTaskList(3L)).thenReturn(3L);
+        ResponseEntity<Long> removed = taskListController.removeTaskList(3L);
+        assertThat(removed).isEqualTo(ResponseEntity.ok(3L));
     }
 
     @Test
     void removeTaskListNULL() {
-        when(taskListService.removeTaskList(null)).thenReturn(null);
-        ResponseEntity<TaskList> removed = taskListController.removeTaskList(null);
+        when(taskListService.removeTaskList(3L)).thenReturn(null);
+        ResponseEntity<Long> removed = taskListController.removeTaskList(3L);
         assertThat(removed).isEqualTo(ResponseEntity.badRequest().build());
     }
 
@@ -0,0 +1,169 @@
+package server.api;
+
+import commons.Board;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+import server.database.TaskDao;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskMoveTest extends BoardApiTest {
+
+    @Autowired
+    private TaskDao taskDao;
+
+    @Test
+    void moveWithinList() throws Exception {
+        TaskList list = board(1, 5).getTaskLists().get(0);
+        long first = list.getTasks().get(0).getId();
+        long last = list.getTasks().get(4).getId();
+
+        move(last, list.getId(), "after", first).andExpect(status().isOk());
+        titles(list.getId()).andExpect(jsonPath("$.tasks[*].title",
+            contains("Task 0", "Task 4", "Task 1", "Task 2", "Task 3")));
+
+        move(first, list.getId(), "before", last).andExpect(status().isOk());
+        titles(list.getId()).andExpect(jsonPath("$.tasks[*].title",
+            contains("Task 0", "Task 4", "Task 1", "Task 2", "Task 3")));
+
+        mockMvc.perform(post("/api/task/" + first + "/move")
+                .param("list", String.valueOf(list.getId())))
+            .andExpect(status().isOk());
+        titles(list.getId()).andExpect(jsonPath("$.tasks[*].title",
+            contains("Task 4", "Task 1", "Task 2", "Task 3", "Task 0")));
+    }
+
+    @Test
+    void moveAcrossLists() throws Exception {
+        Board board = board(2, 3);
+        TaskList source = board.getTaskLists().get(0);
+        TaskList target = board.getTaskLists().get(1);
+        long moved = source.getTasks().get(1).getId();
+
+        move(moved, target.getId(), "before", target.getTasks().get(0).getId())
+            .andExpect(status().isOk());
+
+        titles(source.getId()).andExpect(jsonPath("$.tasks[*].title",
+            contains("Task 0", "Task 2")));
+        titles(target.getId()).andExpect(jsonPath("$.tasks[*].title",
+            contains("Task 1", "Task 0", "Task 1", "Task 2")))
+            .andExpect(jsonPath("$.tasks[0].taskListID").value(target.getId()));
+    }
+
+    @Test
+    void moveNextToTaskOfOtherList() throws Exception {
+        Board board = board(2, 1);
+        long moved = board.getTaskLists().get(0).getTasks().get(0).getId();
+        long otherList = board.getTaskLists().get(0).getId();
+        long foreign = board.getTaskLists().get(1).getTasks().get(0).getId();
+
+        move(moved, otherList, "after", foreign).andExpect(status().isBadRequest());
+        move(moved, otherList, "after", moved).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void repeatedMovesKeepOrder() throws Exception {
+        TaskList list = board(1, 3).getTaskLists().get(0);
+        long first = list.getTasks().get(0).getId();
+        long second = list.getTasks().get(1).getId();
+        long third = list.getTasks().get(2).getId();
+
+        // Keep squeezing tasks into the same gap, until the list has to be rebalanced
+        for(int i = 0; i < 40; i++) {
+            move(third, list.getId(), "after", first).andExpect(status().isOk());
+            move(second, list.getId(), "after", first).andExpect(status().isOk());
+        }
+        titles(list.getId()).andExpect(jsonPath("$.tasks[*].title",
+            contains("Task 0", "Task 1", "Task 2")));
+    }
+
+    @Test
+    void rebalanceKeepsVersionsOfOtherLists() throws Exception {
+        Board board = board(2, 3);
+        List<Task> tasks = board.getTaskLists().get(0).getTasks();
+        long other = board.getTaskLists().get(1).getTasks().get(0).getId();
+        long otherVersion = taskDao.findVersionById(other).orElseThrow();
+        long firstVersion = taskDao.findVersionById(tasks.get(0).getId()).orElseThrow();
+
+        // The first move gives the tasks of the list their ranks
+        move(tasks.get(2).getId(), board.getTaskLists().get(0).getId(), "after",
+            tasks.get(0).getId()).andExpect(status().isOk());
+
+        assertThat(taskDao.findVersionById(other)).contains(otherVersion);
+        assertThat(taskDao.findVersionById(tasks.get(0).getId()).orElseThrow())
+            .isGreaterThan(firstVersion);
+        assertThat(boardDao.findVersionById(board.getId()).orElseThrow())
+            .isGreaterThan(board.getVersion());
+    }
+
+    @Test
+    void moveCostDoesNotDependOnListSize() throws Exception {
+        long small = countMoveStatements(board(1, 5).getTaskLists().get(0));
+        long large = countMoveStatements(board(1, 500).getTaskLists().get(0));
+        assertThat(large).isEqualTo(small);
+    }
+
+    /**
+     * Moves the last task of a ranked list to the front
+     * and counts the SQL statements it needed
+     * @param list the task list
+     * @return number of prepared statements
+     * @throws Exception if the request fails
+     */
+    private long countMoveStatements(TaskList list) throws Exception {
+        List<Task> tasks = list.getTasks();
+        // The first move gives the tasks their ranks
+        move(tasks.get(1).getId(), list.getId(), "after", tasks.get(0).getId());
+        statistics.clear();
+        move(tasks.get(tasks.size() - 1).getId(), list.getId(), "before", tasks.get(0).getId())
+            .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Sends a move request
+     * @param id id of the task to move
+     * @param listId id of the target list
+     * @param side "after" or "before"
+     * @param neighbourId id of the neighbour
+     * @return the result of the request
+     * @throws Exception if the request fails
+     */
+    private ResultActions move(long id, long listId, String side, long neighbourId)
+        throws Exception {
+        return mockMvc.perform(post("/api/task/" + id + "/move")
+            .param("list", String.valueOf(listId))
+            .param(side, String.valueOf(neighbourId)));
+    }
+
+    /**
+     * Gets a task list, whose tasks come in rank order
+     * @param listId id of the task list
+     * @return the result of the request
+     * @throws Exception if the request fails
+     */
+    private ResultActions titles(long listId) throws Exception {
+        return mockMvc.perform(get("/api/tasklist/get/" + listId)).andExpect(status().isOk());
+    }
+
+    /**
+     * Saves a board whose tasks have no ranks yet, like boards
+     * created before ranks existed
+     * @param lists number of task lists
+     * @param tasksPerList number of tasks in each list
+     * @return the saved board
+     */
+    private Board board(int lists, int tasksPerList) {
+        return save(BoardFixture.board("Moves").lists(lists, tasksPerList));
+    }
+}
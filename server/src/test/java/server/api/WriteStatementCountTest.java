@@ -0,0 +1,148 @@
+package server.api;
+
+import commons.Board;
+import commons.SubTask;
+import commons.Tag;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:writes;DB_CLOSE_DELAY=-1")
+class WriteStatementCountTest extends BoardApiTest {
+
+    @Test
+    void addTaskListIsOneCommit() throws Exception {
+        Board small = save(board(1, 1));
+        Board large = save(board(8, 15));
+
+        long smallStatements = count(post("/api/tasklist/add"), taskList(small));
+        long largeStatements = count(post("/api/tasklist/add"), taskList(large));
+
+        assertThat(largeStatements).isLessThanOrEqualTo(6).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void addTaskIsOneCommit() throws Exception {
+        TaskList small = save(board(1, 1)).getTaskLists().get(0);
+        TaskList large = save(board(1, 50)).getTaskLists().get(0);
+
+        long smallStatements = count(post("/api/task/add"), task(small));
+        long largeStatements = count(post("/api/task/add"), task(large));
+
+        assertThat(largeStatements).isLessThanOrEqualTo(8).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void addSubTaskIsOneCommit() throws Exception {
+        Task small = save(board(1, 1)).getTaskLists().get(0).getTasks().get(0);
+        Task large = save(board(1, 1)).getTaskLists().get(0).getTasks().get(0);
+        for(int i = 0; i < 20; i++) {
+            count(post("/api/subtask/add"), subTask(large));
+        }
+
+        long smallStatements = count(post("/api/subtask/add"), subTask(small));
+        long largeStatements = count(post("/api/subtask/add"), subTask(large));
+
+        assertThat(largeStatements).isLessThanOrEqualTo(7).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void removeTaskIsOneCommit() throws Exception {
+        Board board = save(board(1, 50));
+        Task task = board.getTaskLists().get(0).getTasks().get(0);
+
+        long statements = count(delete("/api/task/delete/" + task.getId()), null);
+
+        assertThat(statements).isLessThanOrEqualTo(12);
+    }
+
+    @Test
+    void removeTagIsOneCommit() throws Exception {
+        Task task = save(board(1, 50)).getTaskLists().get(0).getTasks().get(0);
+        Tag tag = task.getTags().get(0);
+
+        long statements = count(delete("/api/tag/delete/" + task.getId() + "/" + tag.getId()),
+            null);
+
+        assertThat(statements).isLessThanOrEqualTo(7);
+    }
+
+    /**
+     * Performs a write request, checks that it committed exactly once,
+     * and counts the SQL statements it needed
+     * @param request the request, without its body
+     * @param body the JSON body (or null)
+     * @return number of prepared statements
+     * @throws Exception if the request fails
+     */
+    private long count(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        if(body != null) {
+            request.contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+        }
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertThat(statistics.getTransactionCount()).as("commits").isEqualTo(1);
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Builds a new task list on a board
+     * @param board the board
+     * @return the unsaved task list
+     */
+    private TaskList taskList(Board board) {
+        TaskList taskList = new TaskList();
+        taskList.setTitle("New");
+        taskList.setBoardId(board.getId());
+        taskList.setTasks(new ArrayList<>());
+        taskList.setTasksLists(new ArrayList<>());
+        return taskList;
+    }
+
+    /**
+     * Builds a new task in a list
+     * @param taskList the list
+     * @return the unsaved task
+     */
+    private Task task(TaskList taskList) {
+        Task task = new Task();
+        task.setTitle("New");
+        task.setTaskListID(taskList.getId());
+        task.setSubTasks(new ArrayList<>());
+        task.setTags(new ArrayList<>());
+        return task;
+    }
+
+    /**
+     * Builds a new subtask of a task
+     * @param task the task
+     * @return the unsaved subtask
+     */
+    private SubTask subTask(Task task) {
+        SubTask subTask = new SubTask();
+        subTask.setDescription("New");
+        subTask.setTaskId(task.getId());
+        return subTask;
+    }
+
+    /**
+     * Builds a board where every task has two subtasks and a tag
+     * @param lists number of task lists
+     * @param tasksPerList number of tasks in each list
+     * @return the builder of the board
+     */
+    private static BoardFixture board(int lists, int tasksPerList) {
+        return BoardFixture.board("Writes").lists(lists, tasksPerList).subTasks(2).tags(1);
+    }
+}
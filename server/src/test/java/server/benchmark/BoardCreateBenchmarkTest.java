@@ -0,0 +1,86 @@
+package server.benchmark;
+
+import commons.Board;
+import commons.Task;
+import commons.TaskList;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import server.service.BoardService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+
+/**
+ * Measures how long creating a large board takes, and how many JDBC statements
+ * it needs, now that ids come from per-entity sequences in blocks and the
+ * inserts are sent in batches.
+ * Run with ./gradlew :server:benchmark
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BoardCreateBenchmarkTest {
+
+    private static final int LISTS = 50;
+    private static final int TASKS_PER_LIST = 200;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createLargeBoard() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Warm up the insert path, so the JIT and the statement caches are hot
+        for(int i = 0; i < WARMUP; i++) {
+            boardService.addBoard(board());
+        }
+        double best = Double.MAX_VALUE;
+        long statements = 0;
+        for(int i = 0; i < RUNS; i++) {
+            Board board = board();
+            statistics.clear();
+            long start = System.nanoTime();
+            boardService.addBoard(board);
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+            statements = statistics.getPrepareStatementCount();
+        }
+        int rows = LISTS + LISTS * TASKS_PER_LIST;
+        System.out.println("lists x tasks | create (ms) | entities/s | statements");
+        System.out.printf("%6d x %4d | %11.2f | %10.0f | %10d%n",
+            LISTS, TASKS_PER_LIST, best, rows / (best / 1000), statements);
+    }
+
+    /**
+     * Builds a board with LISTS lists of TASKS_PER_LIST tasks each
+     * @return the board, not saved yet
+     */
+    private Board board() {
+        Board board = new Board();
+        board.setTitle("Benchmark");
+        board.setTaskLists(new ArrayList<>());
+        for(int i = 0; i < LISTS; i++) {
+            TaskList taskList = new TaskList();
+            taskList.setTitle("List " + i);
+            taskList.setTasks(new ArrayList<>());
+            for(int j = 0; j < TASKS_PER_LIST; j++) {
+                Task task = new Task();
+                task.setTitle("Task " + j);
+                task.setSubTasks(new ArrayList<>());
+                task.setTags(new ArrayList<>());
+                taskList.getTasks().add(task);
+            }
+            board.getTaskLists().add(taskList);
+        }
+        return board;
+    }
+}
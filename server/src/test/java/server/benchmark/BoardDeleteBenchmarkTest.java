@@ -0,0 +1,121 @@
+package server.benchmark;
+
+import commons.Board;
+import commons.SubTask;
+import commons.Tag;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.database.BoardDao;
+
+import java.util.ArrayList;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures how long deleting a board takes as the number of tasks on it grows,
+ * for the set-based delete endpoint and for the old entity cascade.
+ * Run with ./gradlew :server:benchmark
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class BoardDeleteBenchmarkTest {
+
+    private static final int[] TASK_COUNTS = {100, 1000, 5000};
+    private static final int LISTS = 10;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoardDao boardDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void deleteLatencyByBoardSize() throws Exception {
+        // Warm up both delete paths, so the JIT and the query plan caches are hot
+        for(int i = 0; i < WARMUP; i++) {
+            timeDelete(board(1000));
+            timeCascade(board(1000));
+        }
+        System.out.println("tasks | delete (ms) | cascade (ms)");
+        for(int tasks : TASK_COUNTS) {
+            double delete = Double.MAX_VALUE;
+            double cascade = Double.MAX_VALUE;
+            for(int i = 0; i < RUNS; i++) {
+                delete = Math.min(delete, timeDelete(board(tasks)));
+                cascade = Math.min(cascade, timeCascade(board(tasks)));
+            }
+            System.out.printf("%5d | %11.2f | %12.2f%n", tasks, delete, cascade);
+        }
+    }
+
+    /**
+     * Deletes a board through the API
+     * @param board the board
+     * @return milliseconds the request took
+     * @throws Exception if the request fails
+     */
+    private double timeDelete(Board board) throws Exception {
+        long start = System.nanoTime();
+        mockMvc.perform(delete("/api/board/remove/" + board.getId()))
+            .andExpect(status().isOk());
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * Deletes a board the old way, by loading it and letting JPA cascade the delete
+     * @param board the board
+     * @return milliseconds the delete took
+     */
+    private double timeCascade(Board board) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status ->
+            boardDao.delete(boardDao.findById(board.getId()).orElseThrow()));
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * Saves a board whose tasks have a subtask and a tag each
+     * @param tasks number of tasks, spread over the lists
+     * @return the saved board
+     */
+    private Board board(int tasks) {
+        Board board = new Board();
+        board.setTitle("Benchmark");
+        board.setTaskLists(new ArrayList<>());
+        for(int i = 0; i < LISTS; i++) {
+            TaskList taskList = new TaskList();
+            taskList.setTitle("List " + i);
+            taskList.setTasks(new ArrayList<>());
+            board.getTaskLists().add(taskList);
+        }
+        for(int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setSubTasks(new ArrayList<>());
+            task.setTags(new ArrayList<>());
+            SubTask subTask = new SubTask();
+            subTask.setDescription("Subtask");
+            task.getSubTasks().add(subTask);
+            Tag tag = new Tag();
+            tag.setDescription("Tag");
+            task.getTags().add(tag);
+            board.getTaskLists().get(i % LISTS).getTasks().add(task);
+        }
+        return boardDao.save(board);
+    }
+}
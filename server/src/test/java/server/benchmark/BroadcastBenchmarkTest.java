@@ -0,0 +1,252 @@
+package server.benchmark;
+
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.management.ThreadMXBean;
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+import server.sockets.ChangeCoalescer;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures what it costs the server to send a board change to 1, 100 and
+ * 1000 clients viewing the board: CPU time and allocated bytes per change,
+ * through the broker and the STOMP handler, into sessions that drop what
+ * they are sent. Run with ./gradlew :server:benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:broadcast;DB_CLOSE_DELAY=-1",
+    "board.updates.window=0"
+})
+class BroadcastBenchmarkTest {
+
+    private static final int[] SUBSCRIBERS = {1, 100, 1000};
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 1000;
+
+    @Autowired
+    private SubProtocolWebSocketHandler webSocketHandler;
+
+    @Autowired
+    private ChangeCoalescer changeCoalescer;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private long boardId = 1000;
+    private long version;
+
+    @Test
+    void fanOutCostBySubscribers() throws Exception {
+        OperatingSystemMXBean os =
+            (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        System.out.println("subscribers | CPU (us/change) | CPU (us/delivery) "
+            + "| allocated (KB/change) | allocation rate (MB/s)");
+        for(int count : SUBSCRIBERS) {
+            boardId++;
+            List<WebSocketSession> sessions = subscribe(count);
+            publish(WARMUP, count);
+
+            long cpu = os.getProcessCpuTime();
+            long allocated = allocated(threads);
+            long start = System.nanoTime();
+            publish(ROUNDS, count);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double cpuPerChange = (os.getProcessCpuTime() - cpu) / 1e3 / ROUNDS;
+            double bytes = allocated(threads) - allocated;
+            System.out.printf("%11d | %15.1f | %17.2f | %21.1f | %22.1f%n", count,
+                cpuPerChange, cpuPerChange / count, bytes / 1024 / ROUNDS,
+                bytes / 1024 / 1024 / seconds);
+
+            for(WebSocketSession session : sessions) {
+                webSocketHandler.afterConnectionClosed(session, CloseStatus.NORMAL);
+            }
+        }
+    }
+
+    /**
+     * Sends changes to the board, waiting until every subscriber got all of them
+     * @param rounds number of changes
+     * @param subscribers number of subscribers
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void publish(int rounds, int subscribers) throws InterruptedException {
+        long expected = delivered.get() + (long) rounds * subscribers;
+        for(int i = 0; i < rounds; i++) {
+            changeCoalescer.submit(change());
+        }
+        while(delivered.get() < expected) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Builds the kind of change a color picker sends
+     * @return the change
+     */
+    private BoardChange change() {
+        version++;
+        BoardChange change = new BoardChange(Entity.TASK, Operation.UPDATE, 42L, null,
+            Map.of("backGroundColor", String.format("#%06x", version & 0xffffff)));
+        change.setBoardId(boardId);
+        change.setTaskId(42L);
+        change.setVersion(version);
+        return change;
+    }
+
+    /**
+     * Connects sessions and subscribes them to the current board, waiting until
+     * the broker sends them changes
+     * @param count number of sessions
+     * @return the sessions
+     * @throws Exception if a frame can't be handled
+     */
+    private List<WebSocketSession> subscribe(int count) throws Exception {
+        List<WebSocketSession> sessions = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            DroppingSession session = new DroppingSession("bench-" + boardId + "-" + i);
+            webSocketHandler.afterConnectionEstablished(session);
+            webSocketHandler.handleMessage(session,
+                new TextMessage("CONNECT\naccept-version:1.2\nheart-beat:0,0\n\n\0"));
+            webSocketHandler.handleMessage(session, new TextMessage(
+                "SUBSCRIBE\nid:0\ndestination:/update/board/" + boardId + "\n\n\0"));
+            sessions.add(session);
+        }
+        while(sessions.stream().anyMatch(session -> ((DroppingSession) session).messages == 0)) {
+            changeCoalescer.submit(change());
+            Thread.sleep(10);
+        }
+        return sessions;
+    }
+
+    /**
+     * Allocated bytes of all live threads
+     * @param threads the thread bean
+     * @return the bytes allocated so far
+     */
+    private static long allocated(ThreadMXBean threads) {
+        long total = 0;
+        for(long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(bytes, 0);
+        }
+        return total;
+    }
+
+    /**
+     * A session of a client that reads everything it is sent right away
+     */
+    private class DroppingSession implements WebSocketSession {
+        private final String id;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private volatile int messages;
+
+        DroppingSession(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) {
+            if(message.getPayloadLength() > 0 && message.getPayload().toString()
+                .startsWith("MESSAGE")) {
+                messages++;
+                delivered.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public URI getUri() {
+            return URI.create("ws://localhost/ws");
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return 64 * 1024;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return 64 * 1024;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(CloseStatus status) {
+        }
+    }
+}
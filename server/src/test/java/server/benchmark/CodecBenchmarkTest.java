@@ -0,0 +1,184 @@
+package server.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import commons.Board;
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import commons.SubTask;
+import commons.Tag;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares JSON and CBOR for what the server sends: size and encode/decode
+ * time of the changes published over STOMP and of whole boards of growing size.
+ * Run with ./gradlew :server:benchmark
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+class CodecBenchmarkTest {
+
+    private static final int[][] BOARDS = {{3, 5}, {5, 20}, {10, 50}};
+    private static final int WARMUP = 2_000;
+    private static final int TARGET_NANOS = 500_000_000;
+
+    private final ObjectMapper json = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void sizeAndSpeedByPayload() throws Exception {
+        System.out.println("payload | JSON (B) | CBOR (B) | saved | JSON enc/dec (us) "
+            + "| CBOR enc/dec (us)");
+        compare("color delta", update("backGroundColor", "#12ab34"), BoardChange.class);
+        compare("title delta", update("title", "Write the report for the client meeting"),
+            BoardChange.class);
+        compare("move delta", move(), BoardChange.class);
+        for(int[] size : BOARDS) {
+            compare(size[0] + "x" + size[1] + " board", board(size[0], size[1]), Board.class);
+        }
+    }
+
+    /**
+     * Encodes and decodes a value in both formats and prints a row of the table
+     * @param name what the value is
+     * @param value the value
+     * @param type the class it is decoded as
+     * @throws Exception if it can't be encoded
+     */
+    private void compare(String name, Object value, Class<?> type) throws Exception {
+        byte[] jsonBytes = json.writeValueAsBytes(value);
+        byte[] cborBytes = cbor.writeValueAsBytes(value);
+        System.out.printf("%-15s | %8d | %8d | %4.0f%% | %8.2f / %6.2f | %8.2f / %6.2f%n",
+            name, jsonBytes.length, cborBytes.length,
+            100.0 * (jsonBytes.length - cborBytes.length) / jsonBytes.length,
+            time(() -> json.writeValueAsBytes(value)), time(() -> json.readValue(jsonBytes, type)),
+            time(() -> cbor.writeValueAsBytes(value)), time(() -> cbor.readValue(cborBytes, type)));
+    }
+
+    /**
+     * Runs an operation until it has been timed long enough
+     * @param operation the operation
+     * @return microseconds per run
+     * @throws Exception if the operation fails
+     */
+    private static double time(Timed operation) throws Exception {
+        for(int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operation.run();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while(elapsed < TARGET_NANOS);
+        return elapsed / 1e3 / runs;
+    }
+
+    /**
+     * Builds the kind of change an edit of a task sends
+     * @param field the field that changed
+     * @param value its new value
+     * @return the change
+     */
+    private static BoardChange update(String field, String value) {
+        BoardChange change = new BoardChange(Entity.TASK, Operation.UPDATE, 42L, null,
+            Map.of(field, value));
+        change.setBoardId(7);
+        change.setTaskId(42L);
+        change.setVersion(1234);
+        return change;
+    }
+
+    /**
+     * Builds the kind of change a drag and drop sends
+     * @return the change
+     */
+    private static BoardChange move() {
+        BoardChange change = BoardChange.move(42L, 3L, 1L << 20);
+        change.setBoardId(7);
+        change.setTaskId(42L);
+        change.setVersion(1235);
+        return change;
+    }
+
+    /**
+     * Builds a board of lists of tasks, every task with three subtasks and two tags
+     * @param lists number of lists
+     * @param tasks number of tasks per list
+     * @return the board
+     */
+    private static Board board(int lists, int tasks) {
+        Board board = new Board();
+        board.setId(7);
+        board.setTitle("Software project");
+        board.setBoardBgColor("#ffffff");
+        board.setBoardFontColor("#000000");
+        board.setTaskListsBgColor("#eeeeee");
+        board.setTaskListsFontColor("#111111");
+        board.setUserId("a1b2c3");
+        board.setVersion(1234);
+        List<Tag> tags = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            Tag tag = new Tag();
+            tag.setId(i + 1);
+            tag.setDescription("Tag " + i);
+            tag.setBoardId(7L);
+            tag.setTagColor("#ff0000");
+            tag.setTagFontColor("#ffffff");
+            tags.add(tag);
+        }
+        List<TaskList> taskLists = new ArrayList<>();
+        long id = 100;
+        for(int l = 0; l < lists; l++) {
+            TaskList taskList = new TaskList();
+            taskList.setId(l + 1);
+            taskList.setTitle("List " + l);
+            taskList.setBoardId(7L);
+            List<Task> listTasks = new ArrayList<>();
+            for(int t = 0; t < tasks; t++) {
+                Task task = new Task();
+                task.setId(id++);
+                task.setTitle("Task " + t + " of list " + l);
+                task.setDescription("Some words about what has to be done for this task");
+                task.setBackGroundColor("#dddddd");
+                task.setFontColor("#222222");
+                task.setTaskListID(taskList.getId());
+                task.setSortRank((long) t << 20);
+                List<SubTask> subTasks = new ArrayList<>();
+                for(int s = 0; s < 3; s++) {
+                    SubTask subTask = new SubTask();
+                    subTask.setId(id++);
+                    subTask.setDescription("Step " + s);
+                    subTask.setChecked(s == 0);
+                    subTask.setTaskId(task.getId());
+                    subTasks.add(subTask);
+                }
+                task.setSubTasks(subTasks);
+                task.setTags(new ArrayList<>(tags.subList(t % 3, t % 3 + 2)));
+                listTasks.add(task);
+            }
+            taskList.setTasks(listTasks);
+            taskLists.add(taskList);
+        }
+        board.setTaskLists(taskLists);
+        return board;
+    }
+
+    /**
+     * An encoding or decoding to time
+     */
+    private interface Timed {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,177 @@
+package server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Board;
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import commons.SubTask;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures how much compression saves on what the server sends: whole boards
+ * over HTTP with gzip, and a stream of board changes over a WebSocket with
+ * permessage-deflate, where the window is kept from one message to the next
+ * (context takeover) or reset for every message.
+ * Run with ./gradlew :server:benchmark
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+class CompressionBenchmarkTest {
+
+    private static final int[][] BOARDS = {{1, 2}, {3, 5}, {5, 20}, {10, 50}};
+    private static final int CHANGES = 1000;
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void gzipRatioByBoardSize() throws Exception {
+        System.out.println("board | JSON (B) | gzip (B) | ratio | gzip (us)");
+        for(int[] size : BOARDS) {
+            byte[] plain = json.writeValueAsBytes(board(size[0], size[1]));
+            byte[] gzip = gzip(plain);
+            long start = System.nanoTime();
+            for(int i = 0; i < 200; i++) {
+                gzip(plain);
+            }
+            double micros = (System.nanoTime() - start) / 1e3 / 200;
+            System.out.printf("%5s | %8d | %8d | %5.1f | %9.1f%n", size[0] + "x" + size[1],
+                plain.length, gzip.length, (double) plain.length / gzip.length, micros);
+        }
+    }
+
+    @Test
+    void deflateRatioOfChanges() throws Exception {
+        List<byte[]> messages = new ArrayList<>();
+        for(int i = 0; i < CHANGES; i++) {
+            messages.add(json.writeValueAsBytes(change(i)));
+        }
+        long plain = messages.stream().mapToLong(message -> message.length).sum();
+        System.out.println("window | plain (B/msg) | deflated (B/msg) | ratio");
+        for(boolean takeover : new boolean[] {true, false}) {
+            long deflated = deflate(messages, takeover);
+            System.out.printf("%6s | %13.1f | %16.1f | %5.1f%n", takeover ? "kept" : "reset",
+                (double) plain / CHANGES, (double) deflated / CHANGES, (double) plain / deflated);
+        }
+    }
+
+    /**
+     * Compresses a body with gzip
+     * @param plain the body
+     * @return the compressed body
+     * @throws Exception if it can't be written
+     */
+    private static byte[] gzip(byte[] plain) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(plain);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Compresses messages the way permessage-deflate does: raw deflate,
+     * flushed at the end of every message, without the trailing 4 bytes
+     * @param messages the messages
+     * @param takeover whether the window is kept between messages
+     * @return the number of bytes sent
+     */
+    private static long deflate(List<byte[]> messages, boolean takeover) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        for(byte[] message : messages) {
+            if(!takeover) {
+                deflater.reset();
+            }
+            deflater.setInput(message);
+            int length;
+            while((length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH)) > 0) {
+                total += length;
+            }
+            total -= 4;
+        }
+        deflater.end();
+        return total;
+    }
+
+    /**
+     * Builds the changes a few people editing a board make: colors, titles and moves
+     * @param i number of the change
+     * @return the change
+     */
+    private static BoardChange change(int i) {
+        long taskId = 100 + i % 25;
+        BoardChange change;
+        if(i % 3 == 0) {
+            change = BoardChange.move(taskId, 1 + i % 5, (long) i << 16);
+        } else {
+            change = new BoardChange(Entity.TASK, Operation.UPDATE, taskId, null,
+                i % 3 == 1 ? Map.of("backGroundColor", String.format("#%06x", i * 7919 & 0xffffff))
+                    : Map.of("title", "Task " + i));
+        }
+        change.setBoardId(7);
+        change.setTaskId(taskId);
+        change.setVersion(1000 + i);
+        return change;
+    }
+
+    /**
+     * Builds a board of lists of tasks, every task with three subtasks
+     * @param lists number of lists
+     * @param tasks number of tasks per list
+     * @return the board
+     */
+    private static Board board(int lists, int tasks) {
+        Board board = new Board();
+        board.setId(7);
+        board.setTitle("Software project");
+        board.setBoardBgColor("#ffffff");
+        board.setBoardFontColor("#000000");
+        board.setTaskListsBgColor("#eeeeee");
+        board.setTaskListsFontColor("#111111");
+        board.setUserId("a1b2c3");
+        List<TaskList> taskLists = new ArrayList<>();
+        long id = 100;
+        for(int l = 0; l < lists; l++) {
+            TaskList taskList = new TaskList();
+            taskList.setId(l + 1);
+            taskList.setTitle("List " + l);
+            taskList.setBoardId(7L);
+            List<Task> listTasks = new ArrayList<>();
+            for(int t = 0; t < tasks; t++) {
+                Task task = new Task();
+                task.setId(id++);
+                task.setTitle("Task " + t + " of list " + l);
+                task.setDescription("Some words about what has to be done for this task");
+                task.setBackGroundColor("#dddddd");
+                task.setFontColor("#222222");
+                task.setTaskListID(taskList.getId());
+                task.setSortRank((long) t << 20);
+                task.setTags(new ArrayList<>());
+                List<SubTask> subTasks = new ArrayList<>();
+                for(int s = 0; s < 3; s++) {
+                    SubTask subTask = new SubTask();
+                    subTask.setId(id++);
+                    subTask.setDescription("Step " + s);
+                    subTask.setTaskId(task.getId());
+                    subTasks.add(subTask);
+                }
+                task.setSubTasks(subTasks);
+                listTasks.add(task);
+            }
+            taskList.setTasks(listTasks);
+            taskLists.add(taskList);
+        }
+        board.setTaskLists(taskLists);
+        return board;
+    }
+}
@@ -0,0 +1,58 @@
+package server.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import server.Main;
+
+/**
+ * Measures how long the server takes to start with the schema managed by Flyway
+ * and checked by Hibernate, against Hibernate updating the schema itself.
+ * Also times the first Flyway start on a database Hibernate created, which
+ * applies the baseline on top of it.
+ * Run with ./gradlew :server:benchmark
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final int WARMUP = 2;
+    private static final int RUNS = 5;
+
+    @Test
+    void startup() {
+        for(int i = 0; i < WARMUP; i++) {
+            start("warmup" + i, false);
+            start("warmup" + i, true);
+        }
+        double update = Double.MAX_VALUE;
+        double flyway = Double.MAX_VALUE;
+        for(int i = 0; i < RUNS; i++) {
+            update = Math.min(update, start("update", false));
+            flyway = Math.min(flyway, start("flyway", true));
+        }
+        start("legacy", false);
+        double upgrade = start("legacy", true);
+        System.out.println("schema                    | startup (ms)");
+        System.out.printf("ddl-auto=update           | %12.0f%n", update);
+        System.out.printf("flyway + validate         | %12.0f%n", flyway);
+        System.out.printf("flyway baseline + upgrade | %12.0f%n", upgrade);
+    }
+
+    /**
+     * Starts and stops the server
+     * @param database name of the in-memory database, which outlives the server
+     * @param flyway whether Flyway manages the schema, or Hibernate updates it
+     * @return the time until the server was ready, in ms
+     */
+    private double start(String database, boolean flyway) {
+        long start = System.nanoTime();
+        try(ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class)
+            .properties("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.flyway.enabled=" + flyway,
+                "spring.jpa.hibernate.ddl-auto=" + (flyway ? "validate" : "update"))
+            .run()) {
+            return (System.nanoTime() - start) / 1e6;
+        }
+    }
+}
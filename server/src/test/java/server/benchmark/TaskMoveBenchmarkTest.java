@@ -0,0 +1,152 @@
+package server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Board;
+import commons.Task;
+import commons.TaskList;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import server.database.BoardDao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares the latency of reordering a task with the move endpoint against
+ * the old approach of posting the whole reordered list, for growing lists.
+ * Run with ./gradlew :server:benchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class TaskMoveBenchmarkTest {
+
+    private static final int[] LIST_SIZES = {10, 100, 1000, 2000};
+    private static final int WARMUP = 10;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoardDao boardDao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void reorderLatencyByListSize() throws Exception {
+        System.out.println("tasks | move (ms/op) | post whole list (ms/op)");
+        for(int size : LIST_SIZES) {
+            List<Long> moveIds = createList(size);
+            List<Long> postIds = createList(size);
+            long listForMoves = moveIds.remove(0);
+            long listForPosts = postIds.remove(0);
+
+            timeMoves(listForMoves, moveIds, WARMUP);
+            double move = timeMoves(listForMoves, moveIds, ROUNDS);
+            timePosts(listForPosts, WARMUP);
+            double post = timePosts(listForPosts, ROUNDS);
+            System.out.printf("%5d | %12.2f | %23.2f%n", size, move, post);
+        }
+    }
+
+    /**
+     * Moves random tasks next to other random tasks with the move endpoint
+     * @param listId id of the list
+     * @param taskIds ids of the tasks in the list
+     * @param rounds number of moves
+     * @return average milliseconds per move
+     * @throws Exception if a request fails
+     */
+    private double timeMoves(long listId, List<Long> taskIds, int rounds) throws Exception {
+        long start = System.nanoTime();
+        for(int i = 0; i < rounds; i++) {
+            long moved = taskIds.get(random.nextInt(taskIds.size()));
+            long neighbour = taskIds.get(random.nextInt(taskIds.size()));
+            if(moved == neighbour) {
+                continue;
+            }
+            mockMvc.perform(post("/api/task/" + moved + "/move")
+                    .param("list", String.valueOf(listId))
+                    .param("after", String.valueOf(neighbour)))
+                .andExpect(status().isOk());
+        }
+        return (System.nanoTime() - start) / 1e6 / rounds;
+    }
+
+    /**
+     * Swaps two random tasks of a list and posts the whole list, like the
+     * client did before the move endpoint existed
+     * @param listId id of the list
+     * @param rounds number of reorders
+     * @return average milliseconds per reorder
+     * @throws Exception if a request fails
+     */
+    private double timePosts(long listId, int rounds) throws Exception {
+        long start = System.nanoTime();
+        for(int i = 0; i < rounds; i++) {
+            String json = mockMvc.perform(get("/api/tasklist/get/" + listId))
+                .andReturn().getResponse().getContentAsString();
+            TaskList taskList = objectMapper.readValue(json, TaskList.class);
+            Collections.swap(taskList.getTasks(),
+                random.nextInt(taskList.getTasks().size()),
+                random.nextInt(taskList.getTasks().size()));
+            mockMvc.perform(post("/api/tasklist/add")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(taskList)))
+                .andExpect(status().isOk());
+        }
+        return (System.nanoTime() - start) / 1e6 / rounds;
+    }
+
+    /**
+     * Saves a board with one list of the given size
+     * @param size number of tasks
+     * @return the id of the list, followed by the ids of its tasks
+     */
+    private List<Long> createList(int size) {
+        Board board = new Board();
+        board.setTitle("Benchmark");
+        board.setTaskLists(new ArrayList<>());
+        TaskList taskList = new TaskList();
+        taskList.setTitle("List");
+        taskList.setTasks(new ArrayList<>());
+        for(int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDescription("Description of task " + i);
+            task.setSortRank((i + 1) * 1024L);
+            task.setSubTasks(new ArrayList<>());
+            task.setTags(new ArrayList<>());
+            taskList.getTasks().add(task);
+        }
+        board.getTaskLists().add(taskList);
+        board = boardDao.save(board);
+        taskList = board.getTaskLists().get(0);
+        taskList.setBoardId(board.getId());
+        board = boardDao.save(board);
+
+        List<Long> ids = new ArrayList<>();
+        ids.add(board.getTaskLists().get(0).getId());
+        for(var task : board.getTaskLists().get(0).getTasks()) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,68 @@
+package server.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import server.database.BoardDao;
+import server.service.UserIdAllocator;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures how fast user-friendly ids are handed out as the id space fills up.
+ * The old generator made one database round trip per random attempt,
+ * 1 / (1 - fill) attempts on average; the allocator makes none.
+ * Run with ./gradlew :server:benchmark
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+class UserIdAllocatorBenchmarkTest {
+
+    private static final double[] FILLS = {0.1, 0.5, 0.9};
+    private static final int OPERATIONS = 1_000_000;
+    private static final int RUNS = 3;
+
+    @Test
+    void allocationThroughputByFill() {
+        System.out.println("fill | allocations/s | ns/allocation | old DB probes/allocation");
+        for(double fill : FILLS) {
+            UserIdAllocator allocator = allocator();
+            int target = (int) (UserIdAllocator.KEY_SPACE * fill);
+            while(allocator.getUsedCount() < target) {
+                allocator.allocate();
+            }
+            double best = Double.MAX_VALUE;
+            for(int run = 0; run < RUNS; run++) {
+                best = Math.min(best, timeAllocations(allocator));
+            }
+            System.out.printf("%3.0f%% | %13.0f | %13.1f | %24.1f%n",
+                fill * 100, OPERATIONS / best * 1e9, best / OPERATIONS, 1 / (1 - fill));
+        }
+    }
+
+    /**
+     * Allocates and releases ids, so the fill stays the same
+     * @param allocator the allocator
+     * @return nanoseconds it took
+     */
+    private double timeAllocations(UserIdAllocator allocator) {
+        long start = System.nanoTime();
+        for(int i = 0; i < OPERATIONS; i++) {
+            allocator.release(allocator.allocate());
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Builds an allocator over an empty database
+     * @return the allocator
+     */
+    private UserIdAllocator allocator() {
+        BoardDao boardDao = Mockito.mock(BoardDao.class);
+        when(boardDao.findUserIdsAfter(anyString(), any(Pageable.class))).thenReturn(List.of());
+        return new UserIdAllocator(boardDao);
+    }
+}
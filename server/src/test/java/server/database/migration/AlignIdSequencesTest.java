@@ -0,0 +1,56 @@
+package server.database.migration;
+
+import commons.Board;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import server.database.BoardDao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sequences;DB_CLOSE_DELAY=-1")
+class AlignIdSequencesTest {
+
+    @Autowired
+    private AlignIdSequences alignIdSequences;
+
+    @Autowired
+    private BoardDao boardDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sequenceMovesPastOldIds() {
+        Board board = new Board();
+        board.setTitle("Old");
+        board = boardDao.save(board);
+        long oldId = currentValue() + 10_000;
+        jdbcTemplate.update("UPDATE BOARD SET ID = ? WHERE ID = ?", oldId, board.getId());
+
+        alignIdSequences.apply(jdbcTemplate);
+        long next = nextValue();
+        assertThat(next - AlignIdSequences.BLOCK_SIZE).isGreaterThanOrEqualTo(oldId);
+
+        alignIdSequences.apply(jdbcTemplate);
+        assertThat(nextValue()).isEqualTo(next + AlignIdSequences.BLOCK_SIZE);
+    }
+
+    /**
+     * Reads the last value of the board sequence
+     * @return the value
+     */
+    private long currentValue() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_VALUE FROM "
+            + "INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'BOARD_SEQ'", Long.class);
+    }
+
+    /**
+     * Takes the next value of the board sequence
+     * @return the value
+     */
+    private long nextValue() {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR BOARD_SEQ", Long.class);
+    }
+}
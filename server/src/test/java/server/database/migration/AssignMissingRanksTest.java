@@ -0,0 +1,43 @@
+package server.database.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import server.service.RankRebalancer;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ranks;DB_CLOSE_DELAY=-1")
+class AssignMissingRanksTest {
+
+    private static final long LIST = 1_000_000_000L;
+
+    @Autowired
+    private AssignMissingRanks assignMissingRanks;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unrankedTasksFollowRankedOnesInIdOrder() {
+        jdbcTemplate.update("INSERT INTO TASK_LIST (ID, TITLE) VALUES (?, 'Old')", LIST);
+        // added in the order 3, 1, 2; only task 2 has a rank, the others follow by id
+        for(long task : List.of(3L, 1L, 2L)) {
+            jdbcTemplate.update("INSERT INTO TASK (ID, TITLE, TASK_LISTID, SORT_RANK, VERSION) "
+                + "VALUES (?, 'Task', ?, ?, 0)", LIST + task, LIST, task == 2 ? 5L : null);
+            jdbcTemplate.update("INSERT INTO TASK_LIST_TASKS (TASK_LIST_ID, TASKS_ID) "
+                + "VALUES (?, ?)", LIST, LIST + task);
+        }
+
+        assignMissingRanks.apply(jdbcTemplate);
+
+        assertThat(jdbcTemplate.queryForList("SELECT ID - ? FROM TASK WHERE TASK_LISTID = ? "
+            + "ORDER BY SORT_RANK", Long.class, LIST, LIST)).containsExactly(2L, 1L, 3L);
+        assertThat(jdbcTemplate.queryForList("SELECT SORT_RANK FROM TASK "
+            + "WHERE TASK_LISTID = ? ORDER BY SORT_RANK", Long.class, LIST))
+            .containsExactly(RankRebalancer.GAP, 2 * RankRebalancer.GAP, 3 * RankRebalancer.GAP);
+    }
+}
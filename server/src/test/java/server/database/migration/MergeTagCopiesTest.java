@@ -0,0 +1,51 @@
+package server.database.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:tags;DB_CLOSE_DELAY=-1")
+class MergeTagCopiesTest {
+
+    private static final long BOARD = 1_000_000_000L;
+
+    @Autowired
+    private MergeTagCopies mergeTagCopies;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void copiesAreMergedIntoTheOldestTag() {
+        jdbcTemplate.update("INSERT INTO BOARD (ID, TITLE, USER_ID, VERSION) "
+            + "VALUES (?, 'Old', 'tags', 0)", BOARD);
+        // tags 1, 2 and 3 look the same, tag 4 has another color
+        for(long tag : List.of(3L, 1L, 2L, 4L)) {
+            jdbcTemplate.update("INSERT INTO TAG (ID, DESCRIPTION, TAG_COLOR, BOARD_ID) "
+                + "VALUES (?, 'Tag', ?, ?)", BOARD + tag, tag == 4 ? "red" : null, BOARD);
+        }
+        // task 1 carries two copies, task 2 a third one, task 3 the other tag
+        long[][] links = {{1, 1}, {1, 2}, {2, 3}, {3, 4}};
+        for(long task = 1; task <= 3; task++) {
+            jdbcTemplate.update("INSERT INTO TASK (ID, TITLE, VERSION) VALUES (?, 'Task', 0)",
+                BOARD + task);
+        }
+        for(long[] link : links) {
+            jdbcTemplate.update("INSERT INTO TASK_TAGS (TASK_ID, TAGS_ID) VALUES (?, ?)",
+                BOARD + link[0], BOARD + link[1]);
+        }
+
+        mergeTagCopies.apply(jdbcTemplate);
+
+        assertThat(jdbcTemplate.queryForList("SELECT ID - ? FROM TAG WHERE BOARD_ID = ? "
+            + "ORDER BY ID", Long.class, BOARD, BOARD)).containsExactly(1L, 4L);
+        assertThat(jdbcTemplate.queryForList("SELECT (TASK_ID - ?) * 10 + TAGS_ID - ? "
+                + "FROM TASK_TAGS WHERE TASK_ID > ? ORDER BY TASK_ID", Long.class,
+            BOARD, BOARD, BOARD)).containsExactly(11L, 21L, 34L);
+    }
+}
@@ -0,0 +1,135 @@
+package server.service;
+
+import commons.BatchOperation;
+import commons.SubTask;
+import commons.Tag;
+import commons.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceTest {
+
+    @InjectMocks
+    private BatchService batchService;
+
+    @MockBean
+    private final BoardService boardService = Mockito.mock(BoardService.class);
+
+    @MockBean
+    private final TaskListService taskListService = Mockito.mock(TaskListService.class);
+
+    @MockBean
+    private final TaskService taskService = Mockito.mock(TaskService.class);
+
+    @MockBean
+    private final SubtaskService subtaskService = Mockito.mock(SubtaskService.class);
+
+    @MockBean
+    private final TagService tagService = Mockito.mock(TagService.class);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void applyInOrder() {
+        Task task = new Task();
+        task.setId(7L);
+        when(taskService.addTask(task)).thenReturn(task);
+        when(taskService.patchTask(3L, Map.of("title", "New"))).thenReturn(1);
+        when(taskService.moveTask(3L, 2L, 7L, null)).thenReturn(1024L);
+        when(taskService.removeTaskById(4L)).thenReturn(task);
+
+        BatchOperation create = operation(BatchOperation.Action.CREATE,
+            BatchOperation.Type.TASK, null);
+        create.setTask(task);
+        BatchOperation update = operation(BatchOperation.Action.UPDATE,
+            BatchOperation.Type.TASK, 3L);
+        update.setFields(Map.of("title", "New"));
+        BatchOperation move = operation(BatchOperation.Action.MOVE,
+            BatchOperation.Type.TASK, 3L);
+        move.setListId(2L);
+        move.setAfterId(7L);
+        BatchOperation delete = operation(BatchOperation.Action.DELETE,
+            BatchOperation.Type.TASK, 4L);
+
+        var results = batchService.apply(List.of(create, update, move, delete));
+        assertThat(results).containsExactly(7L, 1L, 1024L, 7L);
+    }
+
+    @Test
+    void applyOtherTypes() {
+        SubTask subTask = new SubTask();
+        subTask.setId(5);
+        Tag tag = new Tag();
+        tag.setId(6);
+        when(taskListService.removeTaskList(2L)).thenReturn(2L);
+        when(subtaskService.removeSubTask(5L)).thenReturn(subTask);
+        when(tagService.removeTag(6L, 3L)).thenReturn(tag);
+        when(boardService.patchBoard(1L, Map.of("title", "New"))).thenReturn(1);
+
+        BatchOperation board = operation(BatchOperation.Action.UPDATE,
+            BatchOperation.Type.BOARD, 1L);
+        board.setFields(Map.of("title", "New"));
+        BatchOperation removeTag = operation(BatchOperation.Action.DELETE,
+            BatchOperation.Type.TAG, 6L);
+        removeTag.setParentId(3L);
+
+        var results = batchService.apply(List.of(board,
+            operation(BatchOperation.Action.DELETE, BatchOperation.Type.SUB_TASK, 5L),
+            removeTag,
+            operation(BatchOperation.Action.DELETE, BatchOperation.Type.TASK_LIST, 2L)));
+        assertThat(results).containsExactly(1L, 5L, 6L, 2L);
+    }
+
+    @Test
+    void applyStopsAtFailure() {
+        when(taskService.patchTask(any(Long.class), any())).thenReturn(0);
+        var results = batchService.apply(List.of(
+            operation(BatchOperation.Action.UPDATE, BatchOperation.Type.TASK, 3L),
+            operation(BatchOperation.Action.DELETE, BatchOperation.Type.TASK, 4L)));
+        assertThat(results).isNull();
+        verify(taskService, never()).removeTaskById(4L);
+    }
+
+    @Test
+    void applyRejectsInvalidOperations() {
+        assertThat(batchService.apply(null)).isNull();
+        assertThat(batchService.apply(List.of(new BatchOperation()))).isNull();
+        assertThat(batchService.apply(List.of(operation(BatchOperation.Action.MOVE,
+            BatchOperation.Type.BOARD, 1L)))).isNull();
+        assertThat(batchService.apply(List.of(operation(BatchOperation.Action.DELETE,
+            BatchOperation.Type.TAG, 1L)))).isNull();
+        assertThat(batchService.apply(new ArrayList<>())).isEmpty();
+    }
+
+    /**
+     * Builds a batch operation
+     * @param action what to do
+     * @param type the kind of entity
+     * @param id the id of the entity
+     * @return the operation
+     */
+    private BatchOperation operation(BatchOperation.Action action, BatchOperation.Type type,
+                                     Long id) {
+        return new BatchOperation(action, type, id);
+    }
+}
@@ -0,0 +1,81 @@
+package server.service;
+
+import commons.Board;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class BoardCacheTest {
+
+    @Test
+    void getCountsHitsAndMisses() {
+        BoardCache cache = new BoardCache(2);
+        cache.put(board(1L, "A1B2C3"), cache.version());
+        assertThat(cache.get(1)).isNotNull();
+        assertThat(cache.getByUserId("A1B2C3")).isNotNull();
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.getByUserId("X9Y9Z9")).isNull();
+        assertThat(cache.getStats().getHits()).isEqualTo(2);
+        assertThat(cache.getStats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        BoardCache cache = new BoardCache(2);
+        cache.put(board(1L, "AAAAAA"), cache.version());
+        cache.put(board(2L, "BBBBBB"), cache.version());
+        cache.get(1);
+        cache.put(board(3L, "CCCCCC"), cache.version());
+        assertThat(cache.get(1)).isNotNull();
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.getByUserId("BBBBBB")).isNull();
+        assertThat(cache.getStats().getEvictions()).isEqualTo(1);
+        assertThat(cache.getStats().getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidateDropsOnlyThatBoard() {
+        BoardCache cache = new BoardCache(4);
+        cache.put(board(1L, "AAAAAA"), cache.version());
+        cache.put(board(2L, "BBBBBB"), cache.version());
+        cache.onBoardChanged(new BoardChangedEvent(1L));
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.getByUserId("AAAAAA")).isNull();
+        assertThat(cache.get(2)).isNotNull();
+    }
+
+    @Test
+    void staleLoadIsNotCached() {
+        BoardCache cache = new BoardCache(4);
+        long loadedAt = cache.version();
+        cache.invalidate(1L);
+        cache.put(board(1L, "AAAAAA"), loadedAt);
+        assertThat(cache.get(1)).isNull();
+        cache.put(board(1L, "AAAAAA"), cache.version());
+        assertThat(cache.get(1)).isNotNull();
+    }
+
+    @Test
+    void forgottenInvalidationsStayConservative() {
+        BoardCache cache = new BoardCache(1);
+        long loadedAt = cache.version();
+        for(long id = 1; id <= 10; id++) {
+            cache.invalidate(id);
+        }
+        cache.put(board(1L, "AAAAAA"), loadedAt);
+        assertThat(cache.get(1)).isNull();
+    }
+
+    /**
+     * Builds a cache entry for a board with an id
+     * @param id the id
+     * @param userId the user-friendly id
+     * @return the cache entry
+     */
+    private CachedBoard board(Long id, String userId) {
+        Board board = new Board();
+        board.setId(id);
+        board.setUserId(userId);
+        return new CachedBoard(board, null);
+    }
+}
@@ -1,22 +1,43 @@
 package server.service;
 
 import commons.Board;
+import commons.BoardListing;
+import commons.BoardSummary;
+import commons.Task;
+import commons.TaskList;
+import commons.TaskListSummary;
+import commons.TaskSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import server.database.BoardDao;
+import server.database.TaskDao;
+import server.database.TaskListDao;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +49,24 @@ class BoardServiceTest {
     @MockBean
     private final BoardDao boardDao = Mockito.mock(BoardDao.class);
 
+    @MockBean
+    private final TaskListDao taskListDao = Mockito.mock(TaskListDao.class);
+
+    @MockBean
+    private final TaskDao taskDao = Mockito.mock(TaskDao.class);
+
+    @MockBean
+    private final CascadeDeleter cascadeDeleter = Mockito.mock(CascadeDeleter.class);
+
+    @MockBean
+    private final BoardCache boardCache = Mockito.mock(BoardCache.class);
+
+    @MockBean
+    private final ApplicationEventPublisher events = Mockito.mock(ApplicationEventPublisher.class);
+
+    @MockBean
+    private final UserIdAllocator userIdAllocator = Mockito.mock(UserIdAllocator.class);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -36,15 +75,14 @@ class BoardServiceTest {
     @Test
     void getBoardById() {
         Board board = new Board();
-        when(boardDao.existsById(any(Long.class))).thenReturn(true);
-        when(boardDao.findById(any(Long.class))).thenReturn(Optional.of(board));
+        when(boardDao.findWithTaskListsById(any(Long.class))).thenReturn(Optional.of(board));
         Board result = boardService.getBoardById(1);
         assertThat(result).isEqualTo(board);
     }
 
     @Test
     void getBoardByIdNULL() {
-        when(boardDao.existsById(any(long.class))).thenReturn(false);
+        when(boardDao.findWithTaskListsById(any(Long.class))).thenReturn(Optional.empty());
         Board result = boardService.getBoardById(1);
         assertThat(result).isEqualTo(null);
     }
@@ -52,33 +90,112 @@ class BoardServiceTest {
     @Test
     void getBoardByUserId() {
         Board board = new Board();
-        when(boardDao.existsById(any(Long.class))).thenReturn(true);
-        when(boardDao.findById(any(Long.class))).thenReturn(Optional.of(board));
-        Board result = boardService.getBoardById(1);
+        when(boardDao.findWithTaskListsByUserId(any(String.class)))
+            .thenReturn(Optional.of(board));
+        Board result = boardService.getBoardByUserId("A1B2C3");
         assertThat(result).isEqualTo(board);
     }
 
     @Test
     void getBoardByUserIdNULL() {
-        when(boardDao.existsById(any(long.class))).thenReturn(false);
-        Board result = boardService.getBoardById(1);
+        when(boardDao.findWithTaskListsByUserId(any(String.class)))
+            .thenReturn(Optional.empty());
+        Board result = boardService.getBoardByUserId("A1B2C3");
         assertThat(result).isEqualTo(null);
     }
 
+    @Test
+    void getBoardByIdFromCache() {
+        Board board = new Board();
+        when(boardCache.get(1)).thenReturn(new CachedBoard(board, null));
+        Board result = boardService.getBoardById(1);
+        assertThat(result).isEqualTo(board);
+        verify(boardDao, never()).findWithTaskListsById(anyLong());
+    }
+
+    @Test
+    void getBoardByIdFillsCache() {
+        Board board = new Board();
+        when(boardCache.version()).thenReturn(7L);
+        when(boardDao.findWithTaskListsById(1)).thenReturn(Optional.of(board));
+        CachedBoard result = boardService.getCachedBoardById(1);
+        assertThat(result.getBoard()).isEqualTo(board);
+        verify(boardCache).put(result, 7L);
+    }
+
+    @Test
+    void getBoardByIdWaitsForConcurrentLoad() {
+        CachedBoard cached = new CachedBoard(new Board(), null);
+        when(boardCache.peek(1)).thenReturn(cached);
+        assertThat(boardService.getCachedBoardById(1)).isEqualTo(cached);
+        verify(boardDao, never()).findWithTaskListsById(anyLong());
+    }
+
+    @Test
+    void getBoardByUserIdFromCache() {
+        Board board = new Board();
+        when(boardCache.getByUserId("A1B2C3")).thenReturn(new CachedBoard(board, null));
+        Board result = boardService.getBoardByUserId("A1B2C3");
+        assertThat(result).isEqualTo(board);
+        verify(boardDao, never()).findWithTaskListsByUserId(any());
+    }
+
+    @Test
+    void getBoardByIdFetchesTree() {
+        Board board = new Board();
+        TaskList taskList = new TaskList();
+        taskList.setTasks(new ArrayList<>(List.of(new Task())));
+        board.setTaskLists(new ArrayList<>(List.of(taskList)));
+        when(boardDao.findWithTaskListsById(any(Long.class))).thenReturn(Optional.of(board));
+        Board result = boardService.getBoardById(1);
+        assertThat(result).isEqualTo(board);
+        verify(boardDao).fetchTaskColorPresets(board);
+        verify(taskListDao).fetchTasks(board.getTaskLists());
+        verify(taskListDao).fetchTasksLists(board.getTaskLists());
+        verify(taskDao).fetchSubTasks(taskList.getTasks());
+        verify(taskDao).fetchTags(taskList.getTasks());
+    }
+
+    @Test
+    void getBoardByIdSkipsEmptyLevels() {
+        Board board = new Board();
+        board.setTaskLists(new ArrayList<>());
+        when(boardDao.findWithTaskListsById(any(Long.class))).thenReturn(Optional.of(board));
+        boardService.getBoardById(1);
+        verify(taskListDao, never()).fetchTasks(anyCollection());
+        verify(taskDao, never()).fetchSubTasks(anyCollection());
+    }
 
     @Test
-    void getAllBoards() {
-        List<Board> boards = new ArrayList<>();
-        boards.add(new Board());
-        when(boardDao.findAll()).thenReturn(boards);
-        var result = boardService.getAllBoards();
-        assertThat(result).isEqualTo(boards);
+    void getBoardSummary() {
+        BoardSummary board = new BoardSummary(1L, "Board", "A1B2C3",
+            null, null, null, null);
+        TaskListSummary taskList = new TaskListSummary(2L, "List");
+        TaskSummary task = new TaskSummary(3L, 2L, "Task", null, null, true);
+        when(boardDao.findSummaryById(1)).thenReturn(Optional.of(board));
+        when(boardDao.findTaskListSummaries(1)).thenReturn(List.of(taskList));
+        when(boardDao.findTaskSummaries(1)).thenReturn(List.of(task));
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[]{3L, 1L, 2L});
+        when(boardDao.countSubTasks(1)).thenReturn(counts);
+        List<Object[]> tags = new ArrayList<>();
+        tags.add(new Object[]{3L, 4L});
+        tags.add(new Object[]{3L, 5L});
+        when(boardDao.findTagIds(1)).thenReturn(tags);
+
+        BoardSummary result = boardService.getBoardSummary(1);
+        assertThat(result).isEqualTo(board);
+        assertThat(result.getTaskLists().get(0)).isEqualTo(taskList);
+        TaskSummary card = result.getTaskLists().get(0).getTasks().get(0);
+        assertThat(card.getCheckedSubTasks()).isEqualTo(1L);
+        assertThat(card.getTotalSubTasks()).isEqualTo(2L);
+        assertThat(card.getTagIds()).isEqualTo(List.of(4L, 5L));
     }
 
     @Test
-    void getAllBoardsNULL() {
-        when(boardDao.findAll()).thenReturn(null);
-        var result = boardService.getAllBoards();
+    void getBoardSummaryNULL() {
+        when(boardDao.findSummaryById(1)).thenReturn(Optional.empty());
+        BoardSummary result = boardService.getBoardSummary(1);
         assertThat(result).isEqualTo(null);
     }
 
@@ -86,8 +203,54 @@ class BoardServiceTest {
     void addBoard() {
         Board board = new Board();
         when(boardDao.save(any(Board.class))).thenReturn(board);
+        when(userIdAllocator.allocate()).thenReturn("A1B2C3");
         Board added = boardService.addBoard(board);
         assertThat(added).isEqualTo(board);
+        assertThat(added.getUserId()).isEqualTo("A1B2C3");
+        verify(boardDao, never()).existsBoardByUserId(any());
+    }
+
+    @Test
+    void addBoardKeepsItsUserId() {
+        Board board = new Board();
+        board.setUserId("Z9Z9Z9");
+        when(boardDao.save(any(Board.class))).thenReturn(board);
+        boardService.addBoard(board);
+        verify(userIdAllocator).markUsed("Z9Z9Z9");
+        verify(userIdAllocator, never()).allocate();
+    }
+
+    @Test
+    void allocatedUserIdIsFreedOnRollback() {
+        when(boardDao.save(any(Board.class))).thenReturn(new Board());
+        when(userIdAllocator.allocate()).thenReturn("A1B2C3");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            boardService.addBoard(new Board());
+            verify(userIdAllocator, never()).release(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(userIdAllocator).release("A1B2C3");
+    }
+
+    @Test
+    void userIdOfAnotherBoardIsKeptOnRollback() {
+        Board board = new Board();
+        board.setUserId("Z9Z9Z9");
+        when(boardDao.save(any(Board.class))).thenReturn(board);
+        when(userIdAllocator.markUsed("Z9Z9Z9")).thenReturn(false);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            boardService.addBoard(board);
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(userIdAllocator, never()).release(any());
     }
 
     @Test
@@ -98,17 +261,83 @@ class BoardServiceTest {
 
     @Test
     void removeBoard() {
-        Board board = new Board();
-        when(boardDao.existsById(any(Long.class))).thenReturn(true);
-        when(boardDao.findById(any(Long.class))).thenReturn(Optional.of(board));
-        Board result = boardService.getBoardById(1);
-        Board removed = boardService.removeBoard(1L);
-        assertThat(removed).isEqualTo(result);
+        when(boardDao.findUserIdById(1L)).thenReturn(Optional.of("A1B2C3"));
+        Long removed = boardService.removeBoard(1L);
+        assertThat(removed).isEqualTo(1L);
+        verify(cascadeDeleter).deleteBoard(1L);
+        verify(userIdAllocator).release("A1B2C3");
+        verify(boardDao, never()).findById(any(Long.class));
     }
 
     @Test
     void removeBoardNULL() {
-        Board removed = boardService.removeBoard(null);
+        Long removed = boardService.removeBoard(null);
         assertThat(removed).isEqualTo(null);
+        when(boardDao.findUserIdById(2L)).thenReturn(Optional.empty());
+        assertThat(boardService.removeBoard(2L)).isEqualTo(null);
+        verify(cascadeDeleter, never()).deleteBoard(anyLong());
+    }
+
+    @Test
+    void getBoardListings() {
+        List<BoardListing> listings = List.of(new BoardListing());
+        when(boardDao.findListingsAfter(5, PageRequest.of(0, 20))).thenReturn(listings);
+        assertThat(boardService.getBoardListings(5, 20)).isEqualTo(listings);
+    }
+
+    @Test
+    void getBoardListingsBadLimit() {
+        assertThat(boardService.getBoardListings(0, 0)).isNull();
+        assertThat(boardService.getBoardListings(0, BoardService.MAX_LISTING_PAGE + 1)).isNull();
+        verify(boardDao, never()).findListingsAfter(anyLong(), any());
+    }
+
+    @Test
+    void patchBoard() {
+        when(boardDao.patch(eq(1L), eq("New title"), isNull(), isNull(), isNull(), isNull(),
+            isNull(), anyLong())).thenReturn(1);
+        when(boardDao.findVersionById(1L)).thenReturn(Optional.of(4L));
+        Integer result = boardService.patchBoard(1, Map.of("title", "New title"));
+        assertThat(result).isEqualTo(1);
+        verify(boardDao, never()).patchDefaultColor(anyLong(), any(), any());
+        ArgumentCaptor<BoardChangedEvent> event = ArgumentCaptor.forClass(BoardChangedEvent.class);
+        verify(events).publishEvent(event.capture());
+        assertThat(event.getValue().getVersion()).isEqualTo(4L);
+        assertThat(event.getValue().getDelta().getFields()).isEqualTo(Map.of("title", "New title"));
+    }
+
+    @Test
+    void patchMissingBoard() {
+        when(boardDao.patch(eq(1L), eq("New title"), isNull(), isNull(), isNull(), isNull(),
+            isNull(), anyLong())).thenReturn(0);
+        Integer result = boardService.patchBoard(1, Map.of("title", "New title"));
+        assertThat(result).isEqualTo(0);
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void patchBoardDefaultColor() {
+        when(boardDao.patch(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(),
+            isNull(), anyLong())).thenReturn(1);
+        Integer result = boardService.patchBoard(1, Map.of("taskDefaultBgColor", "#ffffff"));
+        assertThat(result).isEqualTo(1);
+        verify(boardDao).patchDefaultColor(1, "#ffffff", null);
+    }
+
+    @Test
+    void patchBoardUnknownField() {
+        Integer result = boardService.patchBoard(1, Map.of("userId", "A1B2C3"));
+        assertThat(result).isEqualTo(null);
+    }
+
+    @Test
+    void patchBoardWithoutValues() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("title", null);
+        assertThat(boardService.patchBoard(1, Map.of())).isEqualTo(null);
+        assertThat(boardService.patchBoard(1, fields)).isEqualTo(null);
+        verify(boardDao, never()).patch(anyLong(), any(), any(), any(), any(), any(), any(),
+            anyLong());
+        verify(events, never()).publishEvent(any(Object.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package server.service;
+
+import commons.BoardChange;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import server.database.BoardDao;
+import server.database.TaskDao;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BoardVersionsTest {
+
+    private final BoardDao boardDao = Mockito.mock(BoardDao.class);
+    private final TaskDao taskDao = Mockito.mock(TaskDao.class);
+    private final BoardVersions boardVersions = new BoardVersions(boardDao, taskDao);
+
+    @Test
+    void boardChangeRaisesOnlyTheBoard() {
+        boardVersions.onBoardChanged(new BoardChangedEvent(1L));
+        verify(boardDao).bumpVersion(eq(1L), anyLong());
+        verify(taskDao, never()).bumpVersion(anyLong());
+        verify(taskDao, never()).bumpVersionsOnBoard(anyLong());
+    }
+
+    @Test
+    void taskChangeRaisesTheTask() {
+        boardVersions.onBoardChanged(new BoardChangedEvent(1L, 7L));
+        verify(boardDao).bumpVersion(eq(1L), anyLong());
+        verify(taskDao).bumpVersion(7L);
+    }
+
+    @Test
+    void wideChangeRaisesEveryTask() {
+        boardVersions.onBoardChanged(new BoardChangedEvent(1L, BoardChange.ALL_TASKS));
+        verify(taskDao).bumpVersionsOnBoard(1L);
+        verify(taskDao, never()).bumpVersion(anyLong());
+    }
+
+    @Test
+    void raisedVersionIsNotRaisedAgain() {
+        boardVersions.onBoardChanged(new BoardChangedEvent(1L, null, null, 5L));
+        verify(boardDao, never()).bumpVersion(anyLong(), anyLong());
+    }
+}
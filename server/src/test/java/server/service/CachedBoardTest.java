@@ -0,0 +1,46 @@
+package server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Board;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachedBoardTest {
+
+    @Test
+    void boardIsEncodedOnce() throws Exception {
+        ObjectMapper objectMapper = Mockito.spy(new ObjectMapper());
+        Board board = new Board();
+        board.setTitle("Stand-up");
+        CachedBoard cached = new CachedBoard(board, objectMapper);
+
+        byte[] first = cached.getJson();
+        byte[] second = cached.getJson();
+        cached.getGzip();
+
+        assertThat(second).isSameAs(first);
+        assertThat(objectMapper.readValue(first, Board.class).getTitle()).isEqualTo("Stand-up");
+        verify(objectMapper, times(1)).writeValueAsBytes(any());
+    }
+
+    @Test
+    void gzipHoldsTheSameJson() throws IOException {
+        Board board = new Board();
+        board.setTitle("Stand-up");
+        CachedBoard cached = new CachedBoard(board, new ObjectMapper());
+
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(cached.getGzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(cached.getJson());
+        }
+        assertThat(cached.getGzip()).isSameAs(cached.getGzip());
+    }
+}
@@ -0,0 +1,144 @@
+package server.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import server.database.BoardDao;
+import server.database.TagDao;
+import server.database.TaskDao;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:indexes;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "server.service.IndexCheckTest$Statements"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexCheckTest {
+
+    private static final int TASKS = 100_000;
+    private static final int LISTS = 1_000;
+    private static final int BOARDS = 100;
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private IndexCheck indexCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BoardDao boardDao;
+
+    @Autowired
+    private TagDao tagDao;
+
+    @Autowired
+    private TaskDao taskDao;
+
+    /**
+     * Fills the database with 100k tasks spread over boards and lists,
+     * each with a subtask and a tag, so that a table scan is never the cheapest plan
+     */
+    @BeforeAll
+    void fill() {
+        jdbcTemplate.update("INSERT INTO BOARD (ID, TITLE, USER_ID, VERSION) "
+            + "SELECT ? + X, 'Board', 'B' || X, 0 FROM SYSTEM_RANGE(1, ?)", FIRST_ID, BOARDS);
+        jdbcTemplate.update("INSERT INTO TASK_LIST (ID, TITLE, BOARD_ID) "
+                + "SELECT ? + X, 'List', ? + MOD(X, ?) + 1 FROM SYSTEM_RANGE(1, ?)",
+            FIRST_ID, FIRST_ID, BOARDS, LISTS);
+        jdbcTemplate.update("INSERT INTO TASK (ID, TITLE, TASK_LISTID, SORT_RANK, VERSION) "
+                + "SELECT ? + X, 'Task', ? + MOD(X, ?) + 1, X, 0 FROM SYSTEM_RANGE(1, ?)",
+            FIRST_ID, FIRST_ID, LISTS, TASKS);
+        jdbcTemplate.update("INSERT INTO TASK_LIST_TASKS (TASK_LIST_ID, TASKS_ID) "
+            + "SELECT TASK_LISTID, ID FROM TASK WHERE ID > ?", FIRST_ID);
+        jdbcTemplate.update("INSERT INTO SUB_TASK (ID, DESCRIPTION, CHECKED, TASK_ID) "
+            + "SELECT ID, 'Subtask', FALSE, ID FROM TASK WHERE ID > ?", FIRST_ID);
+        jdbcTemplate.update("INSERT INTO TAG (ID, DESCRIPTION, BOARD_ID) "
+            + "SELECT ? + X, 'Tag', ? + MOD(X, ?) + 1 FROM SYSTEM_RANGE(1, ?)",
+            FIRST_ID, FIRST_ID, BOARDS, BOARDS * 10);
+        jdbcTemplate.update("INSERT INTO TASK_SUB_TASKS (TASK_ID, SUB_TASKS_ID) "
+            + "SELECT ID, ID FROM SUB_TASK WHERE ID > ?", FIRST_ID);
+        jdbcTemplate.update("INSERT INTO TASK_TAGS (TASK_ID, TAGS_ID) "
+            + "SELECT ID, ? + MOD(ID, ?) + 1 FROM TASK WHERE ID > ?",
+            FIRST_ID, BOARDS * 10, FIRST_ID);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void everyExpectedIndexExists() {
+        assertThat(indexCheck.findMissingIndexes()).isEmpty();
+    }
+
+    @Test
+    void queriesAreReadFromTheRepositories() {
+        assertThat(IndexCheck.QUERIES).containsKeys("TaskDao.findIdsInListOrder",
+            "TaskListDao.findNestedIds");
+    }
+
+    @Test
+    void queriesUseIndexes() {
+        indexCheck.explainQueries().forEach((query, plan) ->
+            assertThat(plan).as(query).doesNotContainIgnoringCase("tableScan"));
+    }
+
+    @Test
+    void derivedLookupsUseIndexes() {
+        assertThat(planOf(() -> boardDao.findBoardByUserId("B1"), "B1"))
+            .doesNotContainIgnoringCase("tableScan");
+        assertThat(planOf(() -> tagDao.findByBoardIdOrderById(FIRST_ID + 1), FIRST_ID + 1))
+            .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void rankQueriesUseIndexes() {
+        long list = FIRST_ID + 1;
+        long task = FIRST_ID + LISTS;
+        assertThat(planOf(() -> taskDao.findLastRank(list, task), list, task))
+            .doesNotContainIgnoringCase("tableScan");
+        assertThat(planOf(() -> taskDao.findNextRank(list, 1, task), list, 1, task))
+            .doesNotContainIgnoringCase("tableScan");
+        assertThat(planOf(() -> taskDao.findRankInList(list, task), list, task))
+            .doesNotContainIgnoringCase("tableScan");
+        assertThat(planOf(() -> taskDao.countUnranked(list), list))
+            .doesNotContainIgnoringCase("tableScan");
+        assertThat(planOf(() -> boardDao.findTaskSummaries(FIRST_ID + 1), FIRST_ID + 1))
+            .doesNotContainIgnoringCase("tableScan");
+    }
+
+    /**
+     * Runs a repository lookup and asks the database how it planned
+     * the statement Hibernate sent for it
+     * @param lookup the lookup
+     * @param parameters the parameters of the statement
+     * @return the plan
+     */
+    private String planOf(Runnable lookup, Object... parameters) {
+        Statements.SQL.clear();
+        lookup.run();
+        assertThat(Statements.SQL).hasSize(1);
+        return jdbcTemplate.queryForObject("EXPLAIN " + Statements.SQL.get(0), String.class,
+            parameters);
+    }
+
+    /**
+     * Keeps the statements Hibernate prepares
+     */
+    public static class Statements implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package server.service;
 
 import commons.SubTask;
-import commons.Task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,14 +9,16 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import server.database.SubTaskDao;
 import server.database.TaskDao;
 
-import java.util.ArrayList;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +33,9 @@ class SubtaskServiceTest {
     @MockBean
     private final TaskDao taskDao = Mockito.mock(TaskDao.class);
 
+    @MockBean
+    private final ApplicationEventPublisher events = Mockito.mock(ApplicationEventPublisher.class);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -40,25 +44,45 @@ class SubtaskServiceTest {
     @Test
     void addSubTask() {
         SubTask subTask = new SubTask();
-        Task task = new Task();
-        task.setSubTasks(new ArrayList<>());
-        task.setTags(new ArrayList<>());
+        subTask.setId(2);
+        subTask.setTaskId(1L);
+        when(taskDao.existsById(1L)).thenReturn(true);
         when(subTaskDao.save(any(SubTask.class))).thenReturn(subTask);
-        when(taskDao.findById(any())).thenReturn(Optional.of(task));
-        when(taskDao.save(any(Task.class))).thenReturn(task);
         SubTask added = subtaskService.addNewSubTask(subTask);
         assertThat(added).isEqualTo(subTask);
+        verify(subTaskDao).linkToTask(1, 2);
+        verify(taskDao, never()).findById(any());
+        verify(taskDao, never()).save(any());
     }
 
     @Test
     void addSubTaskNULL() {
         SubTask subTask = new SubTask();
-        Task task = new Task();
-        task.setSubTasks(new ArrayList<>());
-        task.setTags(new ArrayList<>());
-        when(subTaskDao.save(any(SubTask.class))).thenReturn(subTask);
-        when(taskDao.findById(any())).thenReturn(Optional.empty());
+        subTask.setTaskId(1L);
+        when(taskDao.existsById(1L)).thenReturn(false);
         SubTask ret = subtaskService.addNewSubTask(subTask);
         assertThat(ret).isEqualTo(null);
+        verify(subTaskDao, never()).save(any());
+    }
+
+    @Test
+    void removeSubTask() {
+        SubTask subTask = new SubTask();
+        subTask.setId(2);
+        subTask.setTaskId(1L);
+        when(subTaskDao.findById(2L)).thenReturn(Optional.of(subTask));
+        when(subTaskDao.findTaskId(2L)).thenReturn(Optional.of(1L));
+        SubTask removed = subtaskService.removeSubTask(2L);
+        assertThat(removed).isEqualTo(subTask);
+        verify(subTaskDao).unlinkFromTask(2L);
+        verify(subTaskDao).delete(subTask);
+        verify(taskDao, never()).findById(any());
+    }
+
+    @Test
+    void removeSubTaskNULL() {
+        when(subTaskDao.findById(2L)).thenReturn(Optional.empty());
+        SubTask removed = subtaskService.removeSubTask(2L);
+        assertThat(removed).isEqualTo(null);
     }
-}
\ No newline at end of file
+}
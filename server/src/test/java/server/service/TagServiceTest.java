@@ -10,12 +10,16 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import server.database.TagDao;
 import server.database.TaskDao;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +33,9 @@ class TagServiceTest {
     @MockBean
     private final TaskDao taskDao = Mockito.mock(TaskDao.class);
 
+    @MockBean
+    private final ApplicationEventPublisher events = Mockito.mock(ApplicationEventPublisher.class);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -50,23 +57,15 @@ class TagServiceTest {
 
     @Test
     void removeTag () {
-        Task task = new Task();
         Tag tag = new Tag();
-        ArrayList<Tag> lst = new ArrayList<>();
-        lst.add(tag);
-        task.setTags(lst);
-
-        Mockito.doReturn(true).when(tagDao).existsById(any());
-        Mockito.doReturn(true).when(taskDao).existsById(any());
-
-        Mockito.doReturn(Optional.of(task)).when(taskDao).findById(any());
-        Mockito.doReturn(Optional.of(tag)).when(tagDao).findById(any());
+        Mockito.doReturn(Optional.of(tag)).when(tagDao).findById(1L);
+        Mockito.doReturn(Optional.of(3L)).when(taskDao).findBoardId(2L);
 
-        Mockito.doReturn(Optional.of(tag)).when(tagDao).findById(1l);
-        Mockito.doReturn(Optional.of(task)).when(taskDao).findById(1l);
-
-        var ret = tagService.removeTag(1L, 1L);
+        var ret = tagService.removeTag(1L, 2L);
         assertThat(ret).isEqualTo(tag);
+        verify(tagDao).deleteLink(2L, 1L);
+        verify(taskDao).deleteUnusedTags(List.of(1L));
+        verify(events).publishEvent(any(BoardChangedEvent.class));
     }
     @Test
     void removeTagNonExistentNULL() {
@@ -78,4 +77,50 @@ class TagServiceTest {
         var added = tagService.removeTag(new Tag().getId(), new Task().getId());
         assertThat(added).isEqualTo(null);
     }
-}
\ No newline at end of file
+    @Test
+    void deleteTagFromBoard() {
+        Tag tag = new Tag();
+        tag.setId(1L);
+        tag.setBoardId(2L);
+        when(tagDao.deleteTagById(1L)).thenReturn(1);
+        var deleted = tagService.deleteTagFromBoard(tag);
+        assertThat(deleted).isEqualTo(1);
+        verify(tagDao).deleteLinks(1L);
+        verify(events).publishEvent(any(BoardChangedEvent.class));
+    }
+    @Test
+    void updateTagsIsOneUpdate() {
+        Tag oldTag = new Tag();
+        oldTag.setId(1L);
+        Tag newTag = new Tag(oldTag);
+        newTag.setDescription("Renamed");
+        newTag.setTagColor("#ffffff");
+        newTag.setTagFontColor("#000000");
+        when(tagDao.patch(1L, "Renamed", "#ffffff", "#000000")).thenReturn(1);
+        var updated = tagService.updateTags(oldTag, newTag);
+        assertThat(updated).isEqualTo(1);
+    }
+    @Test
+    void updateMissingTagPublishesNothing() {
+        Tag oldTag = new Tag();
+        oldTag.setId(1L);
+        oldTag.setBoardId(2L);
+        Tag newTag = new Tag(oldTag);
+        newTag.setDescription("Renamed");
+        when(tagDao.patch(1L, "Renamed", null, null)).thenReturn(0);
+        var updated = tagService.updateTags(oldTag, newTag);
+        assertThat(updated).isEqualTo(0);
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+    @Test
+    void patchTag() {
+        when(tagDao.patch(1L, "New", null, null)).thenReturn(1);
+        var updated = tagService.patchTag(1L, Map.of("description", "New"));
+        assertThat(updated).isEqualTo(1);
+    }
+    @Test
+    void patchTagUnknownField() {
+        var updated = tagService.patchTag(1L, Map.of("boardId", "2"));
+        assertThat(updated).isEqualTo(null);
+    }
+}
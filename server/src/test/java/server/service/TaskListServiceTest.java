@@ -1,6 +1,5 @@
 package server.service;
 
-import commons.Board;
 import commons.TaskList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +9,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import server.database.BoardDao;
 import server.database.TaskListDao;
 
@@ -19,6 +19,8 @@ import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +32,8 @@ class TaskListServiceTest {
     @MockBean
     private final TaskListDao taskListDao = Mockito.mock(TaskListDao.class);
     private final BoardDao boardDao = Mockito.mock(BoardDao.class);
+    private final CascadeDeleter cascadeDeleter = Mockito.mock(CascadeDeleter.class);
+    private final ApplicationEventPublisher events = Mockito.mock(ApplicationEventPublisher.class);
 
     @BeforeEach
     void setUp() {
@@ -39,15 +43,15 @@ class TaskListServiceTest {
     @Test
     void getTaskListById() {
         TaskList taskList = new TaskList();
-        when(taskListDao.existsById(any(Long.class))).thenReturn(true);
         when(taskListDao.findById(any(Long.class))).thenReturn(Optional.of(taskList));
         TaskList result = taskListService.getTaskListById(1);
         assertThat(result).isEqualTo(taskList);
+        verify(taskListDao, never()).existsById(any(Long.class));
     }
 
     @Test
     void getTaskListByIdNULL() {
-        when(taskListDao.existsById(any(long.class))).thenReturn(false);
+        when(taskListDao.findById(any(Long.class))).thenReturn(Optional.empty());
         TaskList result = taskListService.getTaskListById(1);
         assertThat(result).isEqualTo(null);
     }
@@ -71,27 +75,26 @@ class TaskListServiceTest {
     @Test
     void addTaskList() {
         TaskList taskList = new TaskList();
+        taskList.setId(4L);
         taskList.setBoardId(33L);
         taskList.setTasks(new ArrayList<>());
-        Board board = new Board();
-        board.setTaskLists(new ArrayList<>());
-        when(taskListDao.existsById(any(Long.class))).thenReturn(true);
-        when(boardDao.findById(any(Long.class))).thenReturn(Optional.of(board));
+        when(boardDao.existsById(33L)).thenReturn(true);
         when(taskListDao.save(any(TaskList.class))).thenReturn(taskList);
         var added = taskListService.addTaskList(taskList);
         assertThat(added).isEqualTo(taskList);
+        verify(boardDao).linkTaskList(33, 4);
+        verify(boardDao, never()).findById(any(Long.class));
+        verify(boardDao, never()).save(any());
     }
 
     @Test
     void addTaskListNonExistentNULL() {
         TaskList taskList = new TaskList();
-        Board board = new Board();
-        board.setTaskLists(new ArrayList<>());
-        when(taskListDao.existsById(any(Long.class))).thenReturn(true);
-        when(boardDao.findById(any(Long.class))).thenReturn(Optional.of(board));
-        when(taskListDao.save(any(TaskList.class))).thenReturn(taskList);
+        taskList.setBoardId(33L);
+        when(boardDao.existsById(33L)).thenReturn(false);
         var added = taskListService.addTaskList(taskList);
         assertThat(added).isEqualTo(null);
+        verify(taskListDao, never()).save(any());
     }
 
     @Test
@@ -102,35 +105,18 @@ class TaskListServiceTest {
 
     @Test
     void removeTaskList() {
-        TaskList taskList = new TaskList();
-        taskList.setBoardId(33L);
-        Board board = new Board();
-        var list = new ArrayList<TaskList>();
-        list.add(taskList);
-        board.setTaskLists(list);
-        when(taskListDao.existsById(any(Long.class))).thenReturn(true);
-        when(boardDao.findById(any(Long.class))).thenReturn(Optional.of(board));
-        when(taskListDao.save(any(TaskList.class))).thenReturn(taskList);
-        var added = taskListService.removeTaskList(taskList);
-        assertThat(added).isEqualTo(taskList);
-    }
-
-    @Test
-    void removeTaskListNonExistentNULL() {
-        TaskList taskList = new TaskList();
-        Board board = new Board();
-        board.setTaskLists(new ArrayList<>());
-        when(taskListDao.existsById(any(Long.class))).thenReturn(true);
-        when(boardDao.findById(any(Long.class))).thenReturn(Optional.of(board));
-        when(taskListDao.save(any(TaskList.class))).thenReturn(taskList);
-        var added = taskListService.removeTaskList(taskList);
-        assertThat(added).isEqualTo(null);
+        when(taskListDao.existsById(3L)).thenReturn(true);
+        var removed = taskListService.removeTaskList(3L);
+        assertThat(removed).isEqualTo(3L);
+        verify(cascadeDeleter).deleteTaskLists(List.of(3L));
+        verify(taskListDao, never()).findById(any(Long.class));
     }
 
     @Test
     void removeTaskListNULL() {
         when(taskListDao.existsById(any(Long.class))).thenReturn(false);
-        var added = taskListService.removeTaskList(new TaskList());
-        assertThat(added).isEqualTo(null);
+        var removed = taskListService.removeTaskList(3L);
+        assertThat(removed).isEqualTo(null);
+        verify(cascadeDeleter, never()).deleteTaskLists(any());
     }
-}
\ No newline at end of file
+}
@@ -1,23 +1,35 @@
 package server.service;
 
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import commons.Tag;
 import commons.Task;
 import commons.TaskList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import server.database.TaskDao;
 import server.database.TaskListDao;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +41,8 @@ class TaskServiceTest {
     @MockBean
     private final TaskDao taskDao = Mockito.mock(TaskDao.class);
     private final TaskListDao taskListDao = Mockito.mock(TaskListDao.class);
+    private final RankRebalancer rankRebalancer = Mockito.mock(RankRebalancer.class);
+    private final ApplicationEventPublisher events = Mockito.mock(ApplicationEventPublisher.class);
 
     @BeforeEach
     void setUp() {
@@ -38,15 +52,15 @@ class TaskServiceTest {
     @Test
     void getTaskById() {
         Task task = new Task();
-        when(taskDao.existsById(any(Long.class))).thenReturn(true);
         when(taskDao.findById(any(Long.class))).thenReturn(Optional.of(task));
         Task result = taskService.getTaskById(1);
         assertThat(result).isEqualTo(task);
+        verify(taskDao, never()).existsById(anyLong());
     }
 
     @Test
     void getTaskByIdNULL() {
-        when(taskDao.existsById(any(long.class))).thenReturn(false);
+        when(taskDao.findById(any(Long.class))).thenReturn(Optional.empty());
         Task result = taskService.getTaskById(1);
         assertThat(result).isEqualTo(null);
     }
@@ -55,26 +69,27 @@ class TaskServiceTest {
     @Test
     void addTask() {
         Task task = new Task();
+        task.setId(1L);
         task.setTaskListID(3L);
-        TaskList taskList = new TaskList();
-        taskList.setTasks(new ArrayList<>());
-        taskList.addTask(task);
-        when(taskListDao.findById(any(Long.class))).thenReturn(Optional.of(taskList));
+        when(taskListDao.existsById(3L)).thenReturn(true);
         when(taskDao.save(any(Task.class))).thenReturn(task);
         var added = taskService.addTask(task);
         assertThat(added).isEqualTo(task);
+        InOrder links = Mockito.inOrder(taskListDao);
+        links.verify(taskListDao).unlinkTask(1L);
+        links.verify(taskListDao).linkTask(3, 1);
+        verify(taskListDao, never()).findById(any(Long.class));
+        verify(taskListDao, never()).save(any());
     }
 
     @Test
     void addTaskNonExistentNULL() {
         Task task = new Task();
-        TaskList taskList = new TaskList();
-        taskList.setTasks(new ArrayList<>());
-        taskList.addTask(task);
-        when(taskListDao.findById(any(Long.class))).thenReturn(Optional.of(taskList));
-        when(taskDao.save(any(Task.class))).thenReturn(task);
+        task.setTaskListID(3L);
+        when(taskListDao.existsById(3L)).thenReturn(false);
         var added = taskService.addTask(task);
         assertThat(added).isEqualTo(null);
+        verify(taskDao, never()).save(any());
     }
 
     @Test
@@ -88,20 +103,29 @@ class TaskServiceTest {
         Task task = new Task();
         task.setId(1L);
         task.setTaskListID(2L);
-        TaskList taskList = new TaskList();
-        ArrayList<Task> tasks = new ArrayList<>();
-        tasks.add(task);
-        taskList.setTasks(tasks);
+        Tag tag = new Tag();
+        tag.setId(3L);
+        task.setTags(new ArrayList<>(List.of(tag)));
 
-        task.setTaskListID(2L);
         Mockito.doReturn(Optional.of(task)).when(taskDao).findById(1L);
-        Mockito.doReturn(true).when(taskListDao).existsById(any());
-        Mockito.doReturn(Optional.of(taskList)).when(taskListDao).findById(2L);
+        Mockito.doReturn(1).when(taskListDao).unlinkTask(1L);
         var ret = taskService.removeTaskById(1L);
-        Mockito.verify(taskListDao).save(any());
+        Mockito.verify(taskListDao, never()).save(any());
         Mockito.verify(taskDao).delete(any());
+        Mockito.verify(taskDao).deleteUnusedTags(List.of(3L));
         assertThat(task).isEqualTo(ret);
     }
+
+    @Test
+    void removeTaskByIdNotInList() {
+        Task task = new Task();
+        task.setId(1L);
+        Mockito.doReturn(Optional.of(task)).when(taskDao).findById(1L);
+        var ret = taskService.removeTaskById(1L);
+        Mockito.verify(taskDao, never()).delete(any());
+        assertThat(ret).isEqualTo(null);
+    }
+
     @Test
     void removeTaskByIdNull() {
         Task task = new Task();
@@ -109,4 +133,97 @@ class TaskServiceTest {
         var ret = taskService.removeTaskById(1L);
         assertThat(ret).isEqualTo(null);
     }
-}
\ No newline at end of file
+
+    @Test
+    void patchTask() {
+        when(taskDao.patch(1, "New title", null, null, null)).thenReturn(1);
+        Integer result = taskService.patchTask(1, Map.of("title", "New title"));
+        assertThat(result).isEqualTo(1);
+    }
+
+    @Test
+    void patchTaskPublishesChange() {
+        when(taskDao.patch(1, "New title", null, null, null)).thenReturn(1);
+        when(taskDao.findBoardId(1)).thenReturn(Optional.of(5L));
+        taskService.patchTask(1, Map.of("title", "New title"));
+        ArgumentCaptor<BoardChangedEvent> event = ArgumentCaptor.forClass(BoardChangedEvent.class);
+        verify(events).publishEvent(event.capture());
+        assertThat(event.getValue().getBoardId()).isEqualTo(5L);
+        assertThat(event.getValue().getDelta()).isEqualTo(new BoardChange(Entity.TASK,
+            Operation.UPDATE, 1L, null, Map.of("title", "New title")));
+    }
+
+    @Test
+    void patchTaskUnknownField() {
+        Integer result = taskService.patchTask(1, Map.of("taskListID", "2"));
+        assertThat(result).isEqualTo(null);
+        verify(taskDao, never()).patch(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void moveTaskAfter() {
+        when(taskDao.findById(1L)).thenReturn(Optional.of(new Task()));
+        when(taskListDao.findLockedById(2L)).thenReturn(Optional.of(new TaskList()));
+        when(taskDao.findRankInList(2, 3)).thenReturn(Optional.of(1000L));
+        when(taskDao.findNextRank(2, 1000, 1)).thenReturn(2000L);
+        Long result = taskService.moveTask(1, 2, 3L, null);
+        assertThat(result).isEqualTo(1500L);
+        verify(taskListDao).moveTask(1, 2);
+        verify(taskDao).move(1, 1500, 2);
+        verify(rankRebalancer, never()).rebalance(anyLong());
+    }
+
+    @Test
+    void moveTaskBeforeFirst() {
+        Task task = new Task();
+        task.setTaskListID(2L);
+        when(taskDao.findById(1L)).thenReturn(Optional.of(task));
+        when(taskListDao.findLockedById(2L)).thenReturn(Optional.of(new TaskList()));
+        when(taskDao.findRankInList(2, 3)).thenReturn(Optional.of(1000L));
+        when(taskDao.findPreviousRank(2, 1000, 1)).thenReturn(null);
+        Long result = taskService.moveTask(1, 2, null, 3L);
+        assertThat(result).isEqualTo(1000L - RankRebalancer.GAP);
+        verify(taskListDao, never()).moveTask(anyLong(), anyLong());
+        verify(taskDao).move(1, 1000L - RankRebalancer.GAP, 2);
+    }
+
+    @Test
+    void moveTaskRebalancesWhenDense() {
+        when(taskDao.findById(1L)).thenReturn(Optional.of(new Task()));
+        when(taskListDao.findLockedById(2L)).thenReturn(Optional.of(new TaskList()));
+        when(taskDao.findRankInList(2, 3)).thenReturn(Optional.of(1000L));
+        when(taskDao.findNextRank(2, 1000, 1)).thenReturn(1010L);
+        Long result = taskService.moveTask(1, 2, 3L, null);
+        assertThat(result).isEqualTo(1005L);
+        verify(rankRebalancer).rebalance(2);
+    }
+
+    @Test
+    void moveTaskNormalizesWhenFull() {
+        when(taskDao.findById(1L)).thenReturn(Optional.of(new Task()));
+        when(taskListDao.findLockedById(2L)).thenReturn(Optional.of(new TaskList()));
+        when(taskDao.findRankInList(2, 3)).thenReturn(Optional.of(1000L), Optional.of(2000L));
+        when(taskDao.findNextRank(2, 1000, 1)).thenReturn(1001L);
+        when(taskDao.findNextRank(2, 2000, 1)).thenReturn(3000L);
+        Long result = taskService.moveTask(1, 2, 3L, null);
+        assertThat(result).isEqualTo(2500L);
+        verify(rankRebalancer).normalizeRanks(2);
+    }
+
+    @Test
+    void moveTaskNeighbourNotInList() {
+        when(taskDao.findById(1L)).thenReturn(Optional.of(new Task()));
+        when(taskListDao.findLockedById(2L)).thenReturn(Optional.of(new TaskList()));
+        when(taskDao.findRankInList(2, 3)).thenReturn(Optional.empty());
+        Long result = taskService.moveTask(1, 2, 3L, null);
+        assertThat(result).isEqualTo(null);
+        verify(taskDao, never()).move(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void moveTaskNULL() {
+        when(taskDao.findById(1L)).thenReturn(Optional.empty());
+        Long result = taskService.moveTask(1, 2, null, null);
+        assertThat(result).isEqualTo(null);
+    }
+}
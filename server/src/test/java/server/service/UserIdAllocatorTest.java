@@ -0,0 +1,109 @@
+package server.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import server.database.BoardDao;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserIdAllocatorTest {
+
+    private final BoardDao boardDao = Mockito.mock(BoardDao.class);
+
+    @Test
+    void keysRoundTrip() {
+        assertThat(UserIdAllocator.index("A0A0A0")).isZero();
+        assertThat(UserIdAllocator.index("Z9Z9Z9")).isEqualTo(UserIdAllocator.KEY_SPACE - 1);
+        assertThat(UserIdAllocator.key(UserIdAllocator.index("K4P2X7"))).isEqualTo("K4P2X7");
+        assertThat(UserIdAllocator.index("a1b2c3")).isEqualTo(-1);
+        assertThat(UserIdAllocator.index("A1B2C")).isEqualTo(-1);
+        assertThat(UserIdAllocator.index(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void usedKeysAreLoadedOnce() {
+        when(boardDao.findUserIdsAfter(eq(""), any(Pageable.class)))
+            .thenReturn(List.of("A1B2C3", "B2C3D4"));
+        UserIdAllocator allocator = new UserIdAllocator(boardDao);
+        assertThat(allocator.getUsedCount()).isEqualTo(2);
+        allocator.allocate();
+        assertThat(allocator.getUsedCount()).isEqualTo(3);
+        verify(boardDao, never()).findUserIdsAfter(eq("B2C3D4"), any(Pageable.class));
+        verify(boardDao, never()).existsBoardByUserId(anyString());
+    }
+
+    @Test
+    void preloadFillsTheBitmapBeforeTheFirstAllocation() {
+        when(boardDao.findUserIdsAfter(eq(""), any(Pageable.class)))
+            .thenReturn(List.of("A1B2C3"));
+        UserIdAllocator allocator = new UserIdAllocator(boardDao);
+        allocator.preload();
+        verify(boardDao).findUserIdsAfter(eq(""), any(Pageable.class));
+        allocator.allocate();
+        verify(boardDao, Mockito.times(1)).findUserIdsAfter(eq(""), any(Pageable.class));
+        assertThat(allocator.getUsedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void releasedKeysAreFree() {
+        UserIdAllocator allocator = new UserIdAllocator(boardDao);
+        when(boardDao.findUserIdsAfter(eq(""), any(Pageable.class))).thenReturn(List.of());
+        String key = allocator.allocate();
+        allocator.release(key);
+        allocator.release("not a key");
+        assertThat(allocator.getUsedCount()).isZero();
+        allocator.markUsed(key);
+        allocator.markUsed(key);
+        assertThat(allocator.getUsedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentAllocationsAreUnique() throws InterruptedException {
+        when(boardDao.findUserIdsAfter(eq(""), any(Pageable.class))).thenReturn(List.of());
+        UserIdAllocator allocator = new UserIdAllocator(boardDao);
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for(int i = 0; i < 8; i++) {
+            pool.execute(() -> {
+                for(int j = 0; j < 10_000; j++) {
+                    keys.add(allocator.allocate());
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(keys).hasSize(80_000);
+        assertThat(allocator.getUsedCount()).isEqualTo(80_000);
+    }
+
+    @Test
+    void fullSpaceStillFindsTheLastKeys() {
+        when(boardDao.findUserIdsAfter(eq(""), any(Pageable.class))).thenReturn(List.of());
+        UserIdAllocator allocator = new UserIdAllocator(boardDao);
+        Set<String> keys = new HashSet<>();
+        for(int i = 0; i < UserIdAllocator.KEY_SPACE; i++) {
+            allocator.allocate();
+        }
+        String freed = UserIdAllocator.key(12345);
+        allocator.release(freed);
+        keys.add(allocator.allocate());
+        assertThat(keys).containsExactly(freed);
+        assertThatThrownBy(allocator::allocate).isInstanceOf(IllegalStateException.class);
+    }
+}
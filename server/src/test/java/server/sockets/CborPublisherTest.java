@@ -0,0 +1,83 @@
+package server.sockets;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cbor;DB_CLOSE_DELAY=-1")
+class CborPublisherTest {
+
+    @SpyBean
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    @Autowired
+    @Qualifier("simpleBrokerMessageHandler")
+    private AbstractBrokerMessageHandler broker;
+
+    @Autowired
+    private CborPublisher cborPublisher;
+
+    private static BoardChange change(long boardId) {
+        BoardChange change = new BoardChange(Entity.TASK, Operation.UPDATE, 5L, null,
+            Map.of("title", "New title"));
+        change.setBoardId(boardId);
+        change.setTaskId(5L);
+        change.setVersion(9);
+        return change;
+    }
+
+    @Test
+    void nothingIsEncodedWithoutSubscribers() {
+        cborPublisher.publish(change(30));
+        verify(simpMessagingTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    void subscribersGetCbor() throws Exception {
+        SimpMessageHeaderAccessor subscribe =
+            SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        subscribe.setSessionId("cbor-session");
+        subscribe.setSubscriptionId("0");
+        subscribe.setDestination(CborPublisher.topic(31));
+        ((SimpleBrokerMessageHandler) broker).getSubscriptionRegistry().registerSubscription(
+            MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+
+        cborPublisher.publish(change(31));
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(simpMessagingTemplate).send(eq("/update/cbor/board/31"), sent.capture());
+        Message<?> message = sent.getValue();
+        assertThat(SimpMessageHeaderAccessor.wrap(message).getContentType())
+            .isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        BoardChange decoded = new ObjectMapper(new CBORFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .readValue((byte[]) message.getPayload(), BoardChange.class);
+        assertThat(decoded).isEqualTo(change(31));
+    }
+}
@@ -0,0 +1,139 @@
+package server.sockets;
+
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ChangeCoalescerTest {
+    private final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+    private final CborPublisher cborPublisher = mock(CborPublisher.class);
+    private final RecentChanges recentChanges = new RecentChanges(10, 10);
+    private final ChangeCoalescer coalescer =
+        new ChangeCoalescer(template, cborPublisher, recentChanges, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        coalescer.close();
+    }
+
+    private static BoardChange update(long version, String field, String value) {
+        BoardChange change = new BoardChange(Entity.TASK, Operation.UPDATE, 5L, null,
+            Map.of(field, value));
+        change.setBoardId(1);
+        change.setTaskId(5L);
+        change.setVersion(version);
+        return change;
+    }
+
+    private static BoardChange move(long version, long listId, long rank) {
+        BoardChange change = BoardChange.move(5L, listId, rank);
+        change.setBoardId(1);
+        change.setTaskId(5L);
+        change.setVersion(version);
+        return change;
+    }
+
+    @Test
+    void burstIsSentAsOneMessage() {
+        coalescer.submit(update(2, "backGroundColor", "#000001"));
+        coalescer.submit(update(3, "backGroundColor", "#000002"));
+        coalescer.submit(update(4, "fontColor", "#ffffff"));
+        verify(template, never()).convertAndSend(anyString(), any(Object.class));
+        coalescer.flush(1);
+
+        BoardChange expected = update(4, "backGroundColor", "#000002");
+        expected.setFields(Map.of("backGroundColor", "#000002", "fontColor", "#ffffff"));
+        expected.setVersions(3);
+        verify(template).convertAndSend("/update/board/1", expected);
+        verify(cborPublisher).publish(expected);
+        assertThat(recentChanges.after(1, 1)).containsExactly(expected);
+        assertThat(coalescer.getStats().getReceived()).isEqualTo(3);
+        assertThat(coalescer.getStats().getSent()).isEqualTo(1);
+    }
+
+    @Test
+    void movesKeepTheLastPlace() {
+        coalescer.submit(move(2, 7, 100));
+        coalescer.submit(move(3, 7, 50));
+        coalescer.submit(move(4, 8, 10));
+        coalescer.flush(1);
+
+        BoardChange expected = move(4, 8, 10);
+        expected.setVersions(3);
+        verify(template).convertAndSend("/update/board/1", expected);
+    }
+
+    @Test
+    void otherChangesKeepTheirOrder() {
+        BoardChange first = update(2, "title", "A");
+        BoardChange second = move(3, 7, 100);
+        BoardChange third = update(4, "title", "B");
+        coalescer.submit(first);
+        coalescer.submit(second);
+        coalescer.submit(third);
+        coalescer.flush(1);
+
+        InOrder order = inOrder(template);
+        order.verify(template).convertAndSend("/update/board/1", update(2, "title", "A"));
+        order.verify(template).convertAndSend("/update/board/1", move(3, 7, 100));
+        order.verify(template).convertAndSend("/update/board/1", update(4, "title", "B"));
+        assertThat(coalescer.getStats().getSent()).isEqualTo(3);
+    }
+
+    @Test
+    void missedVersionIsNotMerged() {
+        coalescer.submit(update(2, "title", "A"));
+        coalescer.submit(update(4, "title", "B"));
+        coalescer.flush(1);
+
+        verify(template).convertAndSend("/update/board/1", update(2, "title", "A"));
+        verify(template).convertAndSend("/update/board/1", update(4, "title", "B"));
+    }
+
+    @Test
+    void removalDropsHeldChanges() {
+        coalescer.submit(update(2, "title", "A"));
+        coalescer.remove(1);
+        coalescer.flush(1);
+
+        verify(template, timeout(5000)).convertAndSend(ChangePublisher.REMOVED_TOPIC, 1L);
+        verify(template, never()).convertAndSend(eq("/update/board/1"), any(Object.class));
+        assertThat(coalescer.getStats().getSent()).isZero();
+    }
+
+    @Test
+    void windowCloses() {
+        ChangeCoalescer quick = new ChangeCoalescer(template, cborPublisher, recentChanges, 20);
+        try {
+            quick.submit(update(2, "title", "A"));
+            verify(template, timeout(5000))
+                .convertAndSend("/update/board/1", update(2, "title", "A"));
+        } finally {
+            quick.close();
+        }
+    }
+
+    @Test
+    void noWindowSendsAtOnce() {
+        ChangeCoalescer direct = new ChangeCoalescer(template, cborPublisher, recentChanges, 0);
+        direct.submit(update(2, "title", "A"));
+        verify(template).convertAndSend("/update/board/1", update(2, "title", "A"));
+        direct.close();
+    }
+}
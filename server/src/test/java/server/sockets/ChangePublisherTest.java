@@ -0,0 +1,106 @@
+package server.sockets;
+
+import commons.Board;
+import commons.BoardChange;
+import commons.BoardChange.Entity;
+import commons.BoardChange.Operation;
+import commons.TaskList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import server.database.BoardDao;
+import server.service.BoardChangedEvent;
+import server.service.TaskListService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:changes;DB_CLOSE_DELAY=-1",
+    "board.updates.window=0"})
+class ChangePublisherTest {
+
+    @SpyBean
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BoardDao boardDao;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private RecentChanges recentChanges;
+
+    @Test
+    void changeGoesToItsBoard() {
+        events.publishEvent(new BoardChangedEvent(7, 3L));
+        verify(simpMessagingTemplate).convertAndSend("/update/board/7", new BoardChange(7, 3L));
+    }
+
+    @Test
+    void changeIsPublishedAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            events.publishEvent(new BoardChangedEvent(8));
+            verify(simpMessagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        });
+        verify(simpMessagingTemplate).convertAndSend("/update/board/8", new BoardChange(8, null));
+    }
+
+    @Test
+    void rolledBackChangeIsNotPublished() {
+        transactionTemplate.executeWithoutResult(status -> {
+            events.publishEvent(new BoardChangedEvent(9, BoardChange.ALL_TASKS));
+            status.setRollbackOnly();
+        });
+        verify(simpMessagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void boardRemovalGoesToEveryone() {
+        events.publishEvent(new BoardChangedEvent(10, null,
+            new BoardChange(Entity.BOARD, Operation.REMOVE, 10L, null, Map.of())));
+        verify(simpMessagingTemplate).convertAndSend(ChangePublisher.REMOVED_TOPIC, 10L);
+        verify(simpMessagingTemplate, never())
+            .convertAndSend(eq(ChangePublisher.topic(10)), any(Object.class));
+    }
+
+    @Test
+    void patchIsPublishedAsDelta() {
+        TaskList taskList = new TaskList();
+        taskList.setTitle("List");
+        taskList.setTasks(new ArrayList<>());
+        Board board = new Board();
+        board.setTitle("Deltas");
+        board.setTaskLists(new ArrayList<>(List.of(taskList)));
+        board = boardDao.save(board);
+        long listId = board.getTaskLists().get(0).getId();
+
+        taskListService.patchTaskList(listId, Map.of("title", "Renamed"));
+
+        BoardChange expected = new BoardChange(Entity.TASK_LIST, Operation.UPDATE, listId, null,
+            Map.of("title", "Renamed"));
+        expected.setBoardId(board.getId());
+        expected.setVersion(boardDao.findVersionById(board.getId()).orElseThrow());
+        assertThat(expected.getVersion()).isEqualTo(board.getVersion() + 1);
+        verify(simpMessagingTemplate).convertAndSend(ChangePublisher.topic(board.getId()), expected);
+        assertThat(recentChanges.after(board.getId(), board.getVersion())).containsExactly(expected);
+    }
+}
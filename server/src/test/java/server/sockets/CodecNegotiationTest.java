@@ -0,0 +1,51 @@
+package server.sockets;
+
+import commons.BoardChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CodecNegotiationTest {
+    private final CodecNegotiation negotiation = new CodecNegotiation();
+
+    private static Message<byte[]> frame(StompCommand command, String destination,
+                                         String accept) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        if(accept != null) {
+            accessor.setNativeHeader(CodecNegotiation.ACCEPT, accept);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private String destinationAfter(Message<byte[]> frame) {
+        return StompHeaderAccessor.wrap(negotiation.preSend(frame, null)).getDestination();
+    }
+
+    @Test
+    void cborSubscriptionMovesToCborTopic() {
+        assertThat(destinationAfter(frame(StompCommand.SUBSCRIBE, "/update/board/12",
+            BoardChange.CBOR + ", application/json"))).isEqualTo("/update/cbor/board/12");
+    }
+
+    @Test
+    void jsonSubscriptionStays() {
+        assertThat(destinationAfter(frame(StompCommand.SUBSCRIBE, "/update/board/12", null)))
+            .isEqualTo("/update/board/12");
+        assertThat(destinationAfter(frame(StompCommand.SUBSCRIBE, "/update/board/12",
+            "application/json"))).isEqualTo("/update/board/12");
+    }
+
+    @Test
+    void otherFramesStay() {
+        assertThat(destinationAfter(frame(StompCommand.SEND, "/update/board/12",
+            BoardChange.CBOR))).isEqualTo("/update/board/12");
+        assertThat(destinationAfter(frame(StompCommand.SUBSCRIBE, "/update/board/all",
+            BoardChange.CBOR))).isEqualTo("/update/board/all");
+    }
+}
@@ -0,0 +1,58 @@
+package server.sockets;
+
+import commons.BoardChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentChangesTest {
+
+    private static BoardChange change(long boardId, long version, int versions) {
+        BoardChange change = BoardChange.move(5L, 7L, version);
+        change.setBoardId(boardId);
+        change.setVersion(version);
+        change.setVersions(versions);
+        return change;
+    }
+
+    @Test
+    void missedChangesInOrder() {
+        RecentChanges recent = new RecentChanges(10, 10);
+        recent.record(change(1, 2, 1));
+        recent.record(change(1, 5, 3));
+        recent.record(change(1, 6, 1));
+        assertThat(recent.after(1, 2)).containsExactly(change(1, 5, 3), change(1, 6, 1));
+        assertThat(recent.after(1, 6)).isEmpty();
+        assertThat(recent.after(2, 0)).isNull();
+    }
+
+    @Test
+    void outOfOrderChangesAreSorted() {
+        RecentChanges recent = new RecentChanges(10, 10);
+        recent.record(change(1, 3, 1));
+        recent.record(change(1, 2, 1));
+        assertThat(recent.after(1, 1)).containsExactly(change(1, 2, 1), change(1, 3, 1));
+    }
+
+    @Test
+    void droppedChangesAreAnOverrun() {
+        RecentChanges recent = new RecentChanges(2, 10);
+        recent.record(change(1, 2, 1));
+        recent.record(change(1, 3, 1));
+        recent.record(change(1, 4, 1));
+        assertThat(recent.after(1, 1)).isNull();
+        assertThat(recent.after(1, 2)).isEqualTo(List.of(change(1, 3, 1), change(1, 4, 1)));
+    }
+
+    @Test
+    void leastRecentBoardIsDropped() {
+        RecentChanges recent = new RecentChanges(10, 2);
+        recent.record(change(1, 2, 1));
+        recent.record(change(2, 2, 1));
+        recent.record(change(3, 2, 1));
+        assertThat(recent.after(1, 1)).isNull();
+        assertThat(recent.after(3, 1)).containsExactly(change(3, 2, 1));
+    }
+}
@@ -0,0 +1,56 @@
+package server.sockets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.datasource.url=jdbc:h2:mem:deflate;DB_CLOSE_DELAY=-1")
+class WebSocketCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    private WebSocketSession connect(List<WebSocketExtension> extensions) throws Exception {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setSecWebSocketExtensions(extensions);
+        return new StandardWebSocketClient()
+            .doHandshake(new AbstractWebSocketHandler() {
+            }, headers, URI.create("ws://localhost:" + port + "/ws"))
+            .get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void deflateIsNegotiated() throws Exception {
+        WebSocketSession session =
+            connect(List.of(new WebSocketExtension("permessage-deflate")));
+        try {
+            assertThat(session.getExtensions())
+                .extracting(WebSocketExtension::getName)
+                .contains("permessage-deflate");
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    void plainUnlessAsked() throws Exception {
+        WebSocketSession session = connect(List.of());
+        try {
+            assertThat(session.getExtensions()).isEmpty();
+        } finally {
+            session.close();
+        }
+    }
+}